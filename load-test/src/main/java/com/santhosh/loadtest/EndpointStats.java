@@ -0,0 +1,58 @@
+package com.santhosh.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency and outcome counters of one operation; latencies are measured from the intended send time
+// so a stalled server can't hide its queueing delay (coordinated omission).
+public class EndpointStats {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Operation operation;
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_NANOS, 3);
+    private final Histogram total = new Histogram(MAX_TRACKABLE_NANOS, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    public void recordSuccess(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        successes.increment();
+    }
+
+    public void recordError(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        errors.increment();
+    }
+
+    public Summary summarize(double elapsedSeconds) {
+        total.add(recorder.getIntervalHistogram());
+        long ok = successes.sum();
+        long failed = errors.sum();
+        long count = ok + failed;
+        return new Summary(operation.name(),
+                count,
+                ok / elapsedSeconds,
+                count == 0 ? 0 : failed / (double) count,
+                millis(total.getValueAtPercentile(50)),
+                millis(total.getValueAtPercentile(90)),
+                millis(total.getValueAtPercentile(99)),
+                millis(total.getValueAtPercentile(99.9)),
+                millis(total.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public record Summary(String operation, long requests, double throughput, double errorRate,
+                          double p50Millis, double p90Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.santhosh.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Ids of employees known to exist, so get/update/delete mostly hit live rows.
+public class IdPool {
+
+    private final List<Long> ids = new ArrayList<>();
+
+    public synchronized void add(long id) {
+        ids.add(id);
+    }
+
+    public synchronized long random() {
+        if (ids.isEmpty()) {
+            return -1;
+        }
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    public synchronized long removeRandom() {
+        if (ids.isEmpty()) {
+            return -1;
+        }
+        int index = ThreadLocalRandom.current().nextInt(ids.size());
+        long id = ids.get(index);
+        ids.set(index, ids.get(ids.size() - 1));
+        ids.remove(ids.size() - 1);
+        return id;
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,216 @@
+package com.santhosh.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load generator: requests are sent at the configured arrival rate whether or not earlier
+// requests have completed, so server slowdowns show up as latency instead of as a lower offered load.
+//
+// Boot the app with `--spring.profiles.active=local` (H2, no MySQL needed), then run
+//   mvn compile exec:java -Dexec.args="--rate 500 --duration 60s --seed 10000 --write-baseline baseline.json"
+// Connection reuse: compare --connection close (a new connection per request) with the default keep-alive, and
+// --http-version 2 (h2c, every request a stream on one connection) against a server on the production-server profile.
+// Options: --base-url, --http-version 1.1|2, --connection keep-alive|close, --seed, --seed-concurrency, --rate, --arrivals poisson|constant, --warmup, --duration,
+//          --max-outstanding, --mix get=70,list=2,create=10,update=13,delete=5, --baseline, --write-baseline, --tolerance
+public class LoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final IdPool ids = new IdPool();
+    private final AtomicLong emailSequence = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final Semaphore outstanding;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Map<Operation, EndpointStats> stats = newStats();
+
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        if (!options.keepAlive) {
+            if (options.httpVersion != HttpClient.Version.HTTP_1_1) {
+                throw new IllegalArgumentException("--connection close needs --http-version 1.1");
+            }
+            // Connection is a restricted header, read once when the client classes load
+            System.setProperty("jdk.httpclient.allowRestrictedHeaders", "connection");
+        }
+        this.client = HttpClient.newBuilder()
+                .version(options.httpVersion)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.outstanding = new Semaphore(options.maxOutstanding);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LoadTest loadTest = new LoadTest(options);
+
+        loadTest.seed();
+        Report report = loadTest.run();
+        report.print();
+
+        if (options.writeBaseline != null) {
+            report.write(options.writeBaseline);
+            System.out.println("baseline written to " + options.writeBaseline);
+        }
+        if (options.baseline != null) {
+            List<String> regressions = report.compareTo(Report.read(options.baseline), options.tolerance);
+            regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+            if (!regressions.isEmpty()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    void seed() {
+        System.out.printf("seeding %d employees%n", options.seed);
+        Semaphore permits = new Semaphore(options.seedConcurrency);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[options.seed];
+        for (int i = 0; i < options.seed; i++) {
+            permits.acquireUninterruptibly();
+            futures[i] = client.sendAsync(createRequest(), HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(response -> {
+                        if (response.statusCode() == 201) {
+                            ids.add(readId(response.body()));
+                        }
+                    })
+                    .whenComplete((ignored, error) -> permits.release());
+        }
+        CompletableFuture.allOf(futures).exceptionally(error -> null).join();
+        System.out.printf("seeded %d employees%n", ids.size());
+    }
+
+    Report run() {
+        if (!options.warmup.isZero()) {
+            System.out.printf("warming up for %s at %.0f req/s%n", options.warmup, options.ratePerSecond);
+            drive(options.warmup);
+            stats = newStats();
+        }
+        System.out.printf("measuring for %s at %.0f req/s over HTTP/%s, connection %s%n", options.duration,
+                options.ratePerSecond, options.httpVersion == HttpClient.Version.HTTP_2 ? "2" : "1.1",
+                options.keepAlive ? "keep-alive" : "close");
+        long start = System.nanoTime();
+        drive(options.duration);
+        // wait for the requests still in flight
+        outstanding.acquireUninterruptibly(options.maxOutstanding);
+        outstanding.release(options.maxOutstanding);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Report report = new Report();
+        stats.values().stream()
+                .map(endpoint -> endpoint.summarize(elapsedSeconds))
+                .filter(summary -> summary.requests() > 0)
+                .forEach(report::add);
+        if (dropped.get() > 0) {
+            System.out.printf("%d arrivals dropped because %d requests were already outstanding%n",
+                    dropped.get(), options.maxOutstanding);
+        }
+        return report;
+    }
+
+    private void drive(Duration duration) {
+        double meanIntervalNanos = 1e9 / options.ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double nextArrival = start;
+        while (nextArrival < end) {
+            long intendedStart = (long) nextArrival;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (outstanding.tryAcquire()) {
+                send(options.mix.next(), intendedStart);
+            } else {
+                dropped.incrementAndGet();
+            }
+            nextArrival += options.poisson
+                    ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos
+                    : meanIntervalNanos;
+        }
+    }
+
+    private void send(Operation operation, long intendedStart) {
+        EndpointStats endpoint = stats.get(operation);
+        HttpRequest request = request(operation);
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    outstanding.release();
+                    if (error != null || response.statusCode() >= 400) {
+                        endpoint.recordError(latency);
+                        return;
+                    }
+                    endpoint.recordSuccess(latency);
+                    if (operation == Operation.CREATE) {
+                        ids.add(readId(response.body()));
+                    }
+                });
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case CREATE -> createRequest();
+            case GET -> newRequest(employeeUri(ids.random())).GET().build();
+            case LIST -> newRequest(options.baseUrl.resolve("/api/employees")).GET().build();
+            case UPDATE -> newRequest(employeeUri(ids.random()))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(employeeJson()))
+                    .build();
+            case DELETE -> newRequest(employeeUri(ids.removeRandom())).DELETE().build();
+        };
+    }
+
+    private HttpRequest createRequest() {
+        return newRequest(options.baseUrl.resolve("/api/employees"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(employeeJson()))
+                .build();
+    }
+
+    private HttpRequest.Builder newRequest(URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri);
+        return options.keepAlive ? builder : builder.header("Connection", "close");
+    }
+
+    private URI employeeUri(long id) {
+        return options.baseUrl.resolve("/api/employees/" + id);
+    }
+
+    private String employeeJson() {
+        long sequence = emailSequence.incrementAndGet();
+        return "{\"firstName\":\"Load" + sequence + "\",\"lastName\":\"Test\",\"email\":\"load-"
+                + runId + "-" + sequence + "@example.com\"}";
+    }
+
+    private static long readId(String body) {
+        try {
+            JsonNode node = MAPPER.readTree(body);
+            return node.get("id").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException("unexpected create response " + body, e);
+        }
+    }
+
+    private static Map<Operation, EndpointStats> newStats() {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,79 @@
+package com.santhosh.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class LoadTestOptions {
+
+    URI baseUrl = URI.create("http://localhost:8080");
+    HttpClient.Version httpVersion = HttpClient.Version.HTTP_1_1;
+    boolean keepAlive = true;
+    int seed = 1_000;
+    int seedConcurrency = 16;
+    double ratePerSecond = 100;
+    boolean poisson = true;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    int maxOutstanding = 10_000;
+    TrafficMix mix = TrafficMix.parse("get=70,list=2,create=10,update=13,delete=5");
+    Path baseline;
+    Path writeBaseline;
+    double tolerance = 0.10;
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("missing value for " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--base-url" -> options.baseUrl = URI.create(value);
+                case "--http-version" -> options.httpVersion = switch (value) {
+                    case "1.1" -> HttpClient.Version.HTTP_1_1;
+                    case "2" -> HttpClient.Version.HTTP_2;
+                    default -> throw new IllegalArgumentException("--http-version must be 1.1 or 2");
+                };
+                case "--connection" -> options.keepAlive = switch (value) {
+                    case "keep-alive" -> true;
+                    case "close" -> false;
+                    default -> throw new IllegalArgumentException("--connection must be keep-alive or close");
+                };
+                case "--seed" -> options.seed = Integer.parseInt(value);
+                case "--seed-concurrency" -> options.seedConcurrency = Integer.parseInt(value);
+                case "--rate" -> options.ratePerSecond = Double.parseDouble(value);
+                case "--arrivals" -> options.poisson = switch (value) {
+                    case "poisson" -> true;
+                    case "constant" -> false;
+                    default -> throw new IllegalArgumentException("--arrivals must be poisson or constant");
+                };
+                case "--warmup" -> options.warmup = duration(value);
+                case "--duration" -> options.duration = duration(value);
+                case "--max-outstanding" -> options.maxOutstanding = Integer.parseInt(value);
+                case "--mix" -> options.mix = TrafficMix.parse(value);
+                case "--baseline" -> options.baseline = Path.of(value);
+                case "--write-baseline" -> options.writeBaseline = Path.of(value);
+                case "--tolerance" -> options.tolerance = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("unknown option " + name);
+            }
+        }
+        return options;
+    }
+
+    // accepts 90s, 5m or an ISO-8601 duration
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
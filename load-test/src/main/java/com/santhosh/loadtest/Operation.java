@@ -0,0 +1,19 @@
+package com.santhosh.loadtest;
+
+public enum Operation {
+    CREATE("POST /api/employees"),
+    GET("GET /api/employees/{id}"),
+    LIST("GET /api/employees"),
+    UPDATE("PUT /api/employees/{id}"),
+    DELETE("DELETE /api/employees/{id}");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,73 @@
+package com.santhosh.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Report {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, EndpointStats.Summary> endpoints = new LinkedHashMap<>();
+
+    public Report() {
+    }
+
+    public void add(EndpointStats.Summary summary) {
+        endpoints.put(summary.operation(), summary);
+    }
+
+    public Map<String, EndpointStats.Summary> getEndpoints() {
+        return endpoints;
+    }
+
+    public void print() {
+        System.out.printf("%-8s %10s %10s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats.Summary s : endpoints.values()) {
+            System.out.printf("%-8s %10d %10.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.operation(), s.requests(), s.throughput(), s.errorRate() * 100,
+                    s.p50Millis(), s.p90Millis(), s.p99Millis(), s.p999Millis(), s.maxMillis());
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        MAPPER.writeValue(file.toFile(), this);
+    }
+
+    public static Report read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), Report.class);
+    }
+
+    // regressions are throughput drops, p99 increases or error rate increases beyond the tolerance, a fraction of the
+    // baseline value for all three (0.10 allows 10% fewer req/s, a 10% higher p99 or a 10% higher error rate)
+    public List<String> compareTo(Report baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        baseline.endpoints.forEach((operation, expected) -> {
+            EndpointStats.Summary actual = endpoints.get(operation);
+            if (actual == null) {
+                regressions.add(operation + ": no requests in this run");
+                return;
+            }
+            if (actual.throughput() < expected.throughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s: throughput %.1f req/s, baseline %.1f req/s",
+                        operation, actual.throughput(), expected.throughput()));
+            }
+            if (actual.p99Millis() > expected.p99Millis() * (1 + tolerance)) {
+                regressions.add(String.format("%s: p99 %.2f ms, baseline %.2f ms",
+                        operation, actual.p99Millis(), expected.p99Millis()));
+            }
+            if (actual.errorRate() > expected.errorRate() * (1 + tolerance)) {
+                regressions.add(String.format("%s: error rate %.2f%%, baseline %.2f%%",
+                        operation, actual.errorRate() * 100, expected.errorRate() * 100));
+            }
+        });
+        return regressions;
+    }
+}
@@ -0,0 +1,66 @@
+package com.santhosh.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Weighted choice of the next operation, parsed from "get=70,list=5,create=10,update=10,delete=5".
+public class TrafficMix {
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private TrafficMix(Map<Operation, Integer> weights) {
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("traffic mix needs at least one positive weight");
+        }
+        this.totalWeight = total;
+    }
+
+    public static TrafficMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("expected operation=weight but got '" + part + "'");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("negative weight for " + pair[0]);
+            }
+            if (weight > 0) {
+                weights.merge(Operation.valueOf(pair[0].trim().toUpperCase()), weight, Integer::sum);
+            }
+        }
+        return new TrafficMix(weights);
+    }
+
+    public Operation next() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public double share(Operation operation) {
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (operations[i] == operation) {
+                return (cumulativeWeights[i] - previous) / (double) totalWeight;
+            }
+            previous = cumulativeWeights[i];
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,53 @@
+package com.santhosh.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReportTests {
+
+    @DisplayName("Junit test for detecting a p99 regression against the baseline")
+    @Test
+    public void givenSlowerRun_whenCompareToBaseline_thenReportRegression(@TempDir Path dir) throws Exception {
+        //given - precondition or setup
+        Report baseline = new Report();
+        baseline.add(new EndpointStats.Summary("GET", 1000, 100, 0, 1, 2, 5, 8, 10));
+        baseline.write(dir.resolve("baseline.json"));
+        Report run = new Report();
+        run.add(new EndpointStats.Summary("GET", 1000, 100, 0, 1, 2, 9, 12, 15));
+
+        //when - action or behaviour that we are going to perform
+        List<String> regressions = run.compareTo(Report.read(dir.resolve("baseline.json")), 0.1);
+
+        //then - verify the output
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).startsWith("GET: p99"));
+    }
+
+    @DisplayName("Junit test for applying the tolerance to the error rate as a fraction of the baseline")
+    @Test
+    public void givenHigherErrorRate_whenCompareToBaseline_thenUseSameToleranceAsThroughputAndP99() {
+        //given - precondition or setup
+        Report baseline = new Report();
+        baseline.add(new EndpointStats.Summary("GET", 1000, 100, 0.10, 1, 2, 5, 8, 10));
+        Report withinTolerance = new Report();
+        withinTolerance.add(new EndpointStats.Summary("GET", 1000, 91, 0.105, 1, 2, 5.4, 8, 10));
+        Report beyondTolerance = new Report();
+        beyondTolerance.add(new EndpointStats.Summary("GET", 1000, 100, 0.12, 1, 2, 5, 8, 10));
+
+        //when - action or behaviour that we are going to perform
+        List<String> within = withinTolerance.compareTo(baseline, 0.1);
+        List<String> beyond = beyondTolerance.compareTo(baseline, 0.1);
+
+        //then - verify the output
+        assertEquals(List.of(), within);
+        assertEquals(1, beyond.size());
+        assertTrue(beyond.get(0).startsWith("GET: error rate"));
+    }
+}
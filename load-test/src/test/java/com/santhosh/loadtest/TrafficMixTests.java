@@ -0,0 +1,28 @@
+package com.santhosh.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TrafficMixTests {
+
+    @DisplayName("Junit test for parsing the traffic mix weights")
+    @Test
+    public void givenMixSpec_whenParse_thenSharesFollowWeights() {
+        //when - action or behaviour that we are going to perform
+        TrafficMix mix = TrafficMix.parse("get=60, list=10,create=20,update=10,delete=0");
+
+        //then - verify the output
+        assertEquals(0.6, mix.share(Operation.GET), 1e-9);
+        assertEquals(0.1, mix.share(Operation.LIST), 1e-9);
+        assertEquals(0.0, mix.share(Operation.DELETE), 1e-9);
+    }
+
+    @DisplayName("Junit test for rejecting an unknown operation in the traffic mix")
+    @Test
+    public void givenUnknownOperation_whenParse_thenThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> TrafficMix.parse("get=1,export=1"));
+    }
+}
@@ -2,12 +2,17 @@ package com.santhosh.springboottesting;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class SpringBootTestingApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SpringBootTestingApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(SpringBootTestingApplication.class, args);
+		// the class-data-sharing training run only needs the classes loaded during startup
+		if (Boolean.getBoolean("app.cds.training")) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,47 @@
+package com.santhosh.springboottesting.audit;
+
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfig {
+
+    // the history endpoint keeps answering with recording switched off
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class WriterConfig {
+
+        @Bean
+        public EmployeeAuditWriter employeeAuditWriter(JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+                                                       AuditProperties properties) {
+            return new EmployeeAuditWriter(jdbcTemplate, shardRouter, properties);
+        }
+
+        @Bean
+        public MeterBinder employeeAuditMetrics(EmployeeAuditWriter writer) {
+            return registry -> {
+                Gauge.builder("employee.audit.queue", writer, EmployeeAuditWriter::getQueued)
+                        .description("Committed employee changes waiting to be written to employee_audit")
+                        .register(registry);
+                FunctionCounter.builder("employee.audit.written", writer, EmployeeAuditWriter::getWritten)
+                        .register(registry);
+                FunctionCounter.builder("employee.audit.batches", writer, EmployeeAuditWriter::getBatches)
+                        .register(registry);
+                FunctionCounter.builder("employee.audit.failed", writer, EmployeeAuditWriter::getFailed)
+                        .description("Audit entries given up on after repeated write failures")
+                        .register(registry);
+                FunctionCounter.builder("employee.audit.throttled", writer, EmployeeAuditWriter::getThrottled)
+                        .description("Writes that waited for room in the full audit queue")
+                        .register(registry);
+            };
+        }
+    }
+}
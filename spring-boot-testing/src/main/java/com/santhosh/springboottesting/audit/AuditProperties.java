@@ -0,0 +1,40 @@
+package com.santhosh.springboottesting.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+    // records every committed change of an employee in employee_audit
+    private boolean enabled = true;
+
+    private Durability durability = Durability.ASYNC;
+
+    // changes waiting to be written; a committing thread that finds the queue full waits for room
+    private int queueCapacity = 100_000;
+
+    // rows per JDBC batch
+    private int batchSize = 500;
+
+    // how long the idle writer sleeps before looking at the queue again
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    // SYNC only: longest wait for the write, the request then completes without it
+    private Duration syncTimeout = Duration.ofSeconds(5);
+
+    // largest page GET /api/employees/{id}/history returns
+    private int maxPageSize = 100;
+
+    public enum Durability {
+        // the committing thread only queues the change; changes still queued are lost if the process dies
+        ASYNC,
+        // the committing thread waits until the batch holding its change is written; concurrent writes share batches
+        SYNC
+    }
+}
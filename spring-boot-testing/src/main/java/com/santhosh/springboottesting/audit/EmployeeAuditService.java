@@ -0,0 +1,54 @@
+package com.santhosh.springboottesting.audit;
+
+import com.santhosh.springboottesting.model.EmployeeAudit;
+import com.santhosh.springboottesting.repository.EmployeeAuditRepository;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class EmployeeAuditService {
+
+    private EmployeeAuditRepository employeeAuditRepository;
+    private ShardRouter shardRouter;
+    private AuditProperties properties;
+
+    public EmployeeAuditService(EmployeeAuditRepository employeeAuditRepository, ShardRouter shardRouter,
+                                AuditProperties properties) {
+        this.employeeAuditRepository = employeeAuditRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+    }
+
+    // also answers for deleted employees, their history stays
+    public EmployeeHistory getHistory(Long employeeId, int page, int size) {
+        if (page < 0 || size < 1 || size > properties.getMaxPageSize()) {
+            throw new IllegalArgumentException("page must not be negative and size must be between 1 and "
+                    + properties.getMaxPageSize());
+        }
+        if (!shardRouter.isSharded()) {
+            Slice<EmployeeAudit> slice = employeeAuditRepository.findByEmployeeIdOrderByIdDesc(employeeId,
+                    PageRequest.of(page, size));
+            return new EmployeeHistory(employeeId, page, size, slice.hasNext(), slice.getContent());
+        }
+        // an employee moved by an email change has history on more than one shard, so every shard returns
+        // everything up to the end of the page and the pieces are merged by their time-ordered ids
+        long end = (long) (page + 1) * size;
+        if (end >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("page is too large");
+        }
+        List<Slice<EmployeeAudit>> slices = shardRouter.scatterGather(shard -> List.of(
+                employeeAuditRepository.findByEmployeeIdOrderByIdDesc(employeeId, PageRequest.of(0, (int) end))));
+        List<EmployeeAudit> merged = slices.stream()
+                .flatMap(slice -> slice.getContent().stream())
+                .sorted(Comparator.comparing(EmployeeAudit::getId).reversed())
+                .toList();
+        boolean hasNext = merged.size() > end || slices.stream().anyMatch(Slice::hasNext);
+        int from = (int) Math.min((long) page * size, merged.size());
+        return new EmployeeHistory(employeeId, page, size, hasNext, merged.subList(from, (int) Math.min(end, merged.size())));
+    }
+}
@@ -0,0 +1,258 @@
+package com.santhosh.springboottesting.audit;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.santhosh.springboottesting.events.EmployeeChangedEvent;
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+// Writes the change history of employees to employee_audit off the request path. Committed changes are put on
+// a lock-free queue and a single background thread inserts whatever has piled up in JDBC batches, one batch per
+// shard the changes were made on. The diff is worked out on that thread too, a write only pays for the enqueue.
+// Under load every insert carries the changes that arrived during the previous one, so batches grow with the rate.
+public class EmployeeAuditWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeAuditWriter.class);
+
+    static final String INSERT_SQL = "insert into employee_audit (id, tenant_id, employee_id, type, changed_at, changes)"
+            + " values (?, ?, ?, ?, ?, ?)";
+    private static final TimeZone UTC = TimeZone.getTimeZone(ZoneOffset.UTC);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private JdbcTemplate jdbcTemplate;
+    private ShardRouter shardRouter;
+    private AuditProperties properties;
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    private final ConcurrentLinkedQueue<PendingChange> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    public EmployeeAuditWriter(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, AuditProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+    }
+
+    // runs on the committing thread
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        boolean sync = properties.getDurability() == AuditProperties.Durability.SYNC;
+        PendingChange change = new PendingChange(event, Instant.now(), sync ? new CompletableFuture<>() : null);
+        if (queued.get() >= properties.getQueueCapacity()) {
+            throttled.incrementAndGet();
+            while (running && queued.get() >= properties.getQueueCapacity()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        queued.incrementAndGet();
+        queue.offer(change);
+        if (sync) {
+            LockSupport.unpark(worker);
+            awaitWritten(change);
+        }
+    }
+
+    private void awaitWritten(PendingChange change) {
+        try {
+            change.written().get(properties.getSyncTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // the employee change is committed already, failing the request would not undo it
+            log.error("Audit entry for employee {} not written within {}", change.event().id(),
+                    properties.getSyncTimeout(), e);
+        }
+    }
+
+    private void run() {
+        List<PendingChange> batch = new ArrayList<>(properties.getBatchSize());
+        long idleNanos = properties.getFlushInterval().toNanos();
+        // after stop, whatever is still queued is written before the thread ends
+        while (running || !queue.isEmpty()) {
+            PendingChange change;
+            while (batch.size() < properties.getBatchSize() && (change = queue.poll()) != null) {
+                batch.add(change);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            queued.addAndGet(-batch.size());
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    void write(List<PendingChange> changes) {
+        Map<Integer, List<PendingChange>> byShard = changes.stream()
+                .collect(Collectors.groupingBy(change -> change.event().shard()));
+        byShard.forEach((shard, shardChanges) -> {
+            RuntimeException failure = insert(shard, shardChanges);
+            for (PendingChange change : shardChanges) {
+                if (change.written() != null) {
+                    if (failure == null) {
+                        change.written().complete(null);
+                    } else {
+                        change.written().completeExceptionally(failure);
+                    }
+                }
+            }
+        });
+    }
+
+    private RuntimeException insert(int shard, List<PendingChange> changes) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // ids are taken on the target shard, they carry it like employee ids do
+                shardRouter.onShard(shard, () -> jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(),
+                        (statement, change) -> {
+                            EmployeeChangedEvent event = change.event();
+                            statement.setLong(1, EmployeeIdGenerator.nextId());
+                            statement.setString(2, event.tenantId());
+                            statement.setLong(3, event.id());
+                            statement.setString(4, event.type().name());
+                            // the instant in UTC, the way Hibernate binds Instant columns
+                            statement.setTimestamp(5, Timestamp.from(change.changedAt()), Calendar.getInstance(UTC));
+                            statement.setString(6, changes(event));
+                        }));
+                written.addAndGet(changes.size());
+                batches.incrementAndGet();
+                return null;
+            } catch (DataAccessException e) {
+                if (attempt == MAX_ATTEMPTS || !running) {
+                    failed.addAndGet(changes.size());
+                    log.error("Could not write {} audit entries to shard {}, they are lost", changes.size(), shard, e);
+                    return e;
+                }
+                log.warn("Writing {} audit entries to shard {} failed, retrying", changes.size(), shard, e);
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(attempt));
+            }
+        }
+    }
+
+    // {"field":{"from":old,"to":new}} for every field that differs; an insert has null for from, a delete for to.
+    // An update Hibernate had no previous state for only records to
+    static String changes(EmployeeChangedEvent event) {
+        EmployeeSnapshot before = event.before();
+        EmployeeSnapshot after = event.after();
+        boolean knownBefore = before != null || event.type() == EmployeeChangedEvent.Type.CREATED;
+        StringBuilder json = new StringBuilder(128).append('{');
+        field(json, "firstName", knownBefore, before == null ? null : before.firstName(), after == null ? null : after.firstName());
+        field(json, "lastName", knownBefore, before == null ? null : before.lastName(), after == null ? null : after.lastName());
+        field(json, "email", knownBefore, before == null ? null : before.email(), after == null ? null : after.email());
+        return json.append('}').toString();
+    }
+
+    private static void field(StringBuilder json, String name, boolean knownBefore, String from, String to) {
+        if (knownBefore && Objects.equals(from, to)) {
+            return;
+        }
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        json.append('"').append(name).append("\":{");
+        if (knownBefore) {
+            json.append("\"from\":");
+            value(json, from);
+            json.append(',');
+        }
+        json.append("\"to\":");
+        value(json, to);
+        json.append('}');
+    }
+
+    private static void value(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+        } else {
+            json.append('"').append(JsonStringEncoder.getInstance().quoteAsString(value)).append('"');
+        }
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    // committing threads that had to wait for room in the queue
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "employee-audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} audit entries were not written before shutdown", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // before the web server, so it stops only after the last request has committed
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    record PendingChange(EmployeeChangedEvent event, Instant changedAt, CompletableFuture<Void> written) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.santhosh.springboottesting.audit;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.santhosh.springboottesting.model.EmployeeAudit;
+
+import java.util.List;
+
+// one page of an employee's change history, newest entry first
+public record EmployeeHistory(@JsonFormat(shape = JsonFormat.Shape.STRING) Long employeeId, int page, int size, boolean hasNext, List<EmployeeAudit> entries) {
+}
@@ -0,0 +1,39 @@
+package com.santhosh.springboottesting.backfill;
+
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(BackfillProperties.class)
+public class BackfillConfig {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.backfill.email-hash", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class EmailHashConfig {
+
+        @Bean
+        public EmailHashBackfill emailHashBackfill(JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+                                                   EntityManagerFactory entityManagerFactory, BackfillProperties properties) {
+            return new EmailHashBackfill(jdbcTemplate, shardRouter, entityManagerFactory, properties);
+        }
+
+        @Bean
+        public MeterBinder emailHashBackfillMetrics(EmailHashBackfill backfill) {
+            return registry -> {
+                FunctionCounter.builder("employee.email.backfill.rows", backfill, EmailHashBackfill::getHashedRows)
+                        .description("Employee rows given an email hash by the backfill")
+                        .register(registry);
+                FunctionCounter.builder("employee.email.backfill.conflicts", backfill, EmailHashBackfill::getConflicts)
+                        .description("Employee rows left without an email hash because another row has the same email up to case")
+                        .register(registry);
+            };
+        }
+    }
+}
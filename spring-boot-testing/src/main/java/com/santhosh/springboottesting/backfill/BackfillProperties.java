@@ -0,0 +1,25 @@
+package com.santhosh.springboottesting.backfill;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.backfill")
+public class BackfillProperties {
+
+    private EmailHash emailHash = new EmailHash();
+
+    @Getter
+    @Setter
+    public static class EmailHash {
+        // fills in email_hash of rows written before the column existed, once after startup
+        private boolean enabled = true;
+        // rows updated per JDBC batch and the pause after each one, together they cap the write rate
+        private int batchSize = 1000;
+        private Duration batchPause = Duration.ofMillis(50);
+    }
+}
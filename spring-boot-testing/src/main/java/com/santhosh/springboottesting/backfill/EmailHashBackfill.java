@@ -0,0 +1,195 @@
+package com.santhosh.springboottesting.backfill;
+
+import com.santhosh.springboottesting.cache.CacheRegions;
+import com.santhosh.springboottesting.model.EmployeeEmail;
+import com.santhosh.springboottesting.sharding.ShardContext;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fills in email_hash of rows written before the column existed (or by anything but this application), which
+// email lookups and the duplicate check cannot find until then. One run after startup on a background thread
+// works through every shard in id order: batch-size rows are read, hashed and updated in one JDBC batch, then
+// it pauses. Rows whose email only differs in case from another row's of the same tenant cannot get a hash
+// under the unique index; they are logged and counted as conflicts and left to be resolved by hand.
+// A shard whose pass got to the end is marked with a row in backfill_markers and never scanned again, so later
+// starts cost one probe per shard. Until every shard is marked, email lookups also match unhashed rows by the
+// whole address (EmployeeRepository.findByEmail).
+public class EmailHashBackfill implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailHashBackfill.class);
+
+    static final String MARKER = "employee-email-hash";
+
+    private JdbcTemplate jdbcTemplate;
+    private ShardRouter shardRouter;
+    private SessionFactory sessionFactory;
+    private BackfillProperties.EmailHash properties;
+    private ExecutorService executor;
+    private volatile boolean running;
+    private volatile boolean complete;
+
+    private final AtomicLong hashedRows = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    public EmailHashBackfill(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, EntityManagerFactory entityManagerFactory,
+                             BackfillProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.properties = properties.getEmailHash();
+    }
+
+    // one run over every shard not marked yet, returns the number of rows hashed
+    public long backfill() {
+        long hashed = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount() && !Thread.currentThread().isInterrupted(); shard++) {
+            hashed += shardRouter.onShard(shard, () -> isMarked() ? 0L : backfillShard());
+        }
+        if (hashed > 0) {
+            // cached lookups may have missed these rows, and the statements above bypassed Hibernate
+            sessionFactory.getCache().evictQueryRegion(CacheRegions.EMPLOYEE_QUERIES);
+            log.info("Hashed the emails of {} employees, {} left without a hash by conflicts", hashed, conflicts.get());
+        }
+        // an interrupted pass left its shard unmarked
+        complete = !Thread.currentThread().isInterrupted();
+        return hashed;
+    }
+
+    // true once every shard is marked; rows left to conflicts count as done, a hashed sibling answers for their email
+    public boolean isComplete() {
+        return complete;
+    }
+
+    // drops the markers of every shard, the next run scans them all again and lookups fall back until then
+    void forget() {
+        complete = false;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shardRouter.onShard(shard, () -> {
+                createMarkers();
+                jdbcTemplate.update("delete from backfill_markers where name = ?", MARKER);
+            });
+        }
+    }
+
+    private boolean isMarked() {
+        createMarkers();
+        Integer count = jdbcTemplate.queryForObject("select count(*) from backfill_markers where name = ?", Integer.class, MARKER);
+        return count != null && count > 0;
+    }
+
+    // another instance may have finished the shard first
+    private void mark() {
+        try {
+            jdbcTemplate.update("insert into backfill_markers (name, completed_at) values (?, ?)", MARKER, Timestamp.from(Instant.now()));
+        } catch (DuplicateKeyException e) {
+            log.debug("Shard {} was already marked", ShardContext.current());
+        }
+    }
+
+    private void createMarkers() {
+        jdbcTemplate.execute("create table if not exists backfill_markers (name varchar(64) not null primary key,"
+                + " completed_at timestamp not null)");
+    }
+
+    private long backfillShard() {
+        long hashed = 0;
+        long after = Long.MIN_VALUE;
+        while (true) {
+            // soft-deleted rows too, upserts revive them by email
+            List<Object[]> rows = jdbcTemplate.query("select id, email from employees where id > ? and email_hash is null"
+                            + " order by id limit ?",
+                    (row, rowNum) -> new Object[]{EmployeeEmail.hash(row.getString(2)), row.getLong(1)},
+                    after, properties.getBatchSize());
+            if (rows.isEmpty()) {
+                break;
+            }
+            after = (Long) rows.get(rows.size() - 1)[1];
+            hashed += update(rows);
+            if (rows.size() < properties.getBatchSize()) {
+                break;
+            }
+            try {
+                Thread.sleep(properties.getBatchPause().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return hashed;
+            }
+        }
+        mark();
+        return hashed;
+    }
+
+    // A conflict fails the batch, which is then retried row by row to hash everything else. Drivers differ in
+    // whether the rest of a failed batch was applied, so every row but the conflicts counts as hashed then.
+    private long update(List<Object[]> rows) {
+        String sql = "update employees set email_hash = ? where id = ? and email_hash is null";
+        long updated = 0;
+        try {
+            for (int count : jdbcTemplate.batchUpdate(sql, rows)) {
+                updated += Math.max(count, 0);
+            }
+        } catch (DuplicateKeyException batchConflict) {
+            updated = rows.size();
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(sql, row);
+                } catch (DuplicateKeyException e) {
+                    updated--;
+                    conflicts.incrementAndGet();
+                    log.warn("Employee {} has the email of another employee of its tenant up to case, it keeps no email hash", row[1]);
+                }
+            }
+        }
+        hashedRows.addAndGet(updated);
+        return updated;
+    }
+
+    public long getHashedRows() {
+        return hashedRows.get();
+    }
+
+    public long getConflicts() {
+        return conflicts.get();
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-hash-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                log.warn("Backfilling email hashes failed, it runs again at the next start", e);
+            }
+        });
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
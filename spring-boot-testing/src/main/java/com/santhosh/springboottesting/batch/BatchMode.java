@@ -0,0 +1,29 @@
+package com.santhosh.springboottesting.batch;
+
+import java.util.Optional;
+
+public enum BatchMode {
+    // patch existing employees found by id, missing fields keep their values
+    UPDATE("update"),
+    // match on email within the tenant: patch the existing employee or create a new one
+    UPSERT("upsert");
+
+    private final String parameter;
+
+    BatchMode(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    public static Optional<BatchMode> fromParameter(String parameter) {
+        for (BatchMode mode : values()) {
+            if (mode.parameter.equalsIgnoreCase(parameter)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,13 @@
+package com.santhosh.springboottesting.batch;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+// outcome of one record of a batch, index is its position in the request
+public record EmployeeBatchResult(int index, @JsonFormat(shape = JsonFormat.Shape.STRING) Long id, String email, Outcome outcome, String message) {
+
+    public enum Outcome { CREATED, UPDATED, UNCHANGED, NOT_FOUND, INVALID }
+
+    static EmployeeBatchResult invalid(int index, Long id, String email, String message) {
+        return new EmployeeBatchResult(index, id, email, Outcome.INVALID, message);
+    }
+}
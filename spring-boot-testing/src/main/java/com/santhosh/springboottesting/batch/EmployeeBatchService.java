@@ -0,0 +1,354 @@
+package com.santhosh.springboottesting.batch;
+
+import com.santhosh.springboottesting.batch.EmployeeBatchResult.Outcome;
+import com.santhosh.springboottesting.events.EmployeeChangedEvent;
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics.RepositoryMethod;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics.ServiceMethod;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeEmail;
+import com.santhosh.springboottesting.model.EmployeeFields;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Applies many employee changes with a few set-based statements instead of a lookup and a save per row.
+// Per shard: one query loads the affected rows, the changes are worked out in memory, then the changed rows are
+// written in chunks and committed together; upserts read the ids back to tell what was inserted from what was updated. The statements bypass Hibernate's listeners,
+// so the change events are published here once the shard's transaction has committed.
+@Service
+public class EmployeeBatchService {
+
+    private static final int LOOKUP_CHUNK = 100;
+    private static final List<String> STORED_KEY = List.of(EmployeeFields.ID, "email");
+
+    private EmployeeRepository employeeRepository;
+    private ShardRouter shardRouter;
+    private EmployeeMetrics employeeMetrics;
+    private ApplicationEventPublisher publisher;
+    private TransactionTemplate transactions;
+    private int maxRecords;
+
+    public EmployeeBatchService(EmployeeRepository employeeRepository, ShardRouter shardRouter,
+                                EmployeeMetrics employeeMetrics,
+                                ApplicationEventPublisher publisher, PlatformTransactionManager transactionManager,
+                                @Value("${app.batch.max-records:10000}") int maxRecords) {
+        this.employeeRepository = employeeRepository;
+        this.shardRouter = shardRouter;
+        this.employeeMetrics = employeeMetrics;
+        this.publisher = publisher;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.maxRecords = maxRecords;
+    }
+
+    public List<EmployeeBatchResult> apply(BatchMode mode, List<Employee> employees) {
+        if (employees.size() > maxRecords) {
+            throw new IllegalArgumentException("A batch may hold at most " + maxRecords + " employees");
+        }
+        long start = System.nanoTime();
+        try {
+            EmployeeBatchResult[] results = new EmployeeBatchResult[employees.size()];
+            Map<Integer, List<Integer>> shardOrder = new HashMap<>();
+            Set<Object> seen = new HashSet<>();
+            for (int index = 0; index < employees.size(); index++) {
+                Employee employee = employees.get(index);
+                String problem = validate(mode, employee, seen);
+                if (problem != null) {
+                    results[index] = EmployeeBatchResult.invalid(index, employee == null ? null : employee.getId(),
+                            employee == null ? null : employee.getEmail(), problem);
+                    continue;
+                }
+                shardOrder.put(index, mode == BatchMode.UPSERT
+                        ? List.of(shardRouter.shardForEmail(employee.getEmail())) : shardsToTry(employee.getId()));
+            }
+            // each round sends every record still missing to the next shard on its list, one statement set per shard
+            List<Integer> pending = new ArrayList<>(shardOrder.keySet());
+            for (int round = 0; !pending.isEmpty(); round++) {
+                Map<Integer, List<Integer>> indexesByShard = new TreeMap<>();
+                for (int index : pending) {
+                    List<Integer> shards = shardOrder.get(index);
+                    if (round < shards.size()) {
+                        indexesByShard.computeIfAbsent(shards.get(round), key -> new ArrayList<>()).add(index);
+                    }
+                }
+                pending = new ArrayList<>();
+                for (Map.Entry<Integer, List<Integer>> shard : indexesByShard.entrySet()) {
+                    pending.addAll(applyOnShard(mode, shard.getKey(), shard.getValue(), employees, results));
+                }
+            }
+            return Arrays.asList(results);
+        } finally {
+            employeeMetrics.recordService(mode == BatchMode.UPSERT ? ServiceMethod.BATCH_UPSERT : ServiceMethod.BATCH_UPDATE, start);
+        }
+    }
+
+    // returns the indexes whose id is not on this shard
+    private List<Integer> applyOnShard(BatchMode mode, int shard, List<Integer> indexes, List<Employee> employees,
+                                       EmployeeBatchResult[] results) {
+        List<EmployeeChangedEvent> events = new ArrayList<>();
+        List<Integer> missing = shardRouter.onShard(shard, () -> transactions.execute(status -> mode == BatchMode.UPSERT
+                ? upsert(shard, indexes, employees, results, events)
+                : update(shard, indexes, employees, results, events)));
+        events.forEach(publisher::publishEvent);
+        return missing;
+    }
+
+    // Every written row carries a fresh id. A matched row keeps its own, so reading the ids back afterwards shows
+    // what the statement did: the fresh id was inserted, any other id was updated, e.g. a row another request
+    // inserted after the lookup.
+    private List<Integer> upsert(int shard, List<Integer> indexes, List<Employee> employees,
+                                 EmployeeBatchResult[] results, List<EmployeeChangedEvent> events) {
+        EmailMatches existing = new EmailMatches(findByEmails(indexes.stream().map(index -> employees.get(index).getEmail()).toList()));
+        Map<Integer, Employee> written = new TreeMap<>();
+        Map<Integer, Employee> before = new HashMap<>();
+        for (int index : indexes) {
+            Employee patch = employees.get(index);
+            Employee current = existing.get(patch.getEmail());
+            if (current == null && (patch.getFirstName() == null || patch.getLastName() == null)) {
+                results[index] = EmployeeBatchResult.invalid(index, null, patch.getEmail(),
+                        "firstName and lastName are required for a new employee");
+                continue;
+            }
+            // the email is the key here, the stored spelling is kept
+            Employee row = current == null ? merge(patch, patch, patch.getEmail()) : merge(current, patch, current.getEmail());
+            if (current != null && unchanged(current, row)) {
+                results[index] = new EmployeeBatchResult(index, current.getId(), current.getEmail(), Outcome.UNCHANGED, null);
+                continue;
+            }
+            row.setId(EmployeeIdGenerator.nextId());
+            row.setTenantId(TenantContext.current());
+            written.put(index, row);
+            if (current != null) {
+                before.put(index, current);
+            }
+        }
+        if (written.isEmpty()) {
+            return List.of();
+        }
+        List<Employee> rows = new ArrayList<>(written.values());
+        // a soft-deleted row holding one of the emails would be matched and updated instead of a new row inserted
+        long dbStart = System.nanoTime();
+        for (List<String> chunk : chunks(rows.stream().map(Employee::getEmail).toList())) {
+            employeeRepository.purgeDeletedByEmail(chunk);
+        }
+        employeeMetrics.recordRepository(RepositoryMethod.PURGE_DELETED_BY_EMAIL, dbStart);
+        dbStart = System.nanoTime();
+        employeeRepository.upsertByEmail(rows);
+        employeeMetrics.recordRepository(RepositoryMethod.UPSERT_BY_EMAIL, dbStart);
+        Map<String, Map<String, Object>> stored = new HashMap<>();
+        dbStart = System.nanoTime();
+        for (List<String> chunk : chunks(rows.stream().map(Employee::getEmail).toList())) {
+            for (Map<String, Object> row : employeeRepository.findFieldsByEmails(chunk, STORED_KEY)) {
+                stored.put(EmployeeEmail.normalize((String) row.get("email")), row);
+            }
+        }
+        employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_EMAILS, dbStart);
+        for (Map.Entry<Integer, Employee> entry : written.entrySet()) {
+            int index = entry.getKey();
+            Employee row = entry.getValue();
+            Map<String, Object> match = stored.get(EmployeeEmail.normalize(row.getEmail()));
+            if (match == null) {
+                // soft-deleted by another request between the purge and the upsert, which then only renamed it
+                results[index] = new EmployeeBatchResult(index, null, row.getEmail(), Outcome.NOT_FOUND,
+                        "Employee with email " + row.getEmail() + " was deleted while the batch ran");
+                continue;
+            }
+            Long id = (Long) match.get(EmployeeFields.ID);
+            if (id.equals(row.getId())) {
+                results[index] = new EmployeeBatchResult(index, id, row.getEmail(), Outcome.CREATED, null);
+                events.add(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, null, EmployeeSnapshot.of(row), shard));
+                continue;
+            }
+            row.setId(id);
+            row.setEmail((String) match.get("email"));
+            // the values the row had are only known when it is the one the lookup found
+            Employee current = before.get(index);
+            EmployeeSnapshot previous = current != null && current.getId().equals(id) ? EmployeeSnapshot.of(current) : null;
+            results[index] = new EmployeeBatchResult(index, id, row.getEmail(), Outcome.UPDATED, null);
+            events.add(new EmployeeChangedEvent(EmployeeChangedEvent.Type.UPDATED, previous, EmployeeSnapshot.of(row), shard));
+        }
+        return List.of();
+    }
+
+    private List<Integer> update(int shard, List<Integer> indexes, List<Employee> employees,
+                                 EmployeeBatchResult[] results, List<EmployeeChangedEvent> events) {
+        long dbStart = System.nanoTime();
+        Map<Long, Employee> existing = new HashMap<>();
+        List<Long> ids = indexes.stream().map(index -> employees.get(index).getId()).toList();
+        for (List<Long> chunk : chunks(ids)) {
+            for (Employee employee : employeeRepository.findAllById(chunk)) {
+                existing.put(employee.getId(), employee);
+            }
+        }
+        employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_IDS, dbStart);
+        List<String> newEmails = new ArrayList<>();
+        for (int index : indexes) {
+            Employee patch = employees.get(index);
+            Employee current = existing.get(patch.getId());
+            if (current != null && patch.getEmail() != null && !patch.getEmail().equals(current.getEmail())) {
+                newEmails.add(patch.getEmail());
+            }
+        }
+        EmailMatches taken = new EmailMatches(newEmails.isEmpty() ? List.of() : findByEmails(newEmails));
+        List<Integer> missing = new ArrayList<>();
+        List<Employee> rows = new ArrayList<>();
+        for (int index : indexes) {
+            Employee patch = employees.get(index);
+            Employee current = existing.get(patch.getId());
+            if (current == null) {
+                results[index] = notFound(index, patch);
+                missing.add(index);
+                continue;
+            }
+            Employee updated = merge(current, patch, patch.getEmail() != null ? patch.getEmail() : current.getEmail());
+            if (!updated.getEmail().equals(current.getEmail())) {
+                Employee owner = taken.get(updated.getEmail());
+                if (owner != null && !owner.getId().equals(current.getId())) {
+                    results[index] = EmployeeBatchResult.invalid(index, current.getId(), updated.getEmail(),
+                            "Employee already exists with email " + updated.getEmail());
+                    continue;
+                }
+                if (shardRouter.shardForEmail(updated.getEmail()) != shard) {
+                    results[index] = EmployeeBatchResult.invalid(index, current.getId(), updated.getEmail(),
+                            "The new email belongs on another shard, change it with PUT /api/employees/" + current.getId());
+                    continue;
+                }
+            }
+            results[index] = changed(index, current, updated, rows, events, shard);
+        }
+        // soft-deleted rows may still hold the new emails
+        List<String> changedEmails = rows.stream()
+                .filter(row -> !row.getEmail().equals(existing.get(row.getId()).getEmail()))
+                .map(Employee::getEmail)
+                .toList();
+        if (!changedEmails.isEmpty()) {
+            dbStart = System.nanoTime();
+            for (List<String> chunk : chunks(changedEmails)) {
+                employeeRepository.purgeDeletedByEmail(chunk);
+            }
+            employeeMetrics.recordRepository(RepositoryMethod.PURGE_DELETED_BY_EMAIL, dbStart);
+        }
+        if (!rows.isEmpty()) {
+            dbStart = System.nanoTime();
+            employeeRepository.updateByIds(rows);
+            employeeMetrics.recordRepository(RepositoryMethod.UPDATE_BY_IDS, dbStart);
+        }
+        return missing;
+    }
+
+    private EmployeeBatchResult changed(int index, Employee current, Employee updated, List<Employee> rows,
+                                        List<EmployeeChangedEvent> events, int shard) {
+        if (unchanged(current, updated)) {
+            return new EmployeeBatchResult(index, current.getId(), current.getEmail(), Outcome.UNCHANGED, null);
+        }
+        rows.add(updated);
+        events.add(new EmployeeChangedEvent(EmployeeChangedEvent.Type.UPDATED, EmployeeSnapshot.of(current),
+                EmployeeSnapshot.of(updated), shard));
+        return new EmployeeBatchResult(index, updated.getId(), updated.getEmail(), Outcome.UPDATED, null);
+    }
+
+    private static boolean unchanged(Employee current, Employee updated) {
+        return updated.getFirstName().equals(current.getFirstName()) && updated.getLastName().equals(current.getLastName())
+                && updated.getEmail().equals(current.getEmail());
+    }
+
+    // a new row with the patched values, the loaded entity is left untouched so it is never flushed
+    private static Employee merge(Employee current, Employee patch, String email) {
+        return Employee.builder()
+                .id(current.getId())
+                .tenantId(current.getTenantId())
+                .firstName(patch.getFirstName() != null ? patch.getFirstName() : current.getFirstName())
+                .lastName(patch.getLastName() != null ? patch.getLastName() : current.getLastName())
+                .email(email)
+                .build();
+    }
+
+    private static String validate(BatchMode mode, Employee employee, Set<Object> seen) {
+        if (employee == null) {
+            return "Missing employee";
+        }
+        if (mode == BatchMode.UPDATE && employee.getId() == null) {
+            return "id is required to update an employee";
+        }
+        if (mode == BatchMode.UPSERT && (employee.getEmail() == null || employee.getEmail().isBlank())) {
+            return "email is required to upsert an employee";
+        }
+        if (mode == BatchMode.UPDATE && !seen.add(employee.getId())) {
+            return "id " + employee.getId() + " appears earlier in this batch";
+        }
+        // compared without case and surrounding spaces, the way the email hash is
+        if (employee.getEmail() != null && !seen.add(EmployeeEmail.normalize(employee.getEmail()))) {
+            return "email " + employee.getEmail() + " appears earlier in this batch";
+        }
+        return null;
+    }
+
+    // like EmployeeServiceImpl, the shard in the id first, then the others, where a row moved by an email change may be
+    private List<Integer> shardsToTry(Long id) {
+        List<Integer> shards = new ArrayList<>(shardRouter.getShardCount());
+        shards.add(shardRouter.shardForId(id));
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            if (!shards.contains(shard)) {
+                shards.add(shard);
+            }
+        }
+        return shards;
+    }
+
+    private static EmployeeBatchResult notFound(int index, Employee employee) {
+        return new EmployeeBatchResult(index, employee.getId(), employee.getEmail(), Outcome.NOT_FOUND,
+                "Employee not found with id " + employee.getId());
+    }
+
+    private List<Employee> findByEmails(Collection<String> emails) {
+        long dbStart = System.nanoTime();
+        List<Employee> employees = new ArrayList<>();
+        for (List<String> chunk : chunks(new ArrayList<>(emails))) {
+            employees.addAll(employeeRepository.findAllByEmail(chunk));
+        }
+        employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_EMAILS, dbStart);
+        return employees;
+    }
+
+    // H2 re-checks every row found through the index against the whole IN list, so long lists cost quadratic time
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < values.size(); start += LOOKUP_CHUNK) {
+            chunks.add(values.subList(start, Math.min(values.size(), start + LOOKUP_CHUNK)));
+        }
+        return chunks;
+    }
+
+    // rows the database matched by email hash; the stored spelling may differ in case and surrounding spaces
+    private static class EmailMatches {
+
+        private final Map<String, Employee> byNormalizedEmail = new HashMap<>();
+
+        EmailMatches(List<Employee> employees) {
+            for (Employee employee : employees) {
+                byNormalizedEmail.put(EmployeeEmail.normalize(employee.getEmail()), employee);
+            }
+        }
+
+        Employee get(String email) {
+            return byNormalizedEmail.get(EmployeeEmail.normalize(email));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.santhosh.springboottesting.cache;
+
+// Hibernate cache regions, sized and expired per region in ehcache.xml
+public final class CacheRegions {
+
+    public static final String EMPLOYEE = "employee";
+    public static final String EMPLOYEE_QUERIES = "employee-queries";
+
+    private CacheRegions() {
+    }
+}
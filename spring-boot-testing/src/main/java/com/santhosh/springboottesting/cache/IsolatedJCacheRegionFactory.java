@@ -0,0 +1,36 @@
+package com.santhosh.springboottesting.cache;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+// Hibernate's JCache factory takes the cache manager of the configured URI from the caching provider, which is
+// a single instance per JVM, and closes it when its session factory closes. Every session factory here gets its
+// own manager built from the same ehcache.xml, so application contexts in one JVM (the test suite runs several,
+// each on its own database) never read each other's entries or close each other's caches.
+public class IsolatedJCacheRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+        CachingProvider cachingProvider = getCachingProvider(properties);
+        if (!(cachingProvider instanceof EhcacheCachingProvider ehcacheProvider)) {
+            return super.resolveCacheManager(settings, properties);
+        }
+        URI configUri = getUri(settings, properties);
+        try {
+            XmlConfiguration configuration = new XmlConfiguration(configUri.toURL(), getClassLoader(cachingProvider));
+            return ehcacheProvider.getCacheManager(URI.create("urn:hibernate-cache:" + UUID.randomUUID()), configuration);
+        } catch (MalformedURLException e) {
+            throw new CacheException("Invalid cache configuration URI " + configUri, e);
+        }
+    }
+}
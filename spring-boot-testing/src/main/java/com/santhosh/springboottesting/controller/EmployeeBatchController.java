@@ -0,0 +1,39 @@
+package com.santhosh.springboottesting.controller;
+
+import com.santhosh.springboottesting.batch.BatchMode;
+import com.santhosh.springboottesting.batch.EmployeeBatchResult;
+import com.santhosh.springboottesting.batch.EmployeeBatchService;
+import com.santhosh.springboottesting.model.Employee;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeBatchController {
+
+    private EmployeeBatchService employeeBatchService;
+
+    public EmployeeBatchController(EmployeeBatchService employeeBatchService){
+        this.employeeBatchService = employeeBatchService;
+    }
+
+    // one result per record, in request order; a rejected record does not stop the others
+    @PatchMapping("/batch")
+    public List<EmployeeBatchResult> patchEmployees(@RequestParam(value = "mode", defaultValue = "update") String mode,
+                                                    @RequestBody List<Employee> employees){
+        BatchMode batchMode = BatchMode.fromParameter(mode)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "mode must be update or upsert"));
+        try {
+            return employeeBatchService.apply(batchMode, employees);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
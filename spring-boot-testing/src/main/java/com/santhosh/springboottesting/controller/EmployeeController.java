@@ -1,12 +1,16 @@
 package com.santhosh.springboottesting.controller;
 
 import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeFields;
+import com.santhosh.springboottesting.model.EmployeePage;
 import com.santhosh.springboottesting.service.EmployeeService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -37,6 +41,36 @@ public class EmployeeController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // ?fields=id,email selects only those columns and returns only those properties. Handler names are the endpoint
+    // tag of the latency metrics, so overloads get names of their own
+    @GetMapping(params = "fields")
+    public List<Map<String, Object>> getAllEmployeeFields(@RequestParam("fields") String fields){
+        List<Map<String, Object>> rows = employeeService.getAllEmployees(parseFields(fields));
+        rows.forEach(EmployeeFields::forJson);
+        return rows;
+    }
+
+    // ?firstName=&lastName= pages through the employees with that name, ignoring case and surrounding spaces
+    @GetMapping(params = {"firstName", "lastName"})
+    public EmployeePage getEmployeesByName(@RequestParam("firstName") String firstName,
+                                           @RequestParam("lastName") String lastName,
+                                           @RequestParam(value = "page", defaultValue = "0") int page,
+                                           @RequestParam(value = "size", defaultValue = "20") int size){
+        try {
+            return employeeService.getEmployeesByName(firstName, lastName, page, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getEmployeeFieldsById(@PathVariable long id, @RequestParam("fields") String fields){
+        return employeeService.getEmployeeById(id, parseFields(fields))
+                .map(EmployeeFields::forJson)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PutMapping("{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable("id") Long employeeId, @RequestBody Employee employee){
         return employeeService.getEmployeeById(employeeId)
@@ -56,4 +90,12 @@ public class EmployeeController {
          employeeService.DeleteEmployee(employeeId);
          return new ResponseEntity<>("Employee deleted Successfully", HttpStatus.OK);
     }
+
+    private static List<String> parseFields(String fields){
+        try {
+            return EmployeeFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 }
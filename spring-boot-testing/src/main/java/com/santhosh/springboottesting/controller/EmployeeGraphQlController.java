@@ -0,0 +1,60 @@
+package com.santhosh.springboottesting.controller;
+
+import com.santhosh.springboottesting.model.EmployeeEmail;
+import com.santhosh.springboottesting.model.EmployeeName;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Resolvers of graphql/employees.graphqls. None of them reads anything itself, each queues its key with the
+// loader of graphql.EmployeeDataLoaders, together with the fields selected below it.
+@Controller
+public class EmployeeGraphQlController {
+
+    @QueryMapping
+    public CompletableFuture<Map<String, Object>> employee(@Argument Long id, DataFetchingFieldSelectionSet selection,
+                                                          DataLoader<Long, Map<String, Object>> employeesById) {
+        return employeesById.load(id, selected(selection));
+    }
+
+    @QueryMapping
+    public CompletableFuture<List<Map<String, Object>>> employees(@Argument List<Long> ids, DataFetchingFieldSelectionSet selection,
+                                                                 DataLoader<Long, Map<String, Object>> employeesById) {
+        return employeesById.loadMany(ids, Collections.nCopies(ids.size(), selected(selection)));
+    }
+
+    @QueryMapping
+    public CompletableFuture<Map<String, Object>> employeeByEmail(@Argument String email, DataFetchingFieldSelectionSet selection,
+                                                                 DataLoader<String, Map<String, Object>> employeesByEmail) {
+        // rows come back keyed by the normalized email, whatever spelling they were stored with
+        return employeesByEmail.load(EmployeeEmail.normalize(email), selected(selection));
+    }
+
+    @QueryMapping
+    public CompletableFuture<List<Map<String, Object>>> employeesByName(@Argument String firstName, @Argument String lastName,
+                                                                       DataFetchingFieldSelectionSet selection,
+                                                                       DataLoader<EmployeeName, List<Map<String, Object>>> employeesByName) {
+        // names match regardless of case, so differently written lookups of one name share a key
+        return employeesByName.load(new EmployeeName(firstName, lastName).normalized(), selected(selection))
+                .thenApply(employees -> employees == null ? List.of() : employees);
+    }
+
+    // the Employee fields the query asked for, which are the entity's attribute names
+    private static Set<String> selected(DataFetchingFieldSelectionSet selection) {
+        Set<String> fields = new HashSet<>();
+        for (SelectedField field : selection.getImmediateFields()) {
+            fields.add(field.getName());
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,33 @@
+package com.santhosh.springboottesting.controller;
+
+import com.santhosh.springboottesting.audit.EmployeeAuditService;
+import com.santhosh.springboottesting.audit.EmployeeHistory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeHistoryController {
+
+    private EmployeeAuditService employeeAuditService;
+
+    public EmployeeHistoryController(EmployeeAuditService employeeAuditService){
+        this.employeeAuditService = employeeAuditService;
+    }
+
+    @GetMapping("/{id}/history")
+    public EmployeeHistory getEmployeeHistory(@PathVariable("id") long employeeId,
+                                              @RequestParam(value = "page", defaultValue = "0") int page,
+                                              @RequestParam(value = "size", defaultValue = "20") int size){
+        try {
+            return employeeAuditService.getHistory(employeeId, page, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
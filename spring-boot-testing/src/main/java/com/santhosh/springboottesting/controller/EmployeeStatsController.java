@@ -0,0 +1,36 @@
+package com.santhosh.springboottesting.controller;
+
+import com.santhosh.springboottesting.stats.EmployeeStats;
+import com.santhosh.springboottesting.stats.EmployeeStatsService;
+import com.santhosh.springboottesting.stats.StatsGroupBy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeStatsController {
+
+    // only defined with app.stats.enabled=true
+    private ObjectProvider<EmployeeStatsService> employeeStatsService;
+
+    public EmployeeStatsController(ObjectProvider<EmployeeStatsService> employeeStatsService){
+        this.employeeStatsService = employeeStatsService;
+    }
+
+    @GetMapping("/stats")
+    public EmployeeStats getEmployeeStats(@RequestParam("groupBy") String groupBy){
+        StatsGroupBy group = StatsGroupBy.fromParameter(groupBy)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "groupBy must be emailDomain or lastName"));
+        EmployeeStatsService stats = employeeStatsService.getIfAvailable();
+        if (stats == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee stats are disabled");
+        }
+        return stats.getStats(group);
+    }
+}
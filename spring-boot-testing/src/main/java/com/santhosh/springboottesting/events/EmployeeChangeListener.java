@@ -0,0 +1,64 @@
+package com.santhosh.springboottesting.events;
+
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.sharding.ShardContext;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Turns Hibernate's post-commit callbacks for Employee into EmployeeChangedEvents, so in-memory views of the
+// table (stats, indexes, audit) see every committed write whichever repository or service method made it.
+// Listeners run on the committing thread and must stay cheap. Bulk HQL and native statements bypass this.
+public class EmployeeChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public EmployeeChangeListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, null,
+                EmployeeSnapshot.of(event.getPersister(), event.getId(), event.getState()), ShardContext.current()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EmployeeSnapshot before = event.getOldState() == null ? null
+                : EmployeeSnapshot.of(event.getPersister(), event.getId(), event.getOldState());
+        publisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.UPDATED, before,
+                EmployeeSnapshot.of(event.getPersister(), event.getId(), event.getState()), ShardContext.current()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.DELETED,
+                EmployeeSnapshot.of(event.getPersister(), event.getId(), event.getDeletedState()), null,
+                ShardContext.current()));
+    }
+
+    // the transaction rolled back, nothing changed
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Employee.class;
+    }
+}
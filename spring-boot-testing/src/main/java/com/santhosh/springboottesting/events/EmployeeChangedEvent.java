@@ -0,0 +1,18 @@
+package com.santhosh.springboottesting.events;
+
+// Published after a transaction that inserted, updated or deleted an employee has committed.
+// before is null for inserts and after is null for deletes; an update may lack before when Hibernate
+// had no loaded state to compare with. shard is where the write happened; moving a row to another shard
+// publishes CREATED on the new shard before DELETED on the old one.
+public record EmployeeChangedEvent(Type type, EmployeeSnapshot before, EmployeeSnapshot after, int shard) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public String tenantId() {
+        return after != null ? after.tenantId() : before.tenantId();
+    }
+
+    public Long id() {
+        return after != null ? after.id() : before.id();
+    }
+}
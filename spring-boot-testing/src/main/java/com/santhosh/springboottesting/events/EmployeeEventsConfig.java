@@ -0,0 +1,25 @@
+package com.santhosh.springboottesting.events;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EmployeeEventsConfig {
+
+    @Bean
+    public EmployeeChangeListener employeeChangeListener(EntityManagerFactory entityManagerFactory,
+                                                         ApplicationEventPublisher publisher) {
+        EmployeeChangeListener listener = new EmployeeChangeListener(publisher);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        return listener;
+    }
+}
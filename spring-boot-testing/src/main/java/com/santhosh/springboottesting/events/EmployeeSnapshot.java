@@ -0,0 +1,21 @@
+package com.santhosh.springboottesting.events;
+
+import com.santhosh.springboottesting.model.Employee;
+import org.hibernate.persister.entity.EntityPersister;
+
+// Immutable copy of an employee row as it was before or after a committed change
+public record EmployeeSnapshot(Long id, String tenantId, String firstName, String lastName, String email) {
+
+    public static EmployeeSnapshot of(Employee employee) {
+        return new EmployeeSnapshot(employee.getId(), employee.getTenantId(), employee.getFirstName(),
+                employee.getLastName(), employee.getEmail());
+    }
+
+    static EmployeeSnapshot of(EntityPersister persister, Object id, Object[] state) {
+        return new EmployeeSnapshot((Long) id,
+                (String) state[persister.getPropertyIndex("tenantId")],
+                (String) state[persister.getPropertyIndex("firstName")],
+                (String) state[persister.getPropertyIndex("lastName")],
+                (String) state[persister.getPropertyIndex("email")]);
+    }
+}
@@ -0,0 +1,27 @@
+package com.santhosh.springboottesting.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// the database is not taking calls right now, answered with 503 and a Retry-After
+public class ServiceUnavailableException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds){
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds(){
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders(){
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,79 @@
+package com.santhosh.springboottesting.graphql;
+
+import com.santhosh.springboottesting.model.EmployeeEmail;
+import com.santhosh.springboottesting.model.EmployeeFields;
+import com.santhosh.springboottesting.model.EmployeeName;
+import com.santhosh.springboottesting.service.EmployeeService;
+import org.dataloader.BatchLoaderEnvironment;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// The batch loaders behind the GraphQL resolvers. A DataLoader collects the keys of a whole query level and hands
+// them to EmployeeService in one call; the fields each lookup selected are its key context, and the batch reads
+// the union of them plus the column its rows are matched back to the keys on.
+public final class EmployeeDataLoaders {
+
+    // resolver parameters named like this get the loader
+    public static final String BY_ID = "employeesById";
+    public static final String BY_EMAIL = "employeesByEmail";
+    public static final String BY_NAME = "employeesByName";
+
+    private static final String FIRST_NAME = "firstName";
+    private static final String LAST_NAME = "lastName";
+    private static final String EMAIL = "email";
+
+    private EmployeeDataLoaders() {
+    }
+
+    public static void register(BatchLoaderRegistry registry, EmployeeService employeeService) {
+        registry.<Long, Map<String, Object>>forName(BY_ID).registerMappedBatchLoader((ids, environment) ->
+                Mono.fromSupplier(() -> byKey(employeeService.getEmployeesByIds(new ArrayList<>(ids), fields(environment)),
+                        row -> (Long) row.get(EmployeeFields.ID))));
+        registry.<String, Map<String, Object>>forName(BY_EMAIL).registerMappedBatchLoader((emails, environment) ->
+                Mono.fromSupplier(() -> byKey(employeeService.getEmployeesByEmails(new ArrayList<>(emails), fields(environment, EMAIL)),
+                        row -> EmployeeEmail.normalize((String) row.get(EMAIL)))));
+        registry.<EmployeeName, List<Map<String, Object>>>forName(BY_NAME).registerMappedBatchLoader((names, environment) ->
+                Mono.fromSupplier(() -> byName(employeeService.getEmployeesByNames(new ArrayList<>(names),
+                        fields(environment, FIRST_NAME, LAST_NAME)))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> fields(BatchLoaderEnvironment environment, String... keyFields) {
+        Set<String> selected = new HashSet<>(List.of(keyFields));
+        for (Object context : environment.getKeyContextsList()) {
+            if (context != null) {
+                selected.addAll((Collection<String>) context);
+            }
+        }
+        return EmployeeFields.all().stream().filter(selected::contains).toList();
+    }
+
+    private static <K> Map<K, Map<String, Object>> byKey(List<Map<String, Object>> rows, Function<Map<String, Object>, K> key) {
+        Map<K, Map<String, Object>> byKey = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            byKey.put(key.apply(row), row);
+        }
+        return byKey;
+    }
+
+    // every name's matches ordered by id, like the list endpoints; the keys are normalized names
+    private static Map<EmployeeName, List<Map<String, Object>>> byName(List<Map<String, Object>> rows) {
+        Map<EmployeeName, List<Map<String, Object>>> byName = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            byName.computeIfAbsent(new EmployeeName((String) row.get(FIRST_NAME), (String) row.get(LAST_NAME)).normalized(),
+                    name -> new ArrayList<>()).add(row);
+        }
+        byName.values().forEach(employees -> employees.sort(
+                (left, right) -> Long.compare((Long) left.get(EmployeeFields.ID), (Long) right.get(EmployeeFields.ID))));
+        return byName;
+    }
+}
@@ -0,0 +1,28 @@
+package com.santhosh.springboottesting.graphql;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+
+import java.util.Collection;
+
+// Scores a field by the employees it can return, so a long id list or many aliased name lookups cost what they
+// cost the database rather than 1 each.
+public class EmployeeQueryComplexity implements FieldComplexityCalculator {
+
+    private GraphQlQueryProperties properties;
+
+    public EmployeeQueryComplexity(GraphQlQueryProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+        int perEmployee = 1 + childComplexity;
+        return switch (environment.getField().getName()) {
+            case "employees" -> environment.getArguments().get("ids") instanceof Collection<?> ids
+                    ? Math.max(1, ids.size()) * perEmployee : perEmployee;
+            case "employeesByName" -> properties.getNameMatchEstimate() * perEmployee;
+            default -> perEmployee;
+        };
+    }
+}
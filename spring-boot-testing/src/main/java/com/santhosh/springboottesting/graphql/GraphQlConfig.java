@@ -0,0 +1,29 @@
+package com.santhosh.springboottesting.graphql;
+
+import com.santhosh.springboottesting.service.EmployeeService;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+
+// the GraphQL auto-configuration applies every Instrumentation bean to the schema
+@Configuration
+@EnableConfigurationProperties(GraphQlQueryProperties.class)
+public class GraphQlConfig {
+
+    public GraphQlConfig(BatchLoaderRegistry batchLoaderRegistry, EmployeeService employeeService) {
+        EmployeeDataLoaders.register(batchLoaderRegistry, employeeService);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(GraphQlQueryProperties properties) {
+        return new MaxQueryComplexityInstrumentation(properties.getMaxComplexity(), new EmployeeQueryComplexity(properties));
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(GraphQlQueryProperties properties) {
+        return new MaxQueryDepthInstrumentation(properties.getMaxDepth());
+    }
+}
@@ -0,0 +1,20 @@
+package com.santhosh.springboottesting.graphql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.graphql")
+public class GraphQlQueryProperties {
+
+    // queries scoring higher are rejected before anything runs; a field costs 1 plus its subfields, a list of
+    // employees that much per employee, so 200 is about 40 employees with every field
+    private int maxComplexity = 200;
+
+    private int maxDepth = 5;
+
+    // employees a name lookup is costed at, the real number is only known once it ran
+    private int nameMatchEstimate = 10;
+}
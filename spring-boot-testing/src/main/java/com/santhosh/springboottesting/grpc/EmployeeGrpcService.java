@@ -0,0 +1,169 @@
+package com.santhosh.springboottesting.grpc;
+
+import com.santhosh.springboottesting.exception.ResourceNotFoundException;
+import com.santhosh.springboottesting.exception.ServiceUnavailableException;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.BatchGetEmployeesRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.BatchGetEmployeesResponse;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.CreateEmployeeRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.DeleteEmployeeRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.DeleteEmployeeResponse;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.GetEmployeeRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.ListEmployeesRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.ListEmployeesResponse;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.UpdateEmployeeRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeServiceGrpc;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.service.EmployeeService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// employees.v1.EmployeeService on top of the same EmployeeService as EmployeeController, with the controller's
+// semantics: update overwrites names and email of an existing employee, delete of an unknown id succeeds
+public class EmployeeGrpcService extends EmployeeServiceGrpc.EmployeeServiceImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeGrpcService.class);
+
+    private static final DeleteEmployeeResponse DELETED = DeleteEmployeeResponse.getDefaultInstance();
+
+    private EmployeeService employeeService;
+    private GrpcProperties properties;
+
+    public EmployeeGrpcService(EmployeeService employeeService, GrpcProperties properties) {
+        this.employeeService = employeeService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void getEmployee(GetEmployeeRequest request, StreamObserver<EmployeeProto.Employee> responseObserver) {
+        respond(responseObserver, () -> employeeService.getEmployeeById(request.getId())
+                .map(EmployeeMessages::toMessage)
+                .orElseThrow(() -> notFound(request.getId())));
+    }
+
+    @Override
+    public void batchGetEmployees(BatchGetEmployeesRequest request, StreamObserver<BatchGetEmployeesResponse> responseObserver) {
+        respond(responseObserver, () -> {
+            if (request.getIdsCount() > properties.getMaxBatchSize()) {
+                throw new IllegalArgumentException("At most " + properties.getMaxBatchSize() + " ids per call");
+            }
+            BatchGetEmployeesResponse.Builder response = BatchGetEmployeesResponse.newBuilder();
+            for (Employee employee : employeeService.getEmployeesByIds(request.getIdsList())) {
+                response.addEmployees(EmployeeMessages.toMessage(employee));
+            }
+            return response.build();
+        });
+    }
+
+    @Override
+    public void createEmployee(CreateEmployeeRequest request, StreamObserver<EmployeeProto.Employee> responseObserver) {
+        respond(responseObserver, () -> {
+            Employee employee = EmployeeMessages.toEmployee(request.getEmployee());
+            employee.setId(null);
+            return EmployeeMessages.toMessage(employeeService.saveEmployee(employee));
+        });
+    }
+
+    @Override
+    public void updateEmployee(UpdateEmployeeRequest request, StreamObserver<EmployeeProto.Employee> responseObserver) {
+        respond(responseObserver, () -> {
+            Employee employee = EmployeeMessages.toEmployee(request.getEmployee());
+            Employee saved = employeeService.getEmployeeById(employee.getId())
+                    .orElseThrow(() -> notFound(employee.getId()));
+            saved.setFirstName(employee.getFirstName());
+            saved.setLastName(employee.getLastName());
+            saved.setEmail(employee.getEmail());
+            return EmployeeMessages.toMessage(employeeService.updateEmployee(saved));
+        });
+    }
+
+    @Override
+    public void deleteEmployee(DeleteEmployeeRequest request, StreamObserver<DeleteEmployeeResponse> responseObserver) {
+        respond(responseObserver, () -> {
+            employeeService.DeleteEmployee(request.getId());
+            return DELETED;
+        });
+    }
+
+    // the list is read like GET /api/employees, but only converted to messages as fast as the client takes them
+    @Override
+    public void listEmployees(ListEmployeesRequest request, StreamObserver<ListEmployeesResponse> responseObserver) {
+        ServerCallStreamObserver<ListEmployeesResponse> observer = (ServerCallStreamObserver<ListEmployeesResponse>) responseObserver;
+        List<Employee> employees;
+        try {
+            employees = employeeService.getAllEmployees();
+        } catch (RuntimeException e) {
+            observer.onError(status(e));
+            return;
+        }
+        int chunkSize = Math.max(1, properties.getListChunkSize());
+        // onReady runs on the call's serializing executor like this method, so the position is never shared
+        Runnable drain = new Runnable() {
+            private int next;
+            private boolean completed;
+
+            @Override
+            public void run() {
+                while (observer.isReady() && next < employees.size()) {
+                    ListEmployeesResponse.Builder chunk = ListEmployeesResponse.newBuilder();
+                    for (int end = Math.min(employees.size(), next + chunkSize); next < end; next++) {
+                        chunk.addEmployees(EmployeeMessages.toMessage(employees.get(next)));
+                    }
+                    observer.onNext(chunk.build());
+                }
+                if (next == employees.size() && !completed) {
+                    completed = true;
+                    observer.onCompleted();
+                }
+            }
+        };
+        observer.setOnCancelHandler(() -> log.debug("Employee list cancelled by the client"));
+        observer.setOnReadyHandler(drain);
+        // the stream may be ready already, in which case no onReady is coming
+        drain.run();
+    }
+
+    private static <T> void respond(StreamObserver<T> observer, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            observer.onError(status(e));
+            return;
+        }
+        observer.onNext(response);
+        observer.onCompleted();
+    }
+
+    private static StatusRuntimeException notFound(long id) {
+        return Status.NOT_FOUND.withDescription("No employee with id " + id).asRuntimeException();
+    }
+
+    // the statuses the REST API answers with, as gRPC codes
+    static StatusRuntimeException status(RuntimeException e) {
+        if (e instanceof StatusRuntimeException status) {
+            return status;
+        }
+        if (e instanceof ResourceNotFoundException || e instanceof DataIntegrityViolationException) {
+            // the service reports a taken email as ResourceNotFoundException, the unique index as a violation
+            return Status.ALREADY_EXISTS.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof ServiceUnavailableException) {
+            // circuit open or bulkhead full, the client retries with backoff
+            return Status.UNAVAILABLE.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.error("gRPC employee call failed", e);
+        return Status.INTERNAL.withDescription("Internal error").asRuntimeException();
+    }
+}
@@ -0,0 +1,37 @@
+package com.santhosh.springboottesting.grpc;
+
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto;
+import com.santhosh.springboottesting.model.Employee;
+
+// Employee to and from its protobuf message. proto3 has no null strings, a missing name or email arrives empty
+// and is rejected here like the not-null columns would reject it.
+public final class EmployeeMessages {
+
+    private EmployeeMessages() {
+    }
+
+    public static EmployeeProto.Employee toMessage(Employee employee) {
+        return EmployeeProto.Employee.newBuilder()
+                .setId(employee.getId())
+                .setFirstName(employee.getFirstName())
+                .setLastName(employee.getLastName())
+                .setEmail(employee.getEmail())
+                .build();
+    }
+
+    public static Employee toEmployee(EmployeeProto.Employee message) {
+        return Employee.builder()
+                .id(message.getId())
+                .firstName(required("first_name", message.getFirstName()))
+                .lastName(required("last_name", message.getLastName()))
+                .email(required("email", message.getEmail()))
+                .build();
+    }
+
+    private static String required(String field, String value) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+}
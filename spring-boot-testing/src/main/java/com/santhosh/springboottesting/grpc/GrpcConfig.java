@@ -0,0 +1,27 @@
+package com.santhosh.springboottesting.grpc;
+
+import com.santhosh.springboottesting.service.EmployeeService;
+import com.santhosh.springboottesting.tenant.TenancyProperties;
+import com.santhosh.springboottesting.tenant.TenantBulkhead;
+import com.santhosh.springboottesting.tenant.TenantServerInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(GrpcProperties.class)
+@ConditionalOnProperty(prefix = "app.grpc", name = "enabled", havingValue = "true")
+public class GrpcConfig {
+
+    @Bean
+    public EmployeeGrpcService employeeGrpcService(EmployeeService employeeService, GrpcProperties properties) {
+        return new EmployeeGrpcService(employeeService, properties);
+    }
+
+    @Bean
+    public GrpcServer grpcServer(EmployeeGrpcService employeeGrpcService, TenancyProperties tenancyProperties,
+                                 TenantBulkhead tenantBulkhead, GrpcProperties properties) {
+        return new GrpcServer(employeeGrpcService, new TenantServerInterceptor(tenancyProperties, tenantBulkhead), properties);
+    }
+}
@@ -0,0 +1,34 @@
+package com.santhosh.springboottesting.grpc;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.grpc")
+public class GrpcProperties {
+
+    // serves employees.v1.EmployeeService next to the REST API; off by default, the port has no authentication and
+    // no rate limiting
+    private boolean enabled = false;
+
+    // 0 picks a free port
+    private int port = 9090;
+
+    // threads running the service calls, which block on the database like the web server's threads do
+    private int threads = 32;
+
+    // most ids one BatchGetEmployees call may ask for
+    private int maxBatchSize = 1000;
+
+    // employees per ListEmployees message
+    private int listChunkSize = 500;
+
+    private int maxInboundMessageSize = 4 * 1024 * 1024;
+
+    // how long calls in flight get to finish at shutdown before they are cancelled
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+}
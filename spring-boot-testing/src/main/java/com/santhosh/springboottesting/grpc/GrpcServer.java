@@ -0,0 +1,85 @@
+package com.santhosh.springboottesting.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Netty gRPC server on its own port. Calls are handed from the event loops to a fixed pool, so blocking on the
+// database never stalls the connections. Starts after and stops before everything else, like the web server.
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+
+    private BindableService service;
+    private ServerInterceptor interceptor;
+    private GrpcProperties properties;
+    private Server server;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public GrpcServer(BindableService service, ServerInterceptor interceptor, GrpcProperties properties) {
+        this.service = service;
+        this.interceptor = interceptor;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "employee-grpc-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = NettyServerBuilder.forPort(properties.getPort())
+                .executor(executor)
+                .maxInboundMessageSize(properties.getMaxInboundMessageSize())
+                .addService(ServerInterceptors.intercept(service, interceptor))
+                .build();
+        try {
+            server.start();
+        } catch (IOException e) {
+            executor.shutdownNow();
+            throw new UncheckedIOException("gRPC server could not bind port " + properties.getPort(), e);
+        }
+        running = true;
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(properties.getShutdownGracePeriod().toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // the bound port, for app.grpc.port=0
+    public int getPort() {
+        return server.getPort();
+    }
+}
@@ -0,0 +1,34 @@
+package com.santhosh.springboottesting.id;
+
+import com.santhosh.springboottesting.sharding.ShardContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+// Hibernate entry point for Employee ids. Hibernate instantiates generators itself, so the shared
+// SnowflakeIdGenerator is held statically and configured from Spring by IdGeneratorConfig. There is no default
+// worker id: two instances sharing one would hand out the same ids.
+public class EmployeeIdGenerator implements IdentifierGenerator {
+
+    private static volatile SnowflakeIdGenerator generator;
+
+    // every Spring context of a JVM configures it; a new generator would start its sequence over
+    static synchronized void useWorkerId(int workerId) {
+        if (generator == null || generator.getWorkerId() != workerId) {
+            generator = new SnowflakeIdGenerator(workerId);
+        }
+    }
+
+    // for rows written with plain SQL instead of through Hibernate
+    public static long nextId() {
+        SnowflakeIdGenerator current = generator;
+        if (current == null) {
+            throw new IllegalStateException("No worker id configured, IdGeneratorConfig sets it from app.id-generator.worker-id");
+        }
+        return current.nextId(ShardContext.current());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return nextId();
+    }
+}
@@ -0,0 +1,18 @@
+package com.santhosh.springboottesting.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    // every running instance needs its own worker id so generated ids never collide, so it has no default and
+    // startup fails without one
+    public IdGeneratorConfig(@Value("${app.id-generator.worker-id:#{null}}") Integer workerId) {
+        if (workerId == null) {
+            throw new IllegalStateException("app.id-generator.worker-id is not set, give every instance its own (0-"
+                    + (SnowflakeIdGenerator.MAX_WORKERS - 1) + ")");
+        }
+        EmployeeIdGenerator.useWorkerId(workerId);
+    }
+}
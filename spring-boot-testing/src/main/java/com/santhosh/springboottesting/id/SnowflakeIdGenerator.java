@@ -0,0 +1,64 @@
+package com.santhosh.springboottesting.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time-ordered 63 bit ids: | 41 bits millis since 2024-01-01 | 6 bits shard | 6 bits worker | 10 bits sequence |.
+// The shard bits record where the row was first written, so id lookups can be routed without a directory.
+// Generation is a single CAS; when the 1024 ids of a millisecond are used up it borrows from the next one.
+public class SnowflakeIdGenerator {
+
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    static final int SEQUENCE_BITS = 10;
+    static final int WORKER_BITS = 6;
+    static final int SHARD_BITS = 6;
+    static final int WORKER_SHIFT = SEQUENCE_BITS;
+    static final int SHARD_SHIFT = SEQUENCE_BITS + WORKER_BITS;
+    static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_BITS + SHARD_BITS;
+
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    public static final int MAX_WORKERS = 1 << WORKER_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long workerId;
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    public SnowflakeIdGenerator(int workerId) {
+        if (workerId < 0 || workerId >= MAX_WORKERS) {
+            throw new IllegalArgumentException("workerId must be between 0 and " + (MAX_WORKERS - 1));
+        }
+        this.workerId = workerId;
+    }
+
+    public long nextId(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("shard must be between 0 and " + (MAX_SHARDS - 1));
+        }
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long state;
+        while (true) {
+            long last = lastState.get();
+            // never go back in time, even if the wall clock does
+            state = Math.max(now, last + 1);
+            if (lastState.compareAndSet(last, state)) {
+                break;
+            }
+        }
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & SEQUENCE_MASK;
+        return (millis << TIMESTAMP_SHIFT) | ((long) shard << SHARD_SHIFT) | (workerId << WORKER_SHIFT) | sequence;
+    }
+
+    public int getWorkerId() {
+        return (int) workerId;
+    }
+
+    public static int shardOf(long id) {
+        return (int) ((id >>> SHARD_SHIFT) & (MAX_SHARDS - 1));
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,54 @@
+package com.santhosh.springboottesting.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics;
+import com.santhosh.springboottesting.metrics.TimedJacksonHttpMessageConverter;
+import com.santhosh.springboottesting.model.Employee;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+// Writes Employee and collections of Employee with EmployeeJsonWriter straight into a generator over the
+// response stream, skipping the ObjectMapper's serializer lookup and bean introspection. Anything else, and
+// any mapper set up to indent or to use another encoding, goes through the regular Jackson path.
+public class EmployeeJsonHttpMessageConverter extends TimedJacksonHttpMessageConverter {
+
+    public EmployeeJsonHttpMessageConverter(ObjectMapper objectMapper, EmployeeMetrics metrics) {
+        super(objectMapper, metrics);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeJson(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        boolean single = object instanceof Employee;
+        boolean list = object instanceof Collection<?> && isEmployeeCollection(type);
+        if ((!single && !list) || getObjectMapper().isEnabled(SerializationFeature.INDENT_OUTPUT)
+                || getJsonEncoding(outputMessage.getHeaders().getContentType()) != JsonEncoding.UTF8) {
+            super.writeJson(object, type, outputMessage);
+            return;
+        }
+        try (JsonGenerator generator = getObjectMapper().getFactory()
+                .createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            if (single) {
+                EmployeeJsonWriter.write(generator, (Employee) object);
+            } else {
+                EmployeeJsonWriter.writeList(generator, (Collection<Employee>) object);
+            }
+        }
+    }
+
+    // the declared return type, List<Employee> for the controller's list endpoints
+    private static boolean isEmployeeCollection(Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && Collection.class.isAssignableFrom(raw)
+                && parameterized.getActualTypeArguments()[0] == Employee.class;
+    }
+}
@@ -0,0 +1,57 @@
+package com.santhosh.springboottesting.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.santhosh.springboottesting.model.Employee;
+
+import java.io.IOException;
+import java.util.Collection;
+
+// Hand-written streaming form of Employee, field for field what the reflective bean serializer produces:
+// id (as a string), firstName, lastName, email in declaration order, nulls written out, tenantId left out.
+// Field names are pre-encoded once, so writing an employee is only generator calls into Jackson's recycled buffer.
+public final class EmployeeJsonWriter {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString EMAIL = new SerializedString("email");
+
+    private EmployeeJsonWriter() {
+    }
+
+    public static void write(JsonGenerator generator, Employee employee) throws IOException {
+        if (employee == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        if (employee.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(Long.toString(employee.getId()));
+        }
+        writeString(generator, FIRST_NAME, employee.getFirstName());
+        writeString(generator, LAST_NAME, employee.getLastName());
+        writeString(generator, EMAIL, employee.getEmail());
+        generator.writeEndObject();
+    }
+
+    public static void writeList(JsonGenerator generator, Collection<Employee> employees) throws IOException {
+        generator.writeStartArray();
+        for (Employee employee : employees) {
+            write(generator, employee);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.santhosh.springboottesting.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// Latency histograms for the request path. Every histogram is created up front and looked up by enum
+// ordinal, so recording a sample never builds tags or allocates. Timings nest: endpoint > service >
+// repository, and serialization is recorded separately while the response is written.
+// Exported as employee_<layer>_latency_seconds{quantile=...} over a one minute sliding window.
+@Component
+public class EmployeeMetrics {
+
+    public enum ServiceMethod { SAVE_EMPLOYEE, GET_ALL_EMPLOYEES, GET_EMPLOYEE_BY_ID, UPDATE_EMPLOYEE, DELETE_EMPLOYEE,
+        GET_EMPLOYEES_BY_NAME, GET_EMPLOYEES_BY_IDS, GET_EMPLOYEES_BY_EMAILS, GET_EMPLOYEES_BY_NAMES,
+        BATCH_UPDATE, BATCH_UPSERT }
+
+    public enum RepositoryMethod { FIND_BY_EMAIL, FIND_ALL, FIND_BY_ID, SAVE, DELETE_BY_ID, FIND_BY_NAME, EXISTS_BY_ID, REPLICATE,
+        FIND_BY_EMAILS, FIND_BY_IDS, UPSERT_BY_EMAIL, UPDATE_BY_IDS, SOFT_DELETE_BY_ID,
+        FIND_BY_NAMES, PURGE_DELETED_BY_EMAIL }
+
+    public enum Payload { SINGLE, LIST }
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LatencyHistogram[] serviceHistograms;
+    private final LatencyHistogram[] repositoryHistograms;
+    private final LatencyHistogram[] serializationHistograms;
+    private final MeterRegistry registry;
+
+    public EmployeeMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.serviceHistograms = histograms("employee.service", "method", ServiceMethod.values());
+        this.repositoryHistograms = histograms("employee.repository", "method", RepositoryMethod.values());
+        this.serializationHistograms = histograms("employee.serialization", "payload", Payload.values());
+    }
+
+    public void recordService(ServiceMethod method, long startNanos) {
+        serviceHistograms[method.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    public void recordRepository(RepositoryMethod method, long startNanos) {
+        repositoryHistograms[method.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    public void recordSerialization(Payload payload, long startNanos) {
+        serializationHistograms[payload.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    LatencyHistogram endpointHistogram(String endpoint) {
+        return histogram("employee.endpoint", "endpoint", endpoint);
+    }
+
+    private LatencyHistogram[] histograms(String name, String tag, Enum<?>[] values) {
+        LatencyHistogram[] histograms = new LatencyHistogram[values.length];
+        for (Enum<?> value : values) {
+            histograms[value.ordinal()] = histogram(name, tag, value.name().toLowerCase());
+        }
+        return histograms;
+    }
+
+    private LatencyHistogram histogram(String name, String tag, String value) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (double percentile : PERCENTILES) {
+            Gauge.builder(name + ".latency", histogram, h -> h.valueAtPercentileSeconds(percentile))
+                    .tags(tag, value, "quantile", String.valueOf(percentile / 100))
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+        Gauge.builder(name + ".latency.max", histogram, LatencyHistogram::maxSeconds)
+                .tags(tag, value)
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder(name + ".calls", histogram, LatencyHistogram::totalCount)
+                .tags(tag, value)
+                .register(registry);
+        FunctionCounter.builder(name + ".time", histogram, LatencyHistogram::totalSeconds)
+                .tags(tag, value)
+                .baseUnit("seconds")
+                .register(registry);
+        return histogram;
+    }
+}
@@ -0,0 +1,46 @@
+package com.santhosh.springboottesting.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Times each controller method from handler selection until the response is complete (including
+// serialization). The start time lives in a per-thread slot instead of a boxed request attribute.
+// The metrics are tagged with the method name: handlers sharing a name share one histogram, since a second gauge
+// with the same name and tags would never be exported.
+public class EndpointLatencyInterceptor implements HandlerInterceptor {
+
+    private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final EmployeeMetrics metrics;
+    private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histogramsByName = new ConcurrentHashMap<>();
+
+    public EndpointLatencyInterceptor(EmployeeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        START.get()[0] = System.nanoTime();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            Method method = handlerMethod.getMethod();
+            LatencyHistogram histogram = histograms.get(method);
+            if (histogram == null) {
+                histogram = histograms.computeIfAbsent(method,
+                        m -> histogramsByName.computeIfAbsent(m.getName(), metrics::endpointHistogram));
+            }
+            histogram.record(System.nanoTime() - START.get()[0]);
+        }
+    }
+}
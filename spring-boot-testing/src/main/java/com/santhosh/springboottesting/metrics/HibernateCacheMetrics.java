@@ -0,0 +1,65 @@
+package com.santhosh.springboottesting.metrics;
+
+import com.santhosh.springboottesting.cache.CacheRegions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+// Second-level and query cache statistics per region, exported as hibernate_cache_*{region=...}.
+// Reads Hibernate's own counters, so hibernate.generate_statistics has to be on.
+@Component
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindRegion(registry, CacheRegions.EMPLOYEE,
+                () -> statistics.getDomainDataRegionStatistics(CacheRegions.EMPLOYEE));
+        bindRegion(registry, CacheRegions.EMPLOYEE_QUERIES,
+                () -> statistics.getQueryRegionStatistics(CacheRegions.EMPLOYEE_QUERIES));
+        FunctionCounter.builder("hibernate.cache.timestamps.invalidations", statistics,
+                        Statistics::getUpdateTimestampsCachePutCount)
+                .description("Table updates that invalidated cached query results")
+                .register(registry);
+    }
+
+    private static void bindRegion(MeterRegistry registry, String region, Supplier<CacheRegionStatistics> regionStatistics) {
+        FunctionCounter.builder("hibernate.cache.requests", regionStatistics,
+                        s -> value(s, CacheRegionStatistics::getHitCount))
+                .tags("region", region, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("hibernate.cache.requests", regionStatistics,
+                        s -> value(s, CacheRegionStatistics::getMissCount))
+                .tags("region", region, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("hibernate.cache.puts", regionStatistics,
+                        s -> value(s, CacheRegionStatistics::getPutCount))
+                .tag("region", region)
+                .register(registry);
+        Gauge.builder("hibernate.cache.entries", regionStatistics,
+                        s -> value(s, CacheRegionStatistics::getElementCountInMemory))
+                .tag("region", region)
+                .register(registry);
+    }
+
+    // Hibernate only creates a region's statistics once the region is first used
+    private static double value(Supplier<CacheRegionStatistics> regionStatistics,
+                                ToLongFunction<CacheRegionStatistics> counter) {
+        CacheRegionStatistics statistics = regionStatistics.get();
+        return statistics == null ? 0 : counter.applyAsLong(statistics);
+    }
+}
@@ -0,0 +1,94 @@
+package com.santhosh.springboottesting.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+// HdrHistogram recorder for one latency series. Recording is a few atomic increments and never allocates;
+// readers (the Prometheus scrape) swap out the interval histogram and fold it into a sliding window of
+// WINDOW_SLOTS slots of SLOT_NANOS each. Slots follow the clock, not the reads: every slot that ended since the
+// last read is cleared, so the window holds one minute whatever the scrape interval. Values recorded between two
+// reads all go into the slot of the later one.
+public class LatencyHistogram {
+
+    static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final int WINDOW_SLOTS = 6;
+    private static final long SLOT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long SNAPSHOT_TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+
+    // everything below is only touched by readers, under the instance lock
+    private final Histogram[] window = new Histogram[WINDOW_SLOTS];
+    private final Histogram snapshot = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private Histogram interval;
+    private final long createdAt;
+    // slots since createdAt, the current one is window[currentSlot % WINDOW_SLOTS]
+    private long currentSlot;
+    private long snapshotTakenAt;
+    private long totalCount;
+    private double totalNanos;
+
+    public LatencyHistogram() {
+        this(System.nanoTime());
+    }
+
+    LatencyHistogram(long createdAt) {
+        this.createdAt = createdAt;
+        for (int i = 0; i < WINDOW_SLOTS; i++) {
+            window[i] = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        }
+    }
+
+    public void record(long nanos) {
+        recorder.recordValue(nanos < 0 ? 0 : Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+    }
+
+    public synchronized double valueAtPercentileSeconds(double percentile) {
+        return refresh().getValueAtPercentile(percentile) / 1e9;
+    }
+
+    public synchronized double maxSeconds() {
+        return refresh().getMaxValue() / 1e9;
+    }
+
+    public synchronized long totalCount() {
+        refresh();
+        return totalCount;
+    }
+
+    public synchronized double totalSeconds() {
+        refresh();
+        return totalNanos / 1e9;
+    }
+
+    private Histogram refresh() {
+        return refresh(System.nanoTime());
+    }
+
+    synchronized Histogram refresh(long now) {
+        if (now - snapshotTakenAt < SNAPSHOT_TTL_NANOS && snapshotTakenAt != 0) {
+            return snapshot;
+        }
+        interval = recorder.getIntervalHistogram(interval);
+        totalCount += interval.getTotalCount();
+        totalNanos += interval.getMean() * interval.getTotalCount();
+
+        long nowSlot = (now - createdAt) / SLOT_NANOS;
+        // a gap of a whole window or more clears every slot once
+        for (long expired = Math.max(currentSlot + 1, nowSlot - WINDOW_SLOTS + 1); expired <= nowSlot; expired++) {
+            window[(int) (expired % WINDOW_SLOTS)].reset();
+        }
+        currentSlot = Math.max(currentSlot, nowSlot);
+        window[(int) (currentSlot % WINDOW_SLOTS)].add(interval);
+
+        snapshot.reset();
+        for (Histogram slot : window) {
+            snapshot.add(slot);
+        }
+        snapshotTakenAt = now;
+        return snapshot;
+    }
+}
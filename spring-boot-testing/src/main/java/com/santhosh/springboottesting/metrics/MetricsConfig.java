@@ -0,0 +1,34 @@
+package com.santhosh.springboottesting.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.json.EmployeeJsonHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public WebMvcConfigurer endpointLatencyConfigurer(EmployeeMetrics employeeMetrics) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new EndpointLatencyInterceptor(employeeMetrics))
+                        .addPathPatterns("/api/employees", "/api/employees/**");
+            }
+        };
+    }
+
+    // replaces Boot's default converter, which backs off when one is defined
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   EmployeeMetrics employeeMetrics,
+                                                                                   @Value("${app.json.streaming-employee-writer:true}") boolean streaming) {
+        return streaming ? new EmployeeJsonHttpMessageConverter(objectMapper, employeeMetrics)
+                : new TimedJacksonHttpMessageConverter(objectMapper, employeeMetrics);
+    }
+}
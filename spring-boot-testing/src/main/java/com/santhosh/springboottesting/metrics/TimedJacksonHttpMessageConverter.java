@@ -0,0 +1,37 @@
+package com.santhosh.springboottesting.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+// Records the time spent writing JSON responses, separately for single objects and lists.
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final EmployeeMetrics metrics;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, EmployeeMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        try {
+            writeJson(object, type, outputMessage);
+        } finally {
+            metrics.recordSerialization(object instanceof Collection<?>
+                    ? EmployeeMetrics.Payload.LIST : EmployeeMetrics.Payload.SINGLE, start);
+        }
+    }
+
+    protected void writeJson(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        super.writeInternal(object, type, outputMessage);
+    }
+}
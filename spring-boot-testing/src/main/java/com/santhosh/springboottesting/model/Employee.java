@@ -1,7 +1,18 @@
 package com.santhosh.springboottesting.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.santhosh.springboottesting.cache.CacheRegions;
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.annotations.Where;
+
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -9,13 +20,37 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EMPLOYEE)
+// tenant_id leads every index so per-tenant lookups and lists never leave the tenant's slice of the index,
+// only the purger looks for soft-deleted rows across tenants
+@Table(name = "employees", indexes = {
+        // duplicate checks and email lookups probe 16 bytes instead of the whole address, see EmployeeEmail
+        @Index(name = "uk_employees_tenant_email_hash", columnList = "tenant_id, email_hash", unique = true),
+        // case-insensitive name lookups, a page of them ordered by id without a sort
+        @Index(name = "idx_employees_tenant_normalized_name", columnList = "tenant_id, first_name_normalized, last_name_normalized, id"),
+        // id ranges of a tenant, for the boundaries and ranges of partitioned scans
+        @Index(name = "idx_employees_tenant_id", columnList = "tenant_id, id"),
+        @Index(name = "idx_employees_deleted_at", columnList = "deleted_at")
+})
+// soft-deleted rows stay in the table until purged, entity queries and loads never see them
+@Where(clause = "deleted_at is null")
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // generated in the application so the id can carry the shard the row was written to
+    @GeneratedValue(generator = "employee-id")
+    @GenericGenerator(name = "employee-id", type = EmployeeIdGenerator.class)
+    // generated ids are above 2^53, JavaScript would round them as JSON numbers; requests may send either form
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Long id;
 
+    // set by Hibernate from the session tenant and added to every entity query
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     @Column(name = "first_name", nullable = false)
     private String firstName;
 
@@ -24,4 +59,35 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    // lower-cased, trimmed copies of the names computed by the database, so every way a row is written keeps them
+    // current; only name lookups compare them, they are never written or sent to clients
+    @JsonIgnore
+    @Column(name = "first_name_normalized", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(trim(first_name)))")
+    private String firstNameNormalized;
+
+    @JsonIgnore
+    @Column(name = "last_name_normalized", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(trim(last_name)))")
+    private String lastNameNormalized;
+
+    // only ever written by the soft delete statement; native queries and JDBC readers skip rows that have it
+    @JsonIgnore
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    private Instant deletedAt;
+
+    // Derived from email whenever Hibernate writes the row, so persist and merge keep it current;
+    // native writes set it themselves. Null only on rows written before it existed, until EmailHashBackfill
+    // reaches them.
+    @JsonIgnore
+    @Access(AccessType.PROPERTY)
+    @Column(name = "email_hash", length = EmployeeEmail.HASH_LENGTH, columnDefinition = "binary(16)")
+    public byte[] getEmailHash() {
+        return email == null ? null : EmployeeEmail.hash(email);
+    }
+
+    public void setEmailHash(byte[] emailHash) {
+        // derived from email, the stored value is never read back
+    }
 }
@@ -0,0 +1,52 @@
+package com.santhosh.springboottesting.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.santhosh.springboottesting.events.EmployeeChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Immutable
+// rows are only ever inserted, in JDBC batches by EmployeeAuditWriter; the history of one employee is read newest first
+@Table(name = "employee_audit", indexes = {
+        @Index(name = "idx_employee_audit_tenant_employee", columnList = "tenant_id, employee_id, id")
+})
+public class EmployeeAudit {
+
+    // from the employee id generator, so ids are unique across shards and order the history by time
+    @Id
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmployeeChangedEvent.Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    // {"field":{"from":...,"to":...}} for every field the change touched
+    @JsonRawValue
+    @Column(nullable = false, length = 4000)
+    private String changes;
+}
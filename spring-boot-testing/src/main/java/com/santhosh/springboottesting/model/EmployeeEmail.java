@@ -0,0 +1,33 @@
+package com.santhosh.springboottesting.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Emails are unique per tenant regardless of case and surrounding spaces. The database compares them by
+// email_hash, the first HASH_LENGTH bytes of the SHA-256 of the normalized address: a fixed-width key instead of
+// a variable-length string, and the address itself keeps the spelling it was stored with.
+public final class EmployeeEmail {
+
+    public static final int HASH_LENGTH = 16;
+
+    private EmployeeEmail() {
+    }
+
+    // the same trimmed, lower-cased address ShardRouter places an email by
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static byte[] hash(String email) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalize(email).getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(digest, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
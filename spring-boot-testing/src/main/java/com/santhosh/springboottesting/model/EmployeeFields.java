@@ -0,0 +1,77 @@
+package com.santhosh.springboottesting.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Transient;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The Employee attributes a client may pick with fields=, read from the entity itself so a new column is
+// selectable as soon as it is mapped. Attributes hidden from JSON, like tenantId, can never be selected.
+public final class EmployeeFields {
+
+    public static final String ID = "id";
+
+    private static final Map<String, Field> SELECTABLE = selectable();
+
+    private EmployeeFields() {
+    }
+
+    // requested names in the entity's declaration order, the order full responses use
+    public static List<String> parse(String fields) {
+        List<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+        for (String name : requested) {
+            if (!SELECTABLE.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field " + name + ", expected any of " + SELECTABLE.keySet());
+            }
+        }
+        if (requested.isEmpty()) {
+            return all();
+        }
+        return SELECTABLE.keySet().stream().filter(requested::contains).toList();
+    }
+
+    public static List<String> all() {
+        return new ArrayList<>(SELECTABLE.keySet());
+    }
+
+    public static Map<String, Object> project(Employee employee, List<String> fields) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String name : fields) {
+            try {
+                projected.put(name, SELECTABLE.get(name).get(employee));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read Employee." + name, e);
+            }
+        }
+        return projected;
+    }
+
+    // the JSON form of a projected row: the id as a string, like Employee's own
+    public static Map<String, Object> forJson(Map<String, Object> row) {
+        row.computeIfPresent(ID, (name, id) -> id.toString());
+        return row;
+    }
+
+    private static Map<String, Field> selectable() {
+        Map<String, Field> fields = new LinkedHashMap<>();
+        for (Field field : Employee.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+                    || field.isAnnotationPresent(Transient.class) || field.isAnnotationPresent(JsonIgnore.class)) {
+                continue;
+            }
+            field.setAccessible(true);
+            fields.put(field.getName(), field);
+        }
+        return Collections.unmodifiableMap(fields);
+    }
+}
@@ -0,0 +1,25 @@
+package com.santhosh.springboottesting.model;
+
+import java.util.Locale;
+
+// first and last name together, the key of a lookup by name
+public record EmployeeName(String firstName, String lastName) {
+
+    // the key names are matched by, equal for names that only differ in case or surrounding spaces
+    public EmployeeName normalized() {
+        return new EmployeeName(normalize(firstName), normalize(lastName));
+    }
+
+    // what first_name_normalized and last_name_normalized hold: lower(trim(name)), and SQL trim only removes spaces
+    public static String normalize(String name) {
+        int start = 0;
+        int end = name.length();
+        while (start < end && name.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && name.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return name.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+}
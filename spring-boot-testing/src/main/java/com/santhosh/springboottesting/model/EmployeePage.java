@@ -0,0 +1,30 @@
+package com.santhosh.springboottesting.model;
+
+import java.util.Comparator;
+import java.util.List;
+
+// one page of the employees with a given name, ordered by id
+public record EmployeePage(int page, int size, boolean hasNext, List<Employee> employees) {
+
+    public static final int MAX_SIZE = 100;
+
+    public static void check(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("page must not be negative and size must be between 1 and " + MAX_SIZE);
+        }
+        if ((long) (page + 1) * size >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("page is too large");
+        }
+    }
+
+    // the page out of the first (page + 1) * size matches of every shard, each list ordered by id
+    public static EmployeePage merge(int page, int size, List<List<Employee>> shards, boolean shardHasMore) {
+        List<Employee> merged = shards.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Employee::getId))
+                .toList();
+        int end = (page + 1) * size;
+        int from = Math.min(page * size, merged.size());
+        return new EmployeePage(page, size, shardHasMore || merged.size() > end, merged.subList(from, Math.min(end, merged.size())));
+    }
+}
@@ -0,0 +1,65 @@
+package com.santhosh.springboottesting.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// AIMD concurrency limit: grows by one while requests finish under the target latency and the limit
+// is actually being used, shrinks multiplicatively as soon as latency goes over the target.
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int initialLimit, int maxLimit, long targetLatencyNanos, double backoffRatio) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limits must satisfy 0 < min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(initialLimit);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        while (true) {
+            int current = limit.get();
+            int next;
+            if (latencyNanos > targetLatencyNanos) {
+                next = Math.max(minLimit, (int) (current * backoffRatio));
+            } else if (inFlightBeforeRelease * 2 >= current) {
+                next = Math.min(maxLimit, current + 1);
+            } else {
+                return;
+            }
+            if (next == current || limit.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
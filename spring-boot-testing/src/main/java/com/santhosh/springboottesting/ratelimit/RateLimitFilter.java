@@ -0,0 +1,152 @@
+package com.santhosh.springboottesting.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rejects requests with 429 when the client or endpoint budget is spent and with 503 when the
+// endpoint is already running at its adaptive concurrency limit.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String API_PREFIX = "/api/employees";
+    static final String GRAPHQL_PATH = "/graphql";
+    static final String LIST_ENDPOINT = "list";
+    static final String EXPORT_ENDPOINT = "export";
+    static final String DEFAULT_ENDPOINT = "default";
+    static final String GRAPHQL_ENDPOINT = "graphql";
+    private static final String OVERFLOW_CLIENT = "<overflow>";
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties properties;
+    private final Map<String, EndpointLimits> endpoints = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !(request.getRequestURI().startsWith(API_PREFIX) || request.getRequestURI().equals(GRAPHQL_PATH));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointLimits limits = endpoints.computeIfAbsent(endpointName(request), this::createLimits);
+
+        TokenBucket clientBucket = limits.clientBucket(clientId(request), properties.getMaxTrackedClients());
+        if (!clientBucket.tryAcquire()) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, clientBucket.nanosUntilAvailable());
+            return;
+        }
+        // a request rejected further on is not served, so it does not cost the client or endpoint a token
+        if (!limits.endpointBucket.tryAcquire()) {
+            clientBucket.refund();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, limits.endpointBucket.nanosUntilAvailable());
+            return;
+        }
+        if (!limits.concurrencyLimiter.tryAcquire()) {
+            clientBucket.refund();
+            limits.endpointBucket.refund();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limits.concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    static String endpointName(HttpServletRequest request) {
+        // one query may look up dozens of employees
+        if (request.getRequestURI().equals(GRAPHQL_PATH)) {
+            return GRAPHQL_ENDPOINT;
+        }
+        String path = request.getRequestURI().substring(API_PREFIX.length());
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            if (path.isEmpty() || path.equals("/")) {
+                // a lookup by name reads one page through an index, not the whole table
+                return request.getParameter("firstName") != null ? DEFAULT_ENDPOINT : LIST_ENDPOINT;
+            }
+            if (path.startsWith("/" + EXPORT_ENDPOINT)) {
+                return EXPORT_ENDPOINT;
+            }
+        }
+        return DEFAULT_ENDPOINT;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String clientId = request.getHeader(properties.getClientHeader());
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+
+    private EndpointLimits createLimits(String endpoint) {
+        return new EndpointLimits(properties.getEndpoints().getOrDefault(endpoint, properties.getDefaultBudget()));
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(status.value(), status.getReasonPhrase());
+    }
+
+    AdaptiveConcurrencyLimiter concurrencyLimiter(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, this::createLimits).concurrencyLimiter;
+    }
+
+    private static class EndpointLimits {
+        private final RateLimitProperties.Budget budget;
+        private final TokenBucket endpointBucket;
+        private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+        private final AtomicLong nextEviction = new AtomicLong(System.nanoTime());
+
+        EndpointLimits(RateLimitProperties.Budget budget) {
+            this.budget = budget;
+            this.endpointBucket = new TokenBucket(budget.getEndpointCapacity(), budget.getEndpointRefillPerSecond());
+            this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(budget.getMinConcurrency(),
+                    budget.getInitialConcurrency(), budget.getMaxConcurrency(),
+                    budget.getTargetLatency().toNanos(), budget.getBackoffRatio());
+        }
+
+        TokenBucket clientBucket(String clientId, int maxTrackedClients) {
+            TokenBucket bucket = clientBuckets.get(clientId);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (clientBuckets.size() >= maxTrackedClients) {
+                evictFullBuckets();
+            }
+            // only while every tracked client is still spending its budget
+            String key = clientBuckets.size() < maxTrackedClients ? clientId : OVERFLOW_CLIENT;
+            return clientBuckets.computeIfAbsent(key, k -> new TokenBucket(budget.getClientCapacity(),
+                    budget.getClientRefillPerSecond()));
+        }
+
+        // drops the clients whose bucket has refilled, they get a new full one on their next request. At most one
+        // sweep per interval, so clients arriving while the table is full of busy ones do not each scan it
+        private void evictFullBuckets() {
+            long now = System.nanoTime();
+            long next = nextEviction.get();
+            if (now - next < 0 || !nextEviction.compareAndSet(next, now + EVICTION_INTERVAL_NANOS)) {
+                return;
+            }
+            clientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.santhosh.springboottesting.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // header used to identify the calling client, falls back to the remote address
+    private String clientHeader = "X-Client-Id";
+
+    // once this many clients are tracked, those whose bucket has refilled are dropped to make room; unknown clients
+    // only share a single overflow bucket while every tracked client is still spending its budget
+    private int maxTrackedClients = 10_000;
+
+    private Budget defaultBudget = new Budget();
+
+    // separate budgets for costly endpoints, keyed by endpoint name (list, export, graphql)
+    private Map<String, Budget> endpoints = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Budget {
+        // tokens available to a single client
+        private long clientCapacity = 50;
+        private double clientRefillPerSecond = 25;
+        // tokens shared by all clients of the endpoint
+        private long endpointCapacity = 1_000;
+        private double endpointRefillPerSecond = 500;
+        // adaptive concurrency limit of the endpoint
+        private int minConcurrency = 4;
+        private int initialConcurrency = 20;
+        private int maxConcurrency = 100;
+        private Duration targetLatency = Duration.ofMillis(250);
+        private double backoffRatio = 0.9;
+    }
+}
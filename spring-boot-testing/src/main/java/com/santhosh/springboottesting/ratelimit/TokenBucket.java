@@ -0,0 +1,56 @@
+package com.santhosh.springboottesting.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket implemented as GCRA: the whole bucket state is a single "theoretical arrival time",
+// so acquiring a token is one CAS and never takes a lock.
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    boolean tryAcquire(long now) {
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            long start = Math.max(tat, now);
+            if (start - now > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    // gives back a token taken by tryAcquire for a request that was not served; acquiring never starts before now,
+    // so this cannot raise the bucket above its capacity
+    public void refund() {
+        theoreticalArrivalTime.addAndGet(-emissionIntervalNanos);
+    }
+
+    // a full bucket holds no state a new one would not, so it can be dropped and recreated
+    boolean isFull(long now) {
+        return theoreticalArrivalTime.get() - now <= 0;
+    }
+
+    // nanoseconds until the next token becomes available, 0 if one is available now
+    public long nanosUntilAvailable() {
+        long now = System.nanoTime();
+        long wait = theoreticalArrivalTime.get() - now - burstToleranceNanos;
+        return Math.max(0L, wait);
+    }
+}
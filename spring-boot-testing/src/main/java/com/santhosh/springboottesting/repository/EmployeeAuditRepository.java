@@ -0,0 +1,11 @@
+package com.santhosh.springboottesting.repository;
+
+import com.santhosh.springboottesting.model.EmployeeAudit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmployeeAuditRepository extends JpaRepository<EmployeeAudit, Long> {
+    // newest first; a Slice reads one row past the page instead of counting the whole history
+    Slice<EmployeeAudit> findByEmployeeIdOrderByIdDesc(Long employeeId, Pageable pageable);
+}
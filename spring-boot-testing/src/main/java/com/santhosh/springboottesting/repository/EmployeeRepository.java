@@ -1,28 +1,75 @@
 package com.santhosh.springboottesting.repository;
 
+import com.santhosh.springboottesting.cache.CacheRegions;
 import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeEmail;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
-    Optional<Employee> findByEmail(String email);
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
+    // implemented in EmployeeRepositoryImpl
+    @Override
+    Optional<Employee> findById(Long id);
+
+    @Override
+    void deleteById(Long id);
+
+    // one range of a partitioned scan, see PartitionedScan
+    List<Employee> findAllByIdBetweenOrderById(Long from, Long to);
+
+    // ignores case and surrounding spaces, a single probe of uk_employees_tenant_email_hash. Rows the backfill has
+    // not hashed yet are matched by the whole address, as before email_hash existed
+    default Optional<Employee> findByEmail(String email) {
+        Optional<Employee> employee = findByEmailHash(EmployeeEmail.hash(email));
+        return employee.isPresent() || isEmailHashBackfilled() ? employee : findFirstByEmailAndEmailHashIsNull(email);
+    }
+
+    Optional<Employee> findFirstByEmailAndEmailHashIsNull(String email);
+
+    // lookups go through the query cache; any write to employees invalidates the cached results
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.EMPLOYEE_QUERIES)})
+    Optional<Employee> findByEmailHash(byte[] emailHash);
+
+    // Name lookups: any number of employees share a name, so they return a page of them ordered by id, and a Slice
+    // reads one row past the page instead of counting every match. They compare the normalized columns, ignoring case
+    // and surrounding spaces, and are answered from idx_employees_tenant_normalized_name. The JPQL variants render
+    // to the same SQL, and so do the native ones, so each pair shares one prepared statement and query plan.
 
     // define custom query using JPQL with index params
-    @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
-    Employee findByJPQL(String firstName, String lastName);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.EMPLOYEE_QUERIES)})
+    @Query("select e from Employee e where e.firstNameNormalized = lower(trim(?1)) and e.lastNameNormalized = lower(trim(?2)) order by e.id")
+    Slice<Employee> findByJPQL(String firstName, String lastName, Pageable pageable);
 
     // define custom query using JPQL with Named params
-    @Query("select e from Employee e where e.firstName = :firstName and e.lastName = :lastName")
-    Employee findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.EMPLOYEE_QUERIES)})
+    @Query("select e from Employee e where e.firstNameNormalized = lower(trim(:firstName)) and e.lastNameNormalized = lower(trim(:lastName)) order by e.id")
+    Slice<Employee> findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName, Pageable pageable);
 
+    // native queries bypass Hibernate's tenant filter and the soft delete restriction, so they apply both themselves,
+    // and their cached results are only invalidated through the query spaces they declare
     // define custom query using SQL with index params
-    @Query(value = "select * from employees e where e.first_name = ?1 and e.last_name = ?2", nativeQuery = true)
-    Employee findByNativeSQL(String firstName, String lastName);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.EMPLOYEE_QUERIES),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "employees")})
+    @Query(value = "select * from employees e where e.tenant_id = ?#{T(com.santhosh.springboottesting.tenant.TenantContext).current()} and e.first_name_normalized = lower(trim(?1)) and e.last_name_normalized = lower(trim(?2)) and e.deleted_at is null order by e.id", nativeQuery = true)
+    Slice<Employee> findByNativeSQL(String firstName, String lastName, Pageable pageable);
 
     // define custom query using SQL with Named params
-    @Query(value = "select * from employees e where e.first_name = :firstName and e.last_name = :lastName", nativeQuery = true)
-    Employee findByNativeSQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.EMPLOYEE_QUERIES),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "employees")})
+    @Query(value = "select * from employees e where e.tenant_id = :#{T(com.santhosh.springboottesting.tenant.TenantContext).current()} and e.first_name_normalized = lower(trim(:firstName)) and e.last_name_normalized = lower(trim(:lastName)) and e.deleted_at is null order by e.id", nativeQuery = true)
+    Slice<Employee> findByNativeSQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName, Pageable pageable);
 }
@@ -0,0 +1,69 @@
+package com.santhosh.springboottesting.repository;
+
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeName;
+import com.santhosh.springboottesting.scan.IdRange;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface EmployeeRepositoryCustom {
+
+    // served from the second-level cache, restricted to the current tenant
+    Optional<Employee> findById(Long id);
+
+    // the same for many ids: cached ones come from the second-level cache, the rest from IN queries. Unordered,
+    // ids that are not found are left out
+    List<Employee> loadAllById(Collection<Long> ids);
+
+    // only what the second-level cache holds for the current tenant, without touching the database
+    Optional<Employee> findCachedById(Long id);
+
+    void deleteById(Long id);
+
+    // marks the employee deleted with a single UPDATE, returns the number of rows it changed (0 or 1)
+    int softDeleteById(Long id);
+
+    // removes soft-deleted rows of the current tenant that still hold these emails
+    int purgeDeletedByEmail(Collection<String> emails);
+
+    // only the given attributes plus the id, selected as columns instead of whole entities
+    List<Map<String, Object>> findAllFields(List<String> fields);
+
+    // the same for the ids in range, ordered by id
+    List<Map<String, Object>> findAllFields(List<String> fields, IdRange range);
+
+    Optional<Map<String, Object>> findFieldsById(Long id, List<String> fields);
+
+    // the same for every employee of the current tenant matching any of the keys, one IN query per chunk of keys
+    List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, List<String> fields);
+
+    List<Map<String, Object>> findFieldsByEmails(Collection<String> emails, List<String> fields);
+
+    List<Map<String, Object>> findFieldsByNames(Collection<EmployeeName> names, List<String> fields);
+
+    // the current tenant's employees with any of the given emails
+    List<Employee> findAllByEmail(Collection<String> emails);
+
+    // false until EmailHashBackfill has hashed the emails of every shard; email lookups and upserts then also
+    // match rows without a hash by the whole address. Always true when the backfill is switched off
+    boolean isEmailHashBackfilled();
+
+    // set-based writes for batches, one statement per chunk of rows. Every employee must carry all of its
+    // columns; they are written for the current tenant and shard, bypassing the persistence context.
+    // Inserts the employees whose email is new to the tenant and overwrites the names of the others, which keep
+    // their ids. Soft-deleted rows count as others, purge them first.
+    int upsertByEmail(List<Employee> employees);
+
+    // overwrites names and email of the existing employees with the given ids
+    int updateByIds(List<Employee> employees);
+
+    // inserts the employee with its existing id, used to move a row to another shard. The same transaction
+    // records in employee_moves that the row on fromShard is still to be deleted
+    Employee replicate(Employee employee, int fromShard);
+
+    // the row left on the other shard is gone, drops the employee_moves record of the current shard
+    int deleteMove(Long id);
+}
@@ -0,0 +1,484 @@
+package com.santhosh.springboottesting.repository;
+
+import com.santhosh.springboottesting.backfill.EmailHashBackfill;
+import com.santhosh.springboottesting.events.EmployeeChangedEvent;
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeEmail;
+import com.santhosh.springboottesting.model.EmployeeFields;
+import com.santhosh.springboottesting.model.EmployeeName;
+import com.santhosh.springboottesting.scan.IdRange;
+import com.santhosh.springboottesting.sharding.ShardContext;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    // keeps every statement well under the bind parameter limits of MySQL and H2
+    private static final int ROWS_PER_STATEMENT = 100;
+
+    private static final String[] QUERY_SPACES = {"employees"};
+
+    // created on every shard by ShardMoveCompleter
+    private static final String MOVES = "employee_moves";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private ApplicationEventPublisher publisher;
+    private ObjectProvider<EmailHashBackfill> emailHashBackfill;
+
+    public EmployeeRepositoryImpl(ApplicationEventPublisher publisher, ObjectProvider<EmailHashBackfill> emailHashBackfill) {
+        this.publisher = publisher;
+        this.emailHashBackfill = emailHashBackfill;
+    }
+
+    // em.find goes through the second-level cache but, unlike queries, skips Hibernate's tenant filter
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Employee> findById(Long id) {
+        Employee employee = entityManager.find(Employee.class, id);
+        if (employee == null) {
+            return Optional.empty();
+        }
+        // the tenant id is only filled in at flush, an entity without one was persisted by this session
+        Object tenant = entityManager.unwrap(Session.class).getTenantIdentifier();
+        boolean visible = tenant == null || employee.getTenantId() == null || tenant.equals(employee.getTenantId());
+        return visible && employee.getDeletedAt() == null ? Optional.of(employee) : Optional.empty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> loadAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Session session = entityManager.unwrap(Session.class);
+        List<Employee> loaded = session.byMultipleIds(Employee.class)
+                .enableOrderedReturn(false)
+                .multiLoad(new ArrayList<>(ids));
+        Object tenant = session.getTenantIdentifier();
+        List<Employee> employees = new ArrayList<>(loaded.size());
+        for (Employee employee : loaded) {
+            if (employee != null && employee.getDeletedAt() == null
+                    && (tenant == null || employee.getTenantId() == null || tenant.equals(employee.getTenantId()))) {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+
+    // no transaction, which would take a connection first; served while the database is not answering
+    @Override
+    public Optional<Employee> findCachedById(Long id) {
+        SessionFactoryImplementor factory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Employee.class);
+        EntityDataAccess entityCache = persister.canReadFromCache() ? persister.getCacheAccessStrategy() : null;
+        String tenant = TenantContext.current();
+        if (entityCache == null || !entityCache.contains(entityCache.generateCacheKey(id, persister, factory, tenant))) {
+            return Optional.empty();
+        }
+        try (Session session = factory.withOptions().tenantIdentifier(tenant).openSession()) {
+            session.setCacheMode(CacheMode.GET);
+            Employee employee = session.get(Employee.class, id);
+            return employee == null || employee.getDeletedAt() != null ? Optional.empty() : Optional.of(employee);
+        }
+    }
+
+    // removing the loaded entity evicts exactly this id from the cache, a bulk delete would drop the whole region
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        findById(id).ifPresent(entityManager::remove);
+    }
+
+    // One UPDATE instead of loading and removing the row, the row keeps its index entries until the purger
+    // removes it. Hibernate does not see the statement, so this does what it does around its own deletes:
+    // soft-lock the cached entity against concurrent loads, mark cached lookups stale, and publish DELETED.
+    @Override
+    @Transactional
+    public int softDeleteById(Long id) {
+        entityManager.flush();
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Employee.class);
+        EntityDataAccess entityCache = persister.canWriteToCache() ? persister.getCacheAccessStrategy() : null;
+        Object cacheKey = entityCache == null ? null
+                : entityCache.generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+        SoftLock lock = entityCache == null ? null : entityCache.lockItem(session, cacheKey, null);
+        TimestampsCache timestamps = factory.getCache().getTimestampsCache();
+        timestamps.preInvalidate(QUERY_SPACES, session);
+
+        String tenant = TenantContext.current();
+        EmployeeSnapshot before = session.doReturningWork(connection -> {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "update employees set deleted_at = ? where id = ? and tenant_id = ? and deleted_at is null")) {
+                update.setTimestamp(1, Timestamp.from(Instant.now()));
+                update.setLong(2, id);
+                update.setString(3, tenant);
+                if (update.executeUpdate() == 0) {
+                    return null;
+                }
+            }
+            // the update holds the row lock, this is the state that was deleted
+            try (PreparedStatement select = connection.prepareStatement(
+                    "select first_name, last_name, email from employees where id = ?")) {
+                select.setLong(1, id);
+                try (ResultSet row = select.executeQuery()) {
+                    row.next();
+                    return new EmployeeSnapshot(id, tenant, row.getString(1), row.getString(2), row.getString(3));
+                }
+            }
+        });
+        Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+        if (managed != null) {
+            entityManager.detach(managed);
+        }
+
+        int shard = ShardContext.current();
+        session.getActionQueue().registerProcess((success, completed) -> {
+            if (entityCache != null) {
+                entityCache.unlockItem(completed, cacheKey, lock);
+            }
+            timestamps.invalidate(QUERY_SPACES, completed);
+            if (success && before != null) {
+                publisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.DELETED, before, null, shard));
+            }
+        });
+        return before == null ? 0 : 1;
+    }
+
+    // soft-deleted rows are never cached or returned by a query, so removing them needs no cache cleanup.
+    // Until the backfill is done, a row without a hash is matched by the whole address
+    @Override
+    @Transactional
+    public int purgeDeletedByEmail(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return 0;
+        }
+        String tenant = TenantContext.current();
+        boolean backfilled = isEmailHashBackfilled();
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        String sql = "delete from employees where tenant_id = ? and deleted_at is not null and (email_hash in (" + placeholders + ")"
+                + (backfilled ? "" : " or email_hash is null and email in (" + placeholders + ")") + ")";
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement delete = connection.prepareStatement(sql)) {
+                int position = 1;
+                delete.setString(position++, tenant);
+                for (String email : emails) {
+                    delete.setBytes(position++, EmployeeEmail.hash(email));
+                }
+                if (!backfilled) {
+                    for (String email : emails) {
+                        delete.setString(position++, email);
+                    }
+                }
+                return delete.executeUpdate();
+            }
+        });
+    }
+
+    // a plain INSERT with the assigned id, so an id already taken on this shard fails on the primary key. Native
+    // statements bypass EmployeeChangeListener, the CREATED event is published here once the insert commits
+    @Override
+    @Transactional
+    public Employee replicate(Employee employee, int fromShard) {
+        String tenant = TenantContext.current();
+        entityManager.createNativeQuery("insert into employee_moves (employee_id, tenant_id, from_shard) values (?, ?, ?)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(MOVES)
+                .setParameter(1, employee.getId())
+                .setParameter(2, tenant)
+                .setParameter(3, fromShard)
+                .executeUpdate();
+        mutation("insert into employees (id, tenant_id, first_name, last_name, email, email_hash) values (?, ?, ?, ?, ?, ?)")
+                .setParameter(1, employee.getId())
+                .setParameter(2, tenant)
+                .setParameter(3, employee.getFirstName())
+                .setParameter(4, employee.getLastName())
+                .setParameter(5, employee.getEmail())
+                .setParameter(6, employee.getEmailHash())
+                .executeUpdate();
+        EmployeeSnapshot created = new EmployeeSnapshot(employee.getId(), tenant, employee.getFirstName(),
+                employee.getLastName(), employee.getEmail());
+        int shard = ShardContext.current();
+        entityManager.unwrap(SessionImplementor.class).getActionQueue().registerProcess((success, completed) -> {
+            if (success) {
+                publisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, null, created, shard));
+            }
+        });
+        return employee;
+    }
+
+    @Override
+    @Transactional
+    public int deleteMove(Long id) {
+        return entityManager.createNativeQuery("delete from employee_moves where employee_id = ?")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(MOVES)
+                .setParameter(1, id)
+                .executeUpdate();
+    }
+
+    // one (tenant_id, email_hash) IN query, the tenant added by Hibernate's filter. Until the backfill is done,
+    // emails not found by hash are looked up again by the whole address among the rows without one.
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> findAllByEmail(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+        List<Employee> found = entityManager.createQuery("select e from Employee e where e.emailHash in :hashes", Employee.class)
+                .setParameter("hashes", hashes(emails))
+                .getResultList();
+        if (found.size() == emails.size() || isEmailHashBackfilled()) {
+            return found;
+        }
+        List<Employee> employees = new ArrayList<>(found);
+        employees.addAll(entityManager.createQuery("select e from Employee e where e.emailHash is null and e.email in :emails",
+                        Employee.class)
+                .setParameter("emails", emails)
+                .getResultList());
+        return employees;
+    }
+
+    @Override
+    public boolean isEmailHashBackfilled() {
+        EmailHashBackfill backfill = emailHashBackfill.getIfAvailable();
+        return backfill == null || backfill.isComplete();
+    }
+
+    // MySQL: multi-row INSERT ... ON DUPLICATE KEY UPDATE, the duplicate being the (tenant_id, email_hash) key.
+    // Anything else (H2): MERGE from a VALUES list on tenant and email hash. A matched row keeps its id and its
+    // spelling. Soft-deleted rows holding the emails are matched too, purgeDeletedByEmail them first.
+    // Until the backfill is done, a row without a hash matches by the whole address and gets its hash: MySQL
+    // through uk_employees_tenant_email, which is only dropped after the backfill, H2 through a wider ON clause.
+    @Override
+    @Transactional
+    public int upsertByEmail(List<Employee> employees) {
+        boolean mysql = dialect() instanceof MySQLDialect;
+        String matching = isEmailHashBackfilled() ? "t.email_hash = s.email_hash"
+                : "(t.email_hash = s.email_hash or t.email_hash is null and t.email = s.email)";
+        int changed = 0;
+        for (List<Employee> chunk : chunks(employees)) {
+            StringBuilder sql = new StringBuilder(mysql
+                    ? "insert into employees (id, tenant_id, first_name, last_name, email, email_hash) values "
+                    : "merge into employees t using (values ");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append(mysql ? "(?, ?, ?, ?, ?, ?)"
+                        : "(cast(? as bigint), cast(? as varchar), cast(? as varchar), cast(? as varchar), cast(? as varchar),"
+                        + " cast(? as binary(16)))");
+            }
+            sql.append(mysql
+                    ? " as s on duplicate key update first_name = s.first_name, last_name = s.last_name, email_hash = s.email_hash"
+                    : ") s(id, tenant_id, first_name, last_name, email, email_hash) on t.tenant_id = s.tenant_id and " + matching
+                    + " when matched then update set t.first_name = s.first_name, t.last_name = s.last_name,"
+                    + " t.email_hash = s.email_hash"
+                    + " when not matched then insert (id, tenant_id, first_name, last_name, email, email_hash)"
+                    + " values (s.id, s.tenant_id, s.first_name, s.last_name, s.email, s.email_hash)");
+            NativeQuery<?> query = mutation(sql.toString());
+            int position = 1;
+            for (Employee employee : chunk) {
+                query.setParameter(position++, employee.getId());
+                query.setParameter(position++, TenantContext.current());
+                query.setParameter(position++, employee.getFirstName());
+                query.setParameter(position++, employee.getLastName());
+                query.setParameter(position++, employee.getEmail());
+                query.setParameter(position++, employee.getEmailHash());
+            }
+            changed += query.executeUpdate();
+        }
+        return changed;
+    }
+
+    // one UPDATE per chunk, the new values picked per row by CASE on the id
+    @Override
+    @Transactional
+    public int updateByIds(List<Employee> employees) {
+        int changed = 0;
+        for (List<Employee> chunk : chunks(employees)) {
+            StringBuilder sql = new StringBuilder("update employees set ");
+            String[] columns = {"first_name", "last_name", "email", "email_hash"};
+            for (int column = 0; column < columns.length; column++) {
+                sql.append(column == 0 ? "" : ", ").append(columns[column]).append(" = case id");
+                sql.append((column == 3 ? " when ? then cast(? as binary(16))" : " when ? then ?").repeat(chunk.size())).append(" end");
+            }
+            sql.append(" where tenant_id = ? and deleted_at is null and id in (").append(String.join(", ", Collections.nCopies(chunk.size(), "?"))).append(")");
+            NativeQuery<?> query = mutation(sql.toString());
+            int position = 1;
+            for (int column = 0; column < columns.length; column++) {
+                for (Employee employee : chunk) {
+                    query.setParameter(position++, employee.getId());
+                    query.setParameter(position++, column == 0 ? employee.getFirstName()
+                            : column == 1 ? employee.getLastName() : column == 2 ? employee.getEmail() : employee.getEmailHash());
+                }
+            }
+            query.setParameter(position++, TenantContext.current());
+            for (Employee employee : chunk) {
+                query.setParameter(position++, employee.getId());
+            }
+            changed += query.executeUpdate();
+        }
+        return changed;
+    }
+
+    // declaring Employee as the affected entity makes Hibernate evict its cache regions after the statement
+    private NativeQuery<?> mutation(String sql) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(Employee.class);
+        return query;
+    }
+
+    private Dialect dialect() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+    }
+
+    private static List<byte[]> hashes(Collection<String> emails) {
+        return emails.stream().map(EmployeeEmail::hash).toList();
+    }
+
+    private static <T> List<List<T>> chunks(List<T> rows) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < rows.size(); start += ROWS_PER_STATEMENT) {
+            chunks.add(rows.subList(start, Math.min(rows.size(), start + ROWS_PER_STATEMENT)));
+        }
+        return chunks;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllFields(List<String> fields) {
+        return findAllFields(fields, IdRange.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllFields(List<String> fields, IdRange range) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : fieldsQuery(fields, range.isAll() ? null
+                : employee -> builder.between(employee.<Long>get(EmployeeFields.ID), range.from(), range.to()), !range.isAll()).getResultList()) {
+            rows.add(toMap(tuple, fields));
+        }
+        return rows;
+    }
+
+    // a column query, so unlike findById it is tenant-filtered by Hibernate and bypasses the entity cache
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findFieldsById(Long id, List<String> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        return fieldsQuery(fields, employee -> builder.equal(employee.get(EmployeeFields.ID), id), false)
+                .getResultStream().findFirst().map(tuple -> toMap(tuple, fields));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, List<String> fields) {
+        return findFieldsIn(ids, fields, (employee, chunk) -> employee.get(EmployeeFields.ID).in(chunk));
+    }
+
+    // like findAllByEmail, until the backfill is done rows without a hash are matched by the whole address
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsByEmails(Collection<String> emails, List<String> fields) {
+        if (isEmailHashBackfilled()) {
+            return findFieldsIn(emails, fields, (employee, chunk) -> employee.get("emailHash").in(hashes(chunk)));
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        return findFieldsIn(emails, fields, (employee, chunk) -> builder.or(employee.get("emailHash").in(hashes(chunk)),
+                builder.and(builder.isNull(employee.get("emailHash")), employee.get("email").in(chunk))));
+    }
+
+    // criteria queries have no row value IN, so the pairs are OR-ed; each one is a probe of
+    // (tenant_id, first_name_normalized, last_name_normalized, ...)
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsByNames(Collection<EmployeeName> names, List<String> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        return findFieldsIn(names, fields, (employee, chunk) -> builder.or(chunk.stream()
+                .map(EmployeeName::normalized)
+                .map(name -> builder.and(builder.equal(employee.get("firstNameNormalized"), name.firstName()),
+                        builder.equal(employee.get("lastNameNormalized"), name.lastName())))
+                .toArray(Predicate[]::new)));
+    }
+
+    private <K> List<Map<String, Object>> findFieldsIn(Collection<K> keys, List<String> fields,
+                                                       BiFunction<Root<Employee>, List<K>, Predicate> restriction) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (List<K> chunk : chunks(new ArrayList<>(keys))) {
+            for (Tuple tuple : fieldsQuery(fields, employee -> restriction.apply(employee, chunk), false).getResultList()) {
+                rows.add(toMap(tuple, fields));
+            }
+        }
+        return rows;
+    }
+
+    // the id and the given attributes of the employees matching where (all when null)
+    private TypedQuery<Tuple> fieldsQuery(List<String> fields, Function<Root<Employee>, Predicate> where, boolean orderById) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(employee.get(EmployeeFields.ID).alias(EmployeeFields.ID));
+        for (String field : fields) {
+            if (!field.equals(EmployeeFields.ID)) {
+                selections.add(employee.get(field).alias(field));
+            }
+        }
+        query.multiselect(selections);
+        if (where != null) {
+            query.where(where.apply(employee));
+        }
+        if (orderById) {
+            query.orderBy(builder.asc(employee.get(EmployeeFields.ID)));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put(EmployeeFields.ID, tuple.get(EmployeeFields.ID));
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+}
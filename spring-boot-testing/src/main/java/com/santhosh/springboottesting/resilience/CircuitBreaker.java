@@ -0,0 +1,178 @@
+package com.santhosh.springboottesting.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Count-based circuit breaker. CLOSED: calls go through and the outcomes of the last windowSize calls are kept;
+// once at least minimumCalls are in the window and the share of failures reaches the threshold, it opens.
+// OPEN: calls are rejected until openDuration has passed. HALF_OPEN: halfOpenCalls trial calls are let through,
+// the first failure opens it again and halfOpenCalls successes close it with an empty window.
+// Every service call goes through it, so while CLOSED calls and outcomes only touch atomics; the lock is taken
+// to change state and for the few calls made while it is not CLOSED.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private volatile Window window;
+
+    // written under the lock, state last, so reading state first sees the rest
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+    private volatile long timesOpened;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openNanos,
+                          int halfOpenCalls, LongSupplier nanoClock) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("circuit breaker needs 0 < minimumCalls <= windowSize and halfOpenCalls > 0");
+        }
+        this.windowSize = windowSize;
+        this.window = new Window(windowSize);
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean tryAcquire() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && nanoClock.getAsLong() - openedAt < openNanos) {
+            return false;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                halfOpenPermits = 0;
+                halfOpenSuccesses = 0;
+                state = State.HALF_OPEN;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits >= halfOpenCalls) {
+                    return false;
+                }
+                halfOpenPermits++;
+            }
+            return true;
+        }
+    }
+
+    // gives back a permission that was not used for a call
+    public void release() {
+        if (state != State.HALF_OPEN) {
+            return;
+        }
+        synchronized (this) {
+            if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+                halfOpenPermits--;
+            }
+        }
+    }
+
+    // while OPEN, outcomes of calls that started before the circuit opened are dropped, they say nothing new
+    public void onSuccess() {
+        State current = state;
+        if (current == State.CLOSED) {
+            window.record(false);
+        } else if (current == State.HALF_OPEN) {
+            synchronized (this) {
+                if (state == State.HALF_OPEN && ++halfOpenSuccesses >= halfOpenCalls) {
+                    close();
+                }
+            }
+        }
+    }
+
+    public void onFailure() {
+        State current = state;
+        if (current == State.CLOSED) {
+            Window recording = window;
+            int failures = recording.record(true);
+            int calls = recording.calls();
+            if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+                synchronized (this) {
+                    // another failure may have opened it already, or trial calls closed it with a new window
+                    if (state == State.CLOSED && window == recording) {
+                        open();
+                    }
+                }
+            }
+        } else if (current == State.HALF_OPEN) {
+            synchronized (this) {
+                if (state == State.HALF_OPEN) {
+                    open();
+                }
+            }
+        }
+    }
+
+    private void open() {
+        openedAt = nanoClock.getAsLong();
+        timesOpened++;
+        state = State.OPEN;
+    }
+
+    // outcomes still being recorded into the old window are lost with it
+    private void close() {
+        window = new Window(windowSize);
+        state = State.CLOSED;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // until trial calls are let through, for Retry-After
+    public long remainingOpenNanos() {
+        return state == State.OPEN ? Math.max(0, openNanos - (nanoClock.getAsLong() - openedAt)) : 0;
+    }
+
+    public double getFailureRate() {
+        Window current = window;
+        int calls = current.calls();
+        return calls == 0 ? 0 : (double) current.failures.get() / calls;
+    }
+
+    public long getTimesOpened() {
+        return timesOpened;
+    }
+
+    // Ring buffer of the outcomes of one CLOSED period, 1 for a failure. Each call claims the next slot, swaps its
+    // outcome in and moves the failure count by the difference; racing calls may leave the count briefly off by one.
+    private static final class Window {
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLong recorded = new AtomicLong();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        // returns the failures in the window
+        private int record(boolean failed) {
+            int slot = (int) (recorded.getAndIncrement() % outcomes.length());
+            int outcome = failed ? 1 : 0;
+            return failures.addAndGet(outcome - outcomes.getAndSet(slot, outcome));
+        }
+
+        private int calls() {
+            return (int) Math.min(recorded.get(), outcomes.length());
+        }
+    }
+}
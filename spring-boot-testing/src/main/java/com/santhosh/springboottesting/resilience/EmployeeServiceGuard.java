@@ -0,0 +1,185 @@
+package com.santhosh.springboottesting.resilience;
+
+import com.santhosh.springboottesting.exception.ServiceUnavailableException;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeFields;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Wraps every EmployeeService call in the circuit breaker and a bulkhead. Full-table scans have a bulkhead of their
+// own, so slow scans cannot take the slots of lookups and writes. Only a database that does not answer
+// counts as a failure (statement timeouts, no connection); a taken email or a missing employee is a success.
+// While calls are rejected, lookups by id are served from the second-level cache when every employee asked for is
+// in it, possibly stale; everything else fails fast with 503 instead of holding a request thread.
+public class EmployeeServiceGuard implements MethodInterceptor {
+
+    private static final Set<String> SCANS = Set.of("getAllEmployees");
+
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Semaphore scanBulkhead;
+    private final long maxWaitNanos;
+    private final EmployeeRepository employeeRepository;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder circuitRejected = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder staleReads = new LongAdder();
+
+    public EmployeeServiceGuard(CircuitBreaker circuitBreaker, Semaphore bulkhead, Semaphore scanBulkhead,
+                                long maxWaitNanos, EmployeeRepository employeeRepository) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.scanBulkhead = scanBulkhead;
+        this.maxWaitNanos = maxWaitNanos;
+        this.employeeRepository = employeeRepository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        // checked before the bulkhead, so an open circuit answers at once instead of after max-wait
+        if (!circuitBreaker.tryAcquire()) {
+            return staleOrReject(invocation, circuitRejected, new ServiceUnavailableException(
+                    "Employee database is unavailable", retryAfterSeconds(circuitBreaker.remainingOpenNanos())));
+        }
+        Semaphore permits = SCANS.contains(invocation.getMethod().getName()) ? scanBulkhead : bulkhead;
+        if (!acquire(permits)) {
+            circuitBreaker.release();
+            return staleOrReject(invocation, bulkheadRejected,
+                    new ServiceUnavailableException("Too many concurrent employee requests", 1));
+        }
+        try {
+            Object result = invocation.proceed();
+            circuitBreaker.onSuccess();
+            succeeded.increment();
+            return result;
+        } catch (Throwable e) {
+            if (isDatabaseUnavailable(e)) {
+                circuitBreaker.onFailure();
+                failed.increment();
+            } else {
+                circuitBreaker.onSuccess();
+                succeeded.increment();
+            }
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquire(Semaphore permits) {
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Object staleOrReject(MethodInvocation invocation, LongAdder rejected, ServiceUnavailableException unavailable) {
+        Object stale = staleRead(invocation);
+        if (stale == null) {
+            rejected.increment();
+            throw unavailable;
+        }
+        staleReads.increment();
+        return stale;
+    }
+
+    // null when the call cannot be answered from the cache; an id that is not cached may or may not exist
+    @SuppressWarnings("unchecked")
+    private Object staleRead(MethodInvocation invocation) {
+        Object[] arguments = invocation.getArguments();
+        switch (invocation.getMethod().getName()) {
+            case "getEmployeeById": {
+                Optional<Employee> employee = employeeRepository.findCachedById((Long) arguments[0]);
+                if (employee.isEmpty()) {
+                    return null;
+                }
+                return arguments.length == 1 ? employee
+                        : employee.map(found -> EmployeeFields.project(found, (List<String>) arguments[1]));
+            }
+            case "getEmployeesByIds": {
+                List<Employee> employees = new ArrayList<>();
+                for (Long id : ((List<Long>) arguments[0]).stream().distinct().toList()) {
+                    Optional<Employee> employee = employeeRepository.findCachedById(id);
+                    if (employee.isEmpty()) {
+                        return null;
+                    }
+                    employees.add(employee.get());
+                }
+                return arguments.length == 1 ? employees
+                        : employees.stream().map(found -> EmployeeFields.project(found, (List<String>) arguments[1])).toList();
+            }
+            default:
+                return null;
+        }
+    }
+
+    static boolean isDatabaseUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof QueryTimeoutException || cause instanceof TransientDataAccessResourceException
+                    || cause instanceof DataAccessResourceFailureException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof CannotCreateTransactionException || cause instanceof SQLTimeoutException
+                    || cause instanceof SQLTransientConnectionException || cause instanceof SQLRecoverableException
+                    || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long retryAfterSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getCircuitRejected() {
+        return circuitRejected.sum();
+    }
+
+    public long getBulkheadRejected() {
+        return bulkheadRejected.sum();
+    }
+
+    public long getStaleReads() {
+        return staleReads.sum();
+    }
+
+    public int getBulkheadAvailable() {
+        return bulkhead.availablePermits();
+    }
+
+    public int getScanBulkheadAvailable() {
+        return scanBulkhead.availablePermits();
+    }
+}
@@ -0,0 +1,143 @@
+package com.santhosh.springboottesting.resilience;
+
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.scan.ScanProperties;
+import com.santhosh.springboottesting.service.impl.EmployeeServiceImpl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Semaphore;
+
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfig {
+
+    // post-processors are static beans, created before the rest of the context; they look up what they need lazily
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.resilience.statement-timeout", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class StatementTimeoutConfig {
+
+        @Bean
+        public static BeanPostProcessor statementTimeoutRepositoryPostProcessor(ObjectProvider<ResilienceProperties> properties) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    // the repository proxy is built when the factory bean is initialized
+                    if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                            && EmployeeRepository.class.equals(factoryBean.getObjectType())) {
+                        StatementTimeoutInterceptor interceptor = new StatementTimeoutInterceptor(
+                                properties.getObject().getStatementTimeout());
+                        factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                                (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0, interceptor)));
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        // a class proxy, so the bean keeps its type (HikariDataSource, ShardRoutingDataSource) and close()
+        @Bean
+        public static BeanPostProcessor statementTimeoutDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.setProxyTargetClass(true);
+                    proxyFactory.addAdvice(new StatementTimeoutDataSourceInterceptor());
+                    return proxyFactory.getProxy();
+                }
+            };
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.resilience.circuit-breaker", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class ServiceGuardConfig {
+
+        @Bean
+        public CircuitBreaker employeeCircuitBreaker(ResilienceProperties properties) {
+            ResilienceProperties.CircuitBreaker circuit = properties.getCircuitBreaker();
+            return new CircuitBreaker(circuit.getWindowSize(), circuit.getMinimumCalls(), circuit.getFailureRateThreshold(),
+                    circuit.getOpenDuration().toNanos(), circuit.getHalfOpenCalls(), System::nanoTime);
+        }
+
+        @Bean
+        public EmployeeServiceGuard employeeServiceGuard(CircuitBreaker employeeCircuitBreaker, ResilienceProperties properties,
+                                                         EmployeeRepository employeeRepository, ScanProperties scanProperties,
+                                                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+            ResilienceProperties.Bulkhead bulkhead = properties.getBulkhead();
+            int maxConcurrentCalls = bulkhead.getMaxConcurrentCalls() != null ? bulkhead.getMaxConcurrentCalls()
+                    : Math.max(1, poolSize - scanProperties.getParallelism());
+            return new EmployeeServiceGuard(employeeCircuitBreaker, new Semaphore(maxConcurrentCalls),
+                    new Semaphore(bulkhead.getMaxConcurrentScans()), bulkhead.getMaxWait().toNanos(), employeeRepository);
+        }
+
+        // a class proxy, SnapshotEmployeeService takes the concrete EmployeeServiceImpl
+        @Bean
+        public static BeanPostProcessor employeeServiceGuardPostProcessor(ObjectProvider<EmployeeServiceGuard> guard) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof EmployeeServiceImpl)) {
+                        return bean;
+                    }
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.setProxyTargetClass(true);
+                    proxyFactory.addAdvice(guard.getObject());
+                    return proxyFactory.getProxy();
+                }
+            };
+        }
+
+        @Bean
+        public MeterBinder employeeServiceGuardMetrics(CircuitBreaker employeeCircuitBreaker, EmployeeServiceGuard guard) {
+            return registry -> {
+                for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                    Gauge.builder("employee.circuit.state", employeeCircuitBreaker, circuit -> circuit.getState() == state ? 1 : 0)
+                            .tag("state", state.name().toLowerCase())
+                            .description("1 for the state the employee database circuit is in")
+                            .register(registry);
+                }
+                Gauge.builder("employee.circuit.failure.rate", employeeCircuitBreaker, CircuitBreaker::getFailureRate)
+                        .register(registry);
+                FunctionCounter.builder("employee.circuit.opened", employeeCircuitBreaker, CircuitBreaker::getTimesOpened)
+                        .register(registry);
+                FunctionCounter.builder("employee.circuit.calls", guard, EmployeeServiceGuard::getSucceeded)
+                        .tag("outcome", "success")
+                        .register(registry);
+                FunctionCounter.builder("employee.circuit.calls", guard, EmployeeServiceGuard::getFailed)
+                        .tag("outcome", "failure")
+                        .register(registry);
+                FunctionCounter.builder("employee.circuit.calls", guard, EmployeeServiceGuard::getCircuitRejected)
+                        .tag("outcome", "rejected")
+                        .register(registry);
+                FunctionCounter.builder("employee.circuit.calls", guard, EmployeeServiceGuard::getStaleReads)
+                        .tag("outcome", "stale")
+                        .description("Lookups answered from the second-level cache while calls were rejected")
+                        .register(registry);
+                FunctionCounter.builder("employee.bulkhead.rejected", guard, EmployeeServiceGuard::getBulkheadRejected)
+                        .register(registry);
+                Gauge.builder("employee.bulkhead.available", guard, EmployeeServiceGuard::getBulkheadAvailable)
+                        .tag("calls", "lookups")
+                        .register(registry);
+                Gauge.builder("employee.bulkhead.available", guard, EmployeeServiceGuard::getScanBulkheadAvailable)
+                        .tag("calls", "scans")
+                        .register(registry);
+            };
+        }
+    }
+}
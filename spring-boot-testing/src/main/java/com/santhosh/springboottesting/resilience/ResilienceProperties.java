@@ -0,0 +1,63 @@
+package com.santhosh.springboottesting.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.resilience")
+public class ResilienceProperties {
+
+    private StatementTimeout statementTimeout = new StatementTimeout();
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    @Getter
+    @Setter
+    public static class StatementTimeout {
+        private boolean enabled = true;
+        // upper bound for the statements of an EmployeeRepository method
+        private Duration defaultTimeout = Duration.ofSeconds(3);
+        // per method name (findAll, upsertByEmail), for methods that legitimately run longer
+        private Map<String, Duration> methods = new LinkedHashMap<>();
+        // below the upper bound the timeout follows the method's p99 times this, 0 keeps the upper bound
+        private double p99Multiplier = 4;
+        private Duration minimum = Duration.ofSeconds(1);
+        // successful calls of a method needed before its timeout adapts
+        private long minSamples = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        // outcomes of the last window-size service calls decide whether the circuit opens
+        private int windowSize = 50;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        // calls fail fast this long before half-open-calls trial calls are let through
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenCalls = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        // service calls other than full-table scans running at once, each holds one pooled connection (one per
+        // shard for scatter-gather). Unset, it is spring.datasource.hikari.maximum-pool-size less the
+        // app.scan.parallelism connections the scan workers may hold
+        private Integer maxConcurrentCalls;
+        // getAllEmployees calls running at once; their ranges are read by at most app.scan.parallelism workers
+        // shared by every scan, this only bounds the callers waiting for them
+        private int maxConcurrentScans = 2;
+        // how long a call waits for a slot before it is rejected
+        private Duration maxWait = Duration.ofMillis(500);
+    }
+}
@@ -0,0 +1,26 @@
+package com.santhosh.springboottesting.resilience;
+
+// Query timeout, in seconds, of the statements the current thread creates. Bound by StatementTimeoutInterceptor
+// around repository calls and applied by StatementTimeoutDataSourceInterceptor; 0 (nothing bound) means no timeout.
+public final class StatementTimeoutContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private StatementTimeoutContext() {
+    }
+
+    public static int currentSeconds() {
+        Integer seconds = CURRENT.get();
+        return seconds == null ? 0 : seconds;
+    }
+
+    static Integer set(Integer seconds) {
+        Integer previous = CURRENT.get();
+        if (seconds == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(seconds);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,60 @@
+package com.santhosh.springboottesting.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+// Advice on DataSource.getConnection: sets the query timeout bound in StatementTimeoutContext on every statement
+// of the connection, whoever creates it (Hibernate, JdbcTemplate). Statements outside repository calls get 0: H2
+// keeps the timeout per session and MySQL's statement cache hands out statements with their last timeout, so it
+// is reset rather than left alone. The driver cancels a statement running past it (MySQL with KILL QUERY) and the
+// caller gets a QueryTimeoutException.
+public class StatementTimeoutDataSourceInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (invocation.getMethod().getName().equals("getConnection") && result instanceof Connection connection) {
+            return Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                    new Class<?>[]{ConnectionProxy.class}, new TimeoutHandler(connection));
+        }
+        return result;
+    }
+
+    private record TimeoutHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (result instanceof Statement statement) {
+                int seconds = StatementTimeoutContext.currentSeconds();
+                if (seconds > 0 || statement.getQueryTimeout() != 0) {
+                    statement.setQueryTimeout(seconds);
+                }
+            }
+            return result;
+        }
+    }
+}
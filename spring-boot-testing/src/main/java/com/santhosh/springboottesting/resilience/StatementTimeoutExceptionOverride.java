@@ -0,0 +1,18 @@
+package com.santhosh.springboottesting.resilience;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+// Hikari evicts a connection on any SQLTimeoutException, the rollback that follows a statement timeout then fails
+// with "Connection is closed" and hides the timeout. Canceling a statement (KILL QUERY on MySQL) leaves the
+// connection usable, so it is kept; a broken connection still reports 08xxx and is evicted.
+// Set through spring.datasource.hikari.exception-override-class-name.
+public class StatementTimeoutExceptionOverride implements SQLExceptionOverride {
+
+    // no @Override: inside this class the name is SQLExceptionOverride.Override
+    public Override adjudicate(SQLException e) {
+        return e instanceof SQLTimeoutException ? Override.DO_NOT_EVICT : Override.CONTINUE_EVICT;
+    }
+}
@@ -0,0 +1,91 @@
+package com.santhosh.springboottesting.resilience;
+
+import com.santhosh.springboottesting.metrics.LatencyHistogram;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Binds the statement timeout of the repository method being called. Below the configured upper bound the timeout
+// follows the method's own p99 over the last minute of successful calls, so a lookup that takes milliseconds is cut
+// off long before a full scan would be. Calls that fail are not recorded: a database that slows down would
+// otherwise push its own timeouts up. Nested repository calls keep the timeout of the outermost one.
+public class StatementTimeoutInterceptor implements MethodInterceptor {
+
+    private static final long RECOMPUTE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ResilienceProperties.StatementTimeout properties;
+    private final Map<Method, MethodTimeout> timeouts = new ConcurrentHashMap<>();
+
+    public StatementTimeoutInterceptor(ResilienceProperties.StatementTimeout properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (StatementTimeoutContext.currentSeconds() > 0) {
+            return invocation.proceed();
+        }
+        MethodTimeout timeout = timeouts.computeIfAbsent(invocation.getMethod(), this::methodTimeout);
+        Integer previous = StatementTimeoutContext.set(timeout.seconds());
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            timeout.latency.record(System.nanoTime() - start);
+            return result;
+        } finally {
+            StatementTimeoutContext.set(previous);
+        }
+    }
+
+    private MethodTimeout methodTimeout(Method method) {
+        Duration maximum = properties.getMethods().getOrDefault(method.getName(), properties.getDefaultTimeout());
+        return new MethodTimeout(maximum.toNanos());
+    }
+
+    private final class MethodTimeout {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final long maximumNanos;
+        private volatile int seconds;
+        private volatile long computedAt;
+
+        private MethodTimeout(long maximumNanos) {
+            this.maximumNanos = maximumNanos;
+            this.seconds = toSeconds(maximumNanos);
+            this.computedAt = System.nanoTime();
+        }
+
+        // recomputed at most once a second, racing callers just compute the same value
+        int seconds() {
+            long now = System.nanoTime();
+            if (now - computedAt >= RECOMPUTE_NANOS) {
+                seconds = toSeconds(adaptedNanos());
+                computedAt = now;
+            }
+            return seconds;
+        }
+
+        private long adaptedNanos() {
+            if (properties.getP99Multiplier() <= 0 || maximumNanos <= 0 || latency.totalCount() < properties.getMinSamples()) {
+                return maximumNanos;
+            }
+            // no calls in the window (an idle method) leaves the p99 at 0
+            double p99 = latency.valueAtPercentileSeconds(99);
+            if (p99 == 0) {
+                return maximumNanos;
+            }
+            long adapted = (long) (p99 * properties.getP99Multiplier() * 1e9);
+            return Math.min(maximumNanos, Math.max(properties.getMinimum().toNanos(), adapted));
+        }
+
+        // JDBC timeouts are whole seconds
+        private int toSeconds(long nanos) {
+            return nanos <= 0 ? 0 : (int) Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.santhosh.springboottesting.scan;
+
+// ids from and to, both included
+public record IdRange(long from, long to) {
+
+    // the whole table, read with the plain query instead of a range predicate
+    public static final IdRange ALL = new IdRange(Long.MIN_VALUE, Long.MAX_VALUE);
+
+    public boolean isAll() {
+        return from == Long.MIN_VALUE && to == Long.MAX_VALUE;
+    }
+}
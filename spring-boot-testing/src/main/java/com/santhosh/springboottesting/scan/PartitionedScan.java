@@ -0,0 +1,204 @@
+package com.santhosh.springboottesting.scan;
+
+import com.santhosh.springboottesting.sharding.ShardContext;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.tenant.TenantBulkhead;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Reads the employees table of the current shard as consecutive id ranges, several at a time on a pool of
+// app.scan.parallelism threads shared by every scan, each range in its own transaction on its own pooled
+// connection. Employee ids are far from evenly spread over their range, so the boundaries are picked to hold
+// about the same number of rows. The ranges are no consistent snapshot, each sees the table as of its own read.
+// A scan reads on as many connections as it has workers, and the tenant's bulkhead counts connections: the first
+// worker uses the permit of the request that started the scan, every further one needs a permit of the tenant's
+// own. Without spare permits the ranges are read one after another.
+public class PartitionedScan implements DisposableBean {
+
+    private JdbcTemplate jdbcTemplate;
+    private ShardRouter shardRouter;
+    private ScanProperties properties;
+    // null leaves scans limited by parallelism only
+    private TenantBulkhead tenantBulkhead;
+    private final ExecutorService executor;
+
+    public PartitionedScan(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, ScanProperties properties) {
+        this(jdbcTemplate, shardRouter, properties, null);
+    }
+
+    public PartitionedScan(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, ScanProperties properties,
+                           TenantBulkhead tenantBulkhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.tenantBulkhead = tenantBulkhead;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "employee-scan-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // id ranges over the rows matching condition, a where clause over employees (null for all rows); just
+    // IdRange.ALL when the table is too small to be worth splitting
+    public List<IdRange> partition(String condition, Object... args) {
+        int maxPartitions = properties.getParallelism() * properties.getPartitionsPerThread();
+        if (maxPartitions <= 1) {
+            return List.of(IdRange.ALL);
+        }
+        String where = condition == null ? " where " : " where " + condition + " and ";
+        long[] bounds = jdbcTemplate.queryForObject("select count(*), min(id), max(id) from employees"
+                        + (condition == null ? "" : " where " + condition),
+                (row, rowNumber) -> new long[]{row.getLong(1), row.getLong(2), row.getLong(3)}, args);
+        long count = bounds[0];
+        int partitions = (int) Math.min(maxPartitions, count / Math.max(1, properties.getMinPartitionRows()));
+        if (partitions <= 1) {
+            return List.of(IdRange.ALL);
+        }
+        // each boundary skips step ids past the previous one, an index-only walk over (tenant_id, id) or the
+        // primary key that together touches every id once
+        long step = count / partitions;
+        Object[] boundaryArgs = new Object[args.length + 2];
+        System.arraycopy(args, 0, boundaryArgs, 0, args.length);
+        List<IdRange> ranges = new ArrayList<>(partitions);
+        long from = bounds[1];
+        for (int i = 1; i < partitions; i++) {
+            boundaryArgs[args.length] = from;
+            boundaryArgs[args.length + 1] = step;
+            List<Long> next = jdbcTemplate.queryForList("select id from employees" + where + "id >= ? order by id limit 1 offset ?",
+                    Long.class, boundaryArgs);
+            if (next.isEmpty() || next.get(0) > bounds[2]) {
+                break;
+            }
+            ranges.add(new IdRange(from, next.get(0) - 1));
+            from = next.get(0);
+        }
+        ranges.add(new IdRange(from, bounds[2]));
+        return ranges;
+    }
+
+    // the rows of every range, concatenated in range order
+    public <T> List<T> ordered(List<IdRange> ranges, Function<IdRange, ? extends Collection<? extends T>> reader) {
+        if (ranges.size() == 1) {
+            return new ArrayList<>(reader.apply(ranges.get(0)));
+        }
+        List<CompletableFuture<? extends Collection<? extends T>>> futures = submit(ranges, reader);
+        List<T> rows = new ArrayList<>();
+        for (CompletableFuture<? extends Collection<? extends T>> future : futures) {
+            rows.addAll(join(future, futures));
+        }
+        return rows;
+    }
+
+    // hands the rows of each range to the consumer as soon as the range is read, on the calling thread
+    public <T> void unordered(List<IdRange> ranges, Function<IdRange, ? extends Collection<? extends T>> reader,
+                              Consumer<? super Collection<? extends T>> consumer) {
+        if (ranges.size() == 1) {
+            consumer.accept(reader.apply(ranges.get(0)));
+            return;
+        }
+        List<CompletableFuture<? extends Collection<? extends T>>> futures = submit(ranges, reader);
+        List<CompletableFuture<?>> pending = new ArrayList<>(futures);
+        while (!pending.isEmpty()) {
+            join(CompletableFuture.anyOf(pending.toArray(CompletableFuture[]::new)), futures);
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                if (pending.get(i).isDone()) {
+                    @SuppressWarnings("unchecked")
+                    Collection<? extends T> rows = (Collection<? extends T>) join(pending.remove(i), futures);
+                    consumer.accept(rows);
+                }
+            }
+        }
+    }
+
+    // for readers that handle the rows themselves, returns once every range is done
+    public void forEachRange(List<IdRange> ranges, Consumer<IdRange> reader) {
+        ordered(ranges, range -> {
+            reader.accept(range);
+            return List.of();
+        });
+    }
+
+    // the workers open their own sessions, which must be for the caller's tenant and shard, and take the ranges
+    // in order until none is left
+    private <T> List<CompletableFuture<? extends Collection<? extends T>>> submit(List<IdRange> ranges,
+                                                                               Function<IdRange, ? extends Collection<? extends T>> reader) {
+        String tenant = TenantContext.current();
+        int shard = ShardContext.current();
+        List<CompletableFuture<Collection<? extends T>>> futures = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            futures.add(new CompletableFuture<>());
+        }
+        Semaphore permits = tenantBulkhead == null ? null : tenantBulkhead.permits(tenant);
+        int wanted = Math.min(ranges.size(), Math.max(1, properties.getParallelism())) - 1;
+        int extraWorkers = permits == null ? wanted : tryAcquire(permits, wanted);
+        AtomicInteger next = new AtomicInteger();
+        for (int worker = 0; worker <= extraWorkers; worker++) {
+            boolean holdsPermit = permits != null && worker > 0;
+            executor.execute(() -> {
+                String previous = TenantContext.set(tenant);
+                try {
+                    for (int i = next.getAndIncrement(); i < ranges.size(); i = next.getAndIncrement()) {
+                        IdRange range = ranges.get(i);
+                        CompletableFuture<Collection<? extends T>> future = futures.get(i);
+                        // cancelled by a failed range
+                        if (future.isDone()) {
+                            continue;
+                        }
+                        try {
+                            future.complete(shardRouter.onShard(shard, () -> reader.apply(range)));
+                        } catch (Throwable e) {
+                            future.completeExceptionally(e);
+                        }
+                    }
+                } finally {
+                    TenantContext.set(previous);
+                    if (holdsPermit) {
+                        permits.release();
+                    }
+                }
+            });
+        }
+        return new ArrayList<>(futures);
+    }
+
+    private static int tryAcquire(Semaphore permits, int wanted) {
+        int acquired = 0;
+        while (acquired < wanted && permits.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    // the first failure cancels the ranges that have not started yet
+    private static <T> T join(CompletableFuture<T> future, List<? extends CompletableFuture<?>> all) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            all.forEach(other -> other.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,19 @@
+package com.santhosh.springboottesting.scan;
+
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.tenant.TenantBulkhead;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(ScanProperties.class)
+public class ScanConfig {
+
+    @Bean
+    public PartitionedScan partitionedScan(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, ScanProperties properties,
+                                           TenantBulkhead tenantBulkhead) {
+        return new PartitionedScan(jdbcTemplate, shardRouter, properties, tenantBulkhead);
+    }
+}
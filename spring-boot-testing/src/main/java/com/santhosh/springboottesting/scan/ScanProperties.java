@@ -0,0 +1,20 @@
+package com.santhosh.springboottesting.scan;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.scan")
+public class ScanProperties {
+
+    // ranges read at the same time, each on its own pooled connection; shared by all scans in the instance
+    private int parallelism = 4;
+
+    // ranges per thread, smaller ranges even out ranges that read slower than others
+    private int partitionsPerThread = 4;
+
+    // fewer rows than this per range and the table is read in one query on the calling thread
+    private int minPartitionRows = 10_000;
+}
@@ -1,14 +1,29 @@
 package com.santhosh.springboottesting.service;
 
 import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeName;
+import com.santhosh.springboottesting.model.EmployeePage;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
     List<Employee> getAllEmployees();
     Optional<Employee> getEmployeeById(Long id);
+    // the employees with these ids in the order asked for, each once; ids the tenant does not have are left out
+    List<Employee> getEmployeesByIds(List<Long> ids);
     Employee updateEmployee(Employee updatedEmployee);
     void DeleteEmployee(Long id);
+    // names match regardless of case and surrounding spaces; page and size are checked by EmployeePage.check
+    EmployeePage getEmployeesByName(String firstName, String lastName, int page, int size);
+    // partial responses: only the given attributes, as returned by EmployeeFields.parse
+    List<Map<String, Object>> getAllEmployees(List<String> fields);
+    Optional<Map<String, Object>> getEmployeeById(Long id, List<String> fields);
+    // the same for many keys at once, in no particular order; every row carries its id, a row is matched to an
+    // email or name through those fields, so they have to be among the fields asked for
+    List<Map<String, Object>> getEmployeesByIds(List<Long> ids, List<String> fields);
+    List<Map<String, Object>> getEmployeesByEmails(List<String> emails, List<String> fields);
+    List<Map<String, Object>> getEmployeesByNames(List<EmployeeName> names, List<String> fields);
 }
@@ -1,49 +1,399 @@
 package com.santhosh.springboottesting.service.impl;
 
 import com.santhosh.springboottesting.exception.ResourceNotFoundException;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics.RepositoryMethod;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics.ServiceMethod;
 import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeFields;
+import com.santhosh.springboottesting.model.EmployeeName;
+import com.santhosh.springboottesting.model.EmployeePage;
 import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.scan.IdRange;
+import com.santhosh.springboottesting.scan.PartitionedScan;
 import com.santhosh.springboottesting.service.EmployeeService;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.softdelete.SoftDeleteProperties;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import com.santhosh.springboottesting.warmup.AccessFrequencyTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeServiceImpl.class);
+
     private EmployeeRepository employeeRepository;
+    private EmployeeMetrics employeeMetrics;
+    private ShardRouter shardRouter;
+    private SoftDeleteProperties softDeleteProperties;
+    private PartitionedScan partitionedScan;
+    private AccessFrequencyTracker accessFrequencyTracker;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository){
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeMetrics employeeMetrics,
+                               ShardRouter shardRouter, SoftDeleteProperties softDeleteProperties, PartitionedScan partitionedScan,
+                               AccessFrequencyTracker accessFrequencyTracker){
         this.employeeRepository = employeeRepository;
+        this.employeeMetrics = employeeMetrics;
+        this.shardRouter = shardRouter;
+        this.softDeleteProperties = softDeleteProperties;
+        this.partitionedScan = partitionedScan;
+        this.accessFrequencyTracker = accessFrequencyTracker;
     }
 
     @Override
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if(savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee already exists with email " + employee.getEmail());
+        long start = System.nanoTime();
+        try {
+            // the email decides the shard, so the duplicate check and the insert only touch that shard
+            return shardRouter.onShard(shardRouter.shardForEmail(employee.getEmail()), () -> {
+                if(findByEmail(employee.getEmail()).isPresent()){
+                    throw new ResourceNotFoundException("Employee already exists with email " + employee.getEmail());
+                }
+                return save(employee);
+            });
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.SAVE_EMPLOYEE, start);
         }
-        return employeeRepository.save(employee);
     }
 
     @Override
     public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+        long start = System.nanoTime();
+        try {
+            // every shard is read in id ranges; the ranges come back in order, so only merging shards needs a sort
+            List<Employee> employees = shardRouter.scatterGather(shard -> partitionedScan.ordered(tenantRanges(),
+                    range -> range.isAll() ? employeeRepository.findAll()
+                            : employeeRepository.findAllByIdBetweenOrderById(range.from(), range.to())));
+            employeeMetrics.recordRepository(RepositoryMethod.FIND_ALL, start);
+            if (shardRouter.isSharded()) {
+                employees.sort(Comparator.comparing(Employee::getId));
+            }
+            return employees;
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.GET_ALL_EMPLOYEES, start);
+        }
     }
 
     @Override
     public Optional<Employee> getEmployeeById(Long id) {
-        return employeeRepository.findById(id);
+        long start = System.nanoTime();
+        try {
+            Optional<Employee> employee = onShardOf(id, () -> findById(id));
+            // counted for the warm-up of the next start
+            employee.ifPresent(found -> accessFrequencyTracker.record(TenantContext.current(), id));
+            return employee;
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEE_BY_ID, start);
+        }
+    }
+
+    @Override
+    public List<Employee> getEmployeesByIds(List<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            String tenant = TenantContext.current();
+            List<Long> distinct = ids.stream().distinct().toList();
+            Map<Long, Employee> found = new HashMap<>();
+            for (Employee employee : onShardsOf(distinct, this::loadAllById, Employee::getId)) {
+                found.put(employee.getId(), employee);
+            }
+            List<Employee> employees = distinct.stream().map(found::get).filter(Objects::nonNull).toList();
+            employees.forEach(employee -> accessFrequencyTracker.record(tenant, employee.getId()));
+            return employees;
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEES_BY_IDS, start);
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getEmployeesByIds(List<Long> ids, List<String> fields) {
+        long start = System.nanoTime();
+        try {
+            return onShardsOf(ids.stream().distinct().toList(), shardIds -> {
+                long dbStart = System.nanoTime();
+                List<Map<String, Object>> rows = employeeRepository.findFieldsByIds(shardIds, fields);
+                employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_IDS, dbStart);
+                return rows;
+            }, row -> (Long) row.get(EmployeeFields.ID));
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEES_BY_IDS, start);
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getEmployeesByEmails(List<String> emails, List<String> fields) {
+        long start = System.nanoTime();
+        try {
+            // an email only ever lives on the shard it hashes to
+            Map<Integer, List<String>> emailsByShard = emails.stream().distinct()
+                    .collect(Collectors.groupingBy(shardRouter::shardForEmail));
+            List<Map<String, Object>> rows = new ArrayList<>();
+            emailsByShard.forEach((shard, shardEmails) -> rows.addAll(shardRouter.onShard(shard, () -> {
+                long dbStart = System.nanoTime();
+                List<Map<String, Object>> found = employeeRepository.findFieldsByEmails(shardEmails, fields);
+                employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_EMAILS, dbStart);
+                return found;
+            })));
+            return rows;
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEES_BY_EMAILS, start);
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getEmployeesByNames(List<EmployeeName> names, List<String> fields) {
+        long start = System.nanoTime();
+        try {
+            List<EmployeeName> distinct = names.stream().distinct().toList();
+            return shardRouter.scatterGather(shard -> {
+                long dbStart = System.nanoTime();
+                List<Map<String, Object>> rows = employeeRepository.findFieldsByNames(distinct, fields);
+                employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_NAMES, dbStart);
+                return rows;
+            });
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEES_BY_NAMES, start);
+        }
     }
 
     @Override
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        long start = System.nanoTime();
+        try {
+            if (!shardRouter.isSharded()) {
+                return save(updatedEmployee);
+            }
+            int target = shardRouter.shardForEmail(updatedEmployee.getEmail());
+            int current = locate(updatedEmployee.getId());
+            if (current < 0 || current == target) {
+                return shardRouter.onShard(target, () -> save(updatedEmployee));
+            }
+            // the new email hashes to another shard: copy the row there under the same id, then drop the old one.
+            // The copy records the move, a failed delete is retried by ShardMoveCompleter
+            Employee moved = shardRouter.onShard(target, () -> {
+                long dbStart = System.nanoTime();
+                Employee replicated = employeeRepository.replicate(updatedEmployee, current);
+                employeeMetrics.recordRepository(RepositoryMethod.REPLICATE, dbStart);
+                return replicated;
+            });
+            try {
+                shardRouter.onShard(current, () -> deleteById(updatedEmployee.getId()));
+                shardRouter.onShard(target, () -> employeeRepository.deleteMove(updatedEmployee.getId()));
+            } catch (RuntimeException e) {
+                log.warn("Employee {} was moved to shard {}, deleting it from shard {} failed and is left to the move completer",
+                        updatedEmployee.getId(), target, current, e);
+            }
+            return moved;
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.UPDATE_EMPLOYEE, start);
+        }
     }
 
     @Override
     public void DeleteEmployee(Long id) {
+        long start = System.nanoTime();
+        try {
+            if (!shardRouter.isSharded()) {
+                remove(id);
+                return;
+            }
+            int shard = locate(id);
+            if (shard >= 0) {
+                shardRouter.onShard(shard, () -> remove(id));
+            }
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.DELETE_EMPLOYEE, start);
+        }
+    }
+
+    @Override
+    public EmployeePage getEmployeesByName(String firstName, String lastName, int page, int size) {
+        EmployeePage.check(page, size);
+        long start = System.nanoTime();
+        try {
+            EmployeePage employees;
+            if (!shardRouter.isSharded()) {
+                Slice<Employee> slice = employeeRepository.findByJPQLNamedParams(firstName, lastName, PageRequest.of(page, size));
+                employees = new EmployeePage(page, size, slice.hasNext(), slice.getContent());
+            } else {
+                // a name is on any shard, so every shard returns everything up to the end of the page
+                List<Slice<Employee>> slices = shardRouter.scatterGather(shard -> List.of(employeeRepository
+                        .findByJPQLNamedParams(firstName, lastName, PageRequest.of(0, (page + 1) * size))));
+                employees = EmployeePage.merge(page, size, slices.stream().map(Slice::getContent).toList(),
+                        slices.stream().anyMatch(Slice::hasNext));
+            }
+            employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_NAME, start);
+            return employees;
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEES_BY_NAME, start);
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllEmployees(List<String> fields) {
+        long start = System.nanoTime();
+        try {
+            List<Map<String, Object>> employees = shardRouter.scatterGather(shard -> partitionedScan.ordered(tenantRanges(),
+                    range -> employeeRepository.findAllFields(fields, range)));
+            employeeMetrics.recordRepository(RepositoryMethod.FIND_ALL, start);
+            if (shardRouter.isSharded()) {
+                employees.sort(Comparator.comparing(employee -> (Long) employee.get(EmployeeFields.ID)));
+            }
+            if (!fields.contains(EmployeeFields.ID)) {
+                employees.forEach(employee -> employee.remove(EmployeeFields.ID));
+            }
+            return employees;
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.GET_ALL_EMPLOYEES, start);
+        }
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getEmployeeById(Long id, List<String> fields) {
+        long start = System.nanoTime();
+        try {
+            Optional<Map<String, Object>> employee = onShardOf(id, () -> {
+                long dbStart = System.nanoTime();
+                Optional<Map<String, Object>> found = employeeRepository.findFieldsById(id, fields);
+                employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_ID, dbStart);
+                return found;
+            });
+            if (!fields.contains(EmployeeFields.ID)) {
+                employee.ifPresent(found -> found.remove(EmployeeFields.ID));
+            }
+            return employee;
+        } finally {
+            employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEE_BY_ID, start);
+        }
+    }
+
+    private List<IdRange> tenantRanges() {
+        return partitionedScan.partition("tenant_id = ?", TenantContext.current());
+    }
+
+    // runs the lookup on the shard in the id; a miss falls back to the other shards
+    private <T> Optional<T> onShardOf(Long id, Supplier<Optional<T>> lookup) {
+        int shard = shardRouter.shardForId(id);
+        Optional<T> found = shardRouter.onShard(shard, lookup);
+        if (found.isEmpty() && shardRouter.isSharded()) {
+            // the row may have moved away from the shard in its id after an email change
+            found = shardRouter.findOnOtherShards(shard, other -> lookup.get());
+        }
+        return found;
+    }
+
+    // one lookup per shard for the ids it holds, then one on every shard for the ids that were not there
+    private <T> List<T> onShardsOf(List<Long> ids, Function<List<Long>, List<T>> lookup, Function<T, Long> idOf) {
+        Map<Integer, List<Long>> idsByShard = ids.stream().collect(Collectors.groupingBy(shardRouter::shardForId));
+        List<T> found = new ArrayList<>();
+        idsByShard.forEach((shard, shardIds) -> found.addAll(shardRouter.onShard(shard, () -> lookup.apply(shardIds))));
+        if (shardRouter.isSharded() && found.size() < ids.size()) {
+            // the rows may have moved away from the shard in their id after an email change
+            Set<Long> foundIds = found.stream().map(idOf).collect(Collectors.toSet());
+            List<Long> missing = ids.stream().filter(id -> !foundIds.contains(id)).toList();
+            found.addAll(shardRouter.scatterGather(shard -> lookup.apply(missing)));
+        }
+        return found;
+    }
+
+    // shard currently holding the id, -1 when no shard has it
+    private int locate(Long id) {
+        int first = shardRouter.shardForId(id);
+        if (shardRouter.onShard(first, () -> existsById(id))) {
+            return first;
+        }
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            if (shard != first && shardRouter.onShard(shard, () -> existsById(id))) {
+                return shard;
+            }
+        }
+        return -1;
+    }
+
+    private Optional<Employee> findByEmail(String email) {
+        long dbStart = System.nanoTime();
+        Optional<Employee> employee = employeeRepository.findByEmail(email);
+        employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_EMAIL, dbStart);
+        return employee;
+    }
+
+    private Optional<Employee> findById(Long id) {
+        long dbStart = System.nanoTime();
+        Optional<Employee> employee = employeeRepository.findById(id);
+        employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_ID, dbStart);
+        return employee;
+    }
+
+    private List<Employee> loadAllById(List<Long> ids) {
+        long dbStart = System.nanoTime();
+        List<Employee> employees = employeeRepository.loadAllById(ids);
+        employeeMetrics.recordRepository(RepositoryMethod.FIND_BY_IDS, dbStart);
+        return employees;
+    }
+
+    private boolean existsById(Long id) {
+        long dbStart = System.nanoTime();
+        boolean exists = employeeRepository.existsById(id);
+        employeeMetrics.recordRepository(RepositoryMethod.EXISTS_BY_ID, dbStart);
+        return exists;
+    }
+
+    private Employee save(Employee employee) {
+        long dbStart = System.nanoTime();
+        try {
+            return employeeRepository.save(employee);
+        } catch (DataIntegrityViolationException e) {
+            // the email may only be held by a soft-deleted row, which is purged early instead of on every write
+            if (purgeDeletedByEmail(employee.getEmail()) == 0) {
+                throw e;
+            }
+            return employeeRepository.save(employee);
+        } finally {
+            employeeMetrics.recordRepository(RepositoryMethod.SAVE, dbStart);
+        }
+    }
+
+    private int purgeDeletedByEmail(String email) {
+        long dbStart = System.nanoTime();
+        int purged = employeeRepository.purgeDeletedByEmail(List.of(email));
+        employeeMetrics.recordRepository(RepositoryMethod.PURGE_DELETED_BY_EMAIL, dbStart);
+        return purged;
+    }
+
+    // DELETE /api/employees/{id}
+    private void remove(Long id) {
+        if (!softDeleteProperties.isEnabled()) {
+            deleteById(id);
+            return;
+        }
+        long dbStart = System.nanoTime();
+        employeeRepository.softDeleteById(id);
+        employeeMetrics.recordRepository(RepositoryMethod.SOFT_DELETE_BY_ID, dbStart);
+    }
+
+    // always removes the row, moving an employee to another shard must not leave its id behind
+    private void deleteById(Long id) {
+        long dbStart = System.nanoTime();
         employeeRepository.deleteById(id);
+        employeeMetrics.recordRepository(RepositoryMethod.DELETE_BY_ID, dbStart);
     }
 
 }
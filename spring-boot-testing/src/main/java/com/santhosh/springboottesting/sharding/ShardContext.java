@@ -0,0 +1,26 @@
+package com.santhosh.springboottesting.sharding;
+
+// Shard the current thread talks to. Read by ShardRoutingDataSource when a transaction takes a connection
+// and by the id generator when a new employee is inserted.
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    static Integer set(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+}
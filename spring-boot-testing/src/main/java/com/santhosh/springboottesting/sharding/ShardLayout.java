@@ -0,0 +1,76 @@
+package com.santhosh.springboottesting.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+// An email's shard is its hash modulo the shard count, and the duplicate check and email lookups only ask that one
+// shard. Adding, removing or reordering shards would send most existing emails to a shard that does not hold them,
+// so the list is fixed once data is written: every shard records its position and the shard count, and startup
+// fails when the configuration no longer matches. A shard without a record, e.g. the database of an unsharded
+// setup, is only accepted when the emails it already holds hash to it.
+public class ShardLayout {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardLayout.class);
+
+    private static final String NAME = "employees";
+    private static final int SAMPLE_ROWS = 1000;
+
+    private final ShardRoutingDataSource dataSource;
+    private final ShardRouter shardRouter;
+
+    public ShardLayout(ShardRoutingDataSource dataSource, ShardRouter shardRouter) {
+        this.dataSource = dataSource;
+        this.shardRouter = shardRouter;
+    }
+
+    void verify() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            verify(shard, new JdbcTemplate(dataSource.shard(shard)));
+        }
+    }
+
+    private void verify(int shard, JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("create table if not exists shard_layout (name varchar(64) not null primary key,"
+                + " shard_position int not null, shard_count int not null)");
+        List<int[]> recorded = recorded(jdbcTemplate);
+        if (recorded.isEmpty()) {
+            checkPlacement(shard, jdbcTemplate);
+            try {
+                jdbcTemplate.update("insert into shard_layout (name, shard_position, shard_count) values (?, ?, ?)",
+                        NAME, shard, shardRouter.getShardCount());
+                log.info("Recorded shard {} of {}", shard, shardRouter.getShardCount());
+                return;
+            } catch (DuplicateKeyException e) {
+                // another instance recorded it first
+                recorded = recorded(jdbcTemplate);
+            }
+        }
+        int[] layout = recorded.get(0);
+        if (layout[0] != shard || layout[1] != shardRouter.getShardCount()) {
+            throw new IllegalStateException("app.sharding.shards[" + shard + "] is shard " + layout[0] + " of "
+                    + layout[1] + ", the shard list cannot be changed once employees are stored: emails are placed by"
+                    + " hash modulo the shard count");
+        }
+    }
+
+    private static List<int[]> recorded(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.query("select shard_position, shard_count from shard_layout where name = ?",
+                (row, rowNum) -> new int[]{row.getInt(1), row.getInt(2)}, NAME);
+    }
+
+    // soft-deleted rows too, they still hold their email
+    private void checkPlacement(int shard, JdbcTemplate jdbcTemplate) {
+        List<String> emails = jdbcTemplate.queryForList("select email from employees limit " + SAMPLE_ROWS, String.class);
+        for (String email : emails) {
+            if (shardRouter.shardForEmail(email) != shard) {
+                throw new IllegalStateException("app.sharding.shards[" + shard + "] holds employees placed for another"
+                        + " shard list, the shard list cannot be changed once employees are stored: emails are placed"
+                        + " by hash modulo the shard count");
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.santhosh.springboottesting.sharding;
+
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// An email change can move an employee to another shard: the row is copied there under the same id, then deleted
+// from the old shard. The copy commits together with an employee_moves record on the new shard, which the delete
+// removes once it has succeeded. A record that is still there means the delete failed or never ran, e.g. the old
+// shard was down or the instance stopped in between; until it is completed the old row can still be read by id.
+// This finishes those moves on a background thread. The old row is only deleted while the new shard still holds
+// the employee, a record outlived by a later move back must not delete the current row.
+public class ShardMoveCompleter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardMoveCompleter.class);
+
+    private record Move(long id, String tenant, int fromShard) {
+    }
+
+    private JdbcTemplate jdbcTemplate;
+    private ShardRouter shardRouter;
+    private EmployeeRepository employeeRepository;
+    private Duration interval;
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public ShardMoveCompleter(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, EmployeeRepository employeeRepository,
+                              Duration interval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.employeeRepository = employeeRepository;
+        this.interval = interval;
+    }
+
+    // before any request can move an employee
+    private void createTables() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shardRouter.onShard(shard, () -> jdbcTemplate.execute("create table if not exists employee_moves"
+                    + " (employee_id bigint not null primary key, tenant_id varchar(64) not null, from_shard int not null)"));
+        }
+    }
+
+    // one run over every shard, returns the number of moves finished
+    public int complete() {
+        int completed = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount() && !Thread.currentThread().isInterrupted(); shard++) {
+            int target = shard;
+            List<Move> moves = shardRouter.onShard(target, () -> jdbcTemplate.query(
+                    "select employee_id, tenant_id, from_shard from employee_moves",
+                    (row, rowNum) -> new Move(row.getLong(1), row.getString(2), row.getInt(3))));
+            for (Move move : moves) {
+                complete(target, move);
+                completed++;
+            }
+        }
+        if (completed > 0) {
+            log.info("Completed {} employee moves between shards", completed);
+        }
+        return completed;
+    }
+
+    private void complete(int target, Move move) {
+        String previous = TenantContext.set(move.tenant());
+        try {
+            boolean moved = shardRouter.onShard(target, () -> jdbcTemplate.queryForObject(
+                    "select count(*) from employees where id = ?", Integer.class, move.id()) > 0);
+            if (moved) {
+                // through the repository, so the cache entry is evicted and DELETED is published
+                shardRouter.onShard(move.fromShard(), () -> employeeRepository.deleteById(move.id()));
+            }
+            shardRouter.onShard(target, () -> employeeRepository.deleteMove(move.id()));
+        } finally {
+            TenantContext.set(previous);
+        }
+    }
+
+    @Override
+    public void start() {
+        createTables();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-move-completer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                complete();
+            } catch (RuntimeException e) {
+                log.warn("Completing employee moves between shards failed, retrying in {}", interval, e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,140 @@
+package com.santhosh.springboottesting.sharding;
+
+import com.santhosh.springboottesting.id.SnowflakeIdGenerator;
+import com.santhosh.springboottesting.model.EmployeeEmail;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Decides which shard an employee lives on and runs repository calls against it. New employees are placed
+// by email hash and that shard is baked into their id, so both id and email lookups go to a single shard.
+// With sharding disabled there is one shard and every call runs inline on the caller's thread.
+public class ShardRouter implements DisposableBean {
+
+    private final int shardCount;
+    private final ExecutorService executor;
+
+    public ShardRouter(ShardingProperties properties) {
+        this.shardCount = properties.isEnabled() ? properties.getShards().size() : 1;
+        if (shardCount < 1 || shardCount > SnowflakeIdGenerator.MAX_SHARDS) {
+            throw new IllegalStateException("app.sharding.shards must list between 1 and "
+                    + SnowflakeIdGenerator.MAX_SHARDS + " datasources");
+        }
+        if (shardCount > 1) {
+            int threads = properties.getScatterGatherThreads() > 0 ? properties.getScatterGatherThreads() : shardCount;
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "shard-scatter-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardForEmail(String email) {
+        if (shardCount == 1 || email == null) {
+            return 0;
+        }
+        int hash = EmployeeEmail.normalize(email).hashCode();
+        // spread the bits, String.hashCode clusters for similar addresses
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return Math.floorMod(hash, shardCount);
+    }
+
+    public int shardForId(long id) {
+        return shardCount == 1 ? 0 : Math.floorMod(SnowflakeIdGenerator.shardOf(id), shardCount);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        if (shardCount == 1) {
+            return action.get();
+        }
+        Integer previous = ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void onShard(int shard, Runnable action) {
+        onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // runs the action on every shard in parallel and concatenates the results in shard order
+    public <T> List<T> scatterGather(IntFunction<? extends Collection<? extends T>> action) {
+        if (shardCount == 1) {
+            return new ArrayList<>(action.apply(0));
+        }
+        // the worker threads open their own sessions, which must be for the caller's tenant
+        String tenant = TenantContext.current();
+        List<CompletableFuture<? extends Collection<? extends T>>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                String previous = TenantContext.set(tenant);
+                try {
+                    return onShard(target, () -> action.apply(target));
+                } finally {
+                    TenantContext.set(previous);
+                }
+            }, executor));
+        }
+        List<T> results = new ArrayList<>();
+        for (CompletableFuture<? extends Collection<? extends T>> future : futures) {
+            results.addAll(join(future));
+        }
+        return results;
+    }
+
+    // looks the value up on all shards except the given one, for rows that were moved by an email change
+    public <T> Optional<T> findOnOtherShards(int excludedShard, IntFunction<Optional<T>> lookup) {
+        return scatterGather(shard -> shard == excludedShard ? List.<T>of() : lookup.apply(shard).stream().toList())
+                .stream()
+                .findFirst();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
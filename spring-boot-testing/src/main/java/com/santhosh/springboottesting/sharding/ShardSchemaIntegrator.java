@@ -0,0 +1,39 @@
+package com.santhosh.springboottesting.sharding;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+import java.util.HashMap;
+
+// Hibernate runs spring.jpa.hibernate.ddl-auto only against the connection it gets at boot, which is shard 0.
+// This captures the mapping metadata so the same schema action can be applied to every other shard.
+public class ShardSchemaIntegrator implements Integrator {
+
+    private Metadata metadata;
+    private SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    void applyToShards(ShardRouter shardRouter) {
+        if (metadata == null) {
+            return;
+        }
+        for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+            shardRouter.onShard(shard, () -> SchemaManagementToolCoordinator.process(metadata,
+                    sessionFactory.getServiceRegistry(), new HashMap<>(sessionFactory.getProperties()), action -> {
+                    }));
+        }
+    }
+}
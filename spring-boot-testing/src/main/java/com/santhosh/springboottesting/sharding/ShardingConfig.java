@@ -0,0 +1,102 @@
+package com.santhosh.springboottesting.sharding;
+
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        return new ShardRouter(properties);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+    static class RoutingDataSourceConfig {
+
+        @Bean
+        public ShardRoutingDataSource dataSource(ShardingProperties properties, Environment environment) {
+            // an open-in-view session would keep the connection of the first shard for the whole request
+            if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+                throw new IllegalStateException("app.sharding.enabled=true requires spring.jpa.open-in-view=false");
+            }
+            List<DataSource> shards = new ArrayList<>();
+            Map<Object, Object> targets = new HashMap<>();
+            for (ShardingProperties.Shard shard : properties.getShards()) {
+                DataSource dataSource = DataSourceBuilder.create()
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .driverClassName(shard.getDriverClassName())
+                        .build();
+                targets.put(shards.size(), dataSource);
+                shards.add(dataSource);
+            }
+            ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(shards);
+            routingDataSource.setTargetDataSources(targets);
+            routingDataSource.setDefaultTargetDataSource(shards.get(0));
+            return routingDataSource;
+        }
+
+        @Bean
+        public ShardSchemaIntegrator shardSchemaIntegrator() {
+            return new ShardSchemaIntegrator();
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer shardSchemaIntegratorCustomizer(ShardSchemaIntegrator integrator) {
+            return hibernateProperties -> {
+                hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(integrator));
+                // query cache keys don't include the shard, a scatter-gather lookup would be answered with the
+                // result of whichever shard ran first. Entity cache entries are keyed by the globally unique id.
+                hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            };
+        }
+
+        @Bean
+        public ShardLayout shardLayout(ShardRoutingDataSource dataSource, ShardRouter shardRouter) {
+            return new ShardLayout(dataSource, shardRouter);
+        }
+
+        // the layout check reads employees, so it runs once every shard has the schema
+        @Bean
+        public SmartInitializingSingleton shardSchemaInitializer(ShardSchemaIntegrator integrator, ShardRouter shardRouter,
+                                                                 ShardLayout shardLayout) {
+            return () -> {
+                integrator.applyToShards(shardRouter);
+                shardLayout.verify();
+            };
+        }
+    }
+
+    // a class of its own: the repository it uses is built on the datasource above
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+    static class MoveCompleterConfig {
+
+        @Bean
+        public ShardMoveCompleter shardMoveCompleter(JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+                                                     EmployeeRepository employeeRepository, ShardingProperties properties) {
+            return new ShardMoveCompleter(jdbcTemplate, shardRouter, employeeRepository, properties.getMoveRetryInterval());
+        }
+    }
+}
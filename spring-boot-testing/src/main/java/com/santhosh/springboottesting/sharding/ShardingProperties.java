@@ -0,0 +1,37 @@
+package com.santhosh.springboottesting.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    // when disabled the application uses the single spring.datasource as before
+    private boolean enabled = false;
+
+    // shard i is the i-th entry; once employees are stored the list cannot change, not even by adding a shard:
+    // emails are placed by hash modulo the shard count. ShardLayout refuses to start with a changed list
+    private List<Shard> shards = new ArrayList<>();
+
+    // threads used to query shards in parallel, 0 means one per shard
+    private int scatterGatherThreads = 0;
+
+    // how often ShardMoveCompleter retries the deletes left behind by employees moved to another shard
+    private Duration moveRetryInterval = Duration.ofMinutes(1);
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
@@ -0,0 +1,310 @@
+package com.santhosh.springboottesting.snapshot;
+
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeEmail;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+// Read-only serving copy of the employees table kept outside the Java heap. Every row is a primitive id plus
+// dictionary codes for tenant, names and email, so a million rows cost the collector a handful of buffer objects.
+// Every row also keeps when it was last known to match the database (System.nanoTime), lookups can ask for rows
+// verified since a given time only.
+// Changed rows are appended and the old row is marked dead. Once dead rows outnumber live ones, the write that
+// tipped it copies the live rows into new buffers, which drops the dead rows and the strings only they used.
+// One writer at a time, readers are optimistic and only fall back to the read lock when a write overlapped.
+public class EmployeeColumnStore {
+
+    private static final int TENANT = 0;
+    private static final int FIRST_NAME = 1;
+    private static final int LAST_NAME = 2;
+    private static final int EMAIL = 3;
+    private static final int STRIDE = 4;
+    // compacting a small store saves little and would run on every few writes
+    static final int MIN_DEAD_ROWS_TO_COMPACT = 1024;
+    private static final long ANY_AGE = Long.MIN_VALUE;
+
+    private final StampedLock lock = new StampedLock();
+    private final int initialCapacity;
+    private OffHeapStringDictionary strings;
+    private OffHeapLongIntMap rowsById;
+    private OffHeapLongIntMap rowsByEmail;
+    // tenants are few, their codes stay on the heap so lookups do not have to encode the tenant
+    private Map<String, Integer> tenantCodes = new ConcurrentHashMap<>();
+    private LongBuffer ids;
+    private LongBuffer verifiedAt;
+    private IntBuffer columns;
+    private ByteBuffer live;
+    private int rowCount;
+    private int liveRows;
+
+    public EmployeeColumnStore(int expectedRows) {
+        initialCapacity = Math.max(16, expectedRows);
+        allocate(initialCapacity);
+    }
+
+    public void upsert(EmployeeSnapshot employee) {
+        upsert(employee, System.nanoTime());
+    }
+
+    // verifiedAt is when the values were read: a row verified later, e.g. by a committed change, is kept, and a
+    // row that did not change only has its time moved
+    public void upsert(EmployeeSnapshot employee, long verifiedAt) {
+        long stamp = lock.writeLock();
+        try {
+            int row = rowsById.get(employee.id());
+            if (row >= 0 && this.verifiedAt.get(row) - verifiedAt >= 0) {
+                return;
+            }
+            if (row >= 0 && matches(row, employee)) {
+                this.verifiedAt.put(row, verifiedAt);
+                return;
+            }
+            removeRow(employee.id());
+            append(employee.id(), verifiedAt, employee.tenantId(), employee.firstName(), employee.lastName(),
+                    employee.email());
+            compactIfMostlyDead();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // only when the row still has this email; a row moved to another shard under a new email is inserted there
+    // before it is deleted from the old shard
+    public void remove(long id, String email) {
+        long stamp = lock.writeLock();
+        try {
+            int row = rowsById.get(id);
+            if (row >= 0 && columns.get(row * STRIDE + EMAIL) == strings.find(email)) {
+                removeRow(id);
+                compactIfMostlyDead();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // the database no longer had the tenant's employee at verifiedAt
+    public void evict(String tenantId, long id, long verifiedAt) {
+        long stamp = lock.writeLock();
+        try {
+            int row = rowsById.get(id);
+            Integer tenant = tenantCodes.get(tenantId);
+            if (row >= 0 && tenant != null && columns.get(row * STRIDE + TENANT) == tenant
+                    && verifiedAt - this.verifiedAt.get(row) > 0) {
+                removeRow(id);
+                compactIfMostlyDead();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public Employee findById(String tenantId, long id) {
+        return findById(tenantId, id, ANY_AGE);
+    }
+
+    // null as well when the row was last verified before verifiedSince
+    public Employee findById(String tenantId, long id, long verifiedSince) {
+        return read(() -> {
+            Integer tenant = tenantCodes.get(tenantId);
+            if (tenant == null) {
+                return null;
+            }
+            int row = rowsById.get(id);
+            return row >= 0 && columns.get(row * STRIDE + TENANT) == tenant && verified(row, verifiedSince)
+                    ? toEmployee(row, tenantId) : null;
+        });
+    }
+
+    public Employee findByEmail(String tenantId, String email) {
+        return findByEmail(tenantId, email, ANY_AGE);
+    }
+
+    // null as well when the row was last verified before verifiedSince
+    public Employee findByEmail(String tenantId, String email, long verifiedSince) {
+        return read(() -> {
+            Integer tenant = tenantCodes.get(tenantId);
+            if (tenant == null) {
+                return null;
+            }
+            int code = strings.find(EmployeeEmail.normalize(email));
+            int row = code == 0 ? -1 : rowsByEmail.get(key(tenant, code));
+            return row >= 0 && verified(row, verifiedSince) ? toEmployee(row, tenantId) : null;
+        });
+    }
+
+    public int size() {
+        return liveRows;
+    }
+
+    public int deadRows() {
+        return rowCount - liveRows;
+    }
+
+    public long offHeapBytes() {
+        long stamp = lock.readLock();
+        try {
+            return strings.bytes() + rowsById.bytes() + rowsByEmail.bytes()
+                    + (ids.capacity() + verifiedAt.capacity()) * (long) Long.BYTES
+                    + columns.capacity() * (long) Integer.BYTES + live.capacity();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean verified(int row, long verifiedSince) {
+        // nanoTime values are only comparable by their difference
+        return verifiedSince == ANY_AGE || verifiedAt.get(row) - verifiedSince >= 0;
+    }
+
+    private boolean matches(int row, EmployeeSnapshot employee) {
+        int base = row * STRIDE;
+        Integer tenant = tenantCodes.get(employee.tenantId());
+        return tenant != null && columns.get(base + TENANT) == tenant
+                && columns.get(base + FIRST_NAME) == strings.find(employee.firstName())
+                && columns.get(base + LAST_NAME) == strings.find(employee.lastName())
+                && columns.get(base + EMAIL) == strings.find(employee.email());
+    }
+
+    private void append(long id, long verified, String tenantId, String firstName, String lastName, String email) {
+        int tenant = tenantCodes.computeIfAbsent(tenantId, strings::encode);
+        int firstNameCode = strings.encode(firstName);
+        int lastNameCode = strings.encode(lastName);
+        int emailCode = strings.encode(email);
+        if (rowCount == ids.capacity()) {
+            growRows();
+        }
+        int row = rowCount;
+        int base = row * STRIDE;
+        ids.put(row, id);
+        verifiedAt.put(row, verified);
+        columns.put(base + TENANT, tenant);
+        columns.put(base + FIRST_NAME, firstNameCode);
+        columns.put(base + LAST_NAME, lastNameCode);
+        columns.put(base + EMAIL, emailCode);
+        live.put(row, (byte) 1);
+        rowCount++;
+        liveRows++;
+        rowsById.put(id, row);
+        // keyed by the normalized email, like the database's email_hash
+        rowsByEmail.put(key(tenant, strings.encode(EmployeeEmail.normalize(email))), row);
+    }
+
+    private void compactIfMostlyDead() {
+        int deadRows = rowCount - liveRows;
+        if (deadRows >= MIN_DEAD_ROWS_TO_COMPACT && deadRows > liveRows) {
+            compact();
+        }
+    }
+
+    // Appends the live rows to new buffers. Readers see the swap as an overlapping write and retry under the
+    // read lock.
+    private void compact() {
+        OffHeapStringDictionary oldStrings = strings;
+        LongBuffer oldIds = ids;
+        LongBuffer oldVerifiedAt = verifiedAt;
+        IntBuffer oldColumns = columns;
+        ByteBuffer oldLive = live;
+        int oldRowCount = rowCount;
+        allocate(Math.max(initialCapacity, liveRows * 2));
+        tenantCodes = new ConcurrentHashMap<>();
+        rowCount = 0;
+        liveRows = 0;
+        for (int row = 0; row < oldRowCount; row++) {
+            if (oldLive.get(row) == 1) {
+                int base = row * STRIDE;
+                append(oldIds.get(row), oldVerifiedAt.get(row), oldStrings.decode(oldColumns.get(base + TENANT)),
+                        oldStrings.decode(oldColumns.get(base + FIRST_NAME)),
+                        oldStrings.decode(oldColumns.get(base + LAST_NAME)),
+                        oldStrings.decode(oldColumns.get(base + EMAIL)));
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        strings = new OffHeapStringDictionary(capacity * 2);
+        rowsById = new OffHeapLongIntMap(capacity);
+        rowsByEmail = new OffHeapLongIntMap(capacity);
+        allocateRows(capacity);
+    }
+
+    private void removeRow(long id) {
+        int row = rowsById.get(id);
+        if (row < 0) {
+            return;
+        }
+        int base = row * STRIDE;
+        long emailKey = key(columns.get(base + TENANT),
+                strings.find(EmployeeEmail.normalize(strings.decode(columns.get(base + EMAIL)))));
+        if (rowsByEmail.get(emailKey) == row) {
+            rowsByEmail.remove(emailKey);
+        }
+        rowsById.remove(id);
+        live.put(row, (byte) 0);
+        liveRows--;
+    }
+
+    private Employee toEmployee(int row, String tenantId) {
+        int base = row * STRIDE;
+        return Employee.builder()
+                .id(ids.get(row))
+                .tenantId(tenantId)
+                .firstName(strings.decode(columns.get(base + FIRST_NAME)))
+                .lastName(strings.decode(columns.get(base + LAST_NAME)))
+                .email(strings.decode(columns.get(base + EMAIL)))
+                .build();
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // a write moved the buffers underneath, unless nothing was written in between
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void growRows() {
+        LongBuffer oldIds = ids;
+        LongBuffer oldVerifiedAt = verifiedAt;
+        IntBuffer oldColumns = columns;
+        ByteBuffer oldLive = live;
+        allocateRows(oldIds.capacity() * 2);
+        ids.put(0, oldIds, 0, rowCount);
+        verifiedAt.put(0, oldVerifiedAt, 0, rowCount);
+        columns.put(0, oldColumns, 0, rowCount * STRIDE);
+        live.put(0, oldLive, 0, rowCount);
+    }
+
+    private void allocateRows(int capacity) {
+        ids = ByteBuffer.allocateDirect(capacity * Long.BYTES).asLongBuffer();
+        verifiedAt = ByteBuffer.allocateDirect(capacity * Long.BYTES).asLongBuffer();
+        columns = ByteBuffer.allocateDirect(capacity * STRIDE * Integer.BYTES).asIntBuffer();
+        live = ByteBuffer.allocateDirect(capacity);
+    }
+
+    private static long key(int high, int low) {
+        return ((long) high << 32) | (low & 0xffffffffL);
+    }
+}
@@ -0,0 +1,78 @@
+package com.santhosh.springboottesting.snapshot;
+
+import com.santhosh.springboottesting.events.EmployeeChangedEvent;
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Fills the column store from every shard before the web server starts, then applies each committed change
+@Component
+@ConditionalOnProperty(prefix = "app.snapshot", name = "enabled", havingValue = "true")
+public class EmployeeSnapshotLoader implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSnapshotLoader.class);
+
+    private EmployeeColumnStore store;
+    private JdbcTemplate jdbcTemplate;
+    private ShardRouter shardRouter;
+    private volatile boolean running;
+
+    public EmployeeSnapshotLoader(EmployeeColumnStore store, JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        this.store = store;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.after() != null) {
+            store.upsert(event.after());
+        } else {
+            store.remove(event.id(), event.before().email());
+        }
+    }
+
+    public void load() {
+        long start = System.nanoTime();
+        shardRouter.scatterGather(shard -> {
+            jdbcTemplate.query("select id, tenant_id, first_name, last_name, email from employees"
+                    + " where deleted_at is null", row -> {
+                store.upsert(new EmployeeSnapshot(row.getLong(1), row.getString(2), row.getString(3),
+                        row.getString(4), row.getString(5)));
+            });
+            return List.of();
+        });
+        log.info("Loaded {} employees into the off-heap snapshot ({} bytes) in {} ms", store.size(),
+                store.offHeapBytes(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // before the web server, which starts in a late phase
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,111 @@
+package com.santhosh.springboottesting.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+// Open-addressing long -> int map in direct memory, linear probing, at most half full.
+// Key 0 marks an empty slot; removed keys keep their slot with the value MISSING until the next resize.
+// Not thread-safe, EmployeeColumnStore serializes writers and validates readers.
+final class OffHeapLongIntMap {
+
+    static final int MISSING = -1;
+
+    private LongBuffer keys;
+    private IntBuffer values;
+    private int mask;
+    private int used;
+
+    OffHeapLongIntMap(int expectedEntries) {
+        allocate(tableSize(expectedEntries));
+    }
+
+    int get(long key) {
+        LongBuffer keys = this.keys;
+        IntBuffer values = this.values;
+        int mask = this.mask;
+        int slot = mix(key) & mask;
+        while (true) {
+            long current = keys.get(slot);
+            if (current == key) {
+                return values.get(slot);
+            }
+            if (current == 0) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    void put(long key, int value) {
+        if ((used + 1) * 2L > keys.capacity()) {
+            resize(keys.capacity() * 2);
+        }
+        int slot = mix(key) & mask;
+        while (true) {
+            long current = keys.get(slot);
+            if (current == key) {
+                values.put(slot, value);
+                return;
+            }
+            if (current == 0) {
+                values.put(slot, value);
+                keys.put(slot, key);
+                used++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    void remove(long key) {
+        int slot = mix(key) & mask;
+        while (true) {
+            long current = keys.get(slot);
+            if (current == key) {
+                values.put(slot, MISSING);
+                return;
+            }
+            if (current == 0) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    long bytes() {
+        return keys.capacity() * (long) (Long.BYTES + Integer.BYTES);
+    }
+
+    private void resize(int capacity) {
+        LongBuffer oldKeys = keys;
+        IntBuffer oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.capacity(); slot++) {
+            long key = oldKeys.get(slot);
+            int value = oldValues.get(slot);
+            // drop removed keys while rehashing
+            if (key != 0 && value != MISSING) {
+                put(key, value);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = ByteBuffer.allocateDirect(capacity * Long.BYTES).asLongBuffer();
+        values = ByteBuffer.allocateDirect(capacity * Integer.BYTES).asIntBuffer();
+        mask = capacity - 1;
+        used = 0;
+    }
+
+    private static int tableSize(int expectedEntries) {
+        return Integer.highestOneBit(Math.max(16, expectedEntries * 2 - 1)) << 1;
+    }
+
+    static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,132 @@
+package com.santhosh.springboottesting.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Dictionary encoding in direct memory: every distinct string is stored once as UTF-8 and referred to by an int
+// code starting at 1. Strings are only ever added; codes stay valid until the dictionary is rebuilt.
+final class OffHeapStringDictionary {
+
+    private ByteBuffer bytes;
+    private int bytesUsed;
+    // ends.get(code) is where the string of that code ends, it starts where code - 1 ends
+    private IntBuffer ends;
+    private int nextCode = 1;
+    // hash table of codes, 0 marks an empty slot
+    private IntBuffer table;
+    private int mask;
+
+    OffHeapStringDictionary(int expectedStrings) {
+        bytes = ByteBuffer.allocateDirect(Math.max(1024, expectedStrings * 16));
+        ends = ByteBuffer.allocateDirect((expectedStrings + 2) * Integer.BYTES).asIntBuffer();
+        allocateTable(Integer.highestOneBit(Math.max(16, expectedStrings * 2 - 1)) << 1);
+    }
+
+    int encode(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int slot = hash(utf8) & mask;
+        while (true) {
+            int code = table.get(slot);
+            if (code == 0) {
+                return add(utf8, slot);
+            }
+            if (matches(code, utf8)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // 0 when the string was never added
+    int find(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        IntBuffer table = this.table;
+        int mask = this.mask;
+        int slot = hash(utf8) & mask;
+        while (true) {
+            int code = table.get(slot);
+            if (code == 0 || matches(code, utf8)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    String decode(int code) {
+        int start = code == 1 ? 0 : ends.get(code - 1);
+        byte[] utf8 = new byte[ends.get(code) - start];
+        bytes.get(start, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return nextCode - 1;
+    }
+
+    long bytes() {
+        return bytes.capacity() + (long) ends.capacity() * Integer.BYTES + (long) table.capacity() * Integer.BYTES;
+    }
+
+    private int add(byte[] utf8, int slot) {
+        if (bytesUsed + utf8.length > bytes.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(bytes.capacity() * 2, bytesUsed + utf8.length));
+            grown.put(0, bytes, 0, bytesUsed);
+            bytes = grown;
+        }
+        if (nextCode + 1 >= ends.capacity()) {
+            IntBuffer grown = ByteBuffer.allocateDirect(ends.capacity() * 2 * Integer.BYTES).asIntBuffer();
+            grown.put(0, ends, 0, nextCode);
+            ends = grown;
+        }
+        bytes.put(bytesUsed, utf8);
+        bytesUsed += utf8.length;
+        int code = nextCode++;
+        ends.put(code, bytesUsed);
+        table.put(slot, code);
+        if (nextCode * 2L > table.capacity()) {
+            rehash(table.capacity() * 2);
+        }
+        return code;
+    }
+
+    private boolean matches(int code, byte[] utf8) {
+        int start = code == 1 ? 0 : ends.get(code - 1);
+        if (ends.get(code) - start != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (bytes.get(start + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        allocateTable(capacity);
+        for (int code = 1; code < nextCode; code++) {
+            int start = code == 1 ? 0 : ends.get(code - 1);
+            byte[] utf8 = new byte[ends.get(code) - start];
+            bytes.get(start, utf8);
+            int slot = hash(utf8) & mask;
+            while (table.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.put(slot, code);
+        }
+    }
+
+    private void allocateTable(int capacity) {
+        table = ByteBuffer.allocateDirect(capacity * Integer.BYTES).asIntBuffer();
+        mask = capacity - 1;
+    }
+
+    private static int hash(byte[] utf8) {
+        int hash = 1;
+        for (byte b : utf8) {
+            hash = 31 * hash + b;
+        }
+        return OffHeapLongIntMap.mix(hash);
+    }
+}
@@ -0,0 +1,33 @@
+package com.santhosh.springboottesting.snapshot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotConfig {
+
+    @Bean
+    public EmployeeColumnStore employeeColumnStore(@Value("${app.snapshot.expected-rows:100000}") int expectedRows) {
+        return new EmployeeColumnStore(expectedRows);
+    }
+
+    @Bean
+    public MeterBinder employeeSnapshotMetrics(EmployeeColumnStore store) {
+        return registry -> {
+            Gauge.builder("employee.snapshot.rows", store, EmployeeColumnStore::size)
+                    .description("Live employee rows in the off-heap snapshot")
+                    .register(registry);
+            Gauge.builder("employee.snapshot.dead.rows", store, EmployeeColumnStore::deadRows)
+                    .description("Superseded rows kept until the snapshot is compacted")
+                    .register(registry);
+            Gauge.builder("employee.snapshot.offheap", store, EmployeeColumnStore::offHeapBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,188 @@
+package com.santhosh.springboottesting.snapshot;
+
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics.ServiceMethod;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeFields;
+import com.santhosh.springboottesting.model.EmployeeName;
+import com.santhosh.springboottesting.model.EmployeePage;
+import com.santhosh.springboottesting.service.EmployeeService;
+import com.santhosh.springboottesting.service.impl.EmployeeServiceImpl;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Serving mode: lookups by id and email are answered from the off-heap snapshot without a session or a query,
+// writes and the full list still go through EmployeeServiceImpl and reach the snapshot once committed.
+// The snapshot only hears of this instance's writes, so a row is served from it for max-age after it was last
+// verified; older rows and misses are read from the database through EmployeeServiceImpl, which times those
+// lookups, and the answer refreshes the snapshot. A change made by another instance shows after at most max-age.
+// Name lookups and the duplicate check always ask the database: the snapshot cannot know it holds every row with a
+// name, or that an email it still holds was not freed elsewhere.
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "app.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotEmployeeService implements EmployeeService {
+
+    private EmployeeServiceImpl employeeService;
+    private EmployeeColumnStore store;
+    private EmployeeMetrics employeeMetrics;
+    private long maxAgeNanos;
+
+    public SnapshotEmployeeService(EmployeeServiceImpl employeeService, EmployeeColumnStore store,
+                                   EmployeeMetrics employeeMetrics,
+                                   @Value("${app.snapshot.max-age:30s}") Duration maxAge) {
+        this.employeeService = employeeService;
+        this.store = store;
+        this.employeeMetrics = employeeMetrics;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    @Override
+    public Employee saveEmployee(Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeById(Long id) {
+        long start = System.nanoTime();
+        String tenant = TenantContext.current();
+        Employee employee = store.findById(tenant, id, start - maxAgeNanos);
+        if (employee == null) {
+            Optional<Employee> found = employeeService.getEmployeeById(id);
+            refresh(tenant, List.of(id), found.stream().toList(), start);
+            return found;
+        }
+        employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEE_BY_ID, start);
+        return Optional.of(employee);
+    }
+
+    @Override
+    public List<Employee> getEmployeesByIds(List<Long> ids) {
+        long start = System.nanoTime();
+        String tenant = TenantContext.current();
+        List<Long> distinct = ids.stream().distinct().toList();
+        Map<Long, Employee> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            Employee employee = store.findById(tenant, id, start - maxAgeNanos);
+            if (employee != null) {
+                found.put(id, employee);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEES_BY_IDS, start);
+        } else {
+            List<Employee> read = employeeService.getEmployeesByIds(missing);
+            refresh(tenant, missing, read, start);
+            read.forEach(employee -> found.put(employee.getId(), employee));
+        }
+        return distinct.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<Map<String, Object>> getEmployeesByIds(List<Long> ids, List<String> fields) {
+        return project(getEmployeesByIds(ids), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> getEmployeesByEmails(List<String> emails, List<String> fields) {
+        long start = System.nanoTime();
+        String tenant = TenantContext.current();
+        List<Employee> found = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String email : emails.stream().distinct().toList()) {
+            Employee employee = store.findByEmail(tenant, email, start - maxAgeNanos);
+            if (employee != null) {
+                found.add(employee);
+            } else {
+                missing.add(email);
+            }
+        }
+        if (missing.isEmpty()) {
+            employeeMetrics.recordService(ServiceMethod.GET_EMPLOYEES_BY_EMAILS, start);
+        } else {
+            // every field, so the rows can refresh the snapshot
+            for (Map<String, Object> row : employeeService.getEmployeesByEmails(missing, EmployeeFields.all())) {
+                Employee employee = Employee.builder()
+                        .id((Long) row.get(EmployeeFields.ID))
+                        .tenantId(tenant)
+                        .firstName((String) row.get("firstName"))
+                        .lastName((String) row.get("lastName"))
+                        .email((String) row.get("email"))
+                        .build();
+                store.upsert(EmployeeSnapshot.of(employee), start);
+                found.add(employee);
+            }
+        }
+        return project(found, fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> getEmployeesByNames(List<EmployeeName> names, List<String> fields) {
+        return employeeService.getEmployeesByNames(names, fields);
+    }
+
+    // what the database returned is current as of start, the ids it did not return are gone
+    private void refresh(String tenant, List<Long> ids, List<Employee> read, long start) {
+        Set<Long> gone = new HashSet<>(ids);
+        for (Employee employee : read) {
+            store.upsert(EmployeeSnapshot.of(employee), start);
+            gone.remove(employee.getId());
+        }
+        gone.forEach(id -> store.evict(tenant, id, start));
+    }
+
+    // like the column queries, every row keeps its id
+    private static List<Map<String, Object>> project(List<Employee> employees, List<String> fields) {
+        List<String> withId = fields.contains(EmployeeFields.ID) ? fields
+                : Stream.concat(Stream.of(EmployeeFields.ID), fields.stream()).toList();
+        return employees.stream().map(employee -> EmployeeFields.project(employee, withId)).toList();
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllEmployees(List<String> fields) {
+        return employeeService.getAllEmployees(fields);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getEmployeeById(Long id, List<String> fields) {
+        return getEmployeeById(id).map(employee -> EmployeeFields.project(employee, fields));
+    }
+
+    @Override
+    public Employee updateEmployee(Employee updatedEmployee) {
+        return employeeService.updateEmployee(updatedEmployee);
+    }
+
+    @Override
+    public void DeleteEmployee(Long id) {
+        employeeService.DeleteEmployee(id);
+    }
+
+    @Override
+    public EmployeePage getEmployeesByName(String firstName, String lastName, int page, int size) {
+        return employeeService.getEmployeesByName(firstName, lastName, page, size);
+    }
+}
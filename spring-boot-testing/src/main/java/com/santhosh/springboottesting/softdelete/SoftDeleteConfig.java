@@ -0,0 +1,45 @@
+package com.santhosh.springboottesting.softdelete;
+
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(SoftDeleteProperties.class)
+public class SoftDeleteConfig {
+
+    // also runs with soft delete switched off, until the rows it left behind are gone
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.soft-delete.purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class PurgeConfig {
+
+        @Bean
+        public TombstonePurger tombstonePurger(JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+                                               SoftDeleteProperties properties) {
+            return new TombstonePurger(jdbcTemplate, shardRouter, properties);
+        }
+
+        @Bean
+        public MeterBinder tombstonePurgerMetrics(TombstonePurger purger) {
+            return registry -> {
+                FunctionCounter.builder("employee.purge.rows", purger, TombstonePurger::getPurgedRows)
+                        .description("Soft-deleted employee rows removed by the purger")
+                        .register(registry);
+                FunctionCounter.builder("employee.purge.batches", purger, TombstonePurger::getBatches)
+                        .register(registry);
+                FunctionCounter.builder("employee.purge.time", purger, TombstonePurger::getPurgeSeconds)
+                        .baseUnit("seconds")
+                        .register(registry);
+                Gauge.builder("employee.purge.backlog", purger, TombstonePurger::getBacklog)
+                        .description("Soft-deleted employee rows left after the last purge run")
+                        .register(registry);
+            };
+        }
+    }
+}
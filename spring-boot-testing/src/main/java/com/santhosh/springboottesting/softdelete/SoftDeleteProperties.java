@@ -0,0 +1,35 @@
+package com.santhosh.springboottesting.softdelete;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.soft-delete")
+public class SoftDeleteProperties {
+
+    // deleting an employee only sets deleted_at, the purger removes the row later
+    private boolean enabled = false;
+
+    private Purge purge = new Purge();
+
+    @Getter
+    @Setter
+    public static class Purge {
+        private boolean enabled = true;
+        // soft-deleted rows are kept at least this long
+        private Duration retention = Duration.ZERO;
+        // pause between two purge runs
+        private Duration interval = Duration.ofMinutes(5);
+        // rows removed per DELETE and the pause after each one, together they cap the purge rate
+        private int batchSize = 500;
+        private Duration batchPause = Duration.ofMillis(200);
+        // local time window the purger works in, it may wrap midnight; runs at any time when unset
+        private LocalTime windowStart;
+        private LocalTime windowEnd;
+    }
+}
@@ -0,0 +1,141 @@
+package com.santhosh.springboottesting.softdelete;
+
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Removes soft-deleted rows on a background thread. Each run works through every shard in batches: one
+// DELETE by primary key of at most batch-size rows, then a pause, so purging never holds many row locks or
+// competes with requests for long. Runs stop when the window closes and pick up where they left off.
+// Tombstones are found across tenants through idx_employees_deleted_at.
+public class TombstonePurger implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstonePurger.class);
+
+    private JdbcTemplate jdbcTemplate;
+    private ShardRouter shardRouter;
+    private SoftDeleteProperties.Purge properties;
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    private final AtomicLong purgedRows = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong purgeNanos = new AtomicLong();
+    private volatile long backlog;
+
+    public TombstonePurger(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, SoftDeleteProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.properties = properties.getPurge();
+    }
+
+    // one run over every shard, returns the number of rows removed
+    public long purge() {
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        long purged = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount() && !Thread.currentThread().isInterrupted(); shard++) {
+            purged += shardRouter.onShard(shard, () -> purgeShard(cutoff));
+        }
+        backlog = shardRouter.scatterGather(shard -> List.of(jdbcTemplate.queryForObject(
+                "select count(*) from employees where deleted_at is not null", Long.class)))
+                .stream().mapToLong(Long::longValue).sum();
+        if (purged > 0) {
+            log.info("Purged {} soft-deleted employees, {} left", purged, backlog);
+        }
+        return purged;
+    }
+
+    private long purgeShard(Instant cutoff) {
+        long purged = 0;
+        while (inWindow(LocalTime.now(), properties.getWindowStart(), properties.getWindowEnd())) {
+            long start = System.nanoTime();
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "select id from employees where deleted_at < ? order by deleted_at limit ?",
+                    Long.class, Timestamp.from(cutoff), properties.getBatchSize());
+            // a row revived by an upsert in the meantime has a new id and no deleted_at
+            int deleted = ids.isEmpty() ? 0 : jdbcTemplate.update("delete from employees where deleted_at is not null"
+                    + " and id in (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")", ids.toArray());
+            purged += deleted;
+            purgedRows.addAndGet(deleted);
+            batches.incrementAndGet();
+            purgeNanos.addAndGet(System.nanoTime() - start);
+            if (ids.size() < properties.getBatchSize()) {
+                break;
+            }
+            try {
+                Thread.sleep(properties.getBatchPause().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return purged;
+    }
+
+    static boolean inWindow(LocalTime now, LocalTime start, LocalTime end) {
+        if (start == null || end == null) {
+            return true;
+        }
+        return start.isBefore(end)
+                ? !now.isBefore(start) && now.isBefore(end)
+                : !now.isBefore(start) || now.isBefore(end);
+    }
+
+    public long getPurgedRows() {
+        return purgedRows.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public double getPurgeSeconds() {
+        return purgeNanos.get() / 1e9;
+    }
+
+    // soft-deleted rows left after the last run
+    public long getBacklog() {
+        return backlog;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getInterval().toMillis();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                purge();
+            } catch (RuntimeException e) {
+                log.warn("Purging soft-deleted employees failed, retrying in {}", properties.getInterval(), e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,7 @@
+package com.santhosh.springboottesting.stats;
+
+import java.util.Map;
+
+// headcount per group, largest groups first
+public record EmployeeStats(String groupBy, long total, Map<String, Long> groups) {
+}
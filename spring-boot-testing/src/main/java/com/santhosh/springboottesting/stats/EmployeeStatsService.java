@@ -0,0 +1,233 @@
+package com.santhosh.springboottesting.stats;
+
+import com.santhosh.springboottesting.events.EmployeeChangedEvent;
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.scan.IdRange;
+import com.santhosh.springboottesting.scan.PartitionedScan;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Headcount aggregates kept in memory. Counted once from a partitioned scan of every shard at startup, before the web
+// server accepts requests, then adjusted from the committed changes of single employees. A change that cannot be
+// applied, an update without its previous values, has the counts recounted on a background thread instead.
+@Service
+@ConditionalOnProperty(prefix = "app.stats", name = "enabled", havingValue = "true")
+public class EmployeeStatsService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeStatsService.class);
+
+    private JdbcTemplate jdbcTemplate;
+    private ShardRouter shardRouter;
+    private PartitionedScan partitionedScan;
+    private boolean cdsTraining;
+    private volatile Map<String, TenantCounters> tenants = new ConcurrentHashMap<>();
+    // the count in progress, replaces tenants once every shard is read
+    private volatile Recount recount;
+    private volatile boolean running;
+    // recounts asked for by changes, one thread so they never overlap
+    private final ExecutorService recounter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-stats-recount");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean recountRequested = new AtomicBoolean();
+
+    public EmployeeStatsService(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, PartitionedScan partitionedScan,
+                                @Value("${app.cds.training:false}") boolean cdsTraining) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.partitionedScan = partitionedScan;
+        this.cdsTraining = cdsTraining;
+    }
+
+    public EmployeeStats getStats(StatsGroupBy groupBy) {
+        TenantCounters counters = tenants.get(TenantContext.current());
+        return counters == null ? new EmployeeStats(groupBy.getParameter(), 0, Map.of()) : counters.snapshot(groupBy);
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.type() == EmployeeChangedEvent.Type.UPDATED && event.before() == null) {
+            // without the old values there is nothing to subtract
+            log.warn("Update of employee {} without previous state, recounting employee stats", event.id());
+            requestRebuild();
+            return;
+        }
+        // recount before tenants: rebuild publishes the new counts before it clears recount, so a change seen
+        // with both pointing at the same counts is applied once
+        Recount inProgress = recount;
+        Map<String, TenantCounters> current = tenants;
+        apply(current, event);
+        if (inProgress != null && inProgress.counted != current) {
+            inProgress.onEmployeeChanged(event);
+        }
+    }
+
+    // Runs rebuild on the recount thread, not on the thread that committed the change. Requests made before the run
+    // starts share it; one made while it runs gets another, the running count may have read the row already.
+    void requestRebuild() {
+        if (recounter.isShutdown() || !recountRequested.compareAndSet(false, true)) {
+            return;
+        }
+        recounter.execute(() -> {
+            recountRequested.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Recounting employee stats failed, the counts stay as they were", e);
+            }
+        });
+    }
+
+    // counts every tenant on every shard; the native query is not restricted by Hibernate's tenant filter
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Recount inProgress = new Recount(shardRouter.getShardCount());
+        recount = inProgress;
+        try {
+            shardRouter.scatterGather(shard -> {
+                ShardRecount shardRecount = inProgress.shards.get(shard);
+                shardRecount.partitioned(partitionedScan.partition(null));
+                partitionedScan.forEachRange(shardRecount.ranges, range -> {
+                    shardRecount.reading(range);
+                    RowCallbackHandler count = row -> inProgress.counted
+                            .computeIfAbsent(row.getString(1), tenant -> new TenantCounters())
+                            .add(row.getString(2), row.getString(3), 1);
+                    if (range.isAll()) {
+                        jdbcTemplate.query("select tenant_id, last_name, email from employees where deleted_at is null", count);
+                    } else {
+                        jdbcTemplate.query("select tenant_id, last_name, email from employees where deleted_at is null"
+                                + " and id between ? and ?", count, range.from(), range.to());
+                    }
+                });
+                return List.of();
+            });
+            tenants = inProgress.counted;
+        } finally {
+            recount = null;
+        }
+        log.info("Counted employee stats for {} tenants in {} ms", inProgress.counted.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void apply(Map<String, TenantCounters> tenants, EmployeeChangedEvent event) {
+        if (event.before() != null) {
+            apply(tenants, event.before(), -1);
+        }
+        if (event.after() != null) {
+            apply(tenants, event.after(), 1);
+        }
+    }
+
+    private static void apply(Map<String, TenantCounters> tenants, EmployeeSnapshot employee, long delta) {
+        tenants.computeIfAbsent(employee.tenantId(), tenant -> new TenantCounters())
+                .add(employee.lastName(), employee.email(), delta);
+    }
+
+    @Override
+    public void start() {
+        // the class-data-sharing training run of the fast-startup build has no database to count
+        if (!cdsTraining) {
+            rebuild();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        recounter.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // before the web server, which starts in a late phase
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private static class Recount {
+
+        private final Map<String, TenantCounters> counted = new ConcurrentHashMap<>();
+        private final List<ShardRecount> shards = new ArrayList<>();
+
+        Recount(int shardCount) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                shards.add(new ShardRecount(counted));
+            }
+        }
+
+        void onEmployeeChanged(EmployeeChangedEvent event) {
+            shards.get(event.shard()).onEmployeeChanged(event);
+        }
+    }
+
+    // A change committed during the count is added to it unless the scan has yet to start the row's range, which
+    // then already has the change. Until the shard's ranges are known changes are held back: the ids of new rows lie
+    // past every range, so they are added.
+    // Error bound: events are published on the committing thread right after the commit. A change that commits just
+    // before its range's query starts, with its event arriving just after, is seen by the query and added again.
+    // Each such change leaves one group off by one, within that gap of microseconds around the start of a range,
+    // until the next recount. A change is never lost: a query that starts before the commit is followed by the event.
+    private static class ShardRecount {
+
+        private final Map<String, TenantCounters> counted;
+        private final Set<IdRange> read = new HashSet<>();
+        private final List<EmployeeChangedEvent> heldBack = new ArrayList<>();
+        private List<IdRange> ranges;
+
+        ShardRecount(Map<String, TenantCounters> counted) {
+            this.counted = counted;
+        }
+
+        synchronized void partitioned(List<IdRange> ranges) {
+            this.ranges = ranges;
+            heldBack.forEach(this::onEmployeeChanged);
+            heldBack.clear();
+        }
+
+        synchronized void reading(IdRange range) {
+            read.add(range);
+        }
+
+        synchronized void onEmployeeChanged(EmployeeChangedEvent event) {
+            if (ranges == null) {
+                heldBack.add(event);
+                return;
+            }
+            long id = event.id();
+            for (IdRange range : ranges) {
+                if (range.isAll() || (id >= range.from() && id <= range.to())) {
+                    if (read.contains(range)) {
+                        apply(counted, event);
+                    }
+                    return;
+                }
+            }
+            apply(counted, event);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.santhosh.springboottesting.stats;
+
+import java.util.Locale;
+import java.util.Optional;
+
+public enum StatsGroupBy {
+    EMAIL_DOMAIN("emailDomain"),
+    LAST_NAME("lastName");
+
+    private final String parameter;
+
+    StatsGroupBy(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    String key(String lastName, String email) {
+        if (this == LAST_NAME) {
+            return lastName;
+        }
+        int at = email.lastIndexOf('@');
+        return at < 0 ? "" : email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+
+    public static Optional<StatsGroupBy> fromParameter(String parameter) {
+        for (StatsGroupBy groupBy : values()) {
+            if (groupBy.parameter.equalsIgnoreCase(parameter)) {
+                return Optional.of(groupBy);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,45 @@
+package com.santhosh.springboottesting.stats;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Headcounts of one tenant for every StatsGroupBy. Each count is changed with a single atomic merge,
+// groups that drop to zero are removed, so memory and read cost follow the number of groups.
+class TenantCounters {
+
+    private final AtomicLong total = new AtomicLong();
+    private final Map<StatsGroupBy, ConcurrentHashMap<String, Long>> counts = new EnumMap<>(StatsGroupBy.class);
+
+    TenantCounters() {
+        for (StatsGroupBy groupBy : StatsGroupBy.values()) {
+            counts.put(groupBy, new ConcurrentHashMap<>());
+        }
+    }
+
+    void add(String lastName, String email, long delta) {
+        total.addAndGet(delta);
+        for (Map.Entry<StatsGroupBy, ConcurrentHashMap<String, Long>> entry : counts.entrySet()) {
+            entry.getValue().merge(entry.getKey().key(lastName, email), delta, TenantCounters::sumOrRemove);
+        }
+    }
+
+    EmployeeStats snapshot(StatsGroupBy groupBy) {
+        List<Map.Entry<String, Long>> groups = new ArrayList<>(counts.get(groupBy).entrySet());
+        groups.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> group : groups) {
+            sorted.put(group.getKey(), group.getValue());
+        }
+        return new EmployeeStats(groupBy.getParameter(), total.get(), sorted);
+    }
+
+    private static Long sumOrRemove(Long current, Long delta) {
+        long sum = current + delta;
+        return sum == 0 ? null : sum;
+    }
+}
@@ -0,0 +1,32 @@
+package com.santhosh.springboottesting.tenant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenancyConfig {
+
+    // shared by REST and gRPC and PartitionedScan, a tenant's budget covers the connections of its requests over both
+    @Bean
+    public TenantBulkhead tenantBulkhead(TenancyProperties properties,
+                                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        int maxConcurrentRequests = properties.getMaxConcurrentRequests() != null ? properties.getMaxConcurrentRequests()
+                : Math.max(1, (int) Math.ceil(poolSize * properties.getPoolShare()));
+        return new TenantBulkhead(maxConcurrentRequests, properties.getMaxTrackedTenants(),
+                properties.getDefaultTenant(), properties.getDefaultTenantMaxConcurrentRequests());
+    }
+
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilter(TenancyProperties properties, TenantBulkhead tenantBulkhead) {
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(new TenantFilter(properties, tenantBulkhead));
+        registration.addUrlPatterns("/api/employees", "/api/employees/*", "/graphql");
+        // after rate limiting, so rejected requests never take a tenant permit
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
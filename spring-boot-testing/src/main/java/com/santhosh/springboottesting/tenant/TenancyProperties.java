@@ -0,0 +1,30 @@
+package com.santhosh.springboottesting.tenant;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.tenancy")
+public class TenancyProperties {
+
+    private String tenantHeader = "X-Tenant-Id";
+
+    // tenant used when the header is missing, leave empty to reject such requests with 400
+    private String defaultTenant = TenantContext.DEFAULT_TENANT;
+
+    // pooled connections a single tenant may hold at once, one per request plus the extra workers of its scans;
+    // keeps one tenant from holding the whole connection pool. Unset, it is pool-share of
+    // spring.datasource.hikari.maximum-pool-size
+    private Integer maxConcurrentRequests;
+
+    private double poolShare = 0.5;
+
+    // requests the default tenant may have in flight. Every client that sends no tenant header lands there, so
+    // 0 leaves it uncapped, bounded only by rate limiting and the employee service bulkhead
+    private int defaultTenantMaxConcurrentRequests = 0;
+
+    // once this many tenants are tracked, unknown tenants share a single overflow budget
+    private int maxTrackedTenants = 10_000;
+}
@@ -0,0 +1,48 @@
+package com.santhosh.springboottesting.tenant;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+// Per-tenant cap on the pooled connections a tenant's requests hold at once, so one tenant cannot take the whole
+// pool. A request takes one permit for the connection it runs on. Work that fans out onto more connections of the
+// same pool, the range workers of a PartitionedScan, takes a permit for every further connection and runs on fewer
+// when the tenant has none to spare. ShardRouter.scatterGather holds one connection on every shard, each shard
+// being a pool of its own, so it stays at one per pool.
+// The default tenant, where every client without a tenant header lands, has a budget of its own.
+public class TenantBulkhead {
+
+    private static final String OVERFLOW_TENANT = "<overflow>";
+
+    private final int maxConcurrentRequests;
+    private final int maxTrackedTenants;
+    private final String defaultTenant;
+    private final Semaphore defaultTenantPermits;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public TenantBulkhead(int maxConcurrentRequests, int maxTrackedTenants) {
+        this(maxConcurrentRequests, maxTrackedTenants, null, 0);
+    }
+
+    // defaultTenantMaxConcurrentRequests 0 leaves the default tenant uncapped
+    public TenantBulkhead(int maxConcurrentRequests, int maxTrackedTenants, String defaultTenant,
+                          int defaultTenantMaxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxTrackedTenants = maxTrackedTenants;
+        this.defaultTenant = defaultTenant;
+        this.defaultTenantPermits = new Semaphore(defaultTenantMaxConcurrentRequests > 0
+                ? defaultTenantMaxConcurrentRequests : Integer.MAX_VALUE);
+    }
+
+    public Semaphore permits(String tenant) {
+        if (tenant.equals(defaultTenant)) {
+            return defaultTenantPermits;
+        }
+        Semaphore semaphore = permits.get(tenant);
+        if (semaphore != null) {
+            return semaphore;
+        }
+        String key = permits.size() < maxTrackedTenants ? tenant : OVERFLOW_TENANT;
+        return permits.computeIfAbsent(key, k -> new Semaphore(maxConcurrentRequests));
+    }
+}
@@ -0,0 +1,28 @@
+package com.santhosh.springboottesting.tenant;
+
+// Tenant of the current request. Work that runs outside a request (startup, background jobs) uses the default tenant.
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant == null ? DEFAULT_TENANT : tenant;
+    }
+
+    // returns the previous tenant so callers can restore it
+    public static String set(String tenant) {
+        String previous = CURRENT.get();
+        if (tenant == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(tenant);
+        }
+        return previous;
+    }
+}
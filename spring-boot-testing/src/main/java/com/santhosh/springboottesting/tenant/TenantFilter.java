@@ -0,0 +1,54 @@
+package com.santhosh.springboottesting.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+// Binds the tenant from the request header for the rest of the request and enforces its concurrency budget.
+public class TenantFilter extends OncePerRequestFilter {
+
+    static final Pattern TENANT_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final TenancyProperties properties;
+    private final TenantBulkhead bulkhead;
+
+    public TenantFilter(TenancyProperties properties, TenantBulkhead bulkhead) {
+        this.properties = properties;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(properties.getTenantHeader());
+        if (tenant == null || tenant.isBlank()) {
+            tenant = properties.getDefaultTenant();
+        }
+        if (tenant == null || !TENANT_PATTERN.matcher(tenant).matches()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Missing or invalid " + properties.getTenantHeader());
+            return;
+        }
+
+        Semaphore permits = bulkhead.permits(tenant);
+        if (!permits.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+            return;
+        }
+        String previous = TenantContext.set(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.set(previous);
+            permits.release();
+        }
+    }
+}
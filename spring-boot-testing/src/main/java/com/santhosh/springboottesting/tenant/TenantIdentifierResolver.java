@@ -0,0 +1,18 @@
+package com.santhosh.springboottesting.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+// Registered through hibernate.tenant_identifier_resolver; every session is opened for the current tenant,
+// which makes Hibernate filter all entity queries on Employee.tenantId and fill it in on insert.
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
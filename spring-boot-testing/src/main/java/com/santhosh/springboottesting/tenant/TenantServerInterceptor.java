@@ -0,0 +1,139 @@
+package com.santhosh.springboottesting.tenant;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// TenantFilter for gRPC: the tenant comes from the metadata key of the same name as the header and takes a permit
+// of the same bulkhead. gRPC runs the callbacks of one call on any of its executor threads, so the tenant is bound
+// around each of them rather than once per call. The permit goes back when the response is closed: onComplete only
+// follows once the client has it, by then the client's next call may already be asking for a permit.
+public class TenantServerInterceptor implements ServerInterceptor {
+
+    private final TenancyProperties properties;
+    private final TenantBulkhead bulkhead;
+    private final Metadata.Key<String> tenantKey;
+
+    public TenantServerInterceptor(TenancyProperties properties, TenantBulkhead bulkhead) {
+        this.properties = properties;
+        this.bulkhead = bulkhead;
+        this.tenantKey = Metadata.Key.of(properties.getTenantHeader().toLowerCase(Locale.ROOT), Metadata.ASCII_STRING_MARSHALLER);
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+        String tenant = headers.get(tenantKey);
+        if (tenant == null || tenant.isBlank()) {
+            tenant = properties.getDefaultTenant();
+        }
+        if (tenant == null || !TenantFilter.TENANT_PATTERN.matcher(tenant).matches()) {
+            call.close(Status.INVALID_ARGUMENT.withDescription("Missing or invalid " + tenantKey.name()), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        Semaphore permits = bulkhead.permits(tenant);
+        if (!permits.tryAcquire()) {
+            call.close(Status.UNAVAILABLE.withDescription("Too many concurrent requests for tenant"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        Permit permit = new Permit(permits);
+        ServerCall<Q, R> releasingCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                permit.release();
+                super.close(status, trailers);
+            }
+        };
+        ServerCall.Listener<Q> delegate;
+        String previous = TenantContext.set(tenant);
+        try {
+            delegate = next.startCall(releasingCall, headers);
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        } finally {
+            TenantContext.set(previous);
+        }
+        return new TenantListener<>(delegate, tenant, permit);
+    }
+
+    // released by whichever comes first, the server closing the call or the client cancelling it
+    private static final class Permit {
+
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private static final class TenantListener<Q> extends ForwardingServerCallListener.SimpleForwardingServerCallListener<Q> {
+
+        private final String tenant;
+        private final Permit permit;
+
+        TenantListener(ServerCall.Listener<Q> delegate, String tenant, Permit permit) {
+            super(delegate);
+            this.tenant = tenant;
+            this.permit = permit;
+        }
+
+        @Override
+        public void onMessage(Q message) {
+            String previous = TenantContext.set(tenant);
+            try {
+                super.onMessage(message);
+            } finally {
+                TenantContext.set(previous);
+            }
+        }
+
+        @Override
+        public void onHalfClose() {
+            String previous = TenantContext.set(tenant);
+            try {
+                super.onHalfClose();
+            } finally {
+                TenantContext.set(previous);
+            }
+        }
+
+        @Override
+        public void onReady() {
+            String previous = TenantContext.set(tenant);
+            try {
+                super.onReady();
+            } finally {
+                TenantContext.set(previous);
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            String previous = TenantContext.set(tenant);
+            try {
+                super.onCancel();
+            } finally {
+                TenantContext.set(previous);
+                permit.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.santhosh.springboottesting.warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts lookups by id per employee so the next start can warm the cache with the hottest ones. Bounded: once
+// max-entries employees are counted, employees not seen yet are ignored until the next start.
+public class AccessFrequencyTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessFrequencyTracker.class);
+
+    private final ConcurrentHashMap<HotEmployee, LongAdder> counts = new ConcurrentHashMap<>();
+    private WarmupProperties properties;
+
+    public AccessFrequencyTracker(WarmupProperties properties) {
+        this.properties = properties;
+    }
+
+    public void record(String tenantId, long id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        HotEmployee employee = new HotEmployee(tenantId, id);
+        LongAdder count = counts.get(employee);
+        if (count == null) {
+            if (counts.size() >= properties.getMaxEntries()) {
+                return;
+            }
+            count = counts.computeIfAbsent(employee, key -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    // most looked up first
+    public List<HotEmployee> hottest(int limit) {
+        return counts.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<HotEmployee, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // one "tenant<TAB>id<TAB>count" line per employee, hottest first; replaced atomically, and kept as it is
+    // when nothing was looked up since the start
+    public void save(Path file) {
+        List<Map.Entry<HotEmployee, Long>> entries = counts.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<HotEmployee, Long>comparingByValue().reversed())
+                .toList();
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<HotEmployee, Long> entry : entries) {
+                    writer.write(entry.getKey().tenantId() + '\t' + entry.getKey().id() + '\t' + entry.getValue());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved lookup counts of {} employees to {}", entries.size(), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save lookup counts to " + file, e);
+        }
+    }
+
+    // the first limit employees of a saved file, lines that do not parse are skipped
+    public static List<HotEmployee> load(Path file, int limit) {
+        List<HotEmployee> employees = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while (employees.size() < limit && (line = reader.readLine()) != null) {
+                String[] columns = line.split("\t");
+                try {
+                    employees.add(new HotEmployee(columns[0], Long.parseLong(columns[1])));
+                } catch (RuntimeException e) {
+                    log.debug("Skipping line '{}' of {}", line, file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read lookup counts from " + file, e);
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,180 @@
+package com.santhosh.springboottesting.warmup;
+
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Loads the hottest employees into the second-level cache on a background thread once the context is up, so an
+// instance joining after a deploy does not send all of its first lookups to the database. The web server starts
+// right away, the cacheWarmup health indicator keeps the instance out of the readiness group until warm-up is
+// done or its timeout passes. At shutdown the lookup counts are saved for the next start.
+public class CacheWarmer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+
+    // ids per query, entities read by a query are put into the second-level cache like loaded ones
+    private static final int IDS_PER_QUERY = 100;
+
+    public enum State { PENDING, RUNNING, DONE, TIMED_OUT, FAILED }
+
+    private EmployeeRepository employeeRepository;
+    private JdbcTemplate jdbcTemplate;
+    private ShardRouter shardRouter;
+    private AccessFrequencyTracker tracker;
+    private WarmupProperties properties;
+    private Thread thread;
+    private volatile boolean running;
+
+    private volatile State state = State.PENDING;
+    private volatile int target;
+    private volatile int loaded;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    public CacheWarmer(EmployeeRepository employeeRepository, JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+                       AccessFrequencyTracker tracker, WarmupProperties properties) {
+        this.employeeRepository = employeeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.tracker = tracker;
+        this.properties = properties;
+    }
+
+    public synchronized void warmUp() {
+        startNanos = System.nanoTime();
+        state = State.RUNNING;
+        try {
+            List<HotEmployee> hot = hotEmployees();
+            target = hot.size();
+            loaded = 0;
+            state = load(hot, startNanos + properties.getTimeout().toNanos()) ? State.DONE : State.TIMED_OUT;
+            endNanos = System.nanoTime();
+            log.info("Warm-up loaded {} of {} employees into the cache in {} ms{}", loaded, target,
+                    (endNanos - startNanos) / 1_000_000, state == State.TIMED_OUT ? ", timed out" : "");
+        } catch (RuntimeException e) {
+            endNanos = System.nanoTime();
+            state = State.FAILED;
+            log.warn("Warm-up failed after loading {} employees, the cache fills from traffic instead", loaded, e);
+        }
+    }
+
+    List<HotEmployee> hotEmployees() {
+        Path file = accessFile();
+        boolean fromFile = switch (properties.getSource()) {
+            case ACCESS_FILE -> true;
+            case SCAN -> false;
+            case AUTO -> file != null && Files.isReadable(file);
+        };
+        if (fromFile) {
+            return file != null && Files.isReadable(file)
+                    ? AccessFrequencyTracker.load(file, properties.getMaxEntries()) : List.of();
+        }
+        // without lookup counts the newest employees are the best guess, read across tenants by primary key
+        List<HotEmployee> newest = shardRouter.scatterGather(shard -> jdbcTemplate.query(
+                "select tenant_id, id from employees where deleted_at is null order by id desc limit ?",
+                (row, rowNumber) -> new HotEmployee(row.getString(1), row.getLong(2)), properties.getMaxEntries()));
+        return newest.size() <= properties.getMaxEntries() ? newest : newest.subList(0, properties.getMaxEntries());
+    }
+
+    // hottest first, a tenant at a time; false when the deadline passed first
+    private boolean load(List<HotEmployee> hot, long deadline) {
+        Map<String, List<Long>> idsByTenant = hot.stream().collect(Collectors.groupingBy(HotEmployee::tenantId,
+                LinkedHashMap::new, Collectors.mapping(HotEmployee::id, Collectors.toList())));
+        for (Map.Entry<String, List<Long>> tenant : idsByTenant.entrySet()) {
+            String previous = TenantContext.set(tenant.getKey());
+            try {
+                Map<Integer, List<Long>> idsByShard = tenant.getValue().stream()
+                        .collect(Collectors.groupingBy(shardRouter::shardForId, LinkedHashMap::new, Collectors.toList()));
+                for (Map.Entry<Integer, List<Long>> shard : idsByShard.entrySet()) {
+                    List<Long> ids = shard.getValue();
+                    for (int start = 0; start < ids.size(); start += IDS_PER_QUERY) {
+                        if (System.nanoTime() > deadline || Thread.currentThread().isInterrupted()) {
+                            return false;
+                        }
+                        List<Long> chunk = ids.subList(start, Math.min(ids.size(), start + IDS_PER_QUERY));
+                        List<Employee> employees = shardRouter.onShard(shard.getKey(), () -> employeeRepository.findAllById(chunk));
+                        loaded += employees.size();
+                    }
+                }
+            } finally {
+                TenantContext.set(previous);
+            }
+        }
+        return true;
+    }
+
+    private Path accessFile() {
+        String file = properties.getAccessFile();
+        return file == null || file.isBlank() ? null : Path.of(file);
+    }
+
+    // traffic is let in once the cache is as warm as it gets
+    public boolean isWarm() {
+        return state == State.DONE || state == State.TIMED_OUT || state == State.FAILED;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public int getLoaded() {
+        return loaded;
+    }
+
+    public long getElapsedMillis() {
+        long start = startNanos;
+        if (start == 0) {
+            return 0;
+        }
+        return ((isWarm() ? endNanos : System.nanoTime()) - start) / 1_000_000;
+    }
+
+    @Override
+    public void start() {
+        thread = new Thread(this::warmUp, "employee-cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        thread.interrupt();
+        Path file = accessFile();
+        if (file != null) {
+            try {
+                tracker.save(file);
+            } catch (RuntimeException e) {
+                log.warn("Lookup counts not saved, the next start warms up from a scan", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // starts with the other loaders, stops after the web server so the last lookups are counted
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
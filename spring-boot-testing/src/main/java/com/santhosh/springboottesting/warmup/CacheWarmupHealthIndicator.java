@@ -0,0 +1,24 @@
+package com.santhosh.springboottesting.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+// OUT_OF_SERVICE while the cache is warming, part of the readiness group so no traffic is routed here before
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private CacheWarmer cacheWarmer;
+
+    public CacheWarmupHealthIndicator(CacheWarmer cacheWarmer) {
+        this.cacheWarmer = cacheWarmer;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = cacheWarmer.isWarm() ? Health.up() : Health.outOfService();
+        return health.withDetail("state", cacheWarmer.getState())
+                .withDetail("loaded", cacheWarmer.getLoaded())
+                .withDetail("target", cacheWarmer.getTarget())
+                .withDetail("elapsedMillis", cacheWarmer.getElapsedMillis())
+                .build();
+    }
+}
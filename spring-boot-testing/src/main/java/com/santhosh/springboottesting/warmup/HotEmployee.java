@@ -0,0 +1,4 @@
+package com.santhosh.springboottesting.warmup;
+
+public record HotEmployee(String tenantId, long id) {
+}
@@ -0,0 +1,66 @@
+package com.santhosh.springboottesting.warmup;
+
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    // does not count anything with warm-up switched off
+    @Bean
+    public AccessFrequencyTracker accessFrequencyTracker(WarmupProperties properties) {
+        return new AccessFrequencyTracker(properties);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class WarmerConfig {
+
+        @Bean
+        public CacheWarmer cacheWarmer(EmployeeRepository employeeRepository, JdbcTemplate jdbcTemplate,
+                                       ShardRouter shardRouter, AccessFrequencyTracker tracker, WarmupProperties properties) {
+            return new CacheWarmer(employeeRepository, jdbcTemplate, shardRouter, tracker, properties);
+        }
+
+        // contributes to /actuator/health as cacheWarmup
+        @Bean
+        public CacheWarmupHealthIndicator cacheWarmupHealthIndicator(CacheWarmer cacheWarmer) {
+            return new CacheWarmupHealthIndicator(cacheWarmer);
+        }
+
+        @Bean
+        public MeterBinder cacheWarmupMetrics(CacheWarmer cacheWarmer) {
+            return registry -> {
+                Gauge.builder("employee.warmup.loaded", cacheWarmer, CacheWarmer::getLoaded)
+                        .description("Employees loaded into the second-level cache by the startup warm-up")
+                        .register(registry);
+                Gauge.builder("employee.warmup.target", cacheWarmer, CacheWarmer::getTarget)
+                        .register(registry);
+                Gauge.builder("employee.warmup.time", cacheWarmer, warmer -> warmer.getElapsedMillis() / 1000.0)
+                        .baseUnit("seconds")
+                        .register(registry);
+            };
+        }
+    }
+
+    // the readiness group names cacheWarmup, with warm-up switched off there is nothing to wait for
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.warmup", name = "enabled", havingValue = "false")
+    static class WarmerDisabledConfig {
+
+        @Bean
+        public HealthIndicator cacheWarmupHealthIndicator() {
+            return () -> Health.up().withDetail("state", "DISABLED").build();
+        }
+    }
+}
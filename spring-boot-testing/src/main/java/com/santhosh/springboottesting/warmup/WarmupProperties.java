@@ -0,0 +1,36 @@
+package com.santhosh.springboottesting.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+
+    // loads the hottest employees into the second-level cache after startup and counts lookups for the next one
+    private boolean enabled = true;
+
+    private Source source = Source.AUTO;
+
+    // lookup counts are written here at shutdown and read at the next start; blank keeps them in memory only
+    private String accessFile;
+
+    // employees loaded at most, and employees whose lookups are counted
+    private int maxEntries = 10_000;
+
+    // readiness is given up on warm-up after this long, the cache then fills from traffic
+    private Duration timeout = Duration.ofMinutes(2);
+
+    public enum Source {
+        // the access file when there is one, otherwise the scan
+        AUTO,
+        // the employees looked up most often before the last shutdown
+        ACCESS_FILE,
+        // the newest max-entries employees
+        SCAN
+    }
+}
@@ -0,0 +1,43 @@
+package com.santhosh.springboottesting.webserver;
+
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Tomcat serves HTTP/2 (server.http2.enabled) with its own Http2Protocol, which ignores the connector's keep-alive
+// settings: idle HTTP/2 connections would be closed after its 20s default while HTTP/1.1 ones stay open for
+// server.tomcat.keep-alive-timeout. Left out of -Dweb.server=undertow and jetty builds, and of contexts without a
+// web server (the benchmarks), which have no ServerProperties.
+@Configuration
+@ConditionalOnClass(Tomcat.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(WebServerProperties.class)
+public class TomcatHttp2Config {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> tomcatHttp2Customizer(ServerProperties serverProperties,
+                                                                                           WebServerProperties properties) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    Duration keepAlive = serverProperties.getTomcat().getKeepAliveTimeout();
+                    if (keepAlive != null) {
+                        http2.setKeepAliveTimeout(keepAlive.toMillis());
+                    }
+                    http2.setMaxConcurrentStreams(properties.getHttp2().getMaxConcurrentStreams());
+                    http2.setMaxConcurrentStreamExecution(properties.getHttp2().getMaxConcurrentStreamExecution());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.santhosh.springboottesting.webserver;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// HTTP/2 settings Spring Boot has no server.* property for
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.web-server")
+public class WebServerProperties {
+
+    private Http2 http2 = new Http2();
+
+    @Getter
+    @Setter
+    public static class Http2 {
+
+        // requests one client may have open on a connection at the same time
+        private int maxConcurrentStreams = 100;
+
+        // of those, how many run on request threads at the same time; the rest wait without holding a thread
+        private int maxConcurrentStreamExecution = 20;
+    }
+}
@@ -0,0 +1,27 @@
+-- Adds email_hash and its unique index to an existing MySQL employees table. Run once before deploying the version
+-- whose email lookups and duplicate checks ignore case and surrounding spaces.
+--
+-- email_hash is the first 16 bytes of the SHA-256 of the trimmed, lower-cased email (EmployeeEmail.hash). The
+-- application computes it, so existing rows are left NULL here and hashed by EmailHashBackfill after the next
+-- start (app.backfill.email-hash.enabled). A unique index allows any number of NULLs, so it can be created first.
+-- Until the backfill has marked every shard in backfill_markers, lookups and upserts also match rows without a hash
+-- by the whole address, through the index dropped in step 4.
+
+-- 1. emails that only differ in case or surrounding spaces within a tenant; the backfill leaves all but one of each
+--    without a hash (and logs them), merge or rename them beforehand
+SELECT tenant_id, LOWER(TRIM(email)) AS email, COUNT(*) FROM employees
+GROUP BY tenant_id, LOWER(TRIM(email)) HAVING COUNT(*) > 1;
+
+-- 2. the column and the index every email lookup probes
+ALTER TABLE employees
+    ADD COLUMN email_hash BINARY(16) NULL,
+    ADD UNIQUE INDEX uk_employees_tenant_email_hash (tenant_id, email_hash);
+
+-- 3. after the backfill has run, must return a row on every shard; rows still without a hash are the conflicts of
+--    step 1
+SELECT completed_at FROM backfill_markers WHERE name = 'employee-email-hash';
+SELECT COUNT(*) FROM employees WHERE email_hash IS NULL;
+
+-- 4. only then drop the index on the whole address, until the backfill it still rejects exact duplicates of rows
+--    without a hash
+ALTER TABLE employees DROP INDEX uk_employees_tenant_email;
@@ -0,0 +1,12 @@
+-- Migrates an existing MySQL employees table from AUTO_INCREMENT ids to application assigned ids
+-- (SnowflakeIdGenerator). Run once before deploying the version that generates ids.
+--
+-- Existing rows keep their ids. Generated ids start at 2^22 per millisecond since 2024-01-01, far above any
+-- AUTO_INCREMENT value, so old and new ids cannot collide and still sort by creation time.
+-- Old ids carry no shard bits; with sharding enabled they are found by the fallback lookup on all shards.
+
+-- 1. make sure no existing id reaches the generated range (must return 0)
+SELECT COUNT(*) FROM employees WHERE id >= 4194304000;
+
+-- 2. stop the database from assigning ids
+ALTER TABLE employees MODIFY id BIGINT NOT NULL;
@@ -0,0 +1,15 @@
+-- Adds the normalized name columns and their index to an existing MySQL employees table. Run once before deploying
+-- the version whose name lookups ignore case and surrounding spaces.
+--
+-- The columns are generated by MySQL from first_name and last_name, existing rows get them when the column is added
+-- and every insert and update keeps them current. MySQL's TRIM removes spaces only, like EmployeeName.normalize.
+
+-- 1. the generated columns (rebuilds the table)
+ALTER TABLE employees
+    ADD COLUMN first_name_normalized VARCHAR(255) GENERATED ALWAYS AS (LOWER(TRIM(first_name))) STORED,
+    ADD COLUMN last_name_normalized VARCHAR(255) GENERATED ALWAYS AS (LOWER(TRIM(last_name))) STORED;
+
+-- 2. the index name lookups are answered from, in id order, replacing the one on the raw names
+ALTER TABLE employees
+    ADD INDEX idx_employees_tenant_normalized_name (tenant_id, first_name_normalized, last_name_normalized, id),
+    DROP INDEX idx_employees_tenant_name;
@@ -0,0 +1,59 @@
+package com.santhosh.springboottesting;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Prints the wall time of the whole test run and of the slowest test classes once the run finishes.
+public class TestWallTimeListener implements TestExecutionListener {
+
+    private static final int SLOWEST_CLASSES = 5;
+
+    private final Map<String, Long> classStarts = new ConcurrentHashMap<>();
+    private final Map<String, Long> classDurations = new ConcurrentHashMap<>();
+    private long planStart;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        planStart = System.nanoTime();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        className(testIdentifier).ifPresent(name -> classStarts.put(name, System.nanoTime()));
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        className(testIdentifier).ifPresent(name -> {
+            Long start = classStarts.remove(name);
+            if (start != null) {
+                classDurations.put(name, System.nanoTime() - start);
+            }
+        });
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        System.out.printf("Test wall time: %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - planStart));
+        classDurations.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(SLOWEST_CLASSES)
+                .forEach(entry -> System.out.printf("  %6d ms  %s%n",
+                        TimeUnit.NANOSECONDS.toMillis(entry.getValue()), entry.getKey()));
+    }
+
+    private static Optional<String> className(TestIdentifier testIdentifier) {
+        return testIdentifier.getSource()
+                .filter(ClassSource.class::isInstance)
+                .map(source -> ((ClassSource) source).getClassName());
+    }
+}
@@ -0,0 +1,131 @@
+package com.santhosh.springboottesting.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+// sync durability, so every request returns only once its history entry is written
+@SpringBootTest(properties = {"app.audit.durability=sync", "app.audit.max-page-size=2"})
+@AutoConfigureMockMvc
+public class EmployeeAuditIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeAuditWriter employeeAuditWriter;
+
+    // every test works in its own tenant
+    private String tenant;
+
+    @BeforeEach
+    public void setup(){
+        tenant = "audit-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // Junit test for recording the changed fields of create, update and delete in the history
+    @DisplayName("Junit test for recording the changed fields of create, update and delete in the history")
+    @Test
+    public void givenEmployeeChanges_whenGetHistory_thenReturnDiffsNewestFirst() throws Exception{
+        //given - precondition or setup
+        Instant start = Instant.now();
+        Employee employee = createEmployee();
+        Employee updated = Employee.builder().firstName("Santhosh").lastName("Sharma").email("santhosh@gmail.com").build();
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employee.getId())
+                        .header("X-Tenant-Id", tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updated)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", employee.getId()).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //when - action or behaviour that we are going to perform
+        String body = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}/history", employee.getId())
+                        .header("X-Tenant-Id", tenant).param("size", "2"))
+
+        //then - verify the output
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasNext", CoreMatchers.is(true)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[0].type", CoreMatchers.is("DELETED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[0].changes.lastName.from", CoreMatchers.is("Sharma")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[1].type", CoreMatchers.is("UPDATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[1].changes.lastName.from", CoreMatchers.is("Kumar")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[1].changes.lastName.to", CoreMatchers.is("Sharma")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[1].changes.firstName").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        Instant changedAt = Instant.parse(objectMapper.readTree(body).get("entries").get(0).get("changedAt").asText());
+        Assertions.assertThat(Duration.between(start, changedAt).abs()).isLessThan(Duration.ofMinutes(1));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}/history", employee.getId())
+                        .header("X-Tenant-Id", tenant).param("page", "1").param("size", "2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasNext", CoreMatchers.is(false)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[0].type", CoreMatchers.is("CREATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[0].changes.email.to", CoreMatchers.is("santhosh@gmail.com")));
+    }
+
+    // Junit test for keeping the history of an employee within its tenant
+    @DisplayName("Junit test for keeping the history of an employee within its tenant")
+    @Test
+    public void givenOtherTenant_whenGetHistory_thenReturnEmptyHistory() throws Exception{
+        //given - precondition or setup
+        Employee employee = createEmployee();
+
+        //when - action or behaviour that we are going to perform
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}/history", employee.getId())
+                        .header("X-Tenant-Id", tenant + "-other").param("size", "2"))
+
+        //then - verify the output
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries.size()", CoreMatchers.is(0)));
+        Assertions.assertThat(employeeAuditWriter.getWritten()).isPositive();
+        Assertions.assertThat(employeeAuditWriter.getFailed()).isZero();
+    }
+
+    // Junit test for rejecting a history page larger than the configured maximum
+    @DisplayName("Junit test for rejecting a history page larger than the configured maximum")
+    @Test
+    public void givenTooLargePage_whenGetHistory_thenReturnBadRequest() throws Exception{
+        //given - precondition or setup
+        long employeeId = 1L;
+
+        //when - action or behaviour that we are going to perform
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}/history", employeeId)
+                        .header("X-Tenant-Id", tenant).param("size", "3"))
+
+        //then - verify the output
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private Employee createEmployee() throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Santhosh")
+                .lastName("Kumar")
+                .email("santhosh@gmail.com")
+                .build();
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .header("X-Tenant-Id", tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, Employee.class);
+    }
+}
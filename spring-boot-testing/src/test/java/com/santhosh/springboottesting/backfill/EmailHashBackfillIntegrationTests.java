@@ -0,0 +1,162 @@
+package com.santhosh.springboottesting.backfill;
+
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeEmail;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// batch-size 2, so the rows below take several batches and the conflict shares one with a row that can be hashed
+@SpringBootTest(properties = {"app.backfill.email-hash.batch-size=2", "app.backfill.email-hash.batch-pause=0ms"})
+public class EmailHashBackfillIntegrationTests {
+
+    @Autowired
+    private EmailHashBackfill emailHashBackfill;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String tenant;
+    private String previousTenant;
+
+    @BeforeEach
+    public void setup(){
+        tenant = "backfill-" + UUID.randomUUID().toString().substring(0, 8);
+        previousTenant = TenantContext.set(tenant);
+        // as if the rows below had been there before the first start
+        emailHashBackfill.forget();
+    }
+
+    @AfterEach
+    public void cleanup(){
+        // rows left without a hash would be scanned by the next test's backfill
+        jdbcTemplate.update("delete from employees where tenant_id = ? and email_hash is null", tenant);
+        TenantContext.set(previousTenant);
+    }
+
+    // Junit test for hashing the emails of rows written without one, leaving only case duplicates unhashed
+    @DisplayName("Junit test for hashing the emails of rows written without one, leaving only case duplicates unhashed")
+    @Test
+    public void givenRowsWithoutEmailHash_whenBackfill_thenLookupsFindThem(){
+        //given - precondition or setup
+        // written the way rows were before email_hash existed
+        long santhosh = insert("Santhosh", "Kumar", "Santhosh@Gmail.com");
+        long ramesh = insert("Ramesh", "Fadatare", "ramesh@gmail.com");
+        long duplicate = insert("Ramesh", "Fadatare", "RAMESH@gmail.com");
+        long ved = insert("Ved", "Sharma", "ved@gmail.com");
+        Assertions.assertThat(employeeRepository.findByEmail("santhosh@gmail.com")).isEmpty();
+        long conflicts = emailHashBackfill.getConflicts();
+
+        //when - action or behaviour that we are going to perform
+        long hashed = emailHashBackfill.backfill();
+
+        //then - verify the output
+        Assertions.assertThat(hashed).isEqualTo(3);
+        Assertions.assertThat(emailHashBackfill.getConflicts() - conflicts).isEqualTo(1);
+        Assertions.assertThat(hash(santhosh)).isEqualTo(EmployeeEmail.hash("santhosh@gmail.com"));
+        Assertions.assertThat(hash(ramesh)).isEqualTo(EmployeeEmail.hash("ramesh@gmail.com"));
+        Assertions.assertThat(hash(duplicate)).isNull();
+        Assertions.assertThat(hash(ved)).isEqualTo(EmployeeEmail.hash("ved@gmail.com"));
+        // the empty result cached before the backfill is gone
+        Assertions.assertThat(employeeRepository.findByEmail("santhosh@gmail.com")).get()
+                .extracting("id").isEqualTo(santhosh);
+        Assertions.assertThat(emailHashBackfill.isComplete()).isTrue();
+    }
+
+    // Junit test for matching rows without an email hash by the whole address until the backfill is complete
+    @DisplayName("Junit test for matching rows without an email hash by the whole address until the backfill is complete")
+    @Test
+    public void givenRowWithoutEmailHash_whenBackfillIncomplete_thenEmailLookupsAndUpsertsMatchIt(){
+        //given - precondition or setup
+        long santhosh = insert("Santhosh", "Kumar", "santhosh@gmail.com");
+        Employee upserted = Employee.builder()
+                .id(EmployeeIdGenerator.nextId())
+                .firstName("Santhosh")
+                .lastName("Sharma")
+                .email("santhosh@gmail.com")
+                .build();
+
+        //when - action or behaviour that we are going to perform
+        Optional<Employee> found = employeeRepository.findByEmail("santhosh@gmail.com");
+        List<Employee> foundAll = employeeRepository.findAllByEmail(List.of("santhosh@gmail.com", "ramesh@gmail.com"));
+        employeeRepository.upsertByEmail(List.of(upserted));
+
+        //then - verify the output
+        Assertions.assertThat(emailHashBackfill.isComplete()).isFalse();
+        Assertions.assertThat(found).get().extracting("id").isEqualTo(santhosh);
+        Assertions.assertThat(foundAll).extracting("id").containsExactly(santhosh);
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from employees where tenant_id = ?", Integer.class, tenant))
+                .isEqualTo(1);
+        Assertions.assertThat(hash(santhosh)).isEqualTo(EmployeeEmail.hash("santhosh@gmail.com"));
+    }
+
+    // Junit test for returning the fields of rows without an email hash until the backfill is complete
+    @DisplayName("Junit test for returning the fields of rows without an email hash until the backfill is complete")
+    @Test
+    public void givenRowWithoutEmailHash_whenFindFieldsByEmails_thenReturnIt(){
+        //given - precondition or setup
+        long santhosh = insert("Santhosh", "Kumar", "santhosh@gmail.com");
+        Employee ramesh = employeeRepository.save(Employee.builder()
+                .id(EmployeeIdGenerator.nextId())
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build());
+
+        //when - action or behaviour that we are going to perform
+        List<Map<String, Object>> rows = employeeRepository.findFieldsByEmails(
+                List.of("santhosh@gmail.com", "ramesh@gmail.com"), List.of("id", "firstName"));
+
+        //then - verify the output
+        Assertions.assertThat(emailHashBackfill.isComplete()).isFalse();
+        Assertions.assertThat(rows).extracting(row -> row.get("id"))
+                .containsExactlyInAnyOrder(santhosh, ramesh.getId());
+        Assertions.assertThat(rows).extracting(row -> row.get("firstName"))
+                .containsExactlyInAnyOrder("Santhosh", "Ramesh");
+        jdbcTemplate.update("delete from employees where id = ?", ramesh.getId());
+    }
+
+    // Junit test for not scanning shards again once the backfill has marked them
+    @DisplayName("Junit test for not scanning shards again once the backfill has marked them")
+    @Test
+    public void givenBackfillComplete_whenBackfillAgain_thenShardsAreNotScanned(){
+        //given - precondition or setup
+        emailHashBackfill.backfill();
+        long ramesh = insert("Ramesh", "Fadatare", "ramesh@gmail.com");
+
+        //when - action or behaviour that we are going to perform
+        long hashed = emailHashBackfill.backfill();
+
+        //then - verify the output
+        Assertions.assertThat(hashed).isZero();
+        Assertions.assertThat(emailHashBackfill.isComplete()).isTrue();
+        Assertions.assertThat(hash(ramesh)).isNull();
+    }
+
+    private long insert(String firstName, String lastName, String email){
+        long id = EmployeeIdGenerator.nextId();
+        jdbcTemplate.update("insert into employees (id, tenant_id, first_name, last_name, email) values (?, ?, ?, ?, ?)",
+                id, tenant, firstName, lastName, email);
+        return id;
+    }
+
+    private byte[] hash(long id){
+        return jdbcTemplate.queryForObject("select email_hash from employees where id = ?", byte[].class, id);
+    }
+}
@@ -0,0 +1,154 @@
+package com.santhosh.springboottesting.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.model.Employee;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeBatchIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // every test works in its own tenant, other test classes share this application context
+    private String tenant;
+
+    @BeforeEach
+    public void setup(){
+        tenant = "batch-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // Junit test for creating new and patching existing employees by email in one batch
+    @DisplayName("Junit test for creating new and patching existing employees by email in one batch")
+    @Test
+    public void givenNewAndExistingEmails_whenUpsertBatch_thenReturnOutcomePerRecord() throws Exception{
+        //given - precondition or setup
+        Employee existing = createEmployee("Santhosh", "santhosh@gmail.com");
+        // warm the entity cache so a stale entry would show up below
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", existing.getId()).header("X-Tenant-Id", tenant));
+
+        //when - action or behaviour that we are going to perform
+        ResultActions response = patch("upsert",
+                Employee.builder().firstName("Santhosh").lastName("Kumar").email("santhosh@gmail.com").build(),
+                Employee.builder().firstName("Ved").lastName("Sharma").email("ved@gmail.com").build(),
+                Employee.builder().firstName("Ravi").email("ravi@gmail.com").build(),
+                Employee.builder().firstName("Ved").lastName("Sharma").email("VED@gmail.com").build());
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].outcome", CoreMatchers.is("UPDATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", CoreMatchers.is(existing.getId().toString())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].outcome", CoreMatchers.is("CREATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].outcome", CoreMatchers.is("INVALID")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[3].outcome", CoreMatchers.is("INVALID")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", existing.getId()).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastName", CoreMatchers.is("Kumar")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/stats").param("groupBy", "lastName").header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.groups.Kumar", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.groups.Sharma", CoreMatchers.is(1)));
+    }
+
+    // Junit test for upserting onto an existing employee whose email is spelled differently
+    @DisplayName("Junit test for upserting onto an existing employee whose email is spelled differently")
+    @Test
+    public void givenEmailInOtherCase_whenUpsertBatch_thenUpdateExistingEmployee() throws Exception{
+        //given - precondition or setup
+        Employee existing = createEmployee("Santhosh", "Santhosh@Gmail.com");
+
+        //when - action or behaviour that we are going to perform
+        ResultActions response = patch("upsert",
+                Employee.builder().firstName("Santhosh").lastName("Kumar").email(" santhosh@gmail.com").build());
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].outcome", CoreMatchers.is("UPDATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", CoreMatchers.is(existing.getId().toString())));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", existing.getId()).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastName", CoreMatchers.is("Kumar")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("Santhosh@Gmail.com")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)));
+    }
+
+    // Junit test for patching employees by id and reporting missing, unchanged and conflicting records
+    @DisplayName("Junit test for patching employees by id and reporting missing, unchanged and conflicting records")
+    @Test
+    public void givenPatchesById_whenUpdateBatch_thenReturnOutcomePerRecord() throws Exception{
+        //given - precondition or setup
+        Employee santhosh = createEmployee("Santhosh", "santhosh@gmail.com");
+        Employee ved = createEmployee("Ved", "ved@gmail.com");
+
+        //when - action or behaviour that we are going to perform
+        ResultActions response = patch("update",
+                Employee.builder().id(santhosh.getId()).email("naroju@gmail.com").build(),
+                Employee.builder().id(ved.getId()).firstName("Ved").build(),
+                Employee.builder().id(42L).firstName("Nobody").build(),
+                Employee.builder().id(ved.getId()).email("naroju@gmail.com").build());
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].outcome", CoreMatchers.is("UPDATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].outcome", CoreMatchers.is("UNCHANGED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].outcome", CoreMatchers.is("NOT_FOUND")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[3].outcome", CoreMatchers.is("INVALID")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", santhosh.getId()).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("naroju@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.firstName", CoreMatchers.is("Santhosh")));
+    }
+
+    // Junit test for rejecting an unknown batch mode
+    @DisplayName("Junit test for rejecting an unknown batch mode")
+    @Test
+    public void givenUnknownMode_whenPatchBatch_thenReturnBadRequest() throws Exception{
+        //given - precondition or setup
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        patch("replace", Employee.builder().email("ved@gmail.com").build())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private ResultActions patch(String mode, Employee... employees) throws Exception {
+        List<Employee> body = Arrays.asList(employees);
+        return mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/batch")
+                .header("X-Tenant-Id", tenant)
+                .param("mode", mode)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private Employee createEmployee(String firstName, String email) throws Exception {
+        Employee employee = Employee.builder()
+                .firstName(firstName)
+                .lastName("Sharma")
+                .email(email)
+                .build();
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .header("X-Tenant-Id", tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, Employee.class);
+    }
+}
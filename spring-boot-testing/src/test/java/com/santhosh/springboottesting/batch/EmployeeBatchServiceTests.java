@@ -0,0 +1,78 @@
+package com.santhosh.springboottesting.batch;
+
+import com.santhosh.springboottesting.events.EmployeeChangedEvent;
+import com.santhosh.springboottesting.id.IdGeneratorConfig;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.sharding.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeBatchServiceTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmployeeBatchService employeeBatchService;
+
+    @BeforeEach
+    public void setup(){
+        // the worker id of application-test.properties, other contexts of this JVM keep their sequence
+        new IdGeneratorConfig(0);
+        employeeBatchService = new EmployeeBatchService(employeeRepository, new ShardRouter(new ShardingProperties()),
+                new EmployeeMetrics(new SimpleMeterRegistry()), publisher, transactionManager, 100);
+    }
+
+    // Junit test for reporting an update when another request inserted the email after the lookup
+    @DisplayName("Junit test for reporting an update when another request inserted the email after the lookup")
+    @Test
+    public void givenEmailInsertedAfterLookup_whenUpsertBatch_thenReturnUpdatedWithStoredId(){
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.findAllByEmail(anyList())).willReturn(List.of());
+        // the statement matched the row inserted in between, which kept its id
+        BDDMockito.given(employeeRepository.findFieldsByEmails(anyList(), anyList()))
+                .willReturn(List.of(Map.of("id", 7L, "email", "Ved@gmail.com")));
+
+        //when - action or behaviour that we are going to perform
+        List<EmployeeBatchResult> results = employeeBatchService.apply(BatchMode.UPSERT,
+                List.of(Employee.builder().firstName("Ved").lastName("Sharma").email("ved@gmail.com").build()));
+
+        //then - verify the output
+        Assertions.assertThat(results).extracting(EmployeeBatchResult::outcome)
+                .containsExactly(EmployeeBatchResult.Outcome.UPDATED);
+        Assertions.assertThat(results).extracting(EmployeeBatchResult::id).containsExactly(7L);
+        ArgumentCaptor<EmployeeChangedEvent> event = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
+        verify(publisher).publishEvent(event.capture());
+        Assertions.assertThat(event.getValue().type()).isEqualTo(EmployeeChangedEvent.Type.UPDATED);
+        Assertions.assertThat(event.getValue().before()).isNull();
+        Assertions.assertThat(event.getValue().after().id()).isEqualTo(7L);
+        Assertions.assertThat(event.getValue().after().email()).isEqualTo("Ved@gmail.com");
+        verify(employeeRepository).upsertByEmail(any());
+    }
+}
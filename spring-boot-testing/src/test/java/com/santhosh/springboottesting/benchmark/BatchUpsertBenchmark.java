@@ -0,0 +1,96 @@
+package com.santhosh.springboottesting.benchmark;
+
+import com.santhosh.springboottesting.SpringBootTestingApplication;
+import com.santhosh.springboottesting.batch.BatchMode;
+import com.santhosh.springboottesting.batch.EmployeeBatchService;
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeEmail;
+import com.santhosh.springboottesting.service.EmployeeService;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Applies the same name changes to benchmark.rows existing employees twice: once the way sync jobs did it
+// through PUT /api/employees/{id} (getEmployeeById then updateEmployee per row), once through
+// EmployeeBatchService in batches of benchmark.batchSize. Not a JUnit test, run it with
+//   mvn test-compile exec:java -Dexec.mainClass=com.santhosh.springboottesting.benchmark.BatchUpsertBenchmark \
+//       -Dexec.classpathScope=test -Dexec.cleanupDaemonThreads=false -Dbenchmark.rows=20000
+// Defaults to an in-memory H2; point benchmark.url at MySQL to include real round trips.
+public class BatchUpsertBenchmark {
+
+    public static void main(String[] args) {
+        String url = System.getProperty("benchmark.url", "jdbc:h2:mem:batch-benchmark-%s;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        String username = System.getProperty("benchmark.username", "sa");
+        String password = System.getProperty("benchmark.password", "");
+        int rows = Integer.getInteger("benchmark.rows", 20_000);
+        int batchSize = Integer.getInteger("benchmark.batchSize", 1_000);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + String.format(url, UUID.randomUUID()),
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.hibernate.ddl-auto=create");
+        try {
+            EmployeeService employeeService = context.getBean(EmployeeService.class);
+            EmployeeBatchService batchService = context.getBean(EmployeeBatchService.class);
+
+            // seeded with plain JDBC: H2 keeps the plan it chose for a statement per connection, and a plan made
+            // while the table was still empty picks the covering name index over the unique email index
+            List<Object[]> rowValues = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                String email = "employee" + i + "@gmail.com";
+                rowValues.add(new Object[]{EmployeeIdGenerator.nextId(), TenantContext.DEFAULT_TENANT,
+                        "first" + i, "last" + i, email, EmployeeEmail.hash(email)});
+            }
+            // the upserts find the seeded rows by email_hash
+            context.getBean(JdbcTemplate.class).batchUpdate(
+                    "insert into employees (id, tenant_id, first_name, last_name, email, email_hash) values (?, ?, ?, ?, ?, ?)", rowValues);
+            List<Employee> seeded = employeeService.getAllEmployees();
+
+            long start = System.nanoTime();
+            for (Employee employee : seeded) {
+                employeeService.getEmployeeById(employee.getId()).ifPresent(saved -> {
+                    saved.setLastName(saved.getLastName() + "-loop");
+                    employeeService.updateEmployee(saved);
+                });
+            }
+            report("per-row PUT loop", rows, start);
+
+            start = System.nanoTime();
+            for (int offset = 0; offset < rows; offset += batchSize) {
+                List<Employee> chunk = new ArrayList<>();
+                for (Employee employee : seeded.subList(offset, Math.min(rows, offset + batchSize))) {
+                    chunk.add(Employee.builder().email(employee.getEmail()).lastName(employee.getLastName() + "-batch").build());
+                }
+                batchService.apply(BatchMode.UPSERT, chunk);
+            }
+            report("batch upsert by email", rows, start);
+
+            start = System.nanoTime();
+            for (int offset = 0; offset < rows; offset += batchSize) {
+                List<Employee> chunk = new ArrayList<>();
+                for (Employee employee : seeded.subList(offset, Math.min(rows, offset + batchSize))) {
+                    chunk.add(Employee.builder().id(employee.getId()).lastName(employee.getLastName() + "-patch").build());
+                }
+                batchService.apply(BatchMode.UPDATE, chunk);
+            }
+            report("batch update by id", rows, start);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void report(String name, int rows, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %d rows in %.2f s, %.0f rows/s%n", name, rows, seconds, rows / seconds);
+    }
+}
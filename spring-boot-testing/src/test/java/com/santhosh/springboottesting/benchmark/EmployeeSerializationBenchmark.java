@@ -0,0 +1,94 @@
+package com.santhosh.springboottesting.benchmark;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.santhosh.springboottesting.json.EmployeeJsonWriter;
+import com.santhosh.springboottesting.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Writes one employee and a list of them to a reused byte stream through the ObjectMapper and through
+// EmployeeJsonWriter, the two paths EmployeeJsonHttpMessageConverter chooses between. Run with
+//   mvn test-compile exec:java -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.classpathScope=test \
+//       -Dexec.args="EmployeeSerializationBenchmark -prof gc"
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeSerializationBenchmark {
+
+    @Param("100")
+    private int listSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+    private Employee employee;
+    private List<Employee> employees;
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setup() {
+        employees = new ArrayList<>();
+        for (long id = 1; id <= listSize; id++) {
+            employees.add(Employee.builder()
+                    .id(486921453012992L + id)
+                    .firstName("First" + id)
+                    .lastName("Last" + id)
+                    .email("employee" + id + "@gmail.com")
+                    .build());
+        }
+        employee = employees.get(0);
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+    }
+
+    @Benchmark
+    public int objectMapperSingle() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, employee);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writerSingle() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            EmployeeJsonWriter.write(generator, employee);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int objectMapperList() throws IOException {
+        out.reset();
+        listWriter.writeValue(out, employees);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writerList() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            EmployeeJsonWriter.writeList(generator, employees);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,142 @@
+package com.santhosh.springboottesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.SpringBootTestingApplication;
+import com.santhosh.springboottesting.grpc.GrpcServer;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.GetEmployeeRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.ListEmployeesRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.ListEmployeesResponse;
+import com.santhosh.springboottesting.grpc.proto.EmployeeServiceGrpc;
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Looks up employees by id and lists them over REST (HTTP/1.1 keep-alive, JSON read into Employee like callers
+// do) and over gRPC, both on loopback against the same running application. Reports latency percentiles and the
+// process CPU time per call; client and server share the JVM, so the CPU figure covers both ends of a call.
+// Not a JUnit test, run it with
+//   mvn test-compile exec:java -Dexec.mainClass=com.santhosh.springboottesting.benchmark.GrpcVsRestBenchmark \
+//       -Dexec.classpathScope=test -Dexec.cleanupDaemonThreads=false -Dbenchmark.calls=20000
+public class GrpcVsRestBenchmark {
+
+    private static final com.sun.management.OperatingSystemMXBean OS =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 1_000);
+        int calls = Integer.getInteger("benchmark.calls", 20_000);
+        int lists = Integer.getInteger("benchmark.lists", 200);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .run("--spring.datasource.url=jdbc:h2:mem:grpc-benchmark-" + UUID.randomUUID()
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--server.port=0",
+                        "--app.grpc.enabled=true",
+                        "--app.grpc.port=0",
+                        "--app.rate-limit.enabled=false",
+                        "--app.warmup.access-file=",
+                        "--logging.level.root=WARN");
+        ManagedChannel channel = null;
+        try {
+            List<Object[]> rowValues = new ArrayList<>(rows);
+            long[] ids = new long[rows];
+            for (int i = 0; i < rows; i++) {
+                ids[i] = EmployeeIdGenerator.nextId();
+                rowValues.add(new Object[]{ids[i], TenantContext.DEFAULT_TENANT, "first" + i, "last" + i, "employee" + i + "@gmail.com"});
+            }
+            context.getBean(JdbcTemplate.class).batchUpdate(
+                    "insert into employees (id, tenant_id, first_name, last_name, email) values (?, ?, ?, ?, ?)", rowValues);
+
+            int httpPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            ObjectMapper mapper = context.getBean(ObjectMapper.class);
+            channel = NettyChannelBuilder.forAddress("localhost", context.getBean(GrpcServer.class).getPort()).usePlaintext().build();
+            EmployeeServiceGrpc.EmployeeServiceBlockingStub stub = EmployeeServiceGrpc.newBlockingStub(channel);
+
+            Call rest = id -> {
+                HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + httpPort + "/api/employees/" + id)).build(), HttpResponse.BodyHandlers.ofByteArray());
+                return mapper.readValue(response.body(), Employee.class).getId();
+            };
+            Call grpc = id -> stub.getEmployee(GetEmployeeRequest.newBuilder().setId(id).build()).getId();
+            Call restList = id -> {
+                HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + httpPort + "/api/employees")).build(), HttpResponse.BodyHandlers.ofByteArray());
+                return mapper.readValue(response.body(), Employee[].class).length;
+            };
+            Call grpcList = id -> {
+                long count = 0;
+                for (Iterator<ListEmployeesResponse> chunks = stub.listEmployees(ListEmployeesRequest.getDefaultInstance()); chunks.hasNext(); ) {
+                    count += chunks.next().getEmployeesCount();
+                }
+                return count;
+            };
+
+            // both paths warm up first, then run in turns so neither profits from a warmer JIT or cache alone
+            run("REST get by id (warm-up)", rest, ids, calls, false);
+            run("gRPC get by id (warm-up)", grpc, ids, calls, false);
+            run("REST list (warm-up)", restList, ids, lists, false);
+            run("gRPC list (warm-up)", grpcList, ids, lists, false);
+            System.out.printf("%d employees, %d cores available%n", rows, Runtime.getRuntime().availableProcessors());
+            for (int round = 1; round <= 2; round++) {
+                run("REST get by id", rest, ids, calls, true);
+                run("gRPC get by id", grpc, ids, calls, true);
+                run("REST list of " + rows, restList, ids, lists, true);
+                run("gRPC list of " + rows, grpcList, ids, lists, true);
+            }
+        } finally {
+            if (channel != null) {
+                channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            }
+            context.close();
+        }
+    }
+
+    private static void run(String name, Call call, long[] ids, int calls, boolean print) throws Exception {
+        Histogram latencies = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+        long cpuStart = OS.getProcessCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+            long callStart = System.nanoTime();
+            if (call.invoke(id) < 0) {
+                throw new IllegalStateException();
+            }
+            latencies.recordValue(System.nanoTime() - callStart);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long cpu = OS.getProcessCpuTime() - cpuStart;
+        if (print) {
+            System.out.printf("%-22s %7.0f calls/s  p50 %7.1f us  p99 %7.1f us  cpu %7.1f us/call%n", name, calls / seconds,
+                    latencies.getValueAtPercentile(50) / 1e3, latencies.getValueAtPercentile(99) / 1e3, cpu / 1e3 / calls);
+        }
+    }
+
+    private interface Call {
+        long invoke(long id) throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,74 @@
+package com.santhosh.springboottesting.benchmark;
+
+import com.santhosh.springboottesting.SpringBootTestingApplication;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Inserts employees through EmployeeRepository.saveAll with JDBC batching off and on and prints rows per second.
+// Not a JUnit test, run it with
+//   mvn test-compile exec:java -Dexec.mainClass=com.santhosh.springboottesting.benchmark.InsertThroughputBenchmark \
+//       -Dexec.classpathScope=test -Dexec.cleanupDaemonThreads=false -Dbenchmark.rows=200000 -Dbenchmark.batchSizes=0,50
+// Defaults to an in-memory H2, which has no round trips to save, so both runs come out about the same there.
+// Point benchmark.url at MySQL with rewriteBatchedStatements=true to see the effect of batching.
+public class InsertThroughputBenchmark {
+
+    public static void main(String[] args) {
+        String url = System.getProperty("benchmark.url", "jdbc:h2:mem:insert-benchmark-%s;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        String username = System.getProperty("benchmark.username", "sa");
+        String password = System.getProperty("benchmark.password", "");
+        int rows = Integer.getInteger("benchmark.rows", 100_000);
+        int rowsPerTransaction = Integer.getInteger("benchmark.rowsPerTransaction", 1_000);
+        String[] batchSizes = System.getProperty("benchmark.batchSizes", "0,50").split(",");
+
+        for (String batchSize : batchSizes) {
+            String run = UUID.randomUUID().toString();
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=" + String.format(url, run),
+                            "--spring.datasource.username=" + username,
+                            "--spring.datasource.password=" + password,
+                            "--spring.jpa.show-sql=false",
+                            "--spring.jpa.hibernate.ddl-auto=create",
+                            "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize.trim());
+            try {
+                EmployeeRepository repository = context.getBean(EmployeeRepository.class);
+                TransactionTemplate transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+                // warm up the JIT and the connection pool before measuring
+                insert(repository, transactions, "warmup", Math.min(rows, 20_000), rowsPerTransaction);
+
+                long start = System.nanoTime();
+                insert(repository, transactions, run, rows, rowsPerTransaction);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("batch_size=%s: %d rows in %.2f s, %.0f rows/s%n",
+                        batchSize.trim(), rows, seconds, rows / seconds);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void insert(EmployeeRepository repository, TransactionTemplate transactions, String prefix,
+                               int rows, int rowsPerTransaction) {
+        for (int offset = 0; offset < rows; offset += rowsPerTransaction) {
+            List<Employee> employees = new ArrayList<>(rowsPerTransaction);
+            for (int i = offset; i < Math.min(rows, offset + rowsPerTransaction); i++) {
+                employees.add(Employee.builder()
+                        .firstName("first" + i)
+                        .lastName("last" + i)
+                        .email(prefix + "-" + i + "@gmail.com")
+                        .build());
+            }
+            transactions.executeWithoutResult(status -> repository.saveAll(employees));
+        }
+    }
+}
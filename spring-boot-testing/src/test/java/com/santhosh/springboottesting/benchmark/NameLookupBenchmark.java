@@ -0,0 +1,102 @@
+package com.santhosh.springboottesting.benchmark;
+
+import com.santhosh.springboottesting.SpringBootTestingApplication;
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+// First page of a name lookup against benchmark.rows employees of one tenant, for the four repository variants and
+// for the lower(first_name) = lower(?) comparison they replace, which no index can answer. Names repeat every
+// benchmark.names rows, so each lookup matches rows / names employees. The query cache is off, every lookup reaches
+// the database. Not a JUnit test, run it with
+//   mvn test-compile exec:java -Dexec.mainClass=com.santhosh.springboottesting.benchmark.NameLookupBenchmark \
+//       -Dexec.classpathScope=test -Dexec.cleanupDaemonThreads=false -Dbenchmark.rows=1000000
+public class NameLookupBenchmark {
+
+    public static void main(String[] args) {
+        String url = System.getProperty("benchmark.url", "jdbc:h2:mem:name-benchmark-%s;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        String username = System.getProperty("benchmark.username", "sa");
+        String password = System.getProperty("benchmark.password", "");
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        int names = Integer.getInteger("benchmark.names", 5_000);
+        int lookups = Integer.getInteger("benchmark.lookups", 2_000);
+        int scans = Integer.getInteger("benchmark.scans", 20);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + String.format(url, UUID.randomUUID()),
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--spring.jpa.hibernate.ddl-auto=create");
+        try {
+            EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            List<Object[]> rowValues = new ArrayList<>(10_000);
+            for (int i = 0; i < rows; i++) {
+                rowValues.add(new Object[]{EmployeeIdGenerator.nextId(), TenantContext.DEFAULT_TENANT,
+                        "First" + (i % names), "Last" + (i % names), "employee" + i + "@gmail.com"});
+                if (rowValues.size() == 10_000 || i == rows - 1) {
+                    jdbcTemplate.batchUpdate("insert into employees (id, tenant_id, first_name, last_name, email) values (?, ?, ?, ?, ?)", rowValues);
+                    rowValues.clear();
+                }
+            }
+            System.out.printf("%d employees, %d sharing each name%n", rows, rows / names);
+
+            Pageable firstPage = PageRequest.of(0, 20);
+            // callers spell names as they like, the lookups have to match regardless
+            measure("JPQL, index params", lookups, i -> employeeRepository.findByJPQL(
+                    "first" + (i % names), " LAST" + (i % names), firstPage));
+            measure("JPQL, named params", lookups, i -> employeeRepository.findByJPQLNamedParams(
+                    "first" + (i % names), " LAST" + (i % names), firstPage));
+            measure("SQL, index params", lookups, i -> employeeRepository.findByNativeSQL(
+                    "first" + (i % names), " LAST" + (i % names), firstPage));
+            measure("SQL, named params", lookups, i -> employeeRepository.findByNativeSQLNamedParams(
+                    "first" + (i % names), " LAST" + (i % names), firstPage));
+            measure("lower(first_name) = lower(?), no index", scans, i -> jdbcTemplate.queryForList(
+                    "select id from employees where tenant_id = ? and lower(first_name) = lower(?) and lower(last_name) = lower(?) order by id limit 21",
+                    Long.class, TenantContext.DEFAULT_TENANT, "first" + (i % names), "LAST" + (i % names)));
+        } finally {
+            context.close();
+        }
+    }
+
+    // p50 and p99 over the lookups, after the same number of warm-up lookups
+    private static void measure(String name, int lookups, IntFunction<?> lookup) {
+        for (int i = 0; i < lookups; i++) {
+            check(name, lookup.apply(lookups + i));
+        }
+        long[] nanos = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            long start = System.nanoTime();
+            Object result = lookup.apply(i);
+            nanos[i] = System.nanoTime() - start;
+            check(name, result);
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%s: p50 %.3f ms, p99 %.3f ms over %d lookups%n", name,
+                nanos[lookups / 2] / 1e6, nanos[(int) (lookups * 0.99)] / 1e6, lookups);
+    }
+
+    private static void check(String name, Object result) {
+        int found = result instanceof Slice<?> slice ? slice.getNumberOfElements() : ((List<?>) result).size();
+        if (found == 0) {
+            throw new IllegalStateException(name + " found no employees");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.santhosh.springboottesting.benchmark;
+
+import com.santhosh.springboottesting.SpringBootTestingApplication;
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.scan.IdRange;
+import com.santhosh.springboottesting.scan.PartitionedScan;
+import com.santhosh.springboottesting.scan.ScanProperties;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Reads all benchmark.rows employees of one tenant the way GET /api/employees does, once with the plain
+// findAll and then through PartitionedScan with 1, 2, 4 ... benchmark.maxThreads threads. Not a JUnit test, run it with
+//   mvn test-compile exec:java -Dexec.mainClass=com.santhosh.springboottesting.benchmark.ParallelScanBenchmark \
+//       -Dexec.classpathScope=test -Dexec.cleanupDaemonThreads=false -Dbenchmark.rows=200000
+// H2 in memory is CPU bound, so the scan only scales up to the number of cores the JVM gets.
+public class ParallelScanBenchmark {
+
+    public static void main(String[] args) {
+        String url = System.getProperty("benchmark.url", "jdbc:h2:mem:scan-benchmark-%s;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        String username = System.getProperty("benchmark.username", "sa");
+        String password = System.getProperty("benchmark.password", "");
+        int rows = Integer.getInteger("benchmark.rows", 200_000);
+        int maxThreads = Integer.getInteger("benchmark.maxThreads", Math.max(8, Runtime.getRuntime().availableProcessors()));
+        int iterations = Integer.getInteger("benchmark.iterations", 5);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + String.format(url, UUID.randomUUID()),
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.datasource.hikari.maximum-pool-size=" + (maxThreads + 2),
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.hibernate.ddl-auto=create");
+        try {
+            EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            ShardRouter shardRouter = context.getBean(ShardRouter.class);
+
+            List<Object[]> rowValues = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                rowValues.add(new Object[]{EmployeeIdGenerator.nextId(), TenantContext.DEFAULT_TENANT,
+                        "first" + i, "last" + i, "employee" + i + "@gmail.com"});
+            }
+            jdbcTemplate.batchUpdate("insert into employees (id, tenant_id, first_name, last_name, email) values (?, ?, ?, ?, ?)", rowValues);
+            System.out.printf("%d cores available%n", Runtime.getRuntime().availableProcessors());
+
+            double serial = measure("serial findAll", rows, iterations, () -> employeeRepository.findAll());
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                ScanProperties properties = new ScanProperties();
+                properties.setParallelism(threads);
+                properties.setMinPartitionRows(1_000);
+                PartitionedScan scan = new PartitionedScan(jdbcTemplate, shardRouter, properties);
+                try {
+                    double seconds = measure("partitioned, " + threads + " threads", rows, iterations, () -> {
+                        List<IdRange> ranges = scan.partition("tenant_id = ?", TenantContext.DEFAULT_TENANT);
+                        return scan.<Employee>ordered(ranges, range -> range.isAll() ? employeeRepository.findAll()
+                                : employeeRepository.findAllByIdBetweenOrderById(range.from(), range.to()));
+                    });
+                    System.out.printf("  speed-up over serial findAll: %.2fx%n", serial / seconds);
+                } finally {
+                    scan.destroy();
+                }
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    // best of the iterations after one warm-up read
+    private static double measure(String name, int rows, int iterations, Supplier<List<Employee>> read) {
+        read.get();
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            int count = read.get().size();
+            best = Math.min(best, (System.nanoTime() - start) / 1e9);
+            if (count != rows) {
+                throw new IllegalStateException(name + " read " + count + " of " + rows + " rows");
+            }
+        }
+        System.out.printf("%s: %d rows in %.3f s, %.0f rows/s%n", name, rows, best, rows / best);
+        return best;
+    }
+}
@@ -0,0 +1,126 @@
+package com.santhosh.springboottesting.benchmark;
+
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.snapshot.EmployeeColumnStore;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Holds benchmark.rows employees either as entities in heap maps (what an on-heap entity cache keeps alive) or in
+// the off-heap EmployeeColumnStore, then prints retained heap, direct memory and collector work for a lookup run.
+// Not a JUnit test, run each mode in its own JVM so one does not pollute the other's heap:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-Xmx2g -Dbenchmark.mode=snapshot -cp %classpath com.santhosh.springboottesting.benchmark.SnapshotHeapBenchmark"
+// with benchmark.mode=heap for the comparison.
+public class SnapshotHeapBenchmark {
+
+    private static final String TENANT = "default";
+
+    public static void main(String[] args) {
+        String mode = System.getProperty("benchmark.mode", "snapshot");
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        int lookups = Integer.getInteger("benchmark.lookups", 5_000_000);
+
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+        Lookup lookup = "heap".equals(mode) ? loadHeap(rows) : loadSnapshot(rows);
+        System.out.printf("%s: loaded %d rows in %d ms%n", mode, rows, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("%s: retained heap %d MB, direct memory %d MB%n", mode,
+                Math.max(0, usedHeapAfterGc() - heapBefore) >> 20, directMemory() >> 20);
+
+        long collections = gcCount();
+        long gcMillis = gcMillis();
+        start = System.nanoTime();
+        long found = 0;
+        for (int i = 0; i < lookups; i++) {
+            long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+            Employee employee = i % 2 == 0 ? lookup.byId(id) : lookup.byEmail(email(id));
+            if (employee != null) {
+                found++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %d lookups (%d found) in %.2f s, %.0f lookups/s, %d collections taking %d ms%n", mode,
+                lookups, found, seconds, lookups / seconds, gcCount() - collections, gcMillis() - gcMillis);
+        // keep the data reachable until everything was measured
+        System.out.println(lookup.byId(1) != null ? "" : "missing row 1");
+    }
+
+    private interface Lookup {
+        Employee byId(long id);
+
+        Employee byEmail(String email);
+    }
+
+    private static Lookup loadHeap(int rows) {
+        Map<Long, Employee> byId = new HashMap<>(rows * 2);
+        Map<String, Employee> byEmail = new HashMap<>(rows * 2);
+        for (long id = 1; id <= rows; id++) {
+            Employee employee = new Employee(id, TENANT, "First" + id % 5_000, "Last" + id % 20_000, email(id), null, null, null);
+            byId.put(id, employee);
+            byEmail.put(employee.getEmail(), employee);
+        }
+        return new Lookup() {
+            @Override
+            public Employee byId(long id) {
+                return byId.get(id);
+            }
+
+            @Override
+            public Employee byEmail(String email) {
+                return byEmail.get(email);
+            }
+        };
+    }
+
+    private static Lookup loadSnapshot(int rows) {
+        EmployeeColumnStore store = new EmployeeColumnStore(rows);
+        for (long id = 1; id <= rows; id++) {
+            store.upsert(new EmployeeSnapshot(id, TENANT, "First" + id % 5_000, "Last" + id % 20_000, email(id)));
+        }
+        return new Lookup() {
+            @Override
+            public Employee byId(long id) {
+                return store.findById(TENANT, id);
+            }
+
+            @Override
+            public Employee byEmail(String email) {
+                return store.findByEmail(TENANT, email);
+            }
+        };
+    }
+
+    private static String email(long id) {
+        return "employee" + id + "@example.com";
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long directMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
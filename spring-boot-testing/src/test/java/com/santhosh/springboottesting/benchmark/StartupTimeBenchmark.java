@@ -0,0 +1,136 @@
+package com.santhosh.springboottesting.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Launches the packaged application in a fresh JVM and measures the time until the first
+// successful GET /api/employees/{id}. Employee ids are generated, so unless benchmark.employeeId names one that
+// exists, an untimed first start creates the employee to look up. Not a JUnit test, run it with
+//   mvn test-compile exec:java -Dexec.mainClass=com.santhosh.springboottesting.benchmark.StartupTimeBenchmark \
+//       -Dexec.classpathScope=test -Dbenchmark.jar=target/spring-boot-testing-0.0.1-SNAPSHOT-thin.jar \
+//       "-Dbenchmark.jvmArgs=-XX:SharedArchiveFile=target/app-cds.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup"
+public class StartupTimeBenchmark {
+
+    // ids are written as JSON strings
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"?(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String jar = System.getProperty("benchmark.jar", "target/spring-boot-testing-0.0.1-SNAPSHOT.jar");
+        String jvmArgs = System.getProperty("benchmark.jvmArgs", "");
+        String appArgs = System.getProperty("benchmark.appArgs", "");
+        int iterations = Integer.getInteger("benchmark.iterations", 5);
+        int port = Integer.getInteger("benchmark.port", 18080);
+        Long configuredId = Long.getLong("benchmark.employeeId");
+        Duration timeout = Duration.ofSeconds(Long.getLong("benchmark.timeoutSeconds", 120L));
+
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.addAll(split(jvmArgs));
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        command.addAll(split(appArgs));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        long employeeId = configuredId != null ? configuredId : createEmployee(client, command, port, timeout);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/" + employeeId))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            Process process = start(command);
+            try {
+                long elapsed = waitFor(client, request, 200, start, timeout).elapsedMillis();
+                samples.add(elapsed);
+                System.out.printf("run %d: first successful GET after %d ms%n", i + 1, elapsed);
+            } finally {
+                stop(process);
+            }
+        }
+
+        Collections.sort(samples);
+        System.out.printf("time-to-first-successful-GET: min %d ms, median %d ms, max %d ms over %d runs%n",
+                samples.get(0), samples.get(samples.size() / 2), samples.get(samples.size() - 1), samples.size());
+    }
+
+    // an untimed start that stores one employee, in the database the timed runs use
+    private static long createEmployee(HttpClient client, List<String> command, int port, Duration timeout)
+            throws IOException, InterruptedException {
+        String body = "{\"firstName\":\"Startup\",\"lastName\":\"Benchmark\",\"email\":\"startup-benchmark-"
+                + System.currentTimeMillis() + "@example.com\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees"))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        Process process = start(command);
+        try {
+            String created = waitFor(client, request, 201, System.nanoTime(), timeout).body();
+            Matcher id = ID.matcher(created);
+            if (!id.find()) {
+                throw new IllegalStateException("no id in " + created);
+            }
+            System.out.printf("created employee %s to look up%n", id.group(1));
+            return Long.parseLong(id.group(1));
+        } finally {
+            stop(process);
+        }
+    }
+
+    private static Process start(List<String> command) throws IOException {
+        return new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static Answer waitFor(HttpClient client, HttpRequest request, int status, long start, Duration timeout)
+            throws InterruptedException {
+        long deadline = start + timeout.toNanos();
+        int lastStatus = 0;
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == status) {
+                    return new Answer(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), response.body());
+                }
+                lastStatus = response.statusCode();
+            } catch (ConnectException e) {
+                // not listening yet
+            } catch (IOException e) {
+                // connection reset while starting up
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("application did not answer " + request.method() + " " + request.uri()
+                + " with " + status + " within " + timeout + (lastStatus == 0 ? "" : ", last status " + lastStatus));
+    }
+
+    private record Answer(long elapsedMillis, String body) {
+    }
+
+    private static List<String> split(String args) {
+        return args.isBlank() ? List.of() : Arrays.asList(args.trim().split("\\s+"));
+    }
+}
@@ -1,8 +1,11 @@
 package com.santhosh.springboottesting.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.audit.EmployeeAuditService;
+import com.santhosh.springboottesting.batch.EmployeeBatchService;
 import com.santhosh.springboottesting.model.Employee;
 import com.santhosh.springboottesting.service.EmployeeService;
+import com.santhosh.springboottesting.stats.EmployeeStatsService;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,6 +34,15 @@ public class EmployeeControllerTest{
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeStatsService employeeStatsService;
+
+    @MockBean
+    private EmployeeBatchService employeeBatchService;
+
+    @MockBean
+    private EmployeeAuditService employeeAuditService;
+
     @Autowired
     private ObjectMapper objectMapper; // we use to convert object to json format
 
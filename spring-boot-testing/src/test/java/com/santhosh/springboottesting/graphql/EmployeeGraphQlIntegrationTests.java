@@ -0,0 +1,154 @@
+package com.santhosh.springboottesting.graphql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.service.EmployeeService;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.assertj.core.api.Assertions;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// every statement Hibernate sends in this context is recorded, to see how many lookups a query took and what they selected
+@SpringBootTest(properties = {"app.graphql.max-complexity=60",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.santhosh.springboottesting.graphql.EmployeeGraphQlIntegrationTests$RecordingStatementInspector"})
+@AutoConfigureMockMvc
+public class EmployeeGraphQlIntegrationTests {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    private String tenant;
+    private String previousTenant;
+    private Employee santhosh;
+    private Employee ramesh;
+    private Employee ved;
+
+    @BeforeEach
+    public void setup(){
+        tenant = "graphql-" + UUID.randomUUID().toString().substring(0, 8);
+        previousTenant = TenantContext.set(tenant);
+        santhosh = employeeService.saveEmployee(Employee.builder().firstName("Santhosh").lastName("Kumar").email("santhosh@gmail.com").build());
+        ramesh = employeeService.saveEmployee(Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build());
+        ved = employeeService.saveEmployee(Employee.builder().firstName("Ved").lastName("Sharma").email("ved@gmail.com").build());
+        STATEMENTS.clear();
+    }
+
+    @AfterEach
+    public void cleanup(){
+        TenantContext.set(previousTenant);
+    }
+
+    // Junit test for resolving every id lookup of a query with one projected IN query
+    @DisplayName("Junit test for resolving every id lookup of a query with one projected IN query")
+    @Test
+    public void givenAliasedIdLookups_whenQuery_thenOneInQuerySelectingOnlyAskedColumns() throws Exception{
+        //given - precondition or setup
+        String query = "{ a: employee(id: \"" + santhosh.getId() + "\") { email }"
+                + " b: employee(id: \"" + ramesh.getId() + "\") { firstName }"
+                + " list: employees(ids: [\"" + ved.getId() + "\", \"42\"]) { id email } }";
+
+        //when - action or behaviour that we are going to perform
+        JsonNode data = graphql(query).get("data");
+
+        //then - verify the output
+        Assertions.assertThat(data.at("/a/email").asText()).isEqualTo("santhosh@gmail.com");
+        Assertions.assertThat(data.at("/b/firstName").asText()).isEqualTo("Ramesh");
+        Assertions.assertThat(data.at("/list/0/id").asText()).isEqualTo(ved.getId().toString());
+        Assertions.assertThat(data.at("/list/1").isNull()).isTrue();
+        List<String> selects = employeeSelects();
+        Assertions.assertThat(selects).hasSize(1);
+        Assertions.assertThat(selects.get(0)).contains(" in ", "email", "first_name").doesNotContain("last_name");
+    }
+
+    // Junit test for looking up by email and by name in the same query
+    @DisplayName("Junit test for looking up by email and by name in the same query")
+    @Test
+    public void givenEmailAndNameLookups_whenQuery_thenReturnMatches() throws Exception{
+        //given - precondition or setup
+        String query = "{ byEmail: employeeByEmail(email: \"ramesh@gmail.com\") { id lastName }"
+                + " missing: employeeByEmail(email: \"nobody@gmail.com\") { id }"
+                + " byName: employeesByName(firstName: \"Ved\", lastName: \"Sharma\") { email }"
+                + " noName: employeesByName(firstName: \"Ved\", lastName: \"Kumar\") { email } }";
+
+        //when - action or behaviour that we are going to perform
+        JsonNode data = graphql(query).get("data");
+
+        //then - verify the output
+        Assertions.assertThat(data.at("/byEmail/id").asText()).isEqualTo(ramesh.getId().toString());
+        Assertions.assertThat(data.at("/byEmail/lastName").asText()).isEqualTo("Fadatare");
+        Assertions.assertThat(data.get("missing").isNull()).isTrue();
+        Assertions.assertThat(data.at("/byName/0/email").asText()).isEqualTo("ved@gmail.com");
+        Assertions.assertThat(data.get("noName")).isEmpty();
+        // one query for both emails, one for both names
+        Assertions.assertThat(employeeSelects()).hasSize(2);
+    }
+
+    // Junit test for rejecting a query above the complexity limit before it reaches the database
+    @DisplayName("Junit test for rejecting a query above the complexity limit before it reaches the database")
+    @Test
+    public void givenTooManyIds_whenQuery_thenRejectedWithoutQuerying() throws Exception{
+        //given - precondition or setup
+        String ids = LongStream.rangeClosed(1, 20).mapToObj(id -> "\"" + id + "\"").collect(Collectors.joining(", "));
+        String query = "{ employees(ids: [" + ids + "]) { id firstName lastName email } }";
+
+        //when - action or behaviour that we are going to perform
+        JsonNode response = graphql(query);
+
+        //then - verify the output
+        Assertions.assertThat(response.at("/errors/0/message").asText()).contains("maximum query complexity");
+        Assertions.assertThat(employeeSelects()).isEmpty();
+    }
+
+    private JsonNode graphql(String query) throws Exception{
+        MvcResult pending = mockMvc.perform(MockMvcRequestBuilders.post("/graphql")
+                        .header("X-Tenant-Id", tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("query", query))))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(pending))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static List<String> employeeSelects(){
+        return STATEMENTS.stream().filter(sql -> sql.startsWith("select") && sql.contains("employees")).toList();
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
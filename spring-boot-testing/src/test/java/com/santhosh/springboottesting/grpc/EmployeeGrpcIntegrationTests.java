@@ -0,0 +1,141 @@
+package com.santhosh.springboottesting.grpc;
+
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.BatchGetEmployeesRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.CreateEmployeeRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.DeleteEmployeeRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.GetEmployeeRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.ListEmployeesRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeProto.UpdateEmployeeRequest;
+import com.santhosh.springboottesting.grpc.proto.EmployeeServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.stub.MetadataUtils;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(properties = {"app.grpc.enabled=true", "app.grpc.max-batch-size=3", "app.grpc.list-chunk-size=10"})
+public class EmployeeGrpcIntegrationTests {
+
+    private static final Metadata.Key<String> TENANT = Metadata.Key.of("x-tenant-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Autowired
+    private GrpcServer grpcServer;
+
+    private ManagedChannel channel;
+    private String tenant;
+
+    @BeforeEach
+    public void setup(){
+        channel = NettyChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+        tenant = "grpc-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @AfterEach
+    public void cleanup() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Junit test for create, get, batch get, update and delete over gRPC
+    @DisplayName("Junit test for create, get, batch get, update and delete over gRPC")
+    @Test
+    public void givenEmployee_whenCrudOverGrpc_thenSameResultsAsService(){
+        //given - precondition or setup
+        EmployeeServiceGrpc.EmployeeServiceBlockingStub stub = stub(tenant);
+        EmployeeProto.Employee created = stub.createEmployee(create("Santhosh", "santhosh@gmail.com"));
+        EmployeeProto.Employee other = stub.createEmployee(create("Ramesh", "ramesh@gmail.com"));
+
+        //when - action or behaviour that we are going to perform
+        EmployeeProto.Employee found = stub.getEmployee(GetEmployeeRequest.newBuilder().setId(created.getId()).build());
+        List<EmployeeProto.Employee> batch = stub.batchGetEmployees(BatchGetEmployeesRequest.newBuilder()
+                .addIds(other.getId()).addIds(-1L).addIds(created.getId()).build()).getEmployeesList();
+        EmployeeProto.Employee updated = stub.updateEmployee(UpdateEmployeeRequest.newBuilder()
+                .setEmployee(created.toBuilder().setFirstName("Ram")).build());
+        stub.deleteEmployee(DeleteEmployeeRequest.newBuilder().setId(other.getId()).build());
+
+        //then - verify the output
+        Assertions.assertThat(created.getId()).isPositive();
+        Assertions.assertThat(found).isEqualTo(created);
+        Assertions.assertThat(batch).extracting(EmployeeProto.Employee::getId).containsExactly(other.getId(), created.getId());
+        Assertions.assertThat(updated.getFirstName()).isEqualTo("Ram");
+        Assertions.assertThat(stub.getEmployee(GetEmployeeRequest.newBuilder().setId(created.getId()).build()).getFirstName())
+                .isEqualTo("Ram");
+        assertStatus(() -> stub.getEmployee(GetEmployeeRequest.newBuilder().setId(other.getId()).build()), Status.Code.NOT_FOUND);
+    }
+
+    // Junit test for streaming only the calling tenant's employees in id order
+    @DisplayName("Junit test for streaming only the calling tenant's employees in id order")
+    @Test
+    public void givenTwoTenants_whenListEmployees_thenOnlyOwnEmployeesStreamed(){
+        //given - precondition or setup
+        EmployeeServiceGrpc.EmployeeServiceBlockingStub stub = stub(tenant);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ids.add(stub.createEmployee(create("Santhosh", "santhosh" + i + "@gmail.com")).getId());
+        }
+        stub(tenant + "-other").createEmployee(create("Ramesh", "ramesh@gmail.com"));
+
+        //when - action or behaviour that we are going to perform
+        List<Long> streamed = new ArrayList<>();
+        List<Integer> chunks = new ArrayList<>();
+        stub.listEmployees(ListEmployeesRequest.getDefaultInstance()).forEachRemaining(chunk -> {
+            chunks.add(chunk.getEmployeesCount());
+            chunk.getEmployeesList().forEach(employee -> streamed.add(employee.getId()));
+        });
+
+        //then - verify the output
+        Assertions.assertThat(streamed).isEqualTo(ids.stream().sorted().toList());
+        Assertions.assertThat(chunks).containsExactly(10, 10, 5);
+    }
+
+    // Junit test for mapping rejected calls to gRPC status codes
+    @DisplayName("Junit test for mapping rejected calls to gRPC status codes")
+    @Test
+    public void givenInvalidCalls_whenCalled_thenStatusCodes(){
+        //given - precondition or setup
+        EmployeeServiceGrpc.EmployeeServiceBlockingStub stub = stub(tenant);
+        stub.createEmployee(create("Santhosh", "santhosh@gmail.com"));
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        assertStatus(() -> stub.createEmployee(create("Ramesh", "santhosh@gmail.com")), Status.Code.ALREADY_EXISTS);
+        assertStatus(() -> stub.createEmployee(create("", "ramesh@gmail.com")), Status.Code.INVALID_ARGUMENT);
+        assertStatus(() -> stub.batchGetEmployees(BatchGetEmployeesRequest.newBuilder()
+                .addIds(1L).addIds(2L).addIds(3L).addIds(4L).build()), Status.Code.INVALID_ARGUMENT);
+        assertStatus(() -> stub("not a tenant").getEmployee(GetEmployeeRequest.newBuilder().setId(1L).build()),
+                Status.Code.INVALID_ARGUMENT);
+    }
+
+    private EmployeeServiceGrpc.EmployeeServiceBlockingStub stub(String tenant){
+        Metadata headers = new Metadata();
+        headers.put(TENANT, tenant);
+        return EmployeeServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers))
+                .withDeadlineAfter(10, TimeUnit.SECONDS);
+    }
+
+    private static CreateEmployeeRequest create(String firstName, String email){
+        return CreateEmployeeRequest.newBuilder().setEmployee(EmployeeProto.Employee.newBuilder()
+                .setFirstName(firstName).setLastName("Kumar").setEmail(email)).build();
+    }
+
+    private static void assertStatus(Runnable call, Status.Code code){
+        Assertions.assertThatThrownBy(call::run)
+                .isInstanceOf(StatusRuntimeException.class)
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(code);
+    }
+}
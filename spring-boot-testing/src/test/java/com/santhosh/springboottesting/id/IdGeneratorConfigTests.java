@@ -0,0 +1,28 @@
+package com.santhosh.springboottesting.id;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+public class IdGeneratorConfigTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(IdGeneratorConfig.class);
+
+    // Junit test for refusing to start without a worker id
+    @DisplayName("Junit test for refusing to start without a worker id")
+    @Test
+    public void givenNoWorkerId_whenStart_thenFail(){
+        //given - precondition or setup
+
+        //when - action or behaviour that we are going to perform
+        contextRunner.run(context -> {
+
+            //then - verify the output
+            Assertions.assertThat(context).hasFailed();
+            Assertions.assertThat(context.getStartupFailure()).rootCause()
+                    .hasMessageContaining("app.id-generator.worker-id");
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.santhosh.springboottesting.id;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class SnowflakeIdGeneratorTests {
+
+    // Junit test for generating unique increasing ids
+    @DisplayName("Junit test for generating unique increasing ids")
+    @Test
+    public void givenGenerator_whenNextIdManyTimes_thenReturnUniqueIncreasingIds(){
+        //given - precondition or setup
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        Set<Long> ids = new HashSet<>();
+        long previous = 0;
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId(0);
+            Assertions.assertThat(id).isGreaterThan(previous);
+            previous = id;
+            ids.add(id);
+        }
+        Assertions.assertThat(ids).hasSize(100_000);
+    }
+
+    // Junit test for reading the shard back from an id
+    @DisplayName("Junit test for reading the shard back from an id")
+    @Test
+    public void givenShard_whenNextId_thenShardOfReturnsShard(){
+        //given - precondition or setup
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKERS - 1);
+
+        //when - action or behaviour that we are going to perform
+        long id = generator.nextId(SnowflakeIdGenerator.MAX_SHARDS - 1);
+
+        //then - verify the output
+        Assertions.assertThat(SnowflakeIdGenerator.shardOf(id)).isEqualTo(SnowflakeIdGenerator.MAX_SHARDS - 1);
+        Assertions.assertThat(SnowflakeIdGenerator.timestampOf(id))
+                .isBetween(System.currentTimeMillis() - 60_000, System.currentTimeMillis() + 60_000);
+        Assertions.assertThat(id).isPositive();
+    }
+}
@@ -1,9 +1,11 @@
 package com.santhosh.springboottesting.integration;
 
+import org.junit.jupiter.api.Tag;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MySQLContainer;
 
+@Tag("containers")
 public abstract class AbstractionContainerBaseTest {
 
     static final MySQLContainer MY_SQL_CONTAINER;
@@ -0,0 +1,106 @@
+package com.santhosh.springboottesting.integration;
+
+import com.santhosh.springboottesting.cache.CacheRegions;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.service.EmployeeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+@SpringBootTest
+public class EmployeeCacheIntegrationTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        String suffix = UUID.randomUUID().toString();
+        employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Cached")
+                .lastName(suffix)
+                .email("cached-" + suffix + "@gmail.com")
+                .build());
+    }
+
+    // Junit test for serving get employee by id from the second-level cache
+    @DisplayName("Junit test for serving get employee by id from the second-level cache")
+    @Test
+    public void givenSavedEmployee_whenGetEmployeeByIdTwice_thenSecondReadHitsCache(){
+        //given - precondition or setup
+        CacheRegionStatistics regionStatistics = sessionFactory.getStatistics()
+                .getDomainDataRegionStatistics(CacheRegions.EMPLOYEE);
+        employeeService.getEmployeeById(employee.getId());
+        long hits = regionStatistics.getHitCount();
+
+        //when - action or behaviour that we are going to perform
+        Employee cached = employeeService.getEmployeeById(employee.getId()).orElseThrow();
+
+        //then - verify the output
+        Assertions.assertThat(regionStatistics.getHitCount()).isGreaterThan(hits);
+        Assertions.assertThat(cached.getEmail()).isEqualTo(employee.getEmail());
+    }
+
+    // Junit test for refreshing the cached entity and lookups on update employee
+    @DisplayName("Junit test for refreshing the cached entity and lookups on update employee")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenReadsReturnUpdatedEmployee(){
+        //given - precondition or setup
+        String oldEmail = employee.getEmail();
+        employeeService.getEmployeeById(employee.getId());
+        Assertions.assertThat(employeeRepository.findByEmail(oldEmail)).isPresent();
+        Assertions.assertThat(employeeRepository.findByJPQL("Cached", employee.getLastName(), PageRequest.of(0, 10)).getContent()).hasSize(1);
+        Assertions.assertThat(employeeRepository.findByNativeSQL("Cached", employee.getLastName(), PageRequest.of(0, 10)).getContent()).hasSize(1);
+
+        //when - action or behaviour that we are going to perform
+        employee.setEmail("updated-" + oldEmail);
+        employee.setFirstName("Updated");
+        employeeService.updateEmployee(employee);
+
+        //then - verify the output
+        Assertions.assertThat(employeeService.getEmployeeById(employee.getId()))
+                .hasValueSatisfying(updated -> Assertions.assertThat(updated.getEmail()).isEqualTo("updated-" + oldEmail));
+        Assertions.assertThat(employeeRepository.findByEmail(oldEmail)).isEmpty();
+        Assertions.assertThat(employeeRepository.findByEmail("updated-" + oldEmail)).isPresent();
+        Assertions.assertThat(employeeRepository.findByJPQL("Cached", employee.getLastName(), PageRequest.of(0, 10)).getContent()).isEmpty();
+        Assertions.assertThat(employeeRepository.findByNativeSQL("Cached", employee.getLastName(), PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    // Junit test for evicting the cached entity and lookups on delete employee
+    @DisplayName("Junit test for evicting the cached entity and lookups on delete employee")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenEvictEmployee(){
+        //given - precondition or setup
+        employeeService.getEmployeeById(employee.getId());
+        Assertions.assertThat(employeeRepository.findByEmail(employee.getEmail())).isPresent();
+
+        //when - action or behaviour that we are going to perform
+        employeeService.DeleteEmployee(employee.getId());
+
+        //then - verify the output
+        // a stale cache entry would still be returned here, em.find consults the cache before the database
+        Assertions.assertThat(employeeService.getEmployeeById(employee.getId())).isEmpty();
+        Assertions.assertThat(employeeRepository.findByEmail(employee.getEmail())).isEmpty();
+    }
+}
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.santhosh.springboottesting.model.Employee;
 import com.santhosh.springboottesting.repository.EmployeeRepository;
 import org.hamcrest.CoreMatchers;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,12 +15,14 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@Transactional
 public class EmployeeControllerIT extends AbstractionContainerBaseTest {
 
     @Autowired
@@ -33,11 +34,6 @@ public class EmployeeControllerIT extends AbstractionContainerBaseTest {
     @Autowired
     private MockMvc mockMvc;
 
-    @BeforeEach
-    void setUp(){
-        employeeRepository.deleteAll();
-    }
-
     // Junit test for createEmployee controller
     @DisplayName("JSON test for createEmployee controller")
     @Test
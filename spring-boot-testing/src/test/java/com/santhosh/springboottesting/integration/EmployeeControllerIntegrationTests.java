@@ -1,10 +1,11 @@
 package com.santhosh.springboottesting.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.santhosh.springboottesting.model.Employee;
 import com.santhosh.springboottesting.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +17,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,6 +25,7 @@ import java.util.Optional;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@Transactional
 public class EmployeeControllerIntegrationTests {
 
     @Autowired
@@ -34,11 +37,6 @@ public class EmployeeControllerIntegrationTests {
     @Autowired
     private MockMvc mockMvc;
 
-    @BeforeEach
-    void setUp(){
-        employeeRepository.deleteAll();
-    }
-
     // JSON test for createEmployee controller
     @DisplayName("JSON test for createEmployee controller")
     @Test
@@ -66,6 +64,39 @@ public class EmployeeControllerIntegrationTests {
                         CoreMatchers.is(employee.getEmail())));
     }
 
+    // JSON test for round-tripping a generated id, which does not fit a JavaScript number, through the API
+    @DisplayName("JSON test for round-tripping a generated id, which does not fit a JavaScript number, through the API")
+    @Test
+    public void givenCreatedEmployee_whenIdReadFromJson_thenGetAndUpdateSameEmployee() throws Exception{
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Santhosh")
+                .lastName("Naroju")
+                .email("santhoshnaroju@gmail.com")
+                .build();
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode id = objectMapper.readTree(created).get("id");
+
+        //when - action or behaviour that we are going to perform
+        ResultActions fetched = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", id.asText()));
+        ResultActions updated = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", id.asText())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"" + id.asText() + "\",\"firstName\":\"Ved\",\"lastName\":\"Sharma\",\"email\":\"ved@gmail.com\"}"));
+
+        //then - verify the output
+        Assertions.assertThat(id.isTextual()).isTrue();
+        Assertions.assertThat(Long.parseLong(id.asText())).isGreaterThan(1L << 53);
+        fetched.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(id.asText())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
+        updated.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(id.asText())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.firstName", CoreMatchers.is("Ved")));
+    }
+
     //Junit test for Get All Employees method
     @DisplayName("Junit test for Get All Employees method")
     @Test
@@ -85,6 +116,39 @@ public class EmployeeControllerIntegrationTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(employeeList.size())));
     }
 
+    //Junit test for Get Employees By Name method
+    @DisplayName("Junit test for Get Employees By Name method")
+    @Test
+    public void givenEmployeesSharingName_whenGetEmployeesByName_thenReturnPagesIgnoringCase() throws Exception{
+        //given - precondition or setup
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().firstName("Ved").lastName("Sharma").email("ved1@gmail.com").build());
+        employeeList.add(Employee.builder().firstName("VED").lastName("sharma").email("ved2@gmail.com").build());
+        employeeList.add(Employee.builder().firstName(" ved").lastName("Sharma ").email("ved3@gmail.com").build());
+        employeeList.add(Employee.builder().firstName("Ved").lastName("Kumar").email("ved4@gmail.com").build());
+        employeeRepository.saveAll(employeeList);
+
+        //when - action or behaviour that we are going to perform
+        ResultActions firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("firstName", "ved").param("lastName", "SHARMA").param("size", "2"));
+        ResultActions lastPage = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("firstName", "ved").param("lastName", "SHARMA").param("size", "2").param("page", "1"));
+        ResultActions tooLarge = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("firstName", "ved").param("lastName", "SHARMA").param("size", "1000"));
+
+        //then - verify the output
+        firstPage.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].email", CoreMatchers.is("ved1@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees[1].email", CoreMatchers.is("ved2@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasNext", CoreMatchers.is(true)));
+        lastPage.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].email", CoreMatchers.is("ved3@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasNext", CoreMatchers.is(false)));
+        tooLarge.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     //Positive Scenario - Valid employee id
     //Junit test for GetEmployeeById Method
     @DisplayName("Junit test for GetEmployeeById Method")
@@ -109,6 +173,47 @@ public class EmployeeControllerIntegrationTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    //Junit test for GetAllEmployees and GetEmployeeById with selected fields
+    @DisplayName("Junit test for GetAllEmployees and GetEmployeeById with selected fields")
+    @Test
+    public void givenFields_whenGetEmployees_thenReturnOnlySelectedFields() throws Exception{
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Santhosh")
+                .lastName("Naroju")
+                .email("santhoshnaroju@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+
+        //when - action or behaviour that we are going to perform
+        ResultActions list = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("fields", "email"));
+        ResultActions single = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId())
+                .param("fields", "email,id"));
+
+        //then - verify the output
+        list.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email", CoreMatchers.is(employee.getEmail())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName").doesNotExist());
+        single.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(employee.getId().toString())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastName").doesNotExist());
+    }
+
+    //Junit test for rejecting unknown and hidden fields
+    @DisplayName("Junit test for rejecting unknown and hidden fields")
+    @Test
+    public void givenUnknownField_whenGetAllEmployees_thenReturnBadRequest() throws Exception{
+        //given - precondition or setup
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("fields", "email,salary"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("fields", "tenantId"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     //Negative Scenario - InValid employee id
     //Junit test for GetEmployeeById Method
     @DisplayName("Junit test for GetEmployeeById Method")
@@ -0,0 +1,67 @@
+package com.santhosh.springboottesting.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+public class EmployeeJsonWriterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Junit test for writing an employee exactly as the ObjectMapper does
+    @DisplayName("Junit test for writing an employee exactly as the ObjectMapper does")
+    @Test
+    public void givenEmployee_whenWrite_thenMatchObjectMapperOutput() throws Exception{
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(486921453012992L)
+                .tenantId("tenant-a")
+                .firstName("Sant\"hosh")
+                .lastName("Näroju\n")
+                .email("santhosh@gmail.com")
+                .build();
+
+        //when - action or behaviour that we are going to perform
+        String json = write(generator -> EmployeeJsonWriter.write(generator, employee));
+
+        //then - verify the output
+        Assertions.assertThat(json).isEqualTo(objectMapper.writeValueAsString(employee));
+        Assertions.assertThat(json).doesNotContain("tenant");
+    }
+
+    // Junit test for writing a list with missing fields exactly as the ObjectMapper does
+    @DisplayName("Junit test for writing a list with missing fields exactly as the ObjectMapper does")
+    @Test
+    public void givenEmployeesWithNulls_whenWriteList_thenMatchObjectMapperOutput() throws Exception{
+        //given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().id(1L).firstName("Ved").lastName("Sharma").email("ved@gmail.com").build(),
+                Employee.builder().firstName("Ravi").build());
+
+        //when - action or behaviour that we are going to perform
+        String json = write(generator -> EmployeeJsonWriter.writeList(generator, employees));
+
+        //then - verify the output
+        Assertions.assertThat(json).isEqualTo(objectMapper.writeValueAsString(employees));
+        Assertions.assertThat(write(generator -> EmployeeJsonWriter.writeList(generator, List.of()))).isEqualTo("[]");
+    }
+
+    private interface Body {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private String write(Body body) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            body.write(generator);
+        }
+        return out.toString();
+    }
+}
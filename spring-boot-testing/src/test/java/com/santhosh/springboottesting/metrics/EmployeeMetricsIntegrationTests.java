@@ -0,0 +1,67 @@
+package com.santhosh.springboottesting.metrics;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class EmployeeMetricsIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Junit test for exposing the employee latency histograms through Prometheus
+    @DisplayName("Junit test for exposing the employee latency histograms through Prometheus")
+    @Test
+    public void givenEmployeeRequest_whenScrapePrometheus_thenReturnLatencyHistograms() throws Exception {
+        //given - precondition or setup
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.allOf(
+                        CoreMatchers.containsString("employee_endpoint_latency_seconds{endpoint=\"getAllEmployees\",quantile=\"0.99\""),
+                        CoreMatchers.containsString("employee_service_latency_seconds{method=\"get_all_employees\",quantile=\"0.5\""),
+                        CoreMatchers.containsString("employee_repository_calls_total{method=\"find_all\""),
+                        CoreMatchers.containsString("employee_serialization_time_seconds_total{payload=\"list\""),
+                        CoreMatchers.containsString("hibernate_cache_requests_total{region=\"employee\",result=\"hit\""),
+                        CoreMatchers.containsString("hibernate_cache_entries{region=\"employee-queries\""))));
+    }
+
+    // Junit test for exporting the latency of the ?fields= handlers apart from the full ones
+    @DisplayName("Junit test for exporting the latency of the ?fields= handlers apart from the full ones")
+    @Test
+    public void givenFullAndFieldsRequests_whenScrapePrometheus_thenReturnBothEndpoints() throws Exception {
+        //given - precondition or setup
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("fields", "id,email"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", 1L))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", 1L).param("fields", "email"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.allOf(
+                        CoreMatchers.containsString("employee_endpoint_calls_total{endpoint=\"getAllEmployees\""),
+                        CoreMatchers.containsString("employee_endpoint_calls_total{endpoint=\"getAllEmployeeFields\""),
+                        CoreMatchers.containsString("employee_endpoint_calls_total{endpoint=\"getEmployeeById\""),
+                        CoreMatchers.containsString("employee_endpoint_calls_total{endpoint=\"getEmployeeFieldsById\""))));
+    }
+}
@@ -0,0 +1,69 @@
+package com.santhosh.springboottesting.metrics;
+
+import com.sun.management.ThreadMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeMetricsTests {
+
+    private static final int SAMPLES = 100_000;
+
+    // Junit test for dropping latencies older than the one-minute window however rarely it is read
+    @DisplayName("Junit test for dropping latencies older than the one-minute window however rarely it is read")
+    @Test
+    public void givenScrapesSecondsApart_whenRefresh_thenWindowHoldsTheLastMinuteOnly() {
+        //given - precondition or setup
+        LatencyHistogram histogram = new LatencyHistogram(0);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+        //when - action or behaviour that we are going to perform
+        long afterFirstRead = histogram.refresh(TimeUnit.SECONDS.toNanos(31)).getTotalCount();
+        long withinMinute = histogram.refresh(TimeUnit.SECONDS.toNanos(65)).getTotalCount();
+        long afterMinute = histogram.refresh(TimeUnit.SECONDS.toNanos(95)).getTotalCount();
+
+        //then - verify the output
+        assertThat(afterFirstRead).isEqualTo(1);
+        assertThat(withinMinute).isEqualTo(1);
+        assertThat(afterMinute).isZero();
+        assertThat(histogram.totalCount()).isEqualTo(1);
+    }
+
+    // Junit test for recording latency samples without allocating
+    @DisplayName("Junit test for recording latency samples without allocating")
+    @Test
+    public void givenRegisteredTimers_whenRecordSamples_thenNothingIsAllocated() {
+        //given - precondition or setup
+        EmployeeMetrics metrics = new EmployeeMetrics(new SimpleMeterRegistry());
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        //when - action or behaviour that we are going to perform
+        // the recording path is allocation-free once the JIT has compiled it, which can take a few rounds
+        // when other test classes keep the compiler busy
+        double bytesPerSample = Double.MAX_VALUE;
+        for (int round = 0; round < 50 && bytesPerSample > 0; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < SAMPLES; i++) {
+                record(metrics);
+            }
+            bytesPerSample = Math.min(bytesPerSample,
+                    (threads.getThreadAllocatedBytes(threadId) - before) / (double) SAMPLES);
+        }
+
+        //then - verify the output
+        assertThat(bytesPerSample).isLessThan(1.0);
+    }
+
+    private static void record(EmployeeMetrics metrics) {
+        long start = System.nanoTime();
+        metrics.recordRepository(EmployeeMetrics.RepositoryMethod.FIND_BY_ID, start);
+        metrics.recordService(EmployeeMetrics.ServiceMethod.GET_EMPLOYEE_BY_ID, start);
+        metrics.recordSerialization(EmployeeMetrics.Payload.SINGLE, start);
+    }
+}
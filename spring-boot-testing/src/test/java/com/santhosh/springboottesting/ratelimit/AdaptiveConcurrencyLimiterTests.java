@@ -0,0 +1,62 @@
+package com.santhosh.springboottesting.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTests {
+
+    private static final long TARGET_LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // Junit test for shedding requests over the concurrency limit
+    @DisplayName("Junit test for shedding requests over the concurrency limit")
+    @Test
+    public void givenLimitReached_whenTryAcquire_thenReject() {
+        //given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 2, 4, TARGET_LATENCY, 0.5);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        //when - action or behaviour that we are going to perform
+        boolean accepted = limiter.tryAcquire();
+
+        //then - verify the output
+        assertThat(accepted).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    // Junit test for backing off when latency goes over the target
+    @DisplayName("Junit test for backing off when latency goes over the target")
+    @Test
+    public void givenSlowRequest_whenRelease_thenDecreaseLimit() {
+        //given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 4, 8, TARGET_LATENCY, 0.5);
+        limiter.tryAcquire();
+
+        //when - action or behaviour that we are going to perform
+        limiter.release(TARGET_LATENCY * 2);
+
+        //then - verify the output
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    // Junit test for growing the limit while requests stay fast
+    @DisplayName("Junit test for growing the limit while requests stay fast")
+    @Test
+    public void givenFastRequestsAtLimit_whenRelease_thenIncreaseLimit() {
+        //given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 2, 8, TARGET_LATENCY, 0.5);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        //when - action or behaviour that we are going to perform
+        limiter.release(TARGET_LATENCY / 2);
+
+        //then - verify the output
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,109 @@
+package com.santhosh.springboottesting.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTests {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Budget budget = properties.getDefaultBudget();
+        budget.setClientCapacity(1);
+        budget.setClientRefillPerSecond(0.001);
+        budget.setMinConcurrency(1);
+        budget.setInitialConcurrency(1);
+        budget.setMaxConcurrency(1);
+        budget.setTargetLatency(Duration.ofMinutes(1));
+        filter = new RateLimitFilter(properties);
+    }
+
+    // Junit test for not charging a client for a request shed by the endpoint's concurrency limit
+    @DisplayName("Junit test for not charging a client for a request shed by the endpoint's concurrency limit")
+    @Test
+    public void givenEndpointAtConcurrencyLimit_whenRequestShed_thenClientKeepsItsToken() throws Exception {
+        //given - precondition or setup
+        AtomicInteger served = new AtomicInteger();
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        // client-a holds the only slot while client-b comes in
+        FilterChain holdingSlot = (request, response) -> {
+            served.incrementAndGet();
+            filter.doFilter(request("client-b"), shed, (innerRequest, innerResponse) -> served.incrementAndGet());
+        };
+        filter.doFilter(request("client-a"), new MockHttpServletResponse(), holdingSlot);
+
+        //when - action or behaviour that we are going to perform
+        MockHttpServletResponse retried = new MockHttpServletResponse();
+        filter.doFilter(request("client-b"), retried, (request, response) -> served.incrementAndGet());
+
+        //then - verify the output
+        assertThat(shed.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(retried.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(served).hasValue(2);
+    }
+
+    // Junit test for giving new clients their own bucket once tracked clients have refilled
+    @DisplayName("Junit test for giving new clients their own bucket once tracked clients have refilled")
+    @Test
+    public void givenTrackedClientsRefilled_whenNewClients_thenEachGetsOwnBucket() throws Exception {
+        //given - precondition or setup
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxTrackedClients(2);
+        properties.getDefaultBudget().setClientCapacity(1);
+        properties.getDefaultBudget().setClientRefillPerSecond(50);
+        RateLimitFilter evicting = new RateLimitFilter(properties);
+        FilterChain serve = (request, response) -> { };
+        evicting.doFilter(request("client-a"), new MockHttpServletResponse(), serve);
+        evicting.doFilter(request("client-b"), new MockHttpServletResponse(), serve);
+        Thread.sleep(100);
+
+        //when - action or behaviour that we are going to perform
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        evicting.doFilter(request("client-c"), first, serve);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        evicting.doFilter(request("client-d"), second, serve);
+
+        //then - verify the output
+        assertThat(first.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    // Junit test for limiting GraphQL queries under their own endpoint budget
+    @DisplayName("Junit test for limiting GraphQL queries under their own endpoint budget")
+    @Test
+    public void givenClientBudgetSpentOnGraphQl_whenQueryAgain_thenRejectOnlyGraphQl() throws Exception {
+        //given - precondition or setup
+        MockHttpServletRequest query = new MockHttpServletRequest("POST", "/graphql");
+        query.addHeader("X-Client-Id", "client-a");
+        filter.doFilter(query, new MockHttpServletResponse(), (request, response) -> { });
+
+        //when - action or behaviour that we are going to perform
+        MockHttpServletResponse again = new MockHttpServletResponse();
+        filter.doFilter(query, again, (request, response) -> { });
+        MockHttpServletResponse rest = new MockHttpServletResponse();
+        filter.doFilter(request("client-a"), rest, (request, response) -> { });
+
+        //then - verify the output
+        assertThat(RateLimitFilter.endpointName(query)).isEqualTo(RateLimitFilter.GRAPHQL_ENDPOINT);
+        assertThat(again.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(rest.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private static MockHttpServletRequest request(String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/1");
+        request.addHeader("X-Client-Id", clientId);
+        return request;
+    }
+}
@@ -0,0 +1,69 @@
+package com.santhosh.springboottesting.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTests {
+
+    // Junit test for burst capacity of the token bucket
+    @DisplayName("Junit test for burst capacity of the token bucket")
+    @Test
+    public void givenFullBucket_whenCapacityIsSpent_thenRejectNextRequest() {
+        //given - precondition or setup
+        TokenBucket bucket = new TokenBucket(3, 1);
+        long now = System.nanoTime();
+
+        //when - action or behaviour that we are going to perform
+        boolean first = bucket.tryAcquire(now);
+        boolean second = bucket.tryAcquire(now);
+        boolean third = bucket.tryAcquire(now);
+        boolean fourth = bucket.tryAcquire(now);
+
+        //then - verify the output
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isTrue();
+        assertThat(fourth).isFalse();
+    }
+
+    // Junit test for refilling the token bucket
+    @DisplayName("Junit test for refilling the token bucket")
+    @Test
+    public void givenEmptyBucket_whenRefillIntervalPasses_thenAcceptRequest() {
+        //given - precondition or setup
+        TokenBucket bucket = new TokenBucket(1, 10);
+        long now = System.nanoTime();
+        bucket.tryAcquire(now);
+
+        //when - action or behaviour that we are going to perform
+        boolean tooEarly = bucket.tryAcquire(now + TimeUnit.MILLISECONDS.toNanos(50));
+        boolean afterRefill = bucket.tryAcquire(now + TimeUnit.MILLISECONDS.toNanos(100));
+
+        //then - verify the output
+        assertThat(tooEarly).isFalse();
+        assertThat(afterRefill).isTrue();
+    }
+
+    // Junit test for refunding a token that was not used
+    @DisplayName("Junit test for refunding a token that was not used")
+    @Test
+    public void givenEmptyBucket_whenTokenRefunded_thenAcceptOneMoreRequest() {
+        //given - precondition or setup
+        TokenBucket bucket = new TokenBucket(1, 1);
+        long now = System.nanoTime();
+        bucket.tryAcquire(now);
+
+        //when - action or behaviour that we are going to perform
+        bucket.refund();
+        boolean afterRefund = bucket.tryAcquire(now);
+        boolean beyondCapacity = bucket.tryAcquire(now);
+
+        //then - verify the output
+        assertThat(afterRefund).isTrue();
+        assertThat(beyondCapacity).isFalse();
+    }
+}
@@ -0,0 +1,56 @@
+package com.santhosh.springboottesting.repository;
+
+import com.santhosh.springboottesting.id.IdGeneratorConfig;
+import com.santhosh.springboottesting.model.Employee;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+// the id generator is configured outside the JPA slice
+@Import(IdGeneratorConfig.class)
+public class EmployeeBatchInsertTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    //Junit test for sending inserts in JDBC batches
+    @DisplayName("Junit test for sending inserts in JDBC batches")
+    @Test
+    public void givenEmployeeList_whenSaveAll_thenInsertInJdbcBatches() {
+        //given - precondition or setup
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employees.add(Employee.builder()
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("employee" + i + "@gmail.com")
+                    .build());
+        }
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when - action or behaviour that we are going to perform
+        employeeRepository.saveAll(employees);
+        entityManager.flush();
+
+        //then - verify the output
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(100);
+        // batch_size=50: the insert statement is prepared once and executed as two batches, not once per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+}
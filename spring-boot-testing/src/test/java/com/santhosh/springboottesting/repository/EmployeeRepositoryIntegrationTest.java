@@ -1,13 +1,16 @@
 package com.santhosh.springboottesting.repository;
 
+import com.santhosh.springboottesting.id.IdGeneratorConfig;
 import com.santhosh.springboottesting.integration.AbstractionContainerBaseTest;
 import com.santhosh.springboottesting.model.Employee;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +18,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+// the id generator is configured outside the JPA slice
+@Import(IdGeneratorConfig.class)
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 public class EmployeeRepositoryIntegrationTest extends AbstractionContainerBaseTest {
 
@@ -174,10 +179,10 @@ public class EmployeeRepositoryIntegrationTest extends AbstractionContainerBaseT
         String lastName = "Naroju";
 
         //when - action or behaviour that we are going to perform
-        Employee savedEmployee = employeeRepository.findByJPQL(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByJPQL(firstName, lastName, PageRequest.of(0, 10)).getContent();
 
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     //Junit test for custom query using JPQL with Named Params
@@ -195,10 +200,10 @@ public class EmployeeRepositoryIntegrationTest extends AbstractionContainerBaseT
         String lastName = "Naroju";
 
         //when - action or behaviour that we are going to perform
-        Employee savedEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByJPQLNamedParams(firstName, lastName, PageRequest.of(0, 10)).getContent();
 
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     //Junit test for custom query using JPQL with index
@@ -214,10 +219,10 @@ public class EmployeeRepositoryIntegrationTest extends AbstractionContainerBaseT
         employeeRepository.save(employee1);
 
         //when - action or behaviour that we are going to perform
-        Employee savedEmployee = employeeRepository.findByNativeSQL(employee1.getFirstName(), employee1.getLastName());
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQL(employee1.getFirstName(), employee1.getLastName(), PageRequest.of(0, 10)).getContent();
 
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     //Junit test for custom query using Native SQL with Named Params
@@ -233,10 +238,10 @@ public class EmployeeRepositoryIntegrationTest extends AbstractionContainerBaseT
         employeeRepository.save(employee1);
 
         //when - action or behaviour that we are going to perform
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee1.getFirstName(), employee1.getLastName());
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQLNamedParams(employee1.getFirstName(), employee1.getLastName(), PageRequest.of(0, 10)).getContent();
 
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
 
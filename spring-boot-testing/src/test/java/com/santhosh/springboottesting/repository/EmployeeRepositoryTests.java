@@ -1,18 +1,26 @@
 package com.santhosh.springboottesting.repository;
 
+import com.santhosh.springboottesting.id.IdGeneratorConfig;
 import com.santhosh.springboottesting.model.Employee;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
+// the id generator is configured outside the JPA slice
+@Import(IdGeneratorConfig.class)
 public class EmployeeRepositoryTests {
 
     @Autowired
@@ -113,6 +121,39 @@ public class EmployeeRepositoryTests {
         assertThat(employeeDB).isNotNull();
     }
 
+    //Junit test for getEmployee by email ignoring case and surrounding spaces
+    @DisplayName("Junit test for getEmployee by email ignoring case and surrounding spaces")
+    @Test
+    public void givenEmailInOtherCase_whenFindByEmail_thenReturnEmployeeObject() {
+        //given - precondition or setup
+        employeeRepository.save(employee1);
+
+        //when - action or behaviour that we are going to perform
+        Optional<Employee> employeeDB = employeeRepository.findByEmail(" SanthoshNaroju@Gmail.com ");
+
+        //then - verify the output
+        assertThat(employeeDB).isPresent();
+        assertThat(employeeDB.get().getEmail()).isEqualTo("santhoshnaroju@gmail.com");
+    }
+
+    //Junit test for rejecting an email that only differs in case from a saved one
+    @DisplayName("Junit test for rejecting an email that only differs in case from a saved one")
+    @Test
+    public void givenEmailTakenInOtherCase_whenSaveAndFlush_thenViolateUniqueIndex() {
+        //given - precondition or setup
+        employeeRepository.saveAndFlush(employee1);
+        Employee employee2 = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("SANTHOSHNAROJU@gmail.com")
+                .build();
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(employee2))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
     //Junit test for update employee object
     @DisplayName("Junit test for update employee object")
     @Test
@@ -171,10 +212,10 @@ public class EmployeeRepositoryTests {
         String lastName = "Naroju";
 
         //when - action or behaviour that we are going to perform
-        Employee savedEmployee = employeeRepository.findByJPQL(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByJPQL(firstName, lastName, PageRequest.of(0, 10)).getContent();
 
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     //Junit test for custom query using JPQL with Named Params
@@ -192,10 +233,10 @@ public class EmployeeRepositoryTests {
         String lastName = "Naroju";
 
         //when - action or behaviour that we are going to perform
-        Employee savedEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByJPQLNamedParams(firstName, lastName, PageRequest.of(0, 10)).getContent();
 
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     //Junit test for custom query using JPQL with index
@@ -211,10 +252,10 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee1);
 
         //when - action or behaviour that we are going to perform
-        Employee savedEmployee = employeeRepository.findByNativeSQL(employee1.getFirstName(), employee1.getLastName());
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQL(employee1.getFirstName(), employee1.getLastName(), PageRequest.of(0, 10)).getContent();
 
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     //Junit test for custom query using Native SQL with Named Params
@@ -230,9 +271,28 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee1);
 
         //when - action or behaviour that we are going to perform
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee1.getFirstName(), employee1.getLastName());
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQLNamedParams(employee1.getFirstName(), employee1.getLastName(), PageRequest.of(0, 10)).getContent();
 
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
+    }
+
+    //Junit test for selecting only some columns of the employees
+    @DisplayName("Junit test for selecting only some columns of the employees")
+    @Test
+    public void givenEmployeeObject_whenFindAllFields_thenReturnOnlySelectedColumnsAndId() {
+        //given - precondition or setup
+        employeeRepository.save(employee1);
+
+        //when - action or behaviour that we are going to perform
+        List<Map<String, Object>> employees = employeeRepository.findAllFields(List.of("email"));
+        Optional<Map<String, Object>> byId = employeeRepository.findFieldsById(employee1.getId(), List.of("id", "lastName"));
+
+        //then - verify the output
+        assertThat(employees).hasSize(1);
+        assertThat(employees.get(0)).containsExactly(
+                Map.entry("id", employee1.getId()), Map.entry("email", "santhoshnaroju@gmail.com"));
+        assertThat(byId).hasValueSatisfying(employee -> assertThat(employee).containsExactly(
+                Map.entry("id", employee1.getId()), Map.entry("lastName", "Naroju")));
     }
 }
@@ -0,0 +1,179 @@
+package com.santhosh.springboottesting.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTests {
+
+    private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    // Junit test for staying closed until the window holds the minimum number of calls
+    @DisplayName("Junit test for staying closed until the window holds the minimum number of calls")
+    @Test
+    public void givenFewerThanMinimumCalls_whenOnFailure_thenStayClosed() {
+        //given - precondition or setup
+        CircuitBreaker circuitBreaker = new CircuitBreaker(10, 4, 0.5, OPEN_NANOS, 2, clock::get);
+
+        //when - action or behaviour that we are going to perform
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.tryAcquire();
+            circuitBreaker.onFailure();
+        }
+
+        //then - verify the output
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    // Junit test for opening once the failure rate reaches the threshold and rejecting calls while open
+    @DisplayName("Junit test for opening once the failure rate reaches the threshold and rejecting calls while open")
+    @Test
+    public void givenFailureRateReached_whenOnFailure_thenOpenAndReject() {
+        //given - precondition or setup
+        CircuitBreaker circuitBreaker = new CircuitBreaker(4, 4, 0.5, OPEN_NANOS, 2, clock::get);
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        //when - action or behaviour that we are going to perform
+        circuitBreaker.onFailure();
+
+        //then - verify the output
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        assertThat(circuitBreaker.remainingOpenNanos()).isEqualTo(OPEN_NANOS);
+        assertThat(circuitBreaker.getTimesOpened()).isEqualTo(1);
+    }
+
+    // Junit test for forgetting outcomes that fell out of the window
+    @DisplayName("Junit test for forgetting outcomes that fell out of the window")
+    @Test
+    public void givenOldFailuresOutOfWindow_whenOnFailure_thenStayClosed() {
+        //given - precondition or setup
+        CircuitBreaker circuitBreaker = new CircuitBreaker(4, 4, 0.5, OPEN_NANOS, 2, clock::get);
+        circuitBreaker.onFailure();
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onSuccess();
+        }
+
+        //when - action or behaviour that we are going to perform
+        circuitBreaker.onFailure();
+
+        //then - verify the output
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getFailureRate()).isEqualTo(0.25);
+    }
+
+    // Junit test for letting trial calls through after the open duration and closing when they succeed
+    @DisplayName("Junit test for letting trial calls through after the open duration and closing when they succeed")
+    @Test
+    public void givenOpenDurationPassed_whenTrialCallsSucceed_thenClose() {
+        //given - precondition or setup
+        CircuitBreaker circuitBreaker = open(new CircuitBreaker(2, 2, 0.5, OPEN_NANOS, 2, clock::get));
+        clock.addAndGet(OPEN_NANOS);
+
+        //when - action or behaviour that we are going to perform
+        boolean first = circuitBreaker.tryAcquire();
+        boolean second = circuitBreaker.tryAcquire();
+        boolean third = circuitBreaker.tryAcquire();
+        CircuitBreaker.State halfOpen = circuitBreaker.getState();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        //then - verify the output
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(halfOpen).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getFailureRate()).isZero();
+    }
+
+    // Junit test for opening again when a trial call fails
+    @DisplayName("Junit test for opening again when a trial call fails")
+    @Test
+    public void givenHalfOpen_whenTrialCallFails_thenOpenAgain() {
+        //given - precondition or setup
+        CircuitBreaker circuitBreaker = open(new CircuitBreaker(2, 2, 0.5, OPEN_NANOS, 2, clock::get));
+        clock.addAndGet(OPEN_NANOS);
+        circuitBreaker.tryAcquire();
+
+        //when - action or behaviour that we are going to perform
+        circuitBreaker.onFailure();
+
+        //then - verify the output
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        assertThat(circuitBreaker.getTimesOpened()).isEqualTo(2);
+    }
+
+    // Junit test for handing back a trial call permission that was not used
+    @DisplayName("Junit test for handing back a trial call permission that was not used")
+    @Test
+    public void givenHalfOpenPermitsTaken_whenRelease_thenPermitAnotherCall() {
+        //given - precondition or setup
+        CircuitBreaker circuitBreaker = open(new CircuitBreaker(2, 2, 0.5, OPEN_NANOS, 1, clock::get));
+        clock.addAndGet(OPEN_NANOS);
+        circuitBreaker.tryAcquire();
+
+        //when - action or behaviour that we are going to perform
+        circuitBreaker.release();
+
+        //then - verify the output
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    // Junit test for counting every outcome recorded by concurrent calls while closed
+    @DisplayName("Junit test for counting every outcome recorded by concurrent calls while closed")
+    @Test
+    public void givenConcurrentCalls_whenOutcomesRecorded_thenWindowCountsEveryFailure() throws Exception {
+        //given - precondition or setup
+        CircuitBreaker circuitBreaker = new CircuitBreaker(800, 800, 0.6, OPEN_NANOS, 2, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+
+        //when - action or behaviour that we are going to perform
+        for (int thread = 0; thread < 8; thread++) {
+            calls.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    circuitBreaker.tryAcquire();
+                    circuitBreaker.onFailure();
+                    circuitBreaker.tryAcquire();
+                    circuitBreaker.onSuccess();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> call : calls) {
+            call.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then - verify the output
+        assertThat(circuitBreaker.getFailureRate()).isEqualTo(0.5);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private static CircuitBreaker open(CircuitBreaker circuitBreaker) {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return circuitBreaker;
+    }
+}
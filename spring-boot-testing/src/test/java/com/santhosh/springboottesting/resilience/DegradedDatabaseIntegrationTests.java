@@ -0,0 +1,152 @@
+package com.santhosh.springboottesting.resilience;
+
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.service.EmployeeService;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.h2.api.Trigger;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+
+// Inserts are slowed down by a trigger that sleeps for delayMillis but, like a MySQL query, gives up as soon as
+// the statement is canceled. A 1s timeout and a circuit that opens after two
+// failures keep the test short; the circuit stays open for the rest of the context.
+@SpringBootTest(properties = {"app.resilience.statement-timeout.default-timeout=1s",
+        "app.resilience.circuit-breaker.window-size=4", "app.resilience.circuit-breaker.minimum-calls=2",
+        "app.resilience.circuit-breaker.open-duration=1m"})
+@AutoConfigureMockMvc
+public class DegradedDatabaseIntegrationTests {
+
+    private static volatile long delayMillis;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CircuitBreaker employeeCircuitBreaker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup(){
+        jdbcTemplate.execute("create trigger if not exists slow_inserts before insert on employees for each row call \""
+                + SlowTrigger.class.getName() + "\"");
+    }
+
+    @AfterEach
+    public void cleanup(){
+        delayMillis = 0;
+        jdbcTemplate.execute("drop trigger if exists slow_inserts");
+    }
+
+    // called by H2 for every row inserted; checkCanceled throws once the statement is past its timeout
+    public static class SlowTrigger implements Trigger {
+
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException{
+            SessionLocal session = (SessionLocal) ((JdbcConnection) connection).getSession();
+            long until = System.currentTimeMillis() + delayMillis;
+            try {
+                while (System.currentTimeMillis() < until) {
+                    Thread.sleep(10);
+                    session.checkCanceled();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    // Junit test for canceling repository statements that run past their timeout, and only those
+    @DisplayName("Junit test for canceling repository statements that run past their timeout, and only those")
+    @Test
+    public void givenSlowDatabase_whenRepositoryStatementRunsPastTimeout_thenCancelIt(){
+        //given - precondition or setup
+        delayMillis = 5_000;
+        Employee employee = employee();
+
+        //when - action or behaviour that we are going to perform
+        long start = System.nanoTime();
+        Throwable thrown = Assertions.catchThrowable(() -> employeeRepository.saveAndFlush(employee));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        // the same connection, outside a repository call: no timeout
+        delayMillis = 1_500;
+        int inserted = jdbcTemplate.update("insert into employees (id, tenant_id, first_name, last_name, email) values (?, ?, ?, ?, ?)",
+                EmployeeIdGenerator.nextId(), TenantContext.current(), "Slow", "Import", UUID.randomUUID() + "@gmail.com");
+
+        //then - verify the output
+        Assertions.assertThat(thrown).isInstanceOf(QueryTimeoutException.class);
+        Assertions.assertThat(elapsedMillis).isLessThan(4_000);
+        Assertions.assertThat(inserted).isEqualTo(1);
+    }
+
+    // Junit test for opening the circuit on timeouts, then serving cached lookups and failing the rest fast
+    @DisplayName("Junit test for opening the circuit on timeouts, then serving cached lookups and failing the rest fast")
+    @Test
+    public void givenTimeouts_whenCircuitOpens_thenServeCachedReadsAndRejectOthers() throws Exception{
+        //given - precondition or setup
+        Employee cached = employeeService.saveEmployee(employee());
+        employeeService.getEmployeeById(cached.getId());
+        delayMillis = 5_000;
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThatThrownBy(() -> employeeService.saveEmployee(employee()))
+                    .matches(EmployeeServiceGuard::isDatabaseUnavailable);
+        }
+
+        //when - action or behaviour that we are going to perform
+        CircuitBreaker.State state = employeeCircuitBreaker.getState();
+        Employee stale = employeeService.getEmployeeById(cached.getId()).orElseThrow();
+
+        //then - verify the output
+        Assertions.assertThat(state).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(stale.getEmail()).isEqualTo(cached.getEmail());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", cached.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.RETRY_AFTER));
+        Assertions.assertThat(meterRegistry.get("employee.circuit.state").tag("state", "open").gauge().value()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("employee.circuit.calls").tag("outcome", "stale").functionCounter().count()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("employee.circuit.calls").tag("outcome", "rejected").functionCounter().count()).isEqualTo(1);
+    }
+
+    private static Employee employee(){
+        String suffix = UUID.randomUUID().toString();
+        return Employee.builder()
+                .firstName("Degraded")
+                .lastName(suffix)
+                .email("degraded-" + suffix + "@gmail.com")
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.santhosh.springboottesting.resilience;
+
+import com.santhosh.springboottesting.exception.ResourceNotFoundException;
+import com.santhosh.springboottesting.exception.ServiceUnavailableException;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.service.EmployeeService;
+import org.aopalliance.intercept.MethodInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeServiceGuardTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private MethodInvocation invocation;
+
+    private CircuitBreaker circuitBreaker;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        circuitBreaker = new CircuitBreaker(2, 2, 0.5, TimeUnit.SECONDS.toNanos(10), 1, System::nanoTime);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Santhosh")
+                .lastName("Naroju")
+                .email("santhoshnaroju@gmail.com")
+                .build();
+    }
+
+    // Junit test for counting statement timeouts as failures and opening the circuit on them
+    @DisplayName("Junit test for counting statement timeouts as failures and opening the circuit on them")
+    @Test
+    public void givenStatementTimeouts_whenInvoke_thenOpenCircuit() throws Throwable{
+        //given - precondition or setup
+        EmployeeServiceGuard guard = new EmployeeServiceGuard(circuitBreaker, new Semaphore(1), new Semaphore(1), 0, employeeRepository);
+        BDDMockito.given(invocation.getMethod()).willReturn(EmployeeService.class.getMethod("getAllEmployees"));
+        BDDMockito.given(invocation.proceed()).willThrow(new QueryTimeoutException("Statement was canceled"));
+
+        //when - action or behaviour that we are going to perform
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThatThrownBy(() -> guard.invoke(invocation)).isInstanceOf(QueryTimeoutException.class);
+        }
+
+        //then - verify the output
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(guard.getFailed()).isEqualTo(2);
+        Assertions.assertThat(guard.getScanBulkheadAvailable()).isEqualTo(1);
+    }
+
+    // Junit test for not counting errors the database answered with, like a taken email, as failures
+    @DisplayName("Junit test for not counting errors the database answered with, like a taken email, as failures")
+    @Test
+    public void givenBusinessError_whenInvoke_thenCircuitStaysClosed() throws Throwable{
+        //given - precondition or setup
+        EmployeeServiceGuard guard = new EmployeeServiceGuard(circuitBreaker, new Semaphore(1), new Semaphore(1), 0, employeeRepository);
+        BDDMockito.given(invocation.getMethod()).willReturn(EmployeeService.class.getMethod("saveEmployee", Employee.class));
+        BDDMockito.given(invocation.proceed()).willThrow(new ResourceNotFoundException("Employee already exists"));
+
+        //when - action or behaviour that we are going to perform
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThatThrownBy(() -> guard.invoke(invocation)).isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        //then - verify the output
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        Assertions.assertThat(guard.getSucceeded()).isEqualTo(2);
+    }
+
+    // Junit test for serving a lookup by id from the second-level cache while the circuit is open
+    @DisplayName("Junit test for serving a lookup by id from the second-level cache while the circuit is open")
+    @Test
+    public void givenOpenCircuitAndCachedEmployee_whenGetEmployeeById_thenServeStale() throws Throwable{
+        //given - precondition or setup
+        EmployeeServiceGuard guard = new EmployeeServiceGuard(circuitBreaker, new Semaphore(1), new Semaphore(1), 0, employeeRepository);
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        BDDMockito.given(invocation.getMethod()).willReturn(EmployeeService.class.getMethod("getEmployeeById", Long.class, List.class));
+        BDDMockito.given(invocation.getArguments()).willReturn(new Object[]{1L, List.of("email")});
+        BDDMockito.given(employeeRepository.findCachedById(1L)).willReturn(Optional.of(employee));
+
+        //when - action or behaviour that we are going to perform
+        Object stale = guard.invoke(invocation);
+
+        //then - verify the output
+        Assertions.assertThat(stale).isEqualTo(Optional.of(Map.of("email", "santhoshnaroju@gmail.com")));
+        Assertions.assertThat(guard.getStaleReads()).isEqualTo(1);
+        verify(invocation, never()).proceed();
+    }
+
+    // Junit test for failing fast with 503 and Retry-After when the circuit is open and nothing is cached
+    @DisplayName("Junit test for failing fast with 503 and Retry-After when the circuit is open and nothing is cached")
+    @Test
+    public void givenOpenCircuit_whenGetEmployeesByIdsNotAllCached_thenReject() throws Throwable{
+        //given - precondition or setup
+        EmployeeServiceGuard guard = new EmployeeServiceGuard(circuitBreaker, new Semaphore(1), new Semaphore(1), 0, employeeRepository);
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        BDDMockito.given(invocation.getMethod()).willReturn(EmployeeService.class.getMethod("getEmployeesByIds", List.class));
+        BDDMockito.given(invocation.getArguments()).willReturn(new Object[]{List.of(1L, 2L)});
+        BDDMockito.given(employeeRepository.findCachedById(1L)).willReturn(Optional.of(employee));
+        BDDMockito.given(employeeRepository.findCachedById(2L)).willReturn(Optional.empty());
+
+        //when - action or behaviour that we are going to perform
+        Throwable thrown = Assertions.catchThrowable(() -> guard.invoke(invocation));
+
+        //then - verify the output
+        Assertions.assertThat(thrown).isInstanceOf(ServiceUnavailableException.class);
+        ServiceUnavailableException unavailable = (ServiceUnavailableException) thrown;
+        Assertions.assertThat(unavailable.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        Assertions.assertThat(unavailable.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+        Assertions.assertThat(guard.getCircuitRejected()).isEqualTo(1);
+        verify(invocation, never()).proceed();
+    }
+
+    // Junit test for rejecting a call when the bulkhead has no free slot within the wait
+    @DisplayName("Junit test for rejecting a call when the bulkhead has no free slot within the wait")
+    @Test
+    public void givenFullBulkhead_whenInvoke_thenRejectAndKeepCircuitClosed() throws Throwable{
+        //given - precondition or setup
+        EmployeeServiceGuard guard = new EmployeeServiceGuard(circuitBreaker, new Semaphore(1), new Semaphore(0), 0, employeeRepository);
+        BDDMockito.given(invocation.getMethod()).willReturn(EmployeeService.class.getMethod("getAllEmployees"));
+
+        //when - action or behaviour that we are going to perform
+        Throwable thrown = Assertions.catchThrowable(() -> guard.invoke(invocation));
+
+        //then - verify the output
+        Assertions.assertThat(thrown).isInstanceOf(ServiceUnavailableException.class);
+        Assertions.assertThat(guard.getBulkheadRejected()).isEqualTo(1);
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        verify(invocation, never()).proceed();
+    }
+
+    // Junit test for letting a lookup through while the scans hold every scan slot
+    @DisplayName("Junit test for letting a lookup through while the scans hold every scan slot")
+    @Test
+    public void givenFullScanBulkhead_whenGetEmployeeById_thenProceed() throws Throwable{
+        //given - precondition or setup
+        EmployeeServiceGuard guard = new EmployeeServiceGuard(circuitBreaker, new Semaphore(1), new Semaphore(0), 0, employeeRepository);
+        BDDMockito.given(invocation.getMethod()).willReturn(EmployeeService.class.getMethod("getEmployeeById", Long.class));
+        BDDMockito.given(invocation.proceed()).willReturn(Optional.of(employee));
+
+        //when - action or behaviour that we are going to perform
+        Object result = guard.invoke(invocation);
+
+        //then - verify the output
+        Assertions.assertThat(result).isEqualTo(Optional.of(employee));
+        Assertions.assertThat(guard.getBulkheadRejected()).isZero();
+        Assertions.assertThat(guard.getBulkheadAvailable()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,173 @@
+package com.santhosh.springboottesting.scan;
+
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import com.santhosh.springboottesting.service.EmployeeService;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.sharding.ShardingProperties;
+import com.santhosh.springboottesting.tenant.TenantBulkhead;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+
+@SpringBootTest(properties = {"app.scan.parallelism=3", "app.scan.partitions-per-thread=2", "app.scan.min-partition-rows=10"})
+public class PartitionedScanTests {
+
+    private static final int ROWS = 100;
+
+    @Autowired
+    private PartitionedScan partitionedScan;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String tenant;
+    private String previousTenant;
+    private List<Long> ids;
+
+    @BeforeEach
+    public void setup(){
+        tenant = "scan-" + UUID.randomUUID().toString().substring(0, 8);
+        previousTenant = TenantContext.set(tenant);
+        // ids taken in a burst and a few far later, the way real ids bunch up
+        List<Object[]> rows = new ArrayList<>();
+        ids = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            long id = i < ROWS - 5 ? EmployeeIdGenerator.nextId() : EmployeeIdGenerator.nextId() + ((long) i << 40);
+            ids.add(id);
+            rows.add(new Object[]{id, tenant, "first" + i, "last" + i, "employee" + i + "@gmail.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into employees (id, tenant_id, first_name, last_name, email) values (?, ?, ?, ?, ?)", rows);
+        ids.sort(Comparator.naturalOrder());
+    }
+
+    @AfterEach
+    public void cleanup(){
+        TenantContext.set(previousTenant);
+    }
+
+    // Junit test for splitting a tenant's ids into ranges of about the same number of rows
+    @DisplayName("Junit test for splitting a tenant's ids into ranges of about the same number of rows")
+    @Test
+    public void givenSkewedIds_whenPartition_thenReturnBalancedAdjacentRanges(){
+        //given - precondition or setup
+        String condition = "tenant_id = ?";
+
+        //when - action or behaviour that we are going to perform
+        List<IdRange> ranges = partitionedScan.partition(condition, tenant);
+
+        //then - verify the output
+        Assertions.assertThat(ranges).hasSize(6);
+        Assertions.assertThat(ranges.get(0).from()).isEqualTo(ids.get(0));
+        Assertions.assertThat(ranges.get(ranges.size() - 1).to()).isEqualTo(ids.get(ROWS - 1));
+        for (int i = 1; i < ranges.size(); i++) {
+            Assertions.assertThat(ranges.get(i).from()).isEqualTo(ranges.get(i - 1).to() + 1);
+        }
+        for (IdRange range : ranges) {
+            long rows = ids.stream().filter(id -> id >= range.from() && id <= range.to()).count();
+            Assertions.assertThat(rows).isBetween(16L, 20L);
+        }
+    }
+
+    // Junit test for reading all ranges in parallel and merging them in id order
+    @DisplayName("Junit test for reading all ranges in parallel and merging them in id order")
+    @Test
+    public void givenRanges_whenScanOrdered_thenReturnEveryEmployeeInIdOrder(){
+        //given - precondition or setup
+        List<IdRange> ranges = partitionedScan.partition("tenant_id = ?", tenant);
+
+        //when - action or behaviour that we are going to perform
+        List<Employee> employees = partitionedScan.ordered(ranges,
+                range -> employeeRepository.findAllByIdBetweenOrderById(range.from(), range.to()));
+
+        //then - verify the output
+        Assertions.assertThat(employees).extracting(Employee::getId).containsExactlyElementsOf(ids);
+        Assertions.assertThat(employeeService.getAllEmployees()).extracting(Employee::getId).containsExactlyElementsOf(ids);
+        Assertions.assertThat(employeeService.getAllEmployees(List.of("email"))).hasSize(ROWS);
+    }
+
+    // Junit test for handing every range to the consumer once when scanning unordered
+    @DisplayName("Junit test for handing every range to the consumer once when scanning unordered")
+    @Test
+    public void givenRanges_whenScanUnordered_thenConsumeEveryEmployeeOnce(){
+        //given - precondition or setup
+        List<IdRange> ranges = partitionedScan.partition("tenant_id = ?", tenant);
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        List<Integer> batches = new ArrayList<>();
+
+        //when - action or behaviour that we are going to perform
+        partitionedScan.<Employee>unordered(ranges, range -> employeeRepository.findAllByIdBetweenOrderById(range.from(), range.to()),
+                employees -> {
+                    batches.add(employees.size());
+                    employees.forEach(employee -> Assertions.assertThat(seen.add(employee.getId())).isTrue());
+                });
+
+        //then - verify the output
+        Assertions.assertThat(batches).hasSize(ranges.size());
+        Assertions.assertThat(seen).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    // Junit test for reading no more ranges at once than the tenant has connection permits
+    @DisplayName("Junit test for reading no more ranges at once than the tenant has connection permits")
+    @Test
+    public void givenTenantWithTwoSparePermits_whenScan_thenReadThreeRangesAtOnce(){
+        //given - precondition or setup
+        ScanProperties properties = new ScanProperties();
+        properties.setParallelism(4);
+        TenantBulkhead bulkhead = new TenantBulkhead(3, 100);
+        // the permit of the request that starts the scan
+        Assertions.assertThat(bulkhead.permits(tenant).tryAcquire()).isTrue();
+        PartitionedScan scan = new PartitionedScan(null, new ShardRouter(new ShardingProperties()), properties, bulkhead);
+        List<IdRange> ranges = List.of(new IdRange(1, 10), new IdRange(11, 20), new IdRange(21, 30),
+                new IdRange(31, 40), new IdRange(41, 50), new IdRange(51, 60));
+        AtomicInteger reading = new AtomicInteger();
+        AtomicInteger mostAtOnce = new AtomicInteger();
+
+        //when - action or behaviour that we are going to perform
+        try {
+            List<Long> from = scan.ordered(ranges, range -> {
+                mostAtOnce.accumulateAndGet(reading.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                reading.decrementAndGet();
+                return List.of(range.from());
+            });
+
+            //then - verify the output
+            Assertions.assertThat(from).containsExactly(1L, 11L, 21L, 31L, 41L, 51L);
+            Assertions.assertThat(mostAtOnce.get()).isEqualTo(3);
+            // the workers give their permits back once they find no range left
+            long deadline = System.nanoTime() + 1_000_000_000L;
+            while (bulkhead.permits(tenant).availablePermits() < 2 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            Assertions.assertThat(bulkhead.permits(tenant).availablePermits()).isEqualTo(2);
+        } finally {
+            scan.destroy();
+        }
+    }
+}
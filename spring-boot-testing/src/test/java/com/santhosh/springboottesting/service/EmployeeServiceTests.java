@@ -1,20 +1,30 @@
 package com.santhosh.springboottesting.service;
 
 import com.santhosh.springboottesting.exception.ResourceNotFoundException;
+import com.santhosh.springboottesting.metrics.EmployeeMetrics;
 import com.santhosh.springboottesting.model.Employee;
 import com.santhosh.springboottesting.repository.EmployeeRepository;
 import com.santhosh.springboottesting.service.impl.EmployeeServiceImpl;
+import com.santhosh.springboottesting.scan.PartitionedScan;
+import com.santhosh.springboottesting.scan.ScanProperties;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.sharding.ShardingProperties;
+import com.santhosh.springboottesting.softdelete.SoftDeleteProperties;
+import com.santhosh.springboottesting.warmup.AccessFrequencyTracker;
+import com.santhosh.springboottesting.warmup.WarmupProperties;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.Extension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 
 import java.lang.module.ResolutionException;
 import java.util.Collections;
@@ -29,7 +39,6 @@ public class EmployeeServiceTests {
 
     @Mock
     private EmployeeRepository employeeRepository;
-    @InjectMocks
     private EmployeeServiceImpl employeeService;
 
     private Employee employee;
@@ -38,6 +47,9 @@ public class EmployeeServiceTests {
     public void setup(){
 //        employeeRepository = Mockito.mock(EmployeeRepository.class);
 //        employeeService = new EmployeeServiceImpl(employeeRepository);
+        // a real EmployeeMetrics: mocking it would instrument the class for every other test in the JVM
+        employeeService = new EmployeeServiceImpl(employeeRepository, new EmployeeMetrics(new SimpleMeterRegistry()),
+                new ShardRouter(new ShardingProperties()), new SoftDeleteProperties(), serialScan(), new AccessFrequencyTracker(new WarmupProperties()));
         employee = Employee.builder()
                 .id(1L)
                 .firstName("Santhosh")
@@ -83,6 +95,37 @@ public class EmployeeServiceTests {
         verify(employeeRepository, never()).save(any(Employee.class));
     }
 
+    // Junit test for keeping a move to another shard when deleting the old row fails
+    @Test
+    @DisplayName("Junit test for keeping a move to another shard when deleting the old row fails")
+    public void givenDeleteFromOldShardFails_whenUpdateEmployeeToOtherShard_thenReturnMovedEmployee() {
+        //given - precondition or setup
+        ShardingProperties sharding = new ShardingProperties();
+        sharding.setEnabled(true);
+        sharding.setShards(List.of(new ShardingProperties.Shard(), new ShardingProperties.Shard()));
+        ShardRouter shardRouter = new ShardRouter(sharding);
+        EmployeeServiceImpl shardedService = new EmployeeServiceImpl(employeeRepository,
+                new EmployeeMetrics(new SimpleMeterRegistry()), shardRouter, new SoftDeleteProperties(), serialScan(),
+                new AccessFrequencyTracker(new WarmupProperties()));
+        int oldShard = shardRouter.shardForId(employee.getId());
+        for (int i = 0; shardRouter.shardForEmail(employee.getEmail()) == oldShard; i++) {
+            employee.setEmail("moved" + i + "@gmail.com");
+        }
+        BDDMockito.given(employeeRepository.existsById(employee.getId())).willReturn(true);
+        BDDMockito.given(employeeRepository.replicate(employee, oldShard)).willReturn(employee);
+        BDDMockito.willThrow(new DataAccessResourceFailureException("shard " + oldShard + " is down"))
+                .given(employeeRepository).deleteById(employee.getId());
+
+        //when - action or behaviour that we are going to perform
+        Employee moved = shardedService.updateEmployee(employee);
+
+        //then - verify the output
+        Assertions.assertThat(moved).isEqualTo(employee);
+        // the move record stays for ShardMoveCompleter
+        verify(employeeRepository, never()).deleteMove(employee.getId());
+        shardRouter.destroy();
+    }
+
     //Junit test for getAllEmployees method
     @Test
     @DisplayName("Junit test for getAllEmployees method")
@@ -139,6 +182,26 @@ public class EmployeeServiceTests {
         Assertions.assertThat(savedEmployee).isNotNull();
     }
 
+    // Junit test for getEmployeesByIds method
+    @DisplayName("Junit test for getEmployeesByIds method")
+    @Test
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnFoundEmployeesInRequestOrder() {
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Ved")
+                .lastName("Sharma")
+                .email("vedsharma@gmail.com")
+                .build();
+        BDDMockito.given(employeeRepository.loadAllById(List.of(2L, 3L, 1L))).willReturn(List.of(employee, employee1));
+
+        //when - action or behaviour that we are going to perform
+        List<Employee> employeeList = employeeService.getEmployeesByIds(List.of(2L, 3L, 2L, 1L));
+
+        //then - verify the output
+        Assertions.assertThat(employeeList).containsExactly(employee1, employee);
+    }
+
     // Junit test for updateEmployeeMethod
     @DisplayName("Junit test for updateEmployeeMethod")
     @Test
@@ -170,4 +233,33 @@ public class EmployeeServiceTests {
         //then - verify the output
         verify(employeeRepository, times(1)).deleteById(employeeId);
     }
+
+    //Junit test for DeleteEmployee Method with soft delete enabled
+    @DisplayName("Junit test for DeleteEmployee Method with soft delete enabled")
+    @Test
+    public void givenSoftDeleteEnabled_whenDeleteMethod_thenRowIsOnlyMarkedDeleted() {
+        //given - precondition or setup
+        Long employeeId = 1L;
+        SoftDeleteProperties softDelete = new SoftDeleteProperties();
+        softDelete.setEnabled(true);
+        EmployeeServiceImpl softDeletingService = new EmployeeServiceImpl(employeeRepository,
+                new EmployeeMetrics(new SimpleMeterRegistry()), new ShardRouter(new ShardingProperties()),
+                softDelete, serialScan(), new AccessFrequencyTracker(new WarmupProperties()));
+        BDDMockito.given(employeeRepository.softDeleteById(employeeId)).willReturn(1);
+
+        //when - action or behaviour that we are going to perform
+        softDeletingService.DeleteEmployee(employeeId);
+
+        //then - verify the output
+        verify(employeeRepository, times(1)).softDeleteById(employeeId);
+        verify(employeeRepository, never()).deleteById(employeeId);
+    }
+
+    // one thread and one range, lists read the whole table with the plain query
+    private static PartitionedScan serialScan() {
+        ScanProperties properties = new ScanProperties();
+        properties.setParallelism(1);
+        properties.setPartitionsPerThread(1);
+        return new PartitionedScan(null, new ShardRouter(new ShardingProperties()), properties);
+    }
 }
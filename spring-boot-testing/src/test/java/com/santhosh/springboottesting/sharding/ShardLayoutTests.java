@@ -0,0 +1,77 @@
+package com.santhosh.springboottesting.sharding;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class ShardLayoutTests {
+
+    // Junit test for refusing to start once a shard is added to a list that already stores employees
+    @DisplayName("Junit test for refusing to start once a shard is added to a list that already stores employees")
+    @Test
+    public void givenRecordedLayout_whenShardAdded_thenThrowException(){
+        //given - precondition or setup
+        List<DataSource> shards = databases(3);
+        layout(shards.subList(0, 2)).verify();
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        layout(shards.subList(0, 2)).verify();
+        Assertions.assertThatThrownBy(() -> layout(shards).verify())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.sharding.shards[0] is shard 0 of 2");
+        Assertions.assertThatThrownBy(() -> layout(List.of(shards.get(1), shards.get(0))).verify())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.sharding.shards[0] is shard 1 of 2");
+    }
+
+    // Junit test for refusing to shard a database whose employees were placed for another shard list
+    @DisplayName("Junit test for refusing to shard a database whose employees were placed for another shard list")
+    @Test
+    public void givenUnshardedEmployees_whenShardingEnabled_thenThrowException(){
+        //given - precondition or setup
+        List<DataSource> shards = databases(2);
+        ShardRouter router = router(2);
+        JdbcTemplate first = new JdbcTemplate(shards.get(0));
+        for (int i = 0; i < 20; i++) {
+            first.update("insert into employees (email) values (?)", "employee" + i + "@gmail.com");
+        }
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        Assertions.assertThatThrownBy(() -> new ShardLayout(new ShardRoutingDataSource(shards), router).verify())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.sharding.shards[0] holds employees placed for another shard list");
+    }
+
+    private static ShardLayout layout(List<DataSource> shards) {
+        return new ShardLayout(new ShardRoutingDataSource(shards), router(shards.size()));
+    }
+
+    private static ShardRouter router(int shards) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        for (int shard = 0; shard < shards; shard++) {
+            properties.getShards().add(new ShardingProperties.Shard());
+        }
+        return new ShardRouter(properties);
+    }
+
+    private static List<DataSource> databases(int count) {
+        List<DataSource> databases = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:shard-layout-" + UUID.randomUUID()
+                    + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+            new JdbcTemplate(dataSource).execute("create table employees (email varchar(255))");
+            databases.add(dataSource);
+        }
+        return databases;
+    }
+}
@@ -0,0 +1,199 @@
+package com.santhosh.springboottesting.sharding;
+
+import com.santhosh.springboottesting.batch.BatchMode;
+import com.santhosh.springboottesting.batch.EmployeeBatchResult;
+import com.santhosh.springboottesting.batch.EmployeeBatchService;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = {
+        "spring.jpa.open-in-view=false",
+        "app.sharding.enabled=true",
+        "app.sharding.shards[0].url=jdbc:h2:mem:employee-shard-0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[0].username=sa",
+        "app.sharding.shards[1].url=jdbc:h2:mem:employee-shard-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[1].username=sa",
+        "app.sharding.shards[2].url=jdbc:h2:mem:employee-shard-2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[2].username=sa"
+})
+public class ShardedEmployeeServiceTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeBatchService employeeBatchService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private ShardMoveCompleter shardMoveCompleter;
+
+    @AfterEach
+    public void cleanup(){
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shard(shard).update("delete from employees");
+            shard(shard).update("delete from employee_moves");
+        }
+    }
+
+    // Junit test for spreading saved employees over the shards by email
+    @DisplayName("Junit test for spreading saved employees over the shards by email")
+    @Test
+    public void givenEmployees_whenSaveEmployee_thenStoreEachOnItsEmailShard(){
+        //given - precondition or setup
+        List<Employee> employees = saveEmployees(60);
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            Assertions.assertThat(count(shard)).isPositive();
+        }
+        for (Employee employee : employees) {
+            int shard = shardRouter.shardForEmail(employee.getEmail());
+            Assertions.assertThat(shardRouter.shardForId(employee.getId())).isEqualTo(shard);
+            Assertions.assertThat(shard(shard).queryForObject("select count(*) from employees where id = ?",
+                    Integer.class, employee.getId())).isEqualTo(1);
+        }
+    }
+
+    // Junit test for gathering employees from all shards
+    @DisplayName("Junit test for gathering employees from all shards")
+    @Test
+    public void givenEmployeesOnAllShards_whenGetAllEmployees_thenReturnAllOrderedById(){
+        //given - precondition or setup
+        List<Employee> employees = saveEmployees(30);
+
+        //when - action or behaviour that we are going to perform
+        List<Employee> allEmployees = employeeService.getAllEmployees();
+
+        //then - verify the output
+        Assertions.assertThat(allEmployees).extracting(Employee::getId)
+                .containsExactlyElementsOf(employees.stream().map(Employee::getId).sorted().toList());
+        for (Employee employee : employees) {
+            Assertions.assertThat(employeeService.getEmployeeById(employee.getId())).isPresent();
+        }
+        Assertions.assertThat(employeeService.getEmployeesByName("first", "last15", 0, 20).employees()).hasSize(1);
+    }
+
+    // Junit test for moving an employee to another shard when the email changes
+    @DisplayName("Junit test for moving an employee to another shard when the email changes")
+    @Test
+    public void givenEmailOnOtherShard_whenUpdateEmployee_thenMoveRowAndKeepId(){
+        //given - precondition or setup
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build());
+        int oldShard = shardRouter.shardForEmail(employee.getEmail());
+        String newEmail = emailOnOtherShard(oldShard);
+
+        //when - action or behaviour that we are going to perform
+        employee.setEmail(newEmail);
+        employeeService.updateEmployee(employee);
+
+        //then - verify the output
+        Assertions.assertThat(count(oldShard)).isZero();
+        Assertions.assertThat(count(shardRouter.shardForEmail(newEmail))).isEqualTo(1);
+        Assertions.assertThat(employeeService.getEmployeeById(employee.getId()))
+                .hasValueSatisfying(found -> Assertions.assertThat(found.getEmail()).isEqualTo(newEmail));
+
+        employeeService.DeleteEmployee(employee.getId());
+        Assertions.assertThat(employeeService.getEmployeeById(employee.getId())).isEmpty();
+    }
+
+    // Junit test for finding a row in a batch update after another instance moved it to a shard this one does not know
+    @DisplayName("Junit test for finding a row in a batch update after another instance moved it to a shard this one does not know")
+    @Test
+    public void givenRowMovedByOtherInstance_whenUpdateBatch_thenFindItOnOtherShard(){
+        //given - precondition or setup
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build());
+        int oldShard = shardRouter.shardForEmail(employee.getEmail());
+        int newShard = (oldShard + 1) % shardRouter.getShardCount();
+        // moved with plain statements, so the id does not point at the new shard
+        shard(newShard).update("insert into employees (id, tenant_id, first_name, last_name, email) values (?, ?, ?, ?, ?)",
+                employee.getId(), employee.getTenantId(), employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        shard(oldShard).update("delete from employees where id = ?", employee.getId());
+
+        //when - action or behaviour that we are going to perform
+        List<EmployeeBatchResult> results = employeeBatchService.apply(BatchMode.UPDATE,
+                List.of(Employee.builder().id(employee.getId()).firstName("Ram").build()));
+
+        //then - verify the output
+        Assertions.assertThat(results).extracting(EmployeeBatchResult::outcome)
+                .containsExactly(EmployeeBatchResult.Outcome.UPDATED);
+        Assertions.assertThat(shard(newShard).queryForObject("select first_name from employees where id = ?",
+                String.class, employee.getId())).isEqualTo("Ram");
+    }
+
+    // Junit test for finishing a move to another shard whose delete from the old shard failed
+    @DisplayName("Junit test for finishing a move to another shard whose delete from the old shard failed")
+    @Test
+    public void givenMoveLeftOldRow_whenCompleteMoves_thenDeleteOldRow(){
+        //given - precondition or setup
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build());
+        int oldShard = shardRouter.shardForEmail(employee.getEmail());
+        String newEmail = emailOnOtherShard(oldShard);
+        int newShard = shardRouter.shardForEmail(newEmail);
+        // what updateEmployee leaves when the delete from the old shard fails: the copy and its move record
+        shard(newShard).update("insert into employees (id, tenant_id, first_name, last_name, email) values (?, ?, ?, ?, ?)",
+                employee.getId(), employee.getTenantId(), employee.getFirstName(), employee.getLastName(), newEmail);
+        shard(newShard).update("insert into employee_moves (employee_id, tenant_id, from_shard) values (?, ?, ?)",
+                employee.getId(), employee.getTenantId(), oldShard);
+
+        //when - action or behaviour that we are going to perform
+        int completed = shardMoveCompleter.complete();
+
+        //then - verify the output
+        Assertions.assertThat(completed).isEqualTo(1);
+        Assertions.assertThat(count(oldShard)).isZero();
+        Assertions.assertThat(count(newShard)).isEqualTo(1);
+        Assertions.assertThat(moves(newShard)).isZero();
+        Assertions.assertThat(employeeService.getEmployeeById(employee.getId()))
+                .hasValueSatisfying(found -> Assertions.assertThat(found.getEmail()).isEqualTo(newEmail));
+    }
+
+    private List<Employee> saveEmployees(int count) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            employees.add(employeeService.saveEmployee(Employee.builder()
+                    .firstName("first").lastName("last" + i).email("employee" + i + "@gmail.com").build()));
+        }
+        return employees;
+    }
+
+    private String emailOnOtherShard(int shard) {
+        for (int i = 0; ; i++) {
+            String email = "moved" + i + "@gmail.com";
+            if (shardRouter.shardForEmail(email) != shard) {
+                return email;
+            }
+        }
+    }
+
+    private int count(int shard) {
+        return shard(shard).queryForObject("select count(*) from employees", Integer.class);
+    }
+
+    private int moves(int shard) {
+        return shard(shard).queryForObject("select count(*) from employee_moves", Integer.class);
+    }
+
+    private JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(dataSource.shard(shard));
+    }
+}
@@ -0,0 +1,160 @@
+package com.santhosh.springboottesting.snapshot;
+
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeColumnStoreTests {
+
+    // Junit test for finding a stored employee by id and email
+    @DisplayName("Junit test for finding a stored employee by id and email")
+    @Test
+    public void givenStoredEmployee_whenFind_thenReturnEmployee(){
+        //given - precondition or setup
+        EmployeeColumnStore store = new EmployeeColumnStore(16);
+        store.upsert(new EmployeeSnapshot(1L, "default", "Santhosh", "Naroju", "santhosh@gmail.com"));
+
+        //when - action or behaviour that we are going to perform
+        Employee byId = store.findById("default", 1L);
+        Employee byEmail = store.findByEmail("default", "santhosh@gmail.com");
+
+        //then - verify the output
+        Assertions.assertThat(byId.getEmail()).isEqualTo("santhosh@gmail.com");
+        Assertions.assertThat(byId.getTenantId()).isEqualTo("default");
+        Assertions.assertThat(byEmail.getId()).isEqualTo(1L);
+    }
+
+    // Junit test for only returning rows verified since the given time
+    @DisplayName("Junit test for only returning rows verified since the given time")
+    @Test
+    public void givenRowVerifiedEarlier_whenFindVerifiedSince_thenReturnNothingUntilRefreshed(){
+        //given - precondition or setup
+        EmployeeColumnStore store = new EmployeeColumnStore(16);
+        store.upsert(new EmployeeSnapshot(1L, "default", "Ved", "Sharma", "ved@gmail.com"), 100L);
+
+        //when - action or behaviour that we are going to perform
+        Employee stale = store.findById("default", 1L, 200L);
+        store.upsert(new EmployeeSnapshot(1L, "default", "Ved", "Sharma", "ved@gmail.com"), 300L);
+
+        //then - verify the output
+        Assertions.assertThat(stale).isNull();
+        Assertions.assertThat(store.findById("default", 1L, 200L).getEmail()).isEqualTo("ved@gmail.com");
+        Assertions.assertThat(store.findByEmail("default", "ved@gmail.com", 200L).getId()).isEqualTo(1L);
+        Assertions.assertThat(store.deadRows()).isZero();
+    }
+
+    // Junit test for keeping a row changed after the database read that would replace or evict it
+    @DisplayName("Junit test for keeping a row changed after the database read that would replace or evict it")
+    @Test
+    public void givenRowChangedAfterRead_whenRefreshFromRead_thenKeepChange(){
+        //given - precondition or setup
+        EmployeeColumnStore store = new EmployeeColumnStore(16);
+        store.upsert(new EmployeeSnapshot(1L, "default", "Ved", "Sharma", "new@gmail.com"), 300L);
+
+        //when - action or behaviour that we are going to perform
+        store.upsert(new EmployeeSnapshot(1L, "default", "Ved", "Sharma", "old@gmail.com"), 200L);
+        store.evict("default", 1L, 200L);
+
+        //then - verify the output
+        Assertions.assertThat(store.findById("default", 1L).getEmail()).isEqualTo("new@gmail.com");
+        store.evict("default", 1L, 400L);
+        Assertions.assertThat(store.findById("default", 1L)).isNull();
+    }
+
+    // Junit test for replacing the old email of an updated employee
+    @DisplayName("Junit test for replacing the old email of an updated employee")
+    @Test
+    public void givenUpdatedEmployee_whenFind_thenOnlyNewValuesMatch(){
+        //given - precondition or setup
+        EmployeeColumnStore store = new EmployeeColumnStore(16);
+        store.upsert(new EmployeeSnapshot(1L, "default", "Santhosh", "Naroju", "santhosh@gmail.com"));
+
+        //when - action or behaviour that we are going to perform
+        store.upsert(new EmployeeSnapshot(1L, "default", "Ved", "Sharma", "ved@gmail.com"));
+
+        //then - verify the output
+        Assertions.assertThat(store.findByEmail("default", "santhosh@gmail.com")).isNull();
+        Assertions.assertThat(store.findById("default", 1L).getFirstName()).isEqualTo("Ved");
+        Assertions.assertThat(store.size()).isEqualTo(1);
+        Assertions.assertThat(store.deadRows()).isEqualTo(1);
+    }
+
+    // Junit test for hiding employees of other tenants and removed employees
+    @DisplayName("Junit test for hiding employees of other tenants and removed employees")
+    @Test
+    public void givenOtherTenantAndRemovedEmployee_whenFind_thenReturnNothing(){
+        //given - precondition or setup
+        EmployeeColumnStore store = new EmployeeColumnStore(16);
+        store.upsert(new EmployeeSnapshot(1L, "tenant-a", "Ved", "Sharma", "same@gmail.com"));
+        store.upsert(new EmployeeSnapshot(2L, "tenant-b", "Ved", "Sharma", "same@gmail.com"));
+        store.upsert(new EmployeeSnapshot(3L, "tenant-a", "Ved", "Sharma", "other@gmail.com"));
+
+        //when - action or behaviour that we are going to perform
+        store.remove(3L, "other@gmail.com");
+
+        //then - verify the output
+        Assertions.assertThat(store.findById("tenant-a", 2L)).isNull();
+        Assertions.assertThat(store.findById("tenant-a", 3L)).isNull();
+        Assertions.assertThat(store.findByEmail("tenant-b", "same@gmail.com").getId()).isEqualTo(2L);
+        Assertions.assertThat(store.findById("unknown", 1L)).isNull();
+    }
+
+    // Junit test for keeping a row moved to another shard when the old shard deletes it
+    @DisplayName("Junit test for keeping a row moved to another shard when the old shard deletes it")
+    @Test
+    public void givenRowMovedUnderNewEmail_whenRemoveWithOldEmail_thenKeepRow(){
+        //given - precondition or setup
+        EmployeeColumnStore store = new EmployeeColumnStore(16);
+        store.upsert(new EmployeeSnapshot(1L, "default", "Ved", "Sharma", "old@gmail.com"));
+        store.upsert(new EmployeeSnapshot(1L, "default", "Ved", "Sharma", "new@gmail.com"));
+
+        //when - action or behaviour that we are going to perform
+        store.remove(1L, "old@gmail.com");
+
+        //then - verify the output
+        Assertions.assertThat(store.findById("default", 1L).getEmail()).isEqualTo("new@gmail.com");
+    }
+
+    // Junit test for growing the columns and indexes past the expected size
+    @DisplayName("Junit test for growing the columns and indexes past the expected size")
+    @Test
+    public void givenMoreRowsThanExpected_whenFind_thenEveryRowIsFound(){
+        //given - precondition or setup
+        EmployeeColumnStore store = new EmployeeColumnStore(16);
+
+        //when - action or behaviour that we are going to perform
+        for (long id = 1; id <= 10_000; id++) {
+            store.upsert(new EmployeeSnapshot(id, "default", "First" + id % 100, "Last", "employee" + id + "@gmail.com"));
+        }
+
+        //then - verify the output
+        Assertions.assertThat(store.size()).isEqualTo(10_000);
+        for (long id = 1; id <= 10_000; id++) {
+            Assertions.assertThat(store.findByEmail("default", "employee" + id + "@gmail.com").getId()).isEqualTo(id);
+        }
+    }
+
+    // Junit test for dropping dead rows and their strings once they outnumber the live rows
+    @DisplayName("Junit test for dropping dead rows and their strings once they outnumber the live rows")
+    @Test
+    public void givenManyUpdates_whenDeadRowsOutnumberLive_thenCompact(){
+        //given - precondition or setup
+        EmployeeColumnStore store = new EmployeeColumnStore(16);
+        store.upsert(new EmployeeSnapshot(1L, "default", "Santhosh", "Naroju", "santhosh@gmail.com"));
+        store.upsert(new EmployeeSnapshot(2L, "default", "Ved", "Sharma", "ved@gmail.com"));
+
+        //when - action or behaviour that we are going to perform
+        for (int version = 0; version < 4 * EmployeeColumnStore.MIN_DEAD_ROWS_TO_COMPACT; version++) {
+            store.upsert(new EmployeeSnapshot(2L, "default", "Ved", "Sharma", "ved" + version + "@gmail.com"));
+        }
+
+        //then - verify the output
+        Assertions.assertThat(store.deadRows()).isLessThan(EmployeeColumnStore.MIN_DEAD_ROWS_TO_COMPACT);
+        Assertions.assertThat(store.findByEmail("default", "ved0@gmail.com")).isNull();
+        Assertions.assertThat(store.findById("default", 1L).getEmail()).isEqualTo("santhosh@gmail.com");
+        Assertions.assertThat(store.findByEmail("default", "VED4095@gmail.com").getId()).isEqualTo(2L);
+        Assertions.assertThat(store.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,161 @@
+package com.santhosh.springboottesting.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.exception.ResourceNotFoundException;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.model.EmployeeFields;
+import com.santhosh.springboottesting.service.EmployeeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+@SpringBootTest(properties = {"app.snapshot.enabled=true", "app.snapshot.max-age=1s"})
+@AutoConfigureMockMvc
+public class SnapshotServingIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeeColumnStore store;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // every test uses its own email, rows deleted behind Hibernate's back stay in the snapshot
+    @AfterEach
+    public void cleanup(){
+        jdbcTemplate.update("delete from employees");
+    }
+
+    // Junit test for serving an employee by id from the snapshot without reading the table
+    @DisplayName("Junit test for serving an employee by id from the snapshot without reading the table")
+    @Test
+    public void givenCreatedEmployee_whenGetEmployeeById_thenServeFromSnapshot() throws Exception{
+        //given - precondition or setup
+        Employee employee = createEmployee("santhosh@gmail.com");
+        // bypasses Hibernate, so the snapshot never hears about it
+        jdbcTemplate.update("delete from employees");
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("santhosh@gmail.com")));
+    }
+
+    // Junit test for refreshing the snapshot after an update and a delete
+    @DisplayName("Junit test for refreshing the snapshot after an update and a delete")
+    @Test
+    public void givenUpdatedThenDeletedEmployee_whenGetEmployeeById_thenSnapshotFollows() throws Exception{
+        //given - precondition or setup
+        Employee employee = createEmployee("updated@gmail.com");
+        employee.setEmail("naroju@gmail.com");
+
+        //when - action or behaviour that we are going to perform
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employee.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("naroju@gmail.com")));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", employee.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    // Junit test for reading an employee the snapshot does not hold from the database
+    @DisplayName("Junit test for reading an employee the snapshot does not hold from the database")
+    @Test
+    public void givenEmployeeMissingFromSnapshot_whenGetEmployee_thenReadDatabase() throws Exception{
+        //given - precondition or setup
+        Employee employee = createEmployee("elsewhere@gmail.com");
+        // as if another instance had written it
+        store.remove(employee.getId(), employee.getEmail());
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("elsewhere@gmail.com")));
+        Assertions.assertThat(employeeService.getEmployeesByEmails(List.of("elsewhere@gmail.com"), List.of("email")))
+                .extracting(row -> row.get(EmployeeFields.ID)).containsExactly(employee.getId());
+        Assertions.assertThat(employeeService.getEmployeesByName("Santhosh", "Naroju", 0, 10).employees())
+                .extracting(Employee::getId).containsExactly(employee.getId());
+    }
+
+    // Junit test for reading a deleted employee again once its snapshot row is older than max-age
+    @DisplayName("Junit test for reading a deleted employee again once its snapshot row is older than max-age")
+    @Test
+    public void givenEmployeeDeletedByOtherInstance_whenMaxAgePassed_thenNotFound() throws Exception{
+        //given - precondition or setup
+        Employee employee = createEmployee("deleted-elsewhere@gmail.com");
+        // as if another instance had deleted it, neither this snapshot nor this second-level cache hear of it
+        jdbcTemplate.update("delete from employees where id = ?", employee.getId());
+        entityManagerFactory.getCache().evictAll();
+
+        //when - action or behaviour that we are going to perform
+        Thread.sleep(1100);
+
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        Assertions.assertThat(store.findById("default", employee.getId())).isNull();
+    }
+
+    // Junit test for rejecting a duplicate email found in the snapshot
+    @DisplayName("Junit test for rejecting a duplicate email found in the snapshot")
+    @Test
+    public void givenExistingEmail_whenSaveEmployee_thenReject() throws Exception{
+        //given - precondition or setup
+        createEmployee("duplicate@gmail.com");
+
+        Employee duplicate = Employee.builder().firstName("Ved").lastName("Sharma").email("duplicate@gmail.com").build();
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        Assertions.assertThatThrownBy(() -> employeeService.saveEmployee(duplicate))
+                .isInstanceOf(ResourceNotFoundException.class);
+        Assertions.assertThat(employeeService).isInstanceOf(SnapshotEmployeeService.class);
+    }
+
+    private Employee createEmployee(String email) throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Santhosh")
+                .lastName("Naroju")
+                .email(email)
+                .build();
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, Employee.class);
+    }
+}
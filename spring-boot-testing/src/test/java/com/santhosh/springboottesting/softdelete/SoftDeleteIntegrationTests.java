@@ -0,0 +1,158 @@
+package com.santhosh.springboottesting.softdelete;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest(properties = {"app.soft-delete.enabled=true", "app.soft-delete.purge.batch-size=2",
+        "app.soft-delete.purge.batch-pause=0ms"})
+@AutoConfigureMockMvc
+public class SoftDeleteIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TombstonePurger purger;
+
+    // every test works in its own tenant
+    private String tenant;
+
+    @BeforeEach
+    public void setup(){
+        tenant = "soft-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // Junit test for hiding a soft-deleted employee from every read while keeping its row
+    @DisplayName("Junit test for hiding a soft-deleted employee from every read while keeping its row")
+    @Test
+    public void givenEmployee_whenDelete_thenHiddenFromReadsButRowKept() throws Exception{
+        //given - precondition or setup
+        Employee employee = createEmployee("santhosh@gmail.com");
+        // warm the entity cache so a stale entry would show up below
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //when - action or behaviour that we are going to perform
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", employee.getId()).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(0)));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("fields", "email").header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(0)));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/stats").param("groupBy", "lastName").header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total", CoreMatchers.is(0)));
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from employees where id = ? and deleted_at is not null",
+                Integer.class, employee.getId())).isEqualTo(1);
+    }
+
+    // Junit test for creating an employee again with the email of a soft-deleted one
+    @DisplayName("Junit test for creating an employee again with the email of a soft-deleted one")
+    @Test
+    public void givenSoftDeletedEmail_whenCreateEmployee_thenReturnNewEmployee() throws Exception{
+        //given - precondition or setup
+        Employee deleted = createEmployee("ved@gmail.com");
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", deleted.getId()).header("X-Tenant-Id", tenant));
+
+        //when - action or behaviour that we are going to perform
+        Employee created = createEmployee("ved@gmail.com");
+
+        //then - verify the output
+        Assertions.assertThat(created.getId()).isNotEqualTo(deleted.getId());
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from employees where tenant_id = ?",
+                Integer.class, tenant)).isEqualTo(1);
+    }
+
+    // Junit test for replacing a soft-deleted row through a batch upsert
+    @DisplayName("Junit test for replacing a soft-deleted row through a batch upsert")
+    @Test
+    public void givenSoftDeletedEmail_whenUpsertBatch_thenReturnCreatedEmployee() throws Exception{
+        //given - precondition or setup
+        Employee deleted = createEmployee("ravi@gmail.com");
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", deleted.getId()).header("X-Tenant-Id", tenant));
+
+        //when - action or behaviour that we are going to perform
+        String body = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/batch")
+                        .header("X-Tenant-Id", tenant)
+                        .param("mode", "upsert")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                Employee.builder().firstName("Ravi").lastName("Teja").email("ravi@gmail.com").build()))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].outcome", CoreMatchers.is("CREATED")))
+                .andReturn().getResponse().getContentAsString();
+
+        //then - verify the output
+        long id = objectMapper.readTree(body).get(0).get("id").asLong();
+        Assertions.assertThat(id).isNotEqualTo(deleted.getId());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", id).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastName", CoreMatchers.is("Teja")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", deleted.getId()).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        // purged before the insert, not updated in place under the new id
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from employees where id in (?, ?)",
+                Integer.class, deleted.getId(), id)).isEqualTo(1);
+    }
+
+    // Junit test for purging soft-deleted rows in batches
+    @DisplayName("Junit test for purging soft-deleted rows in batches")
+    @Test
+    public void givenSoftDeletedEmployees_whenPurge_thenRowsRemovedInBatches() throws Exception{
+        //given - precondition or setup
+        for (String email : List.of("a@gmail.com", "b@gmail.com", "c@gmail.com")) {
+            Employee employee = createEmployee(email);
+            mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", employee.getId()).header("X-Tenant-Id", tenant));
+        }
+        long batchesBefore = purger.getBatches();
+
+        //when - action or behaviour that we are going to perform
+        long purged = purger.purge();
+
+        //then - verify the output
+        Assertions.assertThat(purged).isGreaterThanOrEqualTo(3);
+        Assertions.assertThat(purger.getBatches() - batchesBefore).isGreaterThanOrEqualTo(2);
+        Assertions.assertThat(purger.getBacklog()).isZero();
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from employees where tenant_id = ?",
+                Integer.class, tenant)).isZero();
+    }
+
+    private Employee createEmployee(String email) throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Santhosh")
+                .lastName("Kumar")
+                .email(email)
+                .build();
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .header("X-Tenant-Id", tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, Employee.class);
+    }
+}
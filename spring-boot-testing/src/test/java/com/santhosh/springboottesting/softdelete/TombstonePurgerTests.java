@@ -0,0 +1,30 @@
+package com.santhosh.springboottesting.softdelete;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+public class TombstonePurgerTests {
+
+    // Junit test for the purge window, including one that wraps midnight
+    @DisplayName("Junit test for the purge window, including one that wraps midnight")
+    @Test
+    public void givenWindow_whenInWindow_thenOnlyTrueInsideIt() {
+        //given - precondition or setup
+        LocalTime one = LocalTime.of(1, 0);
+        LocalTime five = LocalTime.of(5, 0);
+        LocalTime ten = LocalTime.of(22, 0);
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        Assertions.assertThat(TombstonePurger.inWindow(LocalTime.NOON, null, null)).isTrue();
+        Assertions.assertThat(TombstonePurger.inWindow(LocalTime.of(3, 0), one, five)).isTrue();
+        Assertions.assertThat(TombstonePurger.inWindow(five, one, five)).isFalse();
+        Assertions.assertThat(TombstonePurger.inWindow(LocalTime.NOON, one, five)).isFalse();
+        Assertions.assertThat(TombstonePurger.inWindow(LocalTime.of(23, 0), ten, five)).isTrue();
+        Assertions.assertThat(TombstonePurger.inWindow(LocalTime.of(2, 0), ten, five)).isTrue();
+        Assertions.assertThat(TombstonePurger.inWindow(LocalTime.NOON, ten, five)).isFalse();
+    }
+}
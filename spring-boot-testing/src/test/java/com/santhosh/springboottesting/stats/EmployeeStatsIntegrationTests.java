@@ -0,0 +1,116 @@
+package com.santhosh.springboottesting.stats;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.model.Employee;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.UUID;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeStatsIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeStatsService employeeStatsService;
+
+    // every test counts its own tenant, other test classes share this application context
+    private String tenant;
+
+    @BeforeEach
+    public void setup(){
+        tenant = "stats-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // Junit test for keeping the stats current on create, update and delete employee
+    @DisplayName("Junit test for keeping the stats current on create, update and delete employee")
+    @Test
+    public void givenEmployeeWrites_whenGetStats_thenReturnCurrentCounts() throws Exception{
+        //given - precondition or setup
+        Employee santhosh = createEmployee("Santhosh", "Naroju", "santhosh@gmail.com");
+        createEmployee("Ved", "Sharma", "ved@gmail.com");
+        Employee ravi = createEmployee("Ravi", "Sharma", "ravi@example.com");
+
+        //when - action or behaviour that we are going to perform
+        santhosh.setEmail("santhosh@example.com");
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", santhosh.getId())
+                        .header("X-Tenant-Id", tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(santhosh)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", ravi.getId()).header("X-Tenant-Id", tenant))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //then - verify the output
+        getStats("emailDomain")
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.groups['gmail.com']", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.groups['example.com']", CoreMatchers.is(1)));
+        getStats("lastName")
+                .andExpect(MockMvcResultMatchers.jsonPath("$.groups.Sharma", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.groups.Naroju", CoreMatchers.is(1)));
+    }
+
+    // Junit test for recounting the same stats from a table scan
+    @DisplayName("Junit test for recounting the same stats from a table scan")
+    @Test
+    public void givenEmployees_whenRebuild_thenReturnSameCounts() throws Exception{
+        //given - precondition or setup
+        createEmployee("Santhosh", "Naroju", "santhosh@gmail.com");
+        createEmployee("Ved", "Sharma", "ved@gmail.com");
+
+        //when - action or behaviour that we are going to perform
+        employeeStatsService.rebuild();
+
+        //then - verify the output
+        getStats("emailDomain")
+                .andExpect(MockMvcResultMatchers.jsonPath("$.groupBy", CoreMatchers.is("emailDomain")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.groups['gmail.com']", CoreMatchers.is(2)));
+    }
+
+    // Junit test for rejecting an unknown groupBy
+    @DisplayName("Junit test for rejecting an unknown groupBy")
+    @Test
+    public void givenUnknownGroupBy_whenGetStats_thenReturnBadRequest() throws Exception{
+        //given - precondition or setup
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/stats").param("groupBy", "salary"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private Employee createEmployee(String firstName, String lastName, String email) throws Exception {
+        Employee employee = Employee.builder().firstName(firstName).lastName(lastName).email(email).build();
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .header("X-Tenant-Id", tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, Employee.class);
+    }
+
+    private ResultActions getStats(String groupBy) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/stats")
+                        .header("X-Tenant-Id", tenant)
+                        .param("groupBy", groupBy))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
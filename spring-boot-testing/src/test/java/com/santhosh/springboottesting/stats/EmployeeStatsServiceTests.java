@@ -0,0 +1,121 @@
+package com.santhosh.springboottesting.stats;
+
+import com.santhosh.springboottesting.events.EmployeeChangedEvent;
+import com.santhosh.springboottesting.events.EmployeeSnapshot;
+import com.santhosh.springboottesting.scan.PartitionedScan;
+import com.santhosh.springboottesting.scan.ScanProperties;
+import com.santhosh.springboottesting.sharding.ShardRouter;
+import com.santhosh.springboottesting.sharding.ShardingProperties;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EmployeeStatsServiceTests {
+
+    // Junit test for keeping a change committed while the stats are recounted
+    @DisplayName("Junit test for keeping a change committed while the stats are recounted")
+    @Test
+    public void givenEmployeeCreatedDuringRebuild_whenGetStats_thenCountIt(){
+        //given - precondition or setup
+        EmployeeStatsService[] service = new EmployeeStatsService[1];
+        // the row is committed once the scan has read the table, only its event can count it
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "")) {
+            @Override
+            public void query(String sql, RowCallbackHandler handler) throws DataAccessException {
+                super.query(sql, handler);
+                service[0].onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, null,
+                        new EmployeeSnapshot(2L, "default", "Ved", "Sharma", "ved@gmail.com"), 0));
+            }
+        };
+        jdbcTemplate.execute("create table employees (id bigint primary key, tenant_id varchar(64), last_name varchar(255),"
+                + " email varchar(255), deleted_at timestamp)");
+        jdbcTemplate.update("insert into employees (id, tenant_id, last_name, email) values (1, 'default', 'Naroju', 'santhosh@gmail.com')");
+        ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+        ScanProperties scanProperties = new ScanProperties();
+        scanProperties.setParallelism(1);
+        scanProperties.setPartitionsPerThread(1);
+        service[0] = new EmployeeStatsService(jdbcTemplate, shardRouter, new PartitionedScan(jdbcTemplate, shardRouter, scanProperties), false);
+
+        //when - action or behaviour that we are going to perform
+        service[0].rebuild();
+
+        //then - verify the output
+        String previous = TenantContext.set("default");
+        try {
+            EmployeeStats stats = service[0].getStats(StatsGroupBy.LAST_NAME);
+            Assertions.assertThat(stats.total()).isEqualTo(2);
+            Assertions.assertThat(stats.groups()).containsEntry("Sharma", 1L).containsEntry("Naroju", 1L);
+        } finally {
+            TenantContext.set(previous);
+        }
+    }
+
+    // Junit test for recounting once in the background for updates without previous state
+    @DisplayName("Junit test for recounting once in the background for updates without previous state")
+    @Test
+    public void givenUpdatesWithoutPreviousState_whenOnEmployeeChanged_thenRecountInBackground() throws InterruptedException{
+        //given - precondition or setup
+        AtomicInteger scans = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "")) {
+            @Override
+            public void query(String sql, RowCallbackHandler handler) throws DataAccessException {
+                // the first scan is the startup count, the others wait until every event is published
+                if (scans.incrementAndGet() > 1) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.query(sql, handler);
+            }
+        };
+        jdbcTemplate.execute("create table employees (id bigint primary key, tenant_id varchar(64), last_name varchar(255),"
+                + " email varchar(255), deleted_at timestamp)");
+        jdbcTemplate.update("insert into employees (id, tenant_id, last_name, email) values (1, 'default', 'Naroju', 'santhosh@gmail.com')");
+        ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+        ScanProperties scanProperties = new ScanProperties();
+        scanProperties.setParallelism(1);
+        scanProperties.setPartitionsPerThread(1);
+        EmployeeStatsService service = new EmployeeStatsService(jdbcTemplate, shardRouter,
+                new PartitionedScan(jdbcTemplate, shardRouter, scanProperties), false);
+        service.start();
+        jdbcTemplate.update("update employees set last_name = 'Kumar' where id = 1");
+
+        //when - action or behaviour that we are going to perform
+        for (int i = 0; i < 10; i++) {
+            service.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.UPDATED, null,
+                    new EmployeeSnapshot(1L, "default", "Santhosh", "Kumar", "santhosh@gmail.com"), 0));
+        }
+        release.countDown();
+
+        //then - verify the output
+        String previous = TenantContext.set("default");
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!service.getStats(StatsGroupBy.LAST_NAME).groups().containsKey("Kumar") && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertThat(service.getStats(StatsGroupBy.LAST_NAME).groups())
+                    .containsEntry("Kumar", 1L).doesNotContainKey("Naroju");
+            // the startup count and at most two recounts: the one running and one asked for while it ran
+            Assertions.assertThat(scans.get()).isBetween(2, 3);
+        } finally {
+            TenantContext.set(previous);
+            service.stop();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.santhosh.springboottesting.stats;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TenantCountersTests {
+
+    // Junit test for counting employees per email domain, largest group first
+    @DisplayName("Junit test for counting employees per email domain, largest group first")
+    @Test
+    public void givenEmployees_whenSnapshotByEmailDomain_thenReturnCountsLargestFirst(){
+        //given - precondition or setup
+        TenantCounters counters = new TenantCounters();
+        counters.add("Naroju", "santhosh@gmail.com", 1);
+        counters.add("Sharma", "ved@Example.com", 1);
+        counters.add("Sharma", "ravi@gmail.com", 1);
+
+        //when - action or behaviour that we are going to perform
+        EmployeeStats stats = counters.snapshot(StatsGroupBy.EMAIL_DOMAIN);
+
+        //then - verify the output
+        Assertions.assertThat(stats.total()).isEqualTo(3);
+        Assertions.assertThat(stats.groups()).containsExactly(
+                Assertions.entry("gmail.com", 2L), Assertions.entry("example.com", 1L));
+    }
+
+    // Junit test for dropping a group once its last employee is removed
+    @DisplayName("Junit test for dropping a group once its last employee is removed")
+    @Test
+    public void givenRemovedEmployee_whenSnapshotByLastName_thenGroupIsGone(){
+        //given - precondition or setup
+        TenantCounters counters = new TenantCounters();
+        counters.add("Naroju", "santhosh@gmail.com", 1);
+        counters.add("Sharma", "ved@gmail.com", 1);
+
+        //when - action or behaviour that we are going to perform
+        counters.add("Naroju", "santhosh@gmail.com", -1);
+
+        //then - verify the output
+        EmployeeStats stats = counters.snapshot(StatsGroupBy.LAST_NAME);
+        Assertions.assertThat(stats.total()).isEqualTo(1);
+        Assertions.assertThat(stats.groups()).containsExactly(Assertions.entry("Sharma", 1L));
+    }
+}
@@ -0,0 +1,55 @@
+package com.santhosh.springboottesting.tenant;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TenantBulkheadTests {
+
+    // Junit test for limiting one tenant without starving the others
+    @DisplayName("Junit test for limiting one tenant without starving the others")
+    @Test
+    public void givenBusyTenant_whenOtherTenantAcquires_thenOtherTenantGetsPermit(){
+        //given - precondition or setup
+        TenantBulkhead bulkhead = new TenantBulkhead(2, 100);
+        Assertions.assertThat(bulkhead.permits("noisy").tryAcquire(2)).isTrue();
+
+        //when - action or behaviour that we are going to perform
+        boolean noisyAcquired = bulkhead.permits("noisy").tryAcquire();
+        boolean quietAcquired = bulkhead.permits("quiet").tryAcquire();
+
+        //then - verify the output
+        Assertions.assertThat(noisyAcquired).isFalse();
+        Assertions.assertThat(quietAcquired).isTrue();
+    }
+
+    // Junit test for sharing one budget once too many tenants are tracked
+    @DisplayName("Junit test for sharing one budget once too many tenants are tracked")
+    @Test
+    public void givenTrackedTenantLimit_whenNewTenantsArrive_thenShareOverflowPermits(){
+        //given - precondition or setup
+        TenantBulkhead bulkhead = new TenantBulkhead(1, 1);
+        bulkhead.permits("first");
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        Assertions.assertThat(bulkhead.permits("second")).isSameAs(bulkhead.permits("third"));
+        Assertions.assertThat(bulkhead.permits("first")).isNotSameAs(bulkhead.permits("second"));
+    }
+
+    // Junit test for keeping the default tenant out of the per-tenant cap
+    @DisplayName("Junit test for keeping the default tenant out of the per-tenant cap")
+    @Test
+    public void givenUncappedDefaultTenant_whenManyRequestsWithoutTenant_thenDefaultTenantGetsPermits(){
+        //given - precondition or setup
+        TenantBulkhead bulkhead = new TenantBulkhead(2, 100, "default", 0);
+
+        //when - action or behaviour that we are going to perform
+        boolean defaultAcquired = bulkhead.permits("default").tryAcquire(10);
+        boolean namedAcquired = bulkhead.permits("tenant-a").tryAcquire(3);
+
+        //then - verify the output
+        Assertions.assertThat(defaultAcquired).isTrue();
+        Assertions.assertThat(namedAcquired).isFalse();
+    }
+}
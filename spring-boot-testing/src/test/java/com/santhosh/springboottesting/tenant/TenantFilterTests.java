@@ -0,0 +1,60 @@
+package com.santhosh.springboottesting.tenant;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TenantFilterTests {
+
+    // Junit test for serving more concurrent requests without a tenant header than a tenant's budget
+    @DisplayName("Junit test for serving more concurrent requests without a tenant header than a tenant's budget")
+    @Test
+    public void givenDefaultSettings_whenManyConcurrentRequestsWithoutHeader_thenServeAll() throws Exception{
+        //given - precondition or setup
+        TenancyProperties properties = new TenancyProperties();
+        TenantBulkhead bulkhead = new TenancyConfig().tenantBulkhead(properties, 10);
+        TenantFilter filter = new TenantFilter(properties, bulkhead);
+        int requests = 8;
+        // every request stays in flight until all of them are
+        CyclicBarrier inFlight = new CyclicBarrier(requests);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+
+        //when - action or behaviour that we are going to perform
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                statuses.add(executor.submit(() -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), response,
+                            (request, ignored) -> {
+                                try {
+                                    inFlight.await(10, TimeUnit.SECONDS);
+                                } catch (Exception e) {
+                                    throw new IllegalStateException(e);
+                                }
+                            });
+                    return response.getStatus();
+                }));
+            }
+
+            //then - verify the output
+            for (Future<Integer> status : statuses) {
+                Assertions.assertThat(status.get(20, TimeUnit.SECONDS)).isEqualTo(HttpStatus.OK.value());
+            }
+            Assertions.assertThat(bulkhead.permits("tenant-a").availablePermits()).isEqualTo(5);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
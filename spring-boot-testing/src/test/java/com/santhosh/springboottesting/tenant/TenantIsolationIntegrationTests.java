@@ -0,0 +1,152 @@
+package com.santhosh.springboottesting.tenant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TenantIsolationIntegrationTests {
+
+    private static final String TENANT_A = "tenant-a";
+    private static final String TENANT_B = "tenant-b";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanup(){
+        jdbcTemplate.update("delete from employees where tenant_id in (?, ?)", TENANT_A, TENANT_B);
+    }
+
+    // Junit test for keeping the employees of each tenant separate
+    @DisplayName("Junit test for keeping the employees of each tenant separate")
+    @Test
+    public void givenSameEmailInTwoTenants_whenGetAllEmployees_thenReturnOnlyOwnEmployees() throws Exception{
+        //given - precondition or setup
+        createEmployee(TENANT_A, "Santhosh");
+        createEmployee(TENANT_B, "Ved");
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").header("X-Tenant-Id", TENANT_A))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName", CoreMatchers.is("Santhosh")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].tenantId").doesNotExist());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").header("X-Tenant-Id", TENANT_B))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName", CoreMatchers.is("Ved")));
+    }
+
+    // Junit test for hiding another tenant's employee by id
+    @DisplayName("Junit test for hiding another tenant's employee by id")
+    @Test
+    public void givenOtherTenantsEmployee_whenGetEmployeeById_thenReturnNotFound() throws Exception{
+        //given - precondition or setup
+        Employee employee = createEmployee(TENANT_B, "Ved");
+
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()).header("X-Tenant-Id", TENANT_A))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()).header("X-Tenant-Id", TENANT_B))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    // Junit test for not deleting another tenant's employee
+    @DisplayName("Junit test for not deleting another tenant's employee")
+    @Test
+    public void givenOtherTenantsEmployee_whenDeleteEmployee_thenEmployeeRemains() throws Exception{
+        //given - precondition or setup
+        Employee employee = createEmployee(TENANT_B, "Ved");
+
+        //when - action or behaviour that we are going to perform
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", employee.getId()).header("X-Tenant-Id", TENANT_A))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //then - verify the output
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from employees where id = ?",
+                Integer.class, employee.getId())).isEqualTo(1);
+    }
+
+    // Junit test for scoping native queries to the current tenant
+    @DisplayName("Junit test for scoping native queries to the current tenant")
+    @Test
+    public void givenEmployeeInOtherTenant_whenFindByNativeSQL_thenReturnOnlyOwnEmployees() throws Exception{
+        //given - precondition or setup
+        createEmployee(TENANT_B, "Ved");
+
+        //when - action or behaviour that we are going to perform
+        String previous = TenantContext.set(TENANT_A);
+        List<Employee> fromTenantA;
+        try {
+            fromTenantA = employeeRepository.findByNativeSQLNamedParams("Ved", "Sharma", PageRequest.of(0, 10)).getContent();
+        } finally {
+            TenantContext.set(previous);
+        }
+        previous = TenantContext.set(TENANT_B);
+        List<Employee> fromTenantB;
+        try {
+            fromTenantB = employeeRepository.findByNativeSQL("Ved", "Sharma", PageRequest.of(0, 10)).getContent();
+        } finally {
+            TenantContext.set(previous);
+        }
+
+        //then - verify the output
+        Assertions.assertThat(fromTenantA).isEmpty();
+        Assertions.assertThat(fromTenantB).hasSize(1);
+    }
+
+    // Junit test for rejecting an invalid tenant header
+    @DisplayName("Junit test for rejecting an invalid tenant header")
+    @Test
+    public void givenInvalidTenantHeader_whenGetAllEmployees_thenReturnBadRequest() throws Exception{
+        //given - precondition or setup
+        //when - action or behaviour that we are going to perform
+        //then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").header("X-Tenant-Id", "a tenant; drop"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private Employee createEmployee(String tenant, String firstName) throws Exception {
+        Employee employee = Employee.builder()
+                .firstName(firstName)
+                .lastName("Sharma")
+                .email("same@gmail.com")
+                .build();
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .header("X-Tenant-Id", tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, Employee.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.santhosh.springboottesting.warmup;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class AccessFrequencyTrackerTests {
+
+    private WarmupProperties properties;
+    private AccessFrequencyTracker tracker;
+
+    @BeforeEach
+    public void setup(){
+        properties = new WarmupProperties();
+        properties.setMaxEntries(3);
+        tracker = new AccessFrequencyTracker(properties);
+    }
+
+    // Junit test for ranking employees by their number of lookups
+    @DisplayName("Junit test for ranking employees by their number of lookups")
+    @Test
+    public void givenLookups_whenHottest_thenReturnMostLookedUpFirst(){
+        //given - precondition or setup
+        lookUp("acme", 1L, 2);
+        lookUp("acme", 2L, 5);
+        lookUp("globex", 1L, 3);
+
+        //when - action or behaviour that we are going to perform
+        List<HotEmployee> hottest = tracker.hottest(2);
+
+        //then - verify the output
+        Assertions.assertThat(hottest).containsExactly(new HotEmployee("acme", 2L), new HotEmployee("globex", 1L));
+    }
+
+    // Junit test for ignoring new employees once max-entries are counted
+    @DisplayName("Junit test for ignoring new employees once max-entries are counted")
+    @Test
+    public void givenFullTracker_whenRecordNewEmployee_thenNotCounted(){
+        //given - precondition or setup
+        lookUp("acme", 1L, 1);
+        lookUp("acme", 2L, 1);
+        lookUp("acme", 3L, 1);
+
+        //when - action or behaviour that we are going to perform
+        lookUp("acme", 4L, 10);
+        lookUp("acme", 1L, 1);
+
+        //then - verify the output
+        Assertions.assertThat(tracker.hottest(10)).hasSize(3).first().isEqualTo(new HotEmployee("acme", 1L));
+    }
+
+    // Junit test for reading back the hottest employees from a saved file
+    @DisplayName("Junit test for reading back the hottest employees from a saved file")
+    @Test
+    public void givenSavedCounts_whenLoad_thenReturnHottestFirst(@TempDir Path directory){
+        //given - precondition or setup
+        lookUp("acme", 7L, 1);
+        lookUp("acme", 8L, 4);
+        Path file = directory.resolve("access.tsv");
+        tracker.save(file);
+
+        //when - action or behaviour that we are going to perform
+        List<HotEmployee> loaded = AccessFrequencyTracker.load(file, 10);
+
+        //then - verify the output
+        Assertions.assertThat(loaded).containsExactly(new HotEmployee("acme", 8L), new HotEmployee("acme", 7L));
+    }
+
+    private void lookUp(String tenant, long id, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(tenant, id);
+        }
+    }
+}
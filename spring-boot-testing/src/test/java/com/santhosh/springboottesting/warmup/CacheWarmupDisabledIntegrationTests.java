@@ -0,0 +1,34 @@
+package com.santhosh.springboottesting.warmup;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest(properties = "app.warmup.enabled=false")
+@AutoConfigureMockMvc
+public class CacheWarmupDisabledIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Junit test for starting ready when warm-up is switched off
+    @DisplayName("Junit test for starting ready when warm-up is switched off")
+    @Test
+    public void givenWarmUpDisabled_whenGetReadiness_thenReturnUp() throws Exception{
+        //given - precondition or setup
+
+        //when - action or behaviour that we are going to perform
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health/readiness"))
+
+        //then - verify the output
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("UP")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.components.cacheWarmup.details.state", CoreMatchers.is("DISABLED")));
+    }
+}
@@ -0,0 +1,113 @@
+package com.santhosh.springboottesting.warmup;
+
+import com.santhosh.springboottesting.cache.CacheRegions;
+import com.santhosh.springboottesting.id.EmployeeIdGenerator;
+import com.santhosh.springboottesting.model.Employee;
+import com.santhosh.springboottesting.service.EmployeeService;
+import com.santhosh.springboottesting.tenant.TenantContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.CoreMatchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.UUID;
+
+@SpringBootTest(properties = "app.warmup.source=scan")
+@AutoConfigureMockMvc
+public class CacheWarmupIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheWarmer cacheWarmer;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String previousTenant;
+    private long id;
+
+    @BeforeEach
+    public void setup(){
+        String tenant = "warm-" + UUID.randomUUID().toString().substring(0, 8);
+        previousTenant = TenantContext.set(tenant);
+        // written past Hibernate, so nothing is in the cache yet
+        id = EmployeeIdGenerator.nextId();
+        jdbcTemplate.update("insert into employees (id, tenant_id, first_name, last_name, email) values (?, ?, ?, ?, ?)",
+                id, tenant, "Santhosh", "Kumar", "santhosh@gmail.com");
+    }
+
+    @AfterEach
+    public void cleanup(){
+        TenantContext.set(previousTenant);
+    }
+
+    // Junit test for serving the first lookup after warm-up from the second-level cache
+    @DisplayName("Junit test for serving the first lookup after warm-up from the second-level cache")
+    @Test
+    public void givenWarmUp_whenGetEmployeeById_thenFirstReadHitsCache(){
+        //given - precondition or setup
+        CacheRegionStatistics regionStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getDomainDataRegionStatistics(CacheRegions.EMPLOYEE);
+        cacheWarmer.warmUp();
+        long hits = regionStatistics.getHitCount();
+
+        //when - action or behaviour that we are going to perform
+        Employee employee = employeeService.getEmployeeById(id).orElseThrow();
+
+        //then - verify the output
+        Assertions.assertThat(employee.getEmail()).isEqualTo("santhosh@gmail.com");
+        Assertions.assertThat(regionStatistics.getHitCount()).isGreaterThan(hits);
+        Assertions.assertThat(cacheWarmer.getState()).isEqualTo(CacheWarmer.State.DONE);
+        Assertions.assertThat(cacheWarmer.getLoaded()).isPositive();
+    }
+
+    // Junit test for reporting warm-up progress on the readiness probe
+    @DisplayName("Junit test for reporting warm-up progress on the readiness probe")
+    @Test
+    public void givenWarmUpDone_whenGetReadiness_thenReturnUpWithProgress() throws Exception{
+        //given - precondition or setup
+        cacheWarmer.warmUp();
+
+        //when - action or behaviour that we are going to perform
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health/readiness"))
+
+        //then - verify the output
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("UP")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.components.cacheWarmup.details.state", CoreMatchers.is("DONE")));
+    }
+
+    // Junit test for keeping the instance out of service while the cache is warming
+    @DisplayName("Junit test for keeping the instance out of service while the cache is warming")
+    @Test
+    public void givenWarmUpNotStarted_whenHealth_thenReturnOutOfService(){
+        //given - precondition or setup
+        CacheWarmer pending = new CacheWarmer(null, jdbcTemplate, null, null, new WarmupProperties());
+
+        //when - action or behaviour that we are going to perform
+        String status = new CacheWarmupHealthIndicator(pending).health().getStatus().getCode();
+
+        //then - verify the output
+        Assertions.assertThat(status).isEqualTo("OUT_OF_SERVICE");
+    }
+}
@@ -0,0 +1,96 @@
+package com.santhosh.springboottesting.webserver;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// the tenant bulkhead would answer most of the concurrent requests with 503
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.tenancy.max-concurrent-requests=50")
+@ActiveProfiles({"test", "production-server"})
+public class TomcatProductionServerIntegrationTests {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @LocalServerPort
+    private int port;
+
+    // Junit test for the connector settings of the production-server profile
+    @DisplayName("Junit test for the connector settings of the production-server profile")
+    @Test
+    public void givenProductionServerProfile_whenStarted_thenConnectorIsTuned(){
+        //given - precondition or setup
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+
+        //when - action or behaviour that we are going to perform
+        Http2Protocol http2 = null;
+        for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+            if (protocol instanceof Http2Protocol candidate) {
+                http2 = candidate;
+            }
+        }
+
+        //then - verify the output
+        Assertions.assertThat(http2).isNotNull();
+        Assertions.assertThat(http2.getKeepAliveTimeout()).isEqualTo(120_000L);
+        Assertions.assertThat(http2.getMaxConcurrentStreamExecution()).isEqualTo(32);
+        Assertions.assertThat(connector.getProperty("maxKeepAliveRequests")).isEqualTo(-1);
+        Assertions.assertThat(connector.getProperty("acceptCount")).isEqualTo(128);
+        Assertions.assertThat(connector.getProperty("maxThreads")).isEqualTo(64);
+    }
+
+    // Junit test for serving concurrent requests of one client as h2c streams on a single connection
+    @DisplayName("Junit test for serving concurrent requests of one client as h2c streams on a single connection")
+    @Test
+    public void givenHttp2Client_whenConcurrentRequests_thenAllShareOneConnection() throws Exception{
+        //given - precondition or setup
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        URI employees = URI.create("http://localhost:" + port + "/api/employees");
+        // the client only offers the upgrade on requests without a body; every request after it is a stream on that connection
+        HttpResponse<String> upgrade = client.send(HttpRequest.newBuilder(employees).GET().build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> created = client.send(HttpRequest.newBuilder(employees)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"firstName\":\"Santhosh\",\"lastName\":\"Kumar\",\"email\":\"h2c@gmail.com\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String id = created.body().replaceAll(".*\"id\":\"?(\\d+).*", "$1");
+        AbstractProtocol<?> protocol = (AbstractProtocol<?>) ((TomcatWebServer) context.getWebServer()).getTomcat()
+                .getConnector().getProtocolHandler();
+        long connections = protocol.getConnectionCount();
+
+        //when - action or behaviour that we are going to perform
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(URI.create(employees + "/" + id)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+
+        //then - verify the output
+        Assertions.assertThat(upgrade.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        Assertions.assertThat(created.statusCode()).isEqualTo(201);
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            Assertions.assertThat(response.join().statusCode()).isEqualTo(200);
+            Assertions.assertThat(response.join().version()).isEqualTo(HttpClient.Version.HTTP_2);
+        }
+        // over HTTP/1.1 each of the concurrent requests would have needed a connection of its own
+        Assertions.assertThat(protocol.getConnectionCount()).isEqualTo(connections);
+    }
+}